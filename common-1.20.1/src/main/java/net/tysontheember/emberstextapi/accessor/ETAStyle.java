@@ -6,6 +6,10 @@ import net.tysontheember.emberstextapi.immersivemessages.effects.animation.Typew
 
 public interface ETAStyle {
 
+    /** All EmbersTextAPI data on this style, or null if it carries none. */
+    StyleExtension emberstextapi$getExtension();
+    void emberstextapi$setExtension(StyleExtension extension);
+
     ImmutableList<Effect> emberstextapi$getEffects();
     void emberstextapi$setEffects(ImmutableList<Effect> effects);
     void emberstextapi$addEffect(Effect effect);
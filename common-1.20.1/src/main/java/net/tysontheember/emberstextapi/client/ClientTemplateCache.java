@@ -0,0 +1,75 @@
+package net.tysontheember.emberstextapi.client;
+
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Message templates the server has sent this connection. Each keeps its encoded definition and the
+ * decoded template; a resource reload drops the decoded templates, since the effects and presets they
+ * were parsed against are rebuilt, and they are decoded again from the kept bytes on next use.
+ * Cleared on disconnect.
+ */
+public final class ClientTemplateCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/ClientTemplates");
+
+    private static final int MAX_TEMPLATES = 1024;
+
+    private static final Map<String, Entry> TEMPLATES = new HashMap<>();
+
+    private ClientTemplateCache() {
+    }
+
+    public static synchronized void define(String id, byte[] data) {
+        if (!TEMPLATES.containsKey(id) && TEMPLATES.size() >= MAX_TEMPLATES) {
+            LOGGER.warn("Ignoring message template {}: limit of {} reached", id, MAX_TEMPLATES);
+            return;
+        }
+        Entry entry = new Entry(data);
+        entry.template(id);
+        TEMPLATES.put(id, entry);
+    }
+
+    /** A message from template {@code id} filled with {@code args}, or null if it isn't known. */
+    public static synchronized ImmersiveMessage fill(String id, List<String> args) {
+        Entry entry = TEMPLATES.get(id);
+        if (entry == null) {
+            LOGGER.warn("Unknown message template: {}", id);
+            return null;
+        }
+        return entry.template(id).fill(args);
+    }
+
+    public static synchronized void invalidateParsed() {
+        for (Entry entry : TEMPLATES.values()) {
+            entry.template = null;
+        }
+    }
+
+    public static synchronized void clear() {
+        TEMPLATES.clear();
+    }
+
+    private static final class Entry {
+        private final byte[] data;
+        private MessageTemplate template;
+
+        Entry(byte[] data) {
+            this.data = data;
+        }
+
+        MessageTemplate template(String id) {
+            if (template == null) {
+                template = new MessageTemplate(id, CompactCodec.decode(data));
+            }
+            return template;
+        }
+    }
+}
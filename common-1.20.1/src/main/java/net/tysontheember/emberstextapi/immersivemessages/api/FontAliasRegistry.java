@@ -60,6 +60,7 @@ public final class FontAliasRegistry {
         } else {
             LOGGER.debug("Registered custom font alias: '{}' -> {}", key, fontId);
         }
+        MarkupParseCache.invalidate();
     }
 
     public static Map<String, ResourceLocation> getAliases() {
@@ -101,6 +102,7 @@ public final class FontAliasRegistry {
         initialized = true;
         locked = true;
         LOGGER.info("FontAliasRegistry initialized with {} aliases (registry locked)", ALIASES.size());
+        MarkupParseCache.invalidate();
     }
 
     private static void registerBuiltIn(String alias, ResourceLocation fontId) {
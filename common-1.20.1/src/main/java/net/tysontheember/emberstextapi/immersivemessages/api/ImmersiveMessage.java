@@ -18,11 +18,16 @@ import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.TextColor;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.FormattedCharSequence;
+import net.minecraft.util.FormattedCharSink;
 import net.minecraft.util.Mth;
 import org.slf4j.Logger;
 import net.tysontheember.emberstextapi.client.TextLayoutCache;
+import net.tysontheember.emberstextapi.immersivemessages.effects.AnimationClock;
 import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectChain;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectContext;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectRegistry;
@@ -33,13 +38,18 @@ import net.tysontheember.emberstextapi.immersivemessages.effects.animation.ObfKe
 import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterAnimator;
 import net.tysontheember.emberstextapi.immersivemessages.effects.color.FadeCalculator;
 import net.tysontheember.emberstextapi.immersivemessages.effects.rendering.BackgroundRenderer;
+import net.tysontheember.emberstextapi.immersivemessages.effects.rendering.RevealedText;
 import net.tysontheember.emberstextapi.immersivemessages.effects.util.ColorUtil;
 import net.tysontheember.emberstextapi.immersivemessages.util.ColorParser;
 import net.tysontheember.emberstextapi.immersivemessages.util.ImmersiveColor;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
 import net.tysontheember.emberstextapi.serialization.SerializationUtil;
+import net.tysontheember.emberstextapi.serialization.TextSpanCodec;
+import net.tysontheember.emberstextapi.util.GlyphBatchRenderer;
 import net.tysontheember.emberstextapi.immersivemessages.util.RenderUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -47,7 +57,14 @@ import java.util.Random;
 public class ImmersiveMessage {
     private static final Logger LOGGER = LogUtils.getLogger();
 
-    private final Component text;
+    private static final float DEFAULT_Y_OFFSET = 55f;
+    private static final int DEFAULT_BACKGROUND_COLOR = 0xAA000000;
+    private static final int DEFAULT_BORDER_START = 0xAAFFFFFF;
+    private static final int DEFAULT_BORDER_END = 0xAA000000;
+    private static final float DEFAULT_TYPEWRITER_SPEED = 0.5f;
+    private static final float DEFAULT_OBFUSCATE_SPEED = 0.00005f;
+
+    private Component text;
     private float duration;
     private float age;
     private float previousAge;
@@ -56,15 +73,15 @@ public class ImmersiveMessage {
 
     private int fadeOutTicks = 0;
     private float xOffset;
-    private float yOffset = 55f;
+    private float yOffset = DEFAULT_Y_OFFSET;
     private boolean shadow = true;
     private TextAnchor anchor = TextAnchor.TOP_CENTER;
     private TextAlign align = TextAlign.CENTER;
     private float textScale = 1f;
     private boolean background = false;
-    private ImmersiveColor backgroundColor = new ImmersiveColor(0xAA000000);
-    private ImmersiveColor borderStart = new ImmersiveColor(0xAAFFFFFF);
-    private ImmersiveColor borderEnd = new ImmersiveColor(0xAA000000);
+    private ImmersiveColor backgroundColor = new ImmersiveColor(DEFAULT_BACKGROUND_COLOR);
+    private ImmersiveColor borderStart = new ImmersiveColor(DEFAULT_BORDER_START);
+    private ImmersiveColor borderEnd = new ImmersiveColor(DEFAULT_BORDER_END);
     private boolean useTextureBackground = false;
     private ResourceLocation backgroundTexture;
     private int textureU = 0;
@@ -84,14 +101,27 @@ public class ImmersiveMessage {
     private ImmersiveColor[] backgroundGradientStops;
 
     private boolean typewriter = false;
-    private float typewriterSpeed = 0.5f;
+    private float typewriterSpeed = DEFAULT_TYPEWRITER_SPEED;
     private boolean typewriterCenter = false;
     private int typewriterIndex = 0;
 
-    private MutableComponent current = Component.literal("");
+    /** Length of {@link #text}'s string, computed on first use. */
+    private int textLength = -1;
+    private final RevealedText revealedText = new RevealedText();
+    private final RevealedText.Mask revealMaskView = new RevealedText.Mask() {
+        @Override
+        public boolean isVisible(int index) {
+            return isCharVisible(index);
+        }
+
+        @Override
+        public boolean isObfuscated(int index) {
+            return isCharObfuscated(index);
+        }
+    };
 
     private ObfuscateMode obfuscateMode = ObfuscateMode.NONE;
-    private float obfuscateSpeed = 0.00005f;
+    private float obfuscateSpeed = DEFAULT_OBFUSCATE_SPEED;
     private float obfuscateProgress = 0f;
 
     private String baseText;
@@ -104,18 +134,32 @@ public class ImmersiveMessage {
     private List<TextSpan> spans;
     private boolean spanMode = false;
     private int[] spanTypewriterIndices;
+    private Component spanComponent;
+    /** Span each character of {@link #spanComponent} comes from, or -1 for item and entity placeholders. */
+    private int[] spanCharSpans;
+    /** Offset of each character of {@link #spanComponent} within its span. */
+    private int[] spanCharOffsets;
+    private boolean spanComponentDirty = true;
+
+    private ResourceLocation fontKeySource;
+    private String fontKey;
 
     private String markupSource;
     private Component markupComponent;
 
     private List<Effect> globalEffects;
+    private EffectChain globalChain;
     private List<MessageEffect> messageEffects;
     private List<MessageAttribute> messageAttributes;
     private List<EffectSegment> spanEffectSegments = Collections.emptyList();
+    /** The segment covering each character index, or null; rebuilt with {@link #spanEffectSegments}. */
+    private EffectSegment[] effectSegmentByChar = new EffectSegment[0];
 
     private final String messageContextId;
 
     private OnRenderMessage onRender;
+    private GlyphBatchRenderer glyphBatch;
+    private GlyphArrays glyphArrays;
     private final Random random = new Random();
 
     public ImmersiveMessage(Component text, float duration) {
@@ -174,6 +218,146 @@ public class ImmersiveMessage {
         return new ImmersiveMessage(spans, duration);
     }
 
+    /**
+     * A fresh message with this one's settings and effects but different content: {@code spans} if not
+     * null, otherwise {@code text}, or this message's text if both are null. Effect instances are shared,
+     * not copied.
+     */
+    ImmersiveMessage withContent(Component text, List<TextSpan> spans) {
+        ImmersiveMessage msg = spans != null
+                ? new ImmersiveMessage(spans, duration)
+                : new ImmersiveMessage(text != null ? text : this.text, duration);
+        msg.copySettings(this);
+        msg.onRender = onRender;
+        if (msg.obfuscateMode != ObfuscateMode.NONE) msg.initObfuscation();
+        return msg;
+    }
+
+    /**
+     * Takes over {@code other}'s duration, layout, styling and effects while keeping this message's
+     * content, age and reveal progress. Used to patch a live message from a server update.
+     */
+    public void applySettings(ImmersiveMessage other) {
+        ObfuscateMode previousMode = obfuscateMode;
+        this.duration = other.duration;
+        copySettings(other);
+        if (obfuscateMode == ObfuscateMode.NONE) {
+            baseText = null;
+            revealMask = null;
+            revealOrder = null;
+        } else if (obfuscateMode != previousMode) {
+            initObfuscation();
+        }
+    }
+
+    private void copySettings(ImmersiveMessage other) {
+        this.fadeInTicks = other.fadeInTicks;
+        this.fadeOutTicks = other.fadeOutTicks;
+        this.xOffset = other.xOffset;
+        this.yOffset = other.yOffset;
+        this.shadow = other.shadow;
+        this.anchor = other.anchor;
+        this.align = other.align;
+        this.textScale = other.textScale;
+        this.background = other.background;
+        this.backgroundColor = other.backgroundColor;
+        this.borderStart = other.borderStart;
+        this.borderEnd = other.borderEnd;
+        this.useTextureBackground = other.useTextureBackground;
+        this.backgroundTexture = other.backgroundTexture;
+        this.textureU = other.textureU;
+        this.textureV = other.textureV;
+        this.textureWidth = other.textureWidth;
+        this.textureHeight = other.textureHeight;
+        this.textureAtlasWidth = other.textureAtlasWidth;
+        this.textureAtlasHeight = other.textureAtlasHeight;
+        this.texturePaddingX = other.texturePaddingX;
+        this.texturePaddingY = other.texturePaddingY;
+        this.textureScaleX = other.textureScaleX;
+        this.textureScaleY = other.textureScaleY;
+        this.textureOverrideWidth = other.textureOverrideWidth;
+        this.textureOverrideHeight = other.textureOverrideHeight;
+        this.textureSizingMode = other.textureSizingMode;
+        this.backgroundGradientStops = other.backgroundGradientStops != null ? other.backgroundGradientStops.clone() : null;
+        this.typewriter = other.typewriter;
+        this.typewriterSpeed = other.typewriterSpeed;
+        this.typewriterCenter = other.typewriterCenter;
+        this.obfuscateMode = other.obfuscateMode;
+        this.obfuscateSpeed = other.obfuscateSpeed;
+        this.wrapMaxWidth = other.wrapMaxWidth;
+        this.delay = other.delay;
+        this.globalEffects = other.globalEffects != null ? new ArrayList<>(other.globalEffects) : null;
+        this.messageEffects = other.messageEffects != null ? new ArrayList<>(other.messageEffects) : null;
+        this.messageAttributes = other.messageAttributes != null ? new ArrayList<>(other.messageAttributes) : null;
+    }
+
+    /**
+     * Replaces {@code removeCount} spans starting at {@code start} with {@code added}. The spans
+     * around the replaced range keep their typewriter progress.
+     */
+    public void replaceSpans(int start, int removeCount, List<TextSpan> added) {
+        if (!spanMode || spans == null) {
+            throw new IllegalStateException("Not a span message");
+        }
+        if (start < 0 || removeCount < 0 || start + removeCount > spans.size()) {
+            throw new IllegalArgumentException("Span range " + start + "+" + removeCount + " out of bounds for " + spans.size());
+        }
+        int[] previous = spanTypewriterIndices != null ? spanTypewriterIndices : new int[spans.size()];
+        List<TextSpan> range = spans.subList(start, start + removeCount);
+        range.clear();
+        range.addAll(added);
+
+        int[] indices = new int[spans.size()];
+        System.arraycopy(previous, 0, indices, 0, Math.min(start, previous.length));
+        int tail = previous.length - (start + removeCount);
+        if (tail > 0) {
+            System.arraycopy(previous, start + removeCount, indices, start + added.size(), tail);
+        }
+        spanTypewriterIndices = indices;
+        spansChanged();
+    }
+
+    /**
+     * Rewrites the content of the span at {@code index}, keeping its first {@code keepPrefix} and
+     * last {@code keepSuffix} characters and putting {@code replacement} between them.
+     */
+    public void patchSpanContent(int index, int keepPrefix, int keepSuffix, String replacement) {
+        if (!spanMode || spans == null) {
+            throw new IllegalStateException("Not a span message");
+        }
+        if (index < 0 || index >= spans.size()) {
+            throw new IllegalArgumentException("Span index " + index + " out of bounds for " + spans.size());
+        }
+        TextSpan span = spans.get(index);
+        String content = span.getContent();
+        if (keepPrefix < 0 || keepSuffix < 0 || keepPrefix + keepSuffix > content.length()) {
+            throw new IllegalArgumentException("Cannot keep " + keepPrefix + "+" + keepSuffix + " of " + content.length() + " characters");
+        }
+        String patched = content.substring(0, keepPrefix) + replacement + content.substring(content.length() - keepSuffix);
+        span.setContent(patched);
+        if (spanTypewriterIndices != null && index < spanTypewriterIndices.length) {
+            spanTypewriterIndices[index] = Math.min(spanTypewriterIndices[index], patched.length());
+        }
+        spansChanged();
+    }
+
+    private void spansChanged() {
+        text = Component.literal(MarkupParser.toPlainText(spans));
+        textLength = -1;
+        spanComponentDirty = true;
+        if (spans.stream().anyMatch(span -> span.getTypewriterSpeed() != null)) {
+            typewriter = true;
+        }
+        buildEffectSegments();
+        if (obfuscateMode != ObfuscateMode.NONE) {
+            if (baseText == null || baseText.length() != text.getString().length()) {
+                initObfuscation();
+            } else {
+                baseText = text.getString();
+            }
+        }
+    }
+
     public ImmersiveMessage shadow(boolean shadow) { this.shadow = shadow; return this; }
     public ImmersiveMessage anchor(TextAnchor anchor) { this.anchor = anchor; return this; }
     public ImmersiveMessage align(TextAlign align) { this.align = align; return this; }
@@ -411,7 +595,6 @@ public class ImmersiveMessage {
         this.typewriterSpeed = speed;
         this.typewriterCenter = center;
         this.typewriterIndex = 0;
-        current = Component.literal("").withStyle(text.getStyle());
         return this;
     }
 
@@ -430,7 +613,6 @@ public class ImmersiveMessage {
             this.revealMask = null;
             this.revealOrder = null;
             this.revealIndex = 0;
-            current = Component.literal(text.getString()).withStyle(text.getStyle());
         }
         return this;
     }
@@ -504,19 +686,6 @@ public class ImmersiveMessage {
         revealOrder = ObfuscateAnimator.createRevealOrder(obfuscateMode, baseText.length(), random);
         revealIndex = 0;
         obfuscateProgress = 0f;
-        rebuildObfuscation();
-    }
-
-    private void rebuildObfuscation() {
-        MutableComponent result = Component.literal("");
-        int limit = typewriter ? typewriterIndex : (baseText == null ? 0 : baseText.length());
-        for (int i = 0; i < limit; i++) {
-            char c = baseText.charAt(i);
-            MutableComponent ch = Component.literal(String.valueOf(c)).withStyle(text.getStyle());
-            if (!revealMask[i]) ch = ch.withStyle(s -> s.withObfuscated(true));
-            result.append(ch);
-        }
-        current = result;
     }
 
     public CompoundTag toNbt() {
@@ -923,6 +1092,285 @@ public class ImmersiveMessage {
         return msg;
     }
 
+    /** Writes this message in the {@link CompactCodec} format. */
+    public void encodeCompact(CompactCodec.Writer out) {
+        encodeCompact(out, true);
+    }
+
+    /**
+     * Writes this message's settings with empty text and no spans, for {@link #applySettings} on
+     * the receiving side.
+     */
+    public void encodeCompactSettings(CompactCodec.Writer out) {
+        encodeCompact(out, false);
+    }
+
+    /**
+     * Writes only this message's text the way the full encoding does, so an update to a plain text message
+     * can tell whether just its settings changed.
+     */
+    public void encodeCompactText(CompactCodec.Writer out) {
+        String textValue = text.getString();
+        String json = textJson(textValue, out);
+        out.writeVarInt(json != null ? Wire.TEXT_JSON : 0);
+        out.writeText(json != null ? json : textValue);
+    }
+
+    /** The text as JSON, or null when it is just the literal {@code plain} and needs no more than that. */
+    private String textJson(String plain, CompactCodec.Writer out) {
+        if (text.equals(Component.literal(plain))) {
+            return null;
+        }
+        return Component.Serializer.toJson(text);
+    }
+
+    private void encodeCompact(CompactCodec.Writer out, boolean withContent) {
+        int bits = 0;
+        if (withContent && spanMode && spans != null) {
+            bits |= Wire.SPANS;
+            if (text.equals(Component.literal(MarkupParser.toPlainText(spans)))) {
+                bits |= Wire.TEXT_FROM_SPANS;
+            }
+        }
+        String textValue = null;
+        if (!withContent) {
+            textValue = "";
+        } else if ((bits & Wire.TEXT_FROM_SPANS) == 0) {
+            textValue = text.getString();
+            String json = textJson(textValue, out);
+            if (json != null) {
+                textValue = json;
+                bits |= Wire.TEXT_JSON;
+            }
+        }
+        boolean hasTexture = useTextureBackground && backgroundTexture != null;
+        if (shadow) bits |= Wire.SHADOW;
+        if (background) bits |= Wire.BACKGROUND;
+        if (typewriter) bits |= Wire.TYPEWRITER;
+        if (typewriterCenter) bits |= Wire.TYPEWRITER_CENTER;
+        if (xOffset != 0f) bits |= Wire.OFFSET_X;
+        if (yOffset != DEFAULT_Y_OFFSET) bits |= Wire.OFFSET_Y;
+        if (anchor != TextAnchor.TOP_CENTER) bits |= Wire.ANCHOR;
+        if (align != TextAlign.CENTER) bits |= Wire.ALIGN;
+        if (textScale != 1f) bits |= Wire.SCALE;
+        if (backgroundColor.getARGB() != DEFAULT_BACKGROUND_COLOR) bits |= Wire.BACKGROUND_COLOR;
+        if (borderStart.getARGB() != DEFAULT_BORDER_START || borderEnd.getARGB() != DEFAULT_BORDER_END) bits |= Wire.BORDER;
+        if (typewriterSpeed != DEFAULT_TYPEWRITER_SPEED) bits |= Wire.TYPEWRITER_SPEED;
+        if (obfuscateMode != ObfuscateMode.NONE || obfuscateSpeed != DEFAULT_OBFUSCATE_SPEED) bits |= Wire.OBFUSCATE;
+        if (hasTexture) bits |= Wire.TEXTURE;
+        if (backgroundGradientStops != null) bits |= Wire.GRADIENT;
+        if (wrapMaxWidth != -1) bits |= Wire.WRAP;
+        if (delay != 0f) bits |= Wire.DELAY;
+        if (fadeInTicks != 0) bits |= Wire.FADE_IN;
+        if (fadeOutTicks != 0) bits |= Wire.FADE_OUT;
+        if (globalEffects != null && !globalEffects.isEmpty()) bits |= Wire.GLOBAL_EFFECTS;
+        if (messageEffects != null && !messageEffects.isEmpty()) bits |= Wire.MESSAGE_EFFECTS;
+        if (messageAttributes != null && !messageAttributes.isEmpty()) bits |= Wire.ATTRIBUTES;
+
+        out.writeVarInt(bits);
+        if ((bits & Wire.SPANS) != 0) {
+            out.writeVarInt(spans.size());
+            for (TextSpan span : spans) {
+                TextSpanCodec.encodeCompact(span, out);
+            }
+        }
+        if (textValue != null) out.writeText(textValue);
+        out.writeFloat(duration);
+
+        if ((bits & Wire.OFFSET_X) != 0) out.writeFloat(xOffset);
+        if ((bits & Wire.OFFSET_Y) != 0) out.writeFloat(yOffset);
+        if ((bits & Wire.ANCHOR) != 0) out.writeEnum(anchor);
+        if ((bits & Wire.ALIGN) != 0) out.writeEnum(align);
+        if ((bits & Wire.SCALE) != 0) out.writeFloat(textScale);
+        if ((bits & Wire.BACKGROUND_COLOR) != 0) out.writeColor(backgroundColor.getARGB());
+        if ((bits & Wire.BORDER) != 0) {
+            out.writeColor(borderStart.getARGB());
+            out.writeColor(borderEnd.getARGB());
+        }
+        if ((bits & Wire.TYPEWRITER_SPEED) != 0) out.writeFloat(typewriterSpeed);
+        if ((bits & Wire.OBFUSCATE) != 0) {
+            out.writeEnum(obfuscateMode);
+            out.writeFloat(obfuscateSpeed);
+        }
+        if (hasTexture) {
+            int overrides = (textureOverrideWidth >= 0f ? Wire.OVERRIDE_WIDTH : 0)
+                    | (textureOverrideHeight >= 0f ? Wire.OVERRIDE_HEIGHT : 0);
+            out.writeVarInt(overrides);
+            out.writeString(backgroundTexture.toString());
+            out.writeVarInt(textureU);
+            out.writeVarInt(textureV);
+            out.writeVarInt(textureWidth);
+            out.writeVarInt(textureHeight);
+            out.writeVarInt(textureAtlasWidth);
+            out.writeVarInt(textureAtlasHeight);
+            out.writeFloat(texturePaddingX);
+            out.writeFloat(texturePaddingY);
+            out.writeFloat(textureScaleX);
+            out.writeFloat(textureScaleY);
+            if ((overrides & Wire.OVERRIDE_WIDTH) != 0) out.writeFloat(textureOverrideWidth);
+            if ((overrides & Wire.OVERRIDE_HEIGHT) != 0) out.writeFloat(textureOverrideHeight);
+            out.writeEnum(textureSizingMode);
+        }
+        if ((bits & Wire.GRADIENT) != 0) {
+            out.writeVarInt(backgroundGradientStops.length);
+            for (ImmersiveColor c : backgroundGradientStops) out.writeColor(c.getARGB());
+        }
+        if ((bits & Wire.WRAP) != 0) out.writeVarInt(wrapMaxWidth);
+        if ((bits & Wire.DELAY) != 0) out.writeFloat(delay);
+        if ((bits & Wire.FADE_IN) != 0) out.writeVarInt(fadeInTicks);
+        if ((bits & Wire.FADE_OUT) != 0) out.writeVarInt(fadeOutTicks);
+        if ((bits & Wire.GLOBAL_EFFECTS) != 0) {
+            out.writeVarInt(globalEffects.size());
+            for (Effect effect : globalEffects) out.writeEffect(effect);
+        }
+        if ((bits & Wire.MESSAGE_EFFECTS) != 0) {
+            out.writeVarInt(messageEffects.size());
+            for (MessageEffect me : messageEffects) out.writeString(me.serialize());
+        }
+        if ((bits & Wire.ATTRIBUTES) != 0) {
+            out.writeVarInt(messageAttributes.size());
+            for (MessageAttribute a : messageAttributes) out.writeString(a.serialize());
+        }
+    }
+
+    public static ImmersiveMessage decodeCompact(CompactCodec.Reader in) {
+        int bits = in.readVarInt();
+
+        List<TextSpan> spans = null;
+        if ((bits & Wire.SPANS) != 0) {
+            int spanCount = in.readVarInt();
+            if (spanCount < 0 || spanCount > Wire.MAX_SPANS) {
+                throw new IllegalArgumentException("Invalid span count: " + spanCount);
+            }
+            spans = new ArrayList<>(spanCount);
+            for (int i = 0; i < spanCount; i++) {
+                spans.add(TextSpanCodec.decodeCompact(in));
+            }
+        }
+
+        Component text;
+        if ((bits & Wire.TEXT_FROM_SPANS) != 0) {
+            text = Component.literal(spans != null ? MarkupParser.toPlainText(spans) : "");
+        } else {
+            String textValue = in.readText(SerializationUtil.MAX_CONTENT_LENGTH);
+            text = (bits & Wire.TEXT_JSON) != 0 ? parseWireText(textValue) : Component.literal(textValue);
+        }
+
+        ImmersiveMessage msg = new ImmersiveMessage(text, in.readFloat());
+        if (spans != null) {
+            msg.spanMode = true;
+            msg.spans = spans;
+            msg.spanTypewriterIndices = new int[spans.size()];
+            msg.buildEffectSegments();
+        }
+        msg.shadow = (bits & Wire.SHADOW) != 0;
+        msg.background = (bits & Wire.BACKGROUND) != 0;
+        msg.typewriter = (bits & Wire.TYPEWRITER) != 0;
+        msg.typewriterCenter = (bits & Wire.TYPEWRITER_CENTER) != 0;
+
+        if ((bits & Wire.OFFSET_X) != 0) msg.xOffset = in.readFloat();
+        if ((bits & Wire.OFFSET_Y) != 0) msg.yOffset = in.readFloat();
+        if ((bits & Wire.ANCHOR) != 0) msg.anchor = in.readEnum(TextAnchor.class);
+        if ((bits & Wire.ALIGN) != 0) msg.align = in.readEnum(TextAlign.class);
+        if ((bits & Wire.SCALE) != 0) msg.textScale = in.readFloat();
+        if ((bits & Wire.BACKGROUND_COLOR) != 0) msg.backgroundColor = new ImmersiveColor(in.readColor());
+        if ((bits & Wire.BORDER) != 0) {
+            msg.borderStart = new ImmersiveColor(in.readColor());
+            msg.borderEnd = new ImmersiveColor(in.readColor());
+        }
+        if ((bits & Wire.TYPEWRITER_SPEED) != 0) msg.typewriterSpeed = in.readFloat();
+        if ((bits & Wire.OBFUSCATE) != 0) {
+            msg.obfuscateMode = in.readEnum(ObfuscateMode.class);
+            msg.obfuscateSpeed = in.readFloat();
+        }
+        if ((bits & Wire.TEXTURE) != 0) {
+            int overrides = in.readVarInt();
+            ResourceLocation rl = ResourceLocation.tryParse(in.readString(SerializationUtil.MAX_ID_LENGTH));
+            msg.backgroundTexture = rl != null ? rl : new ResourceLocation("minecraft", "missingno");
+            msg.textureU = in.readVarInt();
+            msg.textureV = in.readVarInt();
+            msg.textureWidth = Math.max(1, in.readVarInt());
+            msg.textureHeight = Math.max(1, in.readVarInt());
+            msg.textureAtlasWidth = Math.max(1, in.readVarInt());
+            msg.textureAtlasHeight = Math.max(1, in.readVarInt());
+            msg.texturePaddingX = in.readFloat();
+            msg.texturePaddingY = in.readFloat();
+            msg.textureScaleX = in.readFloat();
+            msg.textureScaleY = in.readFloat();
+            msg.textureOverrideWidth = (overrides & Wire.OVERRIDE_WIDTH) != 0 ? in.readFloat() : -1f;
+            msg.textureOverrideHeight = (overrides & Wire.OVERRIDE_HEIGHT) != 0 ? in.readFloat() : -1f;
+            msg.textureSizingMode = in.readEnum(TextureSizingMode.class);
+            msg.useTextureBackground = true;
+            msg.background = true;
+        }
+        if ((bits & Wire.GRADIENT) != 0) {
+            int count = in.readVarInt();
+            if (count < 0 || count > SerializationUtil.MAX_ARRAY_SIZE) {
+                throw new IllegalArgumentException("Invalid background gradient color count: " + count);
+            }
+            ImmersiveColor[] cols = new ImmersiveColor[count];
+            for (int i = 0; i < count; i++) cols[i] = new ImmersiveColor(in.readColor());
+            msg.backgroundGradient(cols);
+        }
+        if ((bits & Wire.WRAP) != 0) msg.wrapMaxWidth = in.readVarInt();
+        if ((bits & Wire.DELAY) != 0) msg.delay = in.readFloat();
+        if ((bits & Wire.FADE_IN) != 0) msg.fadeInTicks = Math.max(0, in.readVarInt());
+        if ((bits & Wire.FADE_OUT) != 0) msg.fadeOutTicks = Math.max(0, in.readVarInt());
+
+        if ((bits & Wire.GLOBAL_EFFECTS) != 0) {
+            int count = readWireCount(in);
+            for (int i = 0; i < count; i++) {
+                msg.addEffect(in.readEffect());
+            }
+        }
+        if ((bits & Wire.MESSAGE_EFFECTS) != 0) {
+            int count = readWireCount(in);
+            for (int i = 0; i < count; i++) {
+                String serialized = in.readString(SerializationUtil.MAX_EFFECT_TAG_LENGTH);
+                try {
+                    msg.messageEffect(MessageEffectRegistry.parseTag(serialized));
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warn("Failed to decode message effect: {}", serialized, e);
+                }
+            }
+        }
+        if ((bits & Wire.ATTRIBUTES) != 0) {
+            int count = readWireCount(in);
+            for (int i = 0; i < count; i++) {
+                String serialized = in.readString(SerializationUtil.MAX_EFFECT_TAG_LENGTH);
+                try {
+                    MessageAttribute attr = MessageAttributeRegistry.parseTag(serialized);
+                    if (msg.messageAttributes == null) msg.messageAttributes = new ArrayList<>();
+                    msg.messageAttributes.add(attr);
+                    attr.apply(msg);
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warn("Failed to decode message attribute: {}", serialized, e);
+                }
+            }
+        }
+
+        if (msg.obfuscateMode != ObfuscateMode.NONE) msg.initObfuscation();
+        return msg;
+    }
+
+    private static int readWireCount(CompactCodec.Reader in) {
+        int count = in.readVarInt();
+        if (count < 0 || count > SerializationUtil.MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        return count;
+    }
+
+    private static Component parseWireText(String json) {
+        try {
+            Component parsed = Component.Serializer.fromJson(json);
+            if (parsed != null) return parsed;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to decode message text: {}", json, e);
+        }
+        return Component.literal(json);
+    }
+
     public void tickEffects() {
         tick(1f);
     }
@@ -963,6 +1411,11 @@ public class ImmersiveMessage {
         return getDrawComponent();
     }
 
+    /** The text as given, before obfuscation and effects are applied. */
+    Component getText() {
+        return text;
+    }
+
     public int renderColour() {
         int base = text.getStyle().getColor() != null ? text.getStyle().getColor().getValue() : 0xFFFFFF;
         int alpha = normalizeFontAlpha(Mth.clamp(Math.round(computeAlpha(age) * 255f), 0, 255));
@@ -986,89 +1439,134 @@ public class ImmersiveMessage {
     public String fontKey() {
 
         ResourceLocation font = text.getStyle().getFont();
-        return font != null ? font.toString() : "minecraft:default";
+        if (font != fontKeySource || fontKey == null) {
+            fontKeySource = font;
+            fontKey = font != null ? font.toString() : "minecraft:default";
+        }
+        return fontKey;
     }
 
     private Component getDrawComponent() {
         if (spanMode && spans != null) {
-            return buildComponentFromSpans();
+            if (spanComponentDirty || spanComponent == null) {
+                spanComponent = buildComponentFromSpans();
+                spanComponentDirty = false;
+            }
+            return spanComponent;
         }
 
         if (markupComponent != null) {
             return markupComponent;
         }
 
-        if (typewriter) {
-            return current;
-        }
-        return current.getString().isEmpty() ? text : current;
+        return text;
     }
 
+    public void invalidateSpanComponent() {
+        spanComponentDirty = true;
+    }
+
+    /**
+     * Builds the whole span text, typewriter or not, recording where each character came from so
+     * {@link #isCharVisible} can hide what the span typewriters haven't reached yet.
+     */
     private Component buildComponentFromSpans() {
+        spanCharSpans = null;
+        spanCharOffsets = null;
         if (spans == null || spans.isEmpty()) {
             return Component.literal("");
         }
 
-        MutableComponent result = Component.literal("");
-        boolean hasAnyTypewriter = hasAnyTypewriterSpans();
-        int currentCharIndex = 0;
+        int length = 0;
+        for (TextSpan span : spans) {
+            length += spanDrawLength(span);
+        }
+        int[] charSpans = new int[length];
+        int[] charOffsets = new int[length];
 
+        MutableComponent result = Component.literal("");
+        int at = 0;
         for (int i = 0; i < spans.size(); i++) {
             TextSpan span = spans.get(i);
-            String content = span.getContent();
+            int drawLength = spanDrawLength(span);
+            if (drawLength == 0) continue;
 
-            if (content.isEmpty() && span.getItemId() == null) continue;
+            if (span.getItemId() != null || span.getEntityId() != null) {
 
-            MutableComponent spanComponent;
-
-            if (typewriter && spanTypewriterIndices != null && i < spanTypewriterIndices.length) {
-
-                int spanTypewriterIndex = spanTypewriterIndices[i];
-                if (spanTypewriterIndex < content.length()) {
-                    content = content.substring(0, Math.max(0, spanTypewriterIndex));
-                }
-            } else if (!typewriter && span.getTypewriterSpeed() != null && spanTypewriterIndices != null) {
-
-                int spanTypewriterIndex = spanTypewriterIndices[i];
-                if (spanTypewriterIndex < content.length()) {
-                    content = content.substring(0, Math.max(0, spanTypewriterIndex));
-                }
+                result.append(Component.literal(span.getItemId() != null ? " " : "  "));
+                Arrays.fill(charSpans, at, at + drawLength, -1);
+                at += drawLength;
+                continue;
             }
 
-            if (span.getItemId() != null) {
-
-                spanComponent = Component.literal(" ");
-                result.append(spanComponent);
-                currentCharIndex += span.getContent().length();
-                continue;
+            MutableComponent spanComponent = Component.literal(span.getContent());
+            applySpanStyling(spanComponent, span);
+            result.append(spanComponent);
+            for (int j = 0; j < drawLength; j++) {
+                charSpans[at + j] = i;
+                charOffsets[at + j] = j;
             }
+            at += drawLength;
+        }
+
+        spanCharSpans = charSpans;
+        spanCharOffsets = charOffsets;
+        return result;
+    }
 
-            if (span.getEntityId() != null) {
+    /** Characters {@link #buildComponentFromSpans} emits for {@code span}: a placeholder for items and entities. */
+    private static int spanDrawLength(TextSpan span) {
+        String content = span.getContent();
+        if (content.isEmpty() && span.getItemId() == null) return 0;
+        if (span.getItemId() != null) return 1;
+        if (span.getEntityId() != null) return 2;
+        return content.length();
+    }
 
-                spanComponent = Component.literal("  ");
-                result.append(spanComponent);
-                currentCharIndex += span.getContent().length();
-                continue;
-            }
+    private int textLength() {
+        if (textLength < 0) {
+            textLength = text.getString().length();
+        }
+        return textLength;
+    }
 
-            if (content.isEmpty()) {
-                currentCharIndex += span.getContent().length();
-                continue;
+    /** Whether the typewriter or obfuscation currently hides or scrambles part of the drawn text. */
+    private boolean needsReveal() {
+        if (spanMode && spans != null) {
+            if (spanTypewriterIndices == null) return false;
+            for (int i = 0; i < spans.size() && i < spanTypewriterIndices.length; i++) {
+                if (isSpanTypewriterLimited(i) && spanTypewriterIndices[i] < spans.get(i).getContent().length()) {
+                    return true;
+                }
             }
+            return false;
+        }
+        if (markupComponent != null) {
+            return false;
+        }
+        return (typewriter && typewriterIndex < textLength())
+                || (revealMask != null && revealIndex < revealOrder.size());
+    }
 
-            spanComponent = Component.literal(content);
-            applySpanStyling(spanComponent, span);
+    private boolean isSpanTypewriterLimited(int span) {
+        return span < spanTypewriterIndices.length
+                && (typewriter || spans.get(span).getTypewriterSpeed() != null);
+    }
 
-            result.append(spanComponent);
-            currentCharIndex += span.getContent().length();
+    /** Whether the character at {@code index} of the drawn text has been typed out yet. */
+    private boolean isCharVisible(int index) {
+        if (spanMode && spans != null) {
+            if (spanTypewriterIndices == null || spanCharSpans == null || index >= spanCharSpans.length) {
+                return true;
+            }
+            int span = spanCharSpans[index];
+            return span < 0 || !isSpanTypewriterLimited(span) || spanCharOffsets[index] < spanTypewriterIndices[span];
         }
-
-        return result;
+        return !typewriter || index < typewriterIndex;
     }
 
-    private boolean hasAnyTypewriterSpans() {
-        if (spans == null) return false;
-        return spans.stream().anyMatch(span -> span.getTypewriterSpeed() != null);
+    private boolean isCharObfuscated(int index) {
+        return !(spanMode && spans != null) && revealMask != null && index < revealMask.length && !revealMask[index];
     }
 
     private void applySpanStyling(MutableComponent component, TextSpan span) {
@@ -1145,6 +1643,12 @@ public class ImmersiveMessage {
     public void renderWithLayout(GuiGraphics graphics, Component draw, TextLayoutCache.Layout layout, int screenW, int screenH, float partialTick) {
         var font = Minecraft.getInstance().font;
         List<FormattedCharSequence> lines = layout.lines();
+        FormattedCharSequence visual = layout.visualOrder();
+        if (needsReveal()) {
+            revealedText.prepare(draw, layout);
+            lines = revealedText.lines(revealMaskView);
+            visual = revealedText.visualOrder(revealMaskView);
+        }
         int baseWidth = layout.width();
         int baseHeight = layout.height();
 
@@ -1190,12 +1694,6 @@ public class ImmersiveMessage {
         int colour = (alphaByte << 24) | ((text.getStyle().getColor() != null ? text.getStyle().getColor().getValue() : 0xFFFFFF) & 0x00FFFFFF);
         boolean textVisible = alphaByte > 0;
 
-        if (typewriter && typewriterCenter && wrapMaxWidth <= 0) {
-            float fullWidth = font.width(text);
-            float currentWidth = font.width(draw);
-            x += (fullWidth - currentWidth) / 2f * textScale;
-        }
-
         graphics.pose().pushPose();
         graphics.pose().translate(x - textStartX * textScale, y - textStartY * textScale, 0);
         graphics.pose().scale(textScale, textScale, 1f);
@@ -1214,6 +1712,10 @@ public class ImmersiveMessage {
                         backgroundColor, borderStart, borderEnd, alpha);
             }
         }
+        if (typewriter && typewriterCenter && wrapMaxWidth <= 0) {
+            textStartX += (baseWidth - font.getSplitter().stringWidth(visual)) / 2f;
+        }
+
         boolean hasInlineItems = spanMode && spans != null && hasItemSpans();
 
         boolean hasGlobalEffects = globalEffects != null && !globalEffects.isEmpty();
@@ -1253,7 +1755,7 @@ public class ImmersiveMessage {
         } else if (hasGlobalEffects || hasSpanEffects) {
 
             LOGGER.debug("Calling renderWithEffects");
-            renderWithEffects(graphics, lines, draw, colour, textStartX, textStartY);
+            renderWithEffects(graphics, lines, visual, colour, textStartX, textStartY);
         } else if (hasInlineItems) {
 
             renderSpansWithItems(graphics, textStartX, textStartY, colour, alpha);
@@ -1266,7 +1768,7 @@ public class ImmersiveMessage {
         } else {
             int drawStartX = Mth.floor(textStartX);
             int drawStartY = Mth.floor(textStartY);
-            graphics.drawString(font, draw, drawStartX, drawStartY, colour, shadow);
+            graphics.drawString(font, visual, drawStartX, drawStartY, colour, shadow);
         }
         if (hasMessageEffects) {
             graphics.pose().popPose();
@@ -1280,15 +1782,9 @@ public class ImmersiveMessage {
 
         if (typewriter) {
 
-            int next = TypewriterAnimator.calculateTypewriterIndex(age, typewriterSpeed, text.getString().length());
+            int next = TypewriterAnimator.calculateTypewriterIndex(age, typewriterSpeed, textLength());
             if (next > typewriterIndex) {
                 typewriterIndex = next;
-                if (obfuscateMode != ObfuscateMode.NONE) {
-                    rebuildObfuscation();
-                } else {
-                    current = Component.literal(text.getString().substring(0, typewriterIndex))
-                            .withStyle(text.getStyle());
-                }
             }
 
             if (spanMode && spans != null && spanTypewriterIndices != null) {
@@ -1314,16 +1810,12 @@ public class ImmersiveMessage {
 
         int[] revealIndexRef = {revealIndex};
         float[] progressRef = {obfuscateProgress};
-        int revealed = ObfuscateAnimator.updateRevealMask(revealMask, revealOrder,
+        ObfuscateAnimator.updateRevealMask(revealMask, revealOrder,
                 revealIndexRef, progressRef,
                 delta, obfuscateSpeed,
                 typewriter, typewriterIndex);
         revealIndex = revealIndexRef[0];
         obfuscateProgress = progressRef[0];
-
-        if (revealed > 0) {
-            rebuildObfuscation();
-        }
     }
 
     public boolean isFinished() {
@@ -1347,6 +1839,7 @@ public class ImmersiveMessage {
 
     private void buildEffectSegments() {
         spanEffectSegments = Collections.emptyList();
+        effectSegmentByChar = new EffectSegment[0];
         if (spans == null) return;
 
         List<EffectSegment> segments = new ArrayList<>();
@@ -1360,26 +1853,34 @@ public class ImmersiveMessage {
                     charIndex,
                     charIndex + length,
                     span.getEffects(),
-                    spanIdx
+                    spanIdx,
+                    new ObfKey(this.messageContextId, spanIdx)
                 ));
             }
             charIndex += length;
         }
         if (!segments.isEmpty()) {
             spanEffectSegments = segments;
+            EffectSegment[] byChar = new EffectSegment[charIndex];
+            for (EffectSegment segment : segments) {
+                Arrays.fill(byChar, segment.startIndex, segment.endIndex, segment);
+            }
+            effectSegmentByChar = byChar;
         }
     }
 
     private EffectSegment findEffectSegmentForChar(int charIndex) {
-        if (spanEffectSegments == null || spanEffectSegments.isEmpty()) {
+        return charIndex >= 0 && charIndex < effectSegmentByChar.length ? effectSegmentByChar[charIndex] : null;
+    }
+
+    private EffectChain globalChain() {
+        if (globalEffects == null || globalEffects.isEmpty()) {
             return null;
         }
-        for (EffectSegment segment : spanEffectSegments) {
-            if (charIndex >= segment.startIndex && charIndex < segment.endIndex) {
-                return segment;
-            }
+        if (globalChain == null || globalChain.isStale(globalEffects)) {
+            globalChain = EffectChain.compile(globalEffects);
         }
-        return null;
+        return globalChain;
     }
 
     private static class EffectSegment {
@@ -1387,12 +1888,23 @@ public class ImmersiveMessage {
         final int endIndex;
         final List<Effect> effects;
         final int spanIndex;
+        /** Obfuscation key shared by every glyph of the segment. */
+        final ObfKey obfKey;
+        private EffectChain chain;
 
-        EffectSegment(int startIndex, int endIndex, List<Effect> effects, int spanIndex) {
+        EffectSegment(int startIndex, int endIndex, List<Effect> effects, int spanIndex, ObfKey obfKey) {
             this.startIndex = startIndex;
             this.endIndex = endIndex;
             this.effects = effects;
             this.spanIndex = spanIndex;
+            this.obfKey = obfKey;
+        }
+
+        EffectChain chain() {
+            if (chain == null || chain.isStale(effects)) {
+                chain = EffectChain.compile(effects);
+            }
+            return chain;
         }
     }
 
@@ -1502,15 +2014,25 @@ public class ImmersiveMessage {
         }
     }
 
-    private void renderWithEffects(GuiGraphics graphics, List<FormattedCharSequence> lines, Component draw, int baseColour, float baseX, float baseY) {
+    private void renderWithEffects(GuiGraphics graphics, List<FormattedCharSequence> lines, FormattedCharSequence visual, int baseColour, float baseX, float baseY) {
         var font = Minecraft.getInstance().font;
         int[] index = {0};
+        EffectSettingsArena arena = EffectSettingsArena.current();
+        int arenaMark = arena.mark();
+
+        if (glyphBatch == null) {
+            glyphBatch = new GlyphBatchRenderer();
+        }
+        GlyphBatchRenderer batch = glyphBatch;
+        batch.begin(graphics, font, shadow);
 
         float baseAlpha = ((baseColour >> 24) & 0xFF) / 255f;
         float baseRed = ((baseColour >> 16) & 0xFF) / 255f;
         float baseGreen = ((baseColour >> 8) & 0xFF) / 255f;
         float baseBlue = (baseColour & 0xFF) / 255f;
 
+        boolean segmentsBulk = applyBulkEffects(lines, visual, baseRed, baseGreen, baseBlue, baseAlpha);
+
         if (lines != null) {
             for (int i = 0; i < lines.size(); i++) {
                 final float lineBaseY = baseY + i * font.lineHeight;
@@ -1518,132 +2040,159 @@ public class ImmersiveMessage {
                 FormattedCharSequence lineSeq = lines.get(i);
 
                 lineSeq.accept((pos, style, codePoint) -> {
-                    renderCharWithEffects(graphics, font, codePoint, style,
+                    renderCharWithEffects(batch, codePoint, style,
                             xAdvance[0], lineBaseY, baseRed, baseGreen, baseBlue, baseAlpha,
-                            index[0], false, xAdvance);
+                            index[0], segmentsBulk, xAdvance);
+                    arena.release(arenaMark);
                     index[0]++;
                     return true;
                 });
             }
         } else {
             final float[] xAdvance = {baseX};
-            draw.getVisualOrderText().accept((pos, style, codePoint) -> {
-                renderCharWithEffects(graphics, font, codePoint, style,
+            visual.accept((pos, style, codePoint) -> {
+                renderCharWithEffects(batch, codePoint, style,
                         xAdvance[0], baseY, baseRed, baseGreen, baseBlue, baseAlpha,
-                        index[0], false, xAdvance);
+                        index[0], segmentsBulk, xAdvance);
+                arena.release(arenaMark);
                 index[0]++;
                 return true;
             });
         }
+
+        batch.end();
+    }
+
+    /**
+     * Lays every glyph out in {@link #glyphArrays} and runs the bulk part of the global chain over all
+     * of them, then each span's chain over its range. Span chains only run here when the global chain
+     * has no per-glyph part; otherwise they would jump ahead of it, so they run per glyph instead.
+     *
+     * @return whether span effects were applied in bulk
+     */
+    private boolean applyBulkEffects(List<FormattedCharSequence> lines, FormattedCharSequence visual,
+                                     float baseR, float baseG, float baseB, float baseA) {
+        if (glyphArrays == null) {
+            glyphArrays = new GlyphArrays();
+        }
+        GlyphArrays glyphs = glyphArrays;
+        glyphs.clear(AnimationClock.millis(), false);
+
+        FormattedCharSink collect = (pos, style, codePoint) -> {
+            if (style.getColor() != null) {
+                int styleColor = style.getColor().getValue();
+                glyphs.add(glyphs.size(), codePoint,
+                        ((styleColor >> 16) & 0xFF) / 255f,
+                        ((styleColor >> 8) & 0xFF) / 255f,
+                        (styleColor & 0xFF) / 255f,
+                        baseA);
+            } else {
+                glyphs.add(glyphs.size(), codePoint, baseR, baseG, baseB, baseA);
+            }
+            return true;
+        };
+        if (lines != null) {
+            for (FormattedCharSequence line : lines) {
+                line.accept(collect);
+            }
+        } else {
+            visual.accept(collect);
+        }
+
+        EffectChain global = globalChain();
+        if (global != null) {
+            global.applyBulk(glyphs, 0, glyphs.size());
+            if (global.hasRest()) {
+                return false;
+            }
+        }
+
+        for (EffectSegment segment : spanEffectSegments) {
+            EffectChain chain = segment.chain();
+            int from = segment.startIndex;
+            int to = Math.min(segment.endIndex, glyphs.size());
+            if (!chain.hasBulk() || from >= to) {
+                continue;
+            }
+            for (int i = from; i < to; i++) {
+                glyphs.index[i] = i - from;
+            }
+            chain.applyBulk(glyphs, from, to);
+            for (int i = from; i < to; i++) {
+                glyphs.index[i] = i;
+            }
+        }
+        return true;
     }
 
-    private void renderCharWithEffects(GuiGraphics graphics, net.minecraft.client.gui.Font font,
+    private void renderCharWithEffects(GlyphBatchRenderer batch,
                                         int codePoint, net.minecraft.network.chat.Style style,
                                         float baseX, float baseY,
                                         float baseR, float baseG, float baseB, float baseA,
-                                        int charIndex, boolean isShadow, float[] xAdvanceOut) {
+                                        int charIndex, boolean segmentsBulk, float[] xAdvanceOut) {
 
-        float effR = baseR, effG = baseG, effB = baseB;
-        if (style.getColor() != null) {
-            int styleColor = style.getColor().getValue();
-            effR = ((styleColor >> 16) & 0xFF) / 255f;
-            effG = ((styleColor >> 8) & 0xFF) / 255f;
-            effB = (styleColor & 0xFF) / 255f;
-        }
-
-        var settings = new net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings(
+        var settings = EffectSettingsArena.current().acquire(
                 0f, 0f,
-                effR, effG, effB, baseA,
-                charIndex, codePoint, isShadow
+                baseR, baseG, baseB, baseA,
+                charIndex, codePoint, false
         );
+        glyphArrays.store(charIndex, settings);
 
         EffectSegment obfSegment = findEffectSegmentForChar(charIndex);
         if (obfSegment != null) {
             settings.obfuscateSpanStart = obfSegment.startIndex;
             settings.obfuscateSpanLength = obfSegment.endIndex - obfSegment.startIndex;
-            settings.obfuscateKey = new ObfKey(this.messageContextId, obfSegment.spanIndex);
+            settings.obfuscateKey = obfSegment.obfKey;
             settings.obfuscateStableKey = settings.obfuscateKey;
         } else {
 
             settings.obfuscateKey = this;
         }
 
-        if (globalEffects != null && !globalEffects.isEmpty()) {
-            net.tysontheember.emberstextapi.immersivemessages.effects.EffectContext.applyEffects(globalEffects, settings);
+        EffectChain global = globalChain();
+        if (global != null && global.hasRest()) {
+            global.applyRest(settings);
         }
 
-        if (!spanEffectSegments.isEmpty()) {
-
-            for (EffectSegment segment : spanEffectSegments) {
-                if (charIndex >= segment.startIndex && charIndex < segment.endIndex) {
-
-                    int spanLocalIndex = charIndex - segment.startIndex;
-                    settings.index = spanLocalIndex;
-                    settings.absoluteIndex = spanLocalIndex;
+        if (obfSegment != null && (!segmentsBulk || obfSegment.chain().hasRest())) {
+            int spanLocalIndex = charIndex - obfSegment.startIndex;
+            settings.index = spanLocalIndex;
+            settings.absoluteIndex = spanLocalIndex;
 
-                    net.tysontheember.emberstextapi.immersivemessages.effects.EffectContext.applyEffects(segment.effects, settings);
-
-                    settings.index = charIndex;
-                    settings.absoluteIndex = charIndex;
-                    break;
-                }
+            if (segmentsBulk) {
+                obfSegment.chain().applyRest(settings);
+            } else {
+                net.tysontheember.emberstextapi.immersivemessages.effects.EffectContext.applyEffects(obfSegment.effects, settings);
             }
+
+            settings.index = charIndex;
+            settings.absoluteIndex = charIndex;
         }
 
         settings.clampColors();
 
-        int effectiveCp = settings.codepoint;
         net.minecraft.network.chat.Style effectiveStyle = style;
         if (settings.useRandomGlyph) {
 
             effectiveStyle = style.applyFormat(net.minecraft.ChatFormatting.OBFUSCATED);
+            settings.useRandomGlyph = false;
         }
 
-        renderSingleChar(graphics, font, effectiveCp, effectiveStyle,
-                baseX + settings.x, baseY + settings.y,
-                settings.rot, settings.getPackedColor(), xAdvanceOut);
+        settings.x += baseX;
+        settings.y += baseY;
+        float advance = batch.emit(settings, settings.codepoint, effectiveStyle, true);
 
         for (var sibling : settings.getSiblingsOrEmpty()) {
             sibling.clampColors();
-            renderSingleChar(graphics, font, codePoint, style,
-                    baseX + sibling.x, baseY + sibling.y,
-                    sibling.rot, sibling.getPackedColor(), null);
+            sibling.x += baseX;
+            sibling.y += baseY;
+            sibling.codepoint = codePoint;
+            sibling.useRandomGlyph = false;
+            batch.emit(sibling, codePoint, style, false);
         }
-    }
-
-    private void renderSingleChar(GuiGraphics graphics, net.minecraft.client.gui.Font font,
-                                   int codePoint, net.minecraft.network.chat.Style style,
-                                   float x, float y, float rotation, int color,
-                                   float[] xAdvanceOut) {
-        String ch = new String(Character.toChars(codePoint));
-
-        Component comp = Component.literal(ch).withStyle(style.withColor((TextColor) null));
-        FormattedCharSequence charSeq = comp.getVisualOrderText();
-
-        float cw = font.getSplitter().stringWidth(charSeq);
-
-        if (((color >>> 24) & 0xFF) <= 3) {
-            if (xAdvanceOut != null) {
-                xAdvanceOut[0] += cw;
-            }
-            return;
-        }
-
-        graphics.pose().pushPose();
-
-        if (rotation != 0f) {
-
-            graphics.pose().translate(x + cw / 2f, y + font.lineHeight / 2f, 0);
-            graphics.pose().mulPose(com.mojang.math.Axis.ZP.rotation(rotation));
-            graphics.pose().translate(-(x + cw / 2f), -(y + font.lineHeight / 2f), 0);
-        }
-
-        graphics.pose().translate(x, y, 0);
-        graphics.drawString(font, charSeq, 0, 0, color, shadow);
-        graphics.pose().popPose();
 
         if (xAdvanceOut != null) {
-            xAdvanceOut[0] += cw;
+            xAdvanceOut[0] += advance;
         }
     }
 
@@ -1663,6 +2212,7 @@ public class ImmersiveMessage {
             spanMode = true;
         }
         spans.add(span);
+        spanComponentDirty = true;
 
         if (spanTypewriterIndices == null) {
             spanTypewriterIndices = new int[spans.size()];
@@ -1696,4 +2246,40 @@ public class ImmersiveMessage {
             };
         }
     }
+
+    /** Presence bits of the {@link CompactCodec} message layout. */
+    private static final class Wire {
+        static final int SPANS = 1;
+        static final int TEXT_JSON = 1 << 1;
+        static final int TEXT_FROM_SPANS = 1 << 2;
+        static final int SHADOW = 1 << 3;
+        static final int BACKGROUND = 1 << 4;
+        static final int TYPEWRITER = 1 << 5;
+        static final int TYPEWRITER_CENTER = 1 << 6;
+        static final int OFFSET_X = 1 << 7;
+        static final int OFFSET_Y = 1 << 8;
+        static final int ANCHOR = 1 << 9;
+        static final int ALIGN = 1 << 10;
+        static final int SCALE = 1 << 11;
+        static final int BACKGROUND_COLOR = 1 << 12;
+        static final int BORDER = 1 << 13;
+        static final int TYPEWRITER_SPEED = 1 << 14;
+        static final int OBFUSCATE = 1 << 15;
+        static final int TEXTURE = 1 << 16;
+        static final int GRADIENT = 1 << 17;
+        static final int WRAP = 1 << 18;
+        static final int DELAY = 1 << 19;
+        static final int FADE_IN = 1 << 20;
+        static final int FADE_OUT = 1 << 21;
+        static final int GLOBAL_EFFECTS = 1 << 22;
+        static final int MESSAGE_EFFECTS = 1 << 23;
+        static final int ATTRIBUTES = 1 << 24;
+
+        static final int OVERRIDE_WIDTH = 1;
+        static final int OVERRIDE_HEIGHT = 1 << 1;
+
+        static final int MAX_SPANS = 4096;
+
+        private Wire() {}
+    }
 }
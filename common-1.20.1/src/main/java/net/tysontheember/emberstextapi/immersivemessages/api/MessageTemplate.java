@@ -0,0 +1,103 @@
+package net.tysontheember.emberstextapi.immersivemessages.api;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.contents.LiteralContents;
+import net.minecraft.network.chat.contents.TranslatableContents;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message with numbered placeholders ({@code {0}}, {@code {1}}, ...) in its text, sent to a client once
+ * and then filled in from argument values alone. The client keeps the prototype's parsed spans and effect
+ * instances, so a send costs the arguments and building the message, with no parsing.
+ * <p>
+ * Placeholders are filled in span content; a message without spans has them filled in each literal part
+ * of its text and in translation arguments, so its styles are kept and translation keys are still resolved
+ * by the client. Placeholders without a matching argument are left as they are. The prototype must not be changed once
+ * the template is registered.
+ */
+public final class MessageTemplate {
+
+    public static final int MAX_ARGS = 64;
+
+    private final String id;
+    private final ImmersiveMessage prototype;
+
+    public MessageTemplate(String id, ImmersiveMessage prototype) {
+        this.id = id;
+        this.prototype = prototype;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public ImmersiveMessage prototype() {
+        return prototype;
+    }
+
+    /** A new message from the prototype with {@code args} in place of its placeholders. */
+    public ImmersiveMessage fill(List<String> args) {
+        List<TextSpan> spans = prototype.getSpans();
+        if (prototype.isSpanMode() && spans != null) {
+            List<TextSpan> filled = new ArrayList<>(spans.size());
+            for (TextSpan span : spans) {
+                TextSpan copy = new TextSpan(span);
+                copy.setContent(substitute(span.getContent(), args));
+                filled.add(copy);
+            }
+            return prototype.withContent(null, filled);
+        }
+        return prototype.withContent(substitute(prototype.getText(), args), null);
+    }
+
+    /** A copy of {@code component} with placeholders filled in its literal parts and translation arguments. */
+    static Component substitute(Component component, List<String> args) {
+        MutableComponent copy;
+        if (component.getContents() instanceof LiteralContents literal) {
+            copy = Component.literal(substitute(literal.text(), args));
+        } else if (component.getContents() instanceof TranslatableContents translatable) {
+            Object[] params = translatable.getArgs().clone();
+            for (int i = 0; i < params.length; i++) {
+                if (params[i] instanceof Component arg) {
+                    params[i] = substitute(arg, args);
+                } else if (params[i] instanceof String arg) {
+                    params[i] = substitute(arg, args);
+                }
+            }
+            copy = Component.translatableWithFallback(translatable.getKey(), translatable.getFallback(), params);
+        } else {
+            copy = component.plainCopy();
+        }
+        copy.setStyle(component.getStyle());
+        for (Component sibling : component.getSiblings()) {
+            copy.append(substitute(sibling, args));
+        }
+        return copy;
+    }
+
+    static String substitute(String value, List<String> args) {
+        int open = value.indexOf('{');
+        if (open < 0 || args.isEmpty()) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        int from = 0;
+        while (open >= 0) {
+            int close = open + 1;
+            int index = 0;
+            while (close < value.length() && close - open <= 3 && Character.isDigit(value.charAt(close))) {
+                index = index * 10 + (value.charAt(close) - '0');
+                close++;
+            }
+            if (close > open + 1 && close < value.length() && value.charAt(close) == '}' && index < args.size()) {
+                out.append(value, from, open).append(args.get(index));
+                from = close + 1;
+            }
+            open = value.indexOf('{', open + 1);
+        }
+        return out.append(value, from, value.length()).toString();
+    }
+}
@@ -0,0 +1,40 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link Effect} that can also process a run of glyphs at once from {@link GlyphArrays}.
+ * {@link #applyBulk} must leave each slot exactly as {@link #apply} would leave the matching
+ * {@link EffectSettings}; renderers that can't batch keep calling {@link #apply}.
+ * <p>
+ * {@link #reads()} and {@link #writes()} describe which glyph fields the effect depends on and changes,
+ * as a mask of {@link #X}, {@link #Y}, {@link #ROT}, {@link #RGB} and {@link #ALPHA}. Index, codepoint
+ * and time are always available and aren't listed. {@link EffectChain} uses them to drop effects whose
+ * output is overwritten before anything sees it.
+ */
+public interface BulkEffect extends Effect {
+
+    int X = 1;
+    int Y = 1 << 1;
+    int ROT = 1 << 2;
+    int RGB = 1 << 3;
+    int ALPHA = 1 << 4;
+
+    int POSITION = X | Y;
+    int ALL = X | Y | ROT | RGB | ALPHA;
+
+    /** Applies this effect to slots {@code [from, to)} of {@code glyphs}. */
+    void applyBulk(@NotNull GlyphArrays glyphs, int from, int to);
+
+    int reads();
+
+    int writes();
+
+    /**
+     * Whether this effect only adds an offset to x and/or y that depends on nothing but index, codepoint
+     * and time. Such offsets commute with each other and with anything that ignores position.
+     */
+    default boolean isOffset() {
+        return false;
+    }
+}
@@ -1,18 +1,26 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.EmptyParams;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.TypedParams;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 public class EffectRegistry {
@@ -23,10 +31,35 @@ public class EffectRegistry {
 
     private static final java.util.Set<String> BUILT_IN_EFFECTS = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Built-in effect names in registration order. An effect's index here is its id in the binary wire
+     * format, so reordering or inserting built-ins requires a new format version.
+     */
+    private static final List<String> BUILT_IN_IDS = new CopyOnWriteArrayList<>();
+
+    /** {@link #BUILT_IN_IDS} inverted, for encoding. Only written while built-ins are registered. */
+    private static final Object2IntMap<String> BUILT_IN_ID_BY_NAME = new Object2IntOpenHashMap<>();
+
+    static {
+        BUILT_IN_ID_BY_NAME.defaultReturnValue(-1);
+    }
+
     private static volatile boolean initialized = false;
 
     private static volatile boolean locked = false;
 
+    private static final int MAX_INTERNED_TAGS = 1024;
+
+    /**
+     * Effects parsed from tags or decoded from the wire, by tag text or name and params, and by
+     * {@link MarkupParseCache#generation()}. Effects keep their render state outside the instance, so
+     * every span written with the same tag shares one effect.
+     */
+    private static final Cache<Object, Effect> INTERNED = CacheBuilder.newBuilder()
+            .maximumSize(MAX_INTERNED_TAGS)
+            .concurrencyLevel(4)
+            .build();
+
     public static synchronized void register(@NotNull String name, @NotNull Function<Params, Effect> factory) {
         String normalizedName = name.toLowerCase();
 
@@ -41,12 +74,16 @@ public class EffectRegistry {
 
         EFFECTS.put(normalizedName, factory);
         LOGGER.debug("Registered effect: {}", normalizedName);
+        MarkupParseCache.invalidate();
     }
 
     private static void registerBuiltIn(@NotNull String name, @NotNull Function<Params, Effect> factory) {
         String normalizedName = name.toLowerCase();
         EFFECTS.put(normalizedName, factory);
-        BUILT_IN_EFFECTS.add(normalizedName);
+        if (BUILT_IN_EFFECTS.add(normalizedName)) {
+            BUILT_IN_ID_BY_NAME.put(normalizedName, BUILT_IN_IDS.size());
+            BUILT_IN_IDS.add(normalizedName);
+        }
         LOGGER.debug("Registered built-in effect: {}", normalizedName);
     }
 
@@ -80,9 +117,34 @@ public class EffectRegistry {
         }
     }
 
+    /** Parses an effect tag such as {@code wave a=2}. Identical tags return the same instance. */
     @NotNull
     public static Effect parseTag(@NotNull String tagContent) {
-        String[] split = StringUtils.split(tagContent.trim(), ' ');
+        String trimmed = tagContent.trim();
+        TagKey key = new TagKey(trimmed, MarkupParseCache.generation());
+        Effect effect = INTERNED.getIfPresent(key);
+        if (effect == null) {
+            effect = parseUncached(trimmed);
+            INTERNED.put(key, effect);
+        }
+        return effect;
+    }
+
+    /** Creates an effect from already typed params. Identical arguments return the same instance. */
+    @NotNull
+    public static Effect createInterned(@NotNull String name, @NotNull ImmutableMap<String, Object> params) {
+        ParamsKey key = new ParamsKey(name.toLowerCase(), params, MarkupParseCache.generation());
+        Effect effect = INTERNED.getIfPresent(key);
+        if (effect == null) {
+            effect = create(name, params.isEmpty() ? EmptyParams.INSTANCE : new TypedParams(params));
+            INTERNED.put(key, effect);
+        }
+        return effect;
+    }
+
+    @NotNull
+    private static Effect parseUncached(@NotNull String tagContent) {
+        String[] split = StringUtils.split(tagContent, ' ');
 
         if (split.length == 0) {
             throw new IllegalArgumentException("Empty tag content");
@@ -195,11 +257,38 @@ public class EffectRegistry {
         return BUILT_IN_EFFECTS.contains(name.toLowerCase());
     }
 
+    /** The wire id of a built-in effect, or -1 for effects registered by other mods. */
+    public static int builtInId(@NotNull String name) {
+        return BUILT_IN_ID_BY_NAME.getInt(name.toLowerCase());
+    }
+
+    @Nullable
+    public static String builtInName(int id) {
+        return id >= 0 && id < BUILT_IN_IDS.size() ? BUILT_IN_IDS.get(id) : null;
+    }
+
+    /**
+     * Drops every interned effect so the next parse creates fresh ones, e.g. after the disabled effects
+     * list changed. Called by {@link MarkupParseCache#invalidate()}.
+     */
+    public static void clearInterned() {
+        INTERNED.invalidateAll();
+    }
+
     public static synchronized void clear() {
         EFFECTS.clear();
         BUILT_IN_EFFECTS.clear();
+        BUILT_IN_IDS.clear();
+        BUILT_IN_ID_BY_NAME.clear();
         initialized = false;
         locked = false;
+        INTERNED.invalidateAll();
         LOGGER.debug("Cleared effect registry");
     }
+
+    private record TagKey(String tag, int generation) {
+    }
+
+    private record ParamsKey(String name, ImmutableMap<String, Object> params, int generation) {
+    }
 }
@@ -1,6 +1,8 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects;
 
+import net.tysontheember.emberstextapi.glow.GlowAtlas;
 import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterTrack;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.NeonEffect;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -50,6 +52,28 @@ public class EffectSettings {
     public float maskTop;
     public float maskBottom;
 
+    /**
+     * Animation time in milliseconds, snapshotted from {@link AnimationClock} when the settings are built.
+     * Time-driven effects should read this rather than the system clock so every glyph and sibling of a
+     * frame agrees on the same instant.
+     */
+    public long frameTimeMs;
+
+    /**
+     * Set by renderers that can draw a baked glow quad. {@link NeonEffect} then records itself in
+     * {@link #glow} instead of adding sibling copies.
+     */
+    public boolean bakedGlow;
+    public NeonEffect glow;
+    /** The atlas entry for {@link #glow}, when the renderer already looked it up. */
+    public GlowAtlas.Glyph glowGlyph;
+    public float glowPulse;
+    public float glowR;
+    public float glowG;
+    public float glowB;
+
+    EffectSettingsArena arena;
+
     public EffectSettings() {
         this.x = 0f;
         this.y = 0f;
@@ -76,10 +100,23 @@ public class EffectSettings {
         this.siblings = null;
         this.maskTop = 0f;
         this.maskBottom = 0f;
+        this.frameTimeMs = AnimationClock.millis();
+        this.bakedGlow = false;
+        this.glow = null;
+        this.glowGlyph = null;
+        this.glowPulse = 1f;
+        this.glowR = 1f;
+        this.glowG = 1f;
+        this.glowB = 1f;
     }
 
     public EffectSettings(float x, float y, float r, float g, float b, float a,
                           int index, int codepoint, boolean isShadow) {
+        set(x, y, r, g, b, a, index, codepoint, isShadow);
+    }
+
+    public EffectSettings set(float x, float y, float r, float g, float b, float a,
+                              int index, int codepoint, boolean isShadow) {
         this.x = x;
         this.y = y;
         this.rot = 0f;
@@ -102,9 +139,20 @@ public class EffectSettings {
         this.obfuscateSpanStart = -1;
         this.obfuscateSpanLength = -1;
         this.typewriterIndex = -1;
-        this.siblings = null;
+        if (this.siblings != null) {
+            this.siblings.clear();
+        }
         this.maskTop = 0f;
         this.maskBottom = 0f;
+        this.frameTimeMs = AnimationClock.millis();
+        this.bakedGlow = false;
+        this.glow = null;
+        this.glowGlyph = null;
+        this.glowPulse = 1f;
+        this.glowR = 1f;
+        this.glowG = 1f;
+        this.glowB = 1f;
+        return this;
     }
 
     public List<EffectSettings> getSiblings() {
@@ -114,8 +162,12 @@ public class EffectSettings {
         return siblings;
     }
 
+    /** Adds a sibling copy, unless the glyph already has as many as {@link QualityGovernor} allows. */
     public void addSibling(EffectSettings sibling) {
-        getSiblings().add(sibling);
+        List<EffectSettings> list = getSiblings();
+        if (list.size() < QualityGovernor.maxSiblings()) {
+            list.add(sibling);
+        }
     }
 
     public boolean hasSiblings() {
@@ -127,34 +179,51 @@ public class EffectSettings {
     }
 
     public EffectSettings copy() {
-        EffectSettings copy = new EffectSettings();
-        copy.x = this.x;
-        copy.y = this.y;
-        copy.rot = this.rot;
-        copy.scale = this.scale;
-        copy.r = this.r;
-        copy.g = this.g;
-        copy.b = this.b;
-        copy.a = this.a;
-        copy.index = this.index;
-        copy.absoluteIndex = this.absoluteIndex;
-        copy.codepoint = this.codepoint;
-        copy.charAdvance = this.charAdvance;
-        copy.useRandomGlyph = this.useRandomGlyph;
-        copy.isShadow = this.isShadow;
-        copy.shadowOffset = this.shadowOffset;
-        copy.typewriterTrack = this.typewriterTrack;
-        copy.obfuscateKey = this.obfuscateKey;
-        copy.obfuscateStableKey = this.obfuscateStableKey;
-        copy.obfuscateTrack = this.obfuscateTrack;
-        copy.obfuscateSpanStart = this.obfuscateSpanStart;
-        copy.obfuscateSpanLength = this.obfuscateSpanLength;
-        copy.typewriterIndex = this.typewriterIndex;
-        copy.maskTop = this.maskTop;
-        copy.maskBottom = this.maskBottom;
+        EffectSettings copy = arena != null ? arena.acquire() : new EffectSettings();
+        copy.copyFrom(this);
+        if (copy.siblings != null) {
+            copy.siblings.clear();
+        }
         return copy;
     }
 
+    /** Copies every field except the sibling list from {@code other}. */
+    public EffectSettings copyFrom(EffectSettings other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.rot = other.rot;
+        this.scale = other.scale;
+        this.r = other.r;
+        this.g = other.g;
+        this.b = other.b;
+        this.a = other.a;
+        this.index = other.index;
+        this.absoluteIndex = other.absoluteIndex;
+        this.codepoint = other.codepoint;
+        this.charAdvance = other.charAdvance;
+        this.useRandomGlyph = other.useRandomGlyph;
+        this.isShadow = other.isShadow;
+        this.shadowOffset = other.shadowOffset;
+        this.typewriterTrack = other.typewriterTrack;
+        this.obfuscateKey = other.obfuscateKey;
+        this.obfuscateStableKey = other.obfuscateStableKey;
+        this.obfuscateTrack = other.obfuscateTrack;
+        this.obfuscateSpanStart = other.obfuscateSpanStart;
+        this.obfuscateSpanLength = other.obfuscateSpanLength;
+        this.typewriterIndex = other.typewriterIndex;
+        this.maskTop = other.maskTop;
+        this.maskBottom = other.maskBottom;
+        this.frameTimeMs = other.frameTimeMs;
+        this.bakedGlow = other.bakedGlow;
+        this.glow = other.glow;
+        this.glowGlyph = other.glowGlyph;
+        this.glowPulse = other.glowPulse;
+        this.glowR = other.glowR;
+        this.glowG = other.glowG;
+        this.glowB = other.glowB;
+        return this;
+    }
+
     public void reset() {
         this.x = 0f;
         this.y = 0f;
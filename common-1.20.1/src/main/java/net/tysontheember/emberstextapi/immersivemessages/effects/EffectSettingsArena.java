@@ -0,0 +1,68 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread pool of {@link EffectSettings} slots. Renderers take a {@link #mark()} before building
+ * a glyph's settings and {@link #release(int)} it once the glyph and its siblings are emitted;
+ * {@link EffectSettings#copy()} on a pooled instance draws its sibling from the same arena, so
+ * steady-state effect rendering reuses the same slots frame after frame.
+ */
+public final class EffectSettingsArena {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final ThreadLocal<EffectSettingsArena> CURRENT = ThreadLocal.withInitial(EffectSettingsArena::new);
+
+    private EffectSettings[] slots = new EffectSettings[INITIAL_CAPACITY];
+    private int used;
+    private int highWater;
+
+    public static EffectSettingsArena current() {
+        return CURRENT.get();
+    }
+
+    public EffectSettings acquire() {
+        if (used == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        EffectSettings slot = slots[used];
+        if (slot == null) {
+            slot = new EffectSettings();
+            slot.arena = this;
+            slots[used] = slot;
+        } else if (slot.siblings != null) {
+            slot.siblings.clear();
+        }
+        used++;
+        if (used > highWater) {
+            highWater = used;
+        }
+        return slot;
+    }
+
+    public EffectSettings acquire(float x, float y, float r, float g, float b, float a,
+                                  int index, int codepoint, boolean isShadow) {
+        return acquire().set(x, y, r, g, b, a, index, codepoint, isShadow);
+    }
+
+    public int mark() {
+        return used;
+    }
+
+    public void release(int mark) {
+        used = Math.max(0, Math.min(mark, used));
+    }
+
+    public int used() {
+        return used;
+    }
+
+    public int highWater() {
+        return highWater;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -15,6 +15,11 @@ public class NoOpEffect implements Effect {
 
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -1,5 +1,7 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.animation;
 
+import net.tysontheember.emberstextapi.immersivemessages.effects.AnimationClock;
+
 public class ObfuscateTrack {
     public long startTimeMs;
     public long lastAccessMs;
@@ -18,6 +20,9 @@ public class ObfuscateTrack {
     public int[] order;
     public int[] ranks;
 
+    /** Highest glyph index seen so far, for spans whose length isn't known up front. */
+    public int maxSeenIndex;
+
     public Object cacheKey;
 
     public java.util.Set<Integer> currentlyObfuscatedIndices;
@@ -25,7 +30,7 @@ public class ObfuscateTrack {
     public long lastRandomUpdateMs;
 
     public ObfuscateTrack() {
-        long now = System.currentTimeMillis();
+        long now = AnimationClock.millis();
         this.startTimeMs = 0;
         this.lastAccessMs = now;
         this.playCount = 0;
@@ -40,6 +45,7 @@ public class ObfuscateTrack {
         this.directionKey = "";
         this.order = null;
         this.ranks = null;
+        this.maxSeenIndex = -1;
         this.cacheKey = null;
         this.currentlyObfuscatedIndices = new java.util.HashSet<>();
         this.obfuscateUntilMs = new java.util.HashMap<>();
@@ -47,7 +53,7 @@ public class ObfuscateTrack {
     }
 
     public void resetTimers() {
-        long now = System.currentTimeMillis();
+        long now = AnimationClock.millis();
         this.startTimeMs = now;
         this.lastAccessMs = now;
         this.currentPlayCounted = false;
@@ -56,7 +62,7 @@ public class ObfuscateTrack {
     }
 
     public boolean checkAndResetIfNeeded() {
-        long now = System.currentTimeMillis();
+        long now = AnimationClock.millis();
         long timeSinceAccess = now - this.lastAccessMs;
 
         if (this.resetDelayMs > 0 && timeSinceAccess > this.resetDelayMs) {
@@ -1,14 +1,15 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.Util;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.util.ColorPalette;
 import net.tysontheember.emberstextapi.util.Palettes;
 import org.jetbrains.annotations.NotNull;
 
-public class GradientEffect extends BaseEffect {
+public class GradientEffect extends BaseEffect implements BulkEffect {
 
     private static final String DEFAULT_COLORS = "5BCEFA,F5A9B8";
 
@@ -45,23 +46,53 @@ public class GradientEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
-        float timeOffset = speed != 0f ? (float) (Util.getMillis() * 0.001 * speed % 2.0) : 0f;
-        float t;
-
-        if (mode == Mode.UNIFORM || span <= 0f) {
-            t = timeOffset;
-        } else {
-            float position = settings.index * cosA;
-            t = position / span + timeOffset;
-        }
-
-        float[] rgba = palette.sample(t);
+        float[] rgba = palette.sample(position(timeOffset(settings.frameTimeMs), settings.index));
         settings.r = rgba[0];
         settings.g = rgba[1];
         settings.b = rgba[2];
         settings.a *= rgba[3];
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        float timeOffset = timeOffset(glyphs.frameTimeMs);
+        float[] uniform = mode == Mode.UNIFORM || span <= 0f ? palette.sample(timeOffset) : null;
+        for (int i = from; i < to; i++) {
+            float[] rgba = uniform != null ? uniform : palette.sample(position(timeOffset, glyphs.index[i]));
+            glyphs.r[i] = rgba[0];
+            glyphs.g[i] = rgba[1];
+            glyphs.b[i] = rgba[2];
+            glyphs.a[i] *= rgba[3];
+        }
+    }
+
+    @Override
+    public int reads() {
+        return palette.isOpaque() ? 0 : ALPHA;
+    }
+
+    @Override
+    public int writes() {
+        return palette.isOpaque() ? RGB : RGB | ALPHA;
+    }
+
+    private float timeOffset(long frameTimeMs) {
+        return speed != 0f ? (float) (frameTimeMs * 0.001 * speed % 2.0) : 0f;
+    }
+
+    private float position(float timeOffset, int index) {
+        if (mode == Mode.UNIFORM || span <= 0f) {
+            return timeOffset;
+        }
+        float position = index * cosA;
+        return position / span + timeOffset;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return speed == 0f;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -1,16 +1,17 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import net.tysontheember.emberstextapi.util.ColorPalette;
 import net.tysontheember.emberstextapi.util.Palettes;
 import org.jetbrains.annotations.NotNull;
 
-public class PulseEffect extends BaseEffect {
+public class PulseEffect extends BaseEffect implements BulkEffect {
 
     private final ColorPalette palette;
     private final boolean hasColors;
@@ -44,7 +45,7 @@ public class PulseEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
-        float t = Util.getMillis() * 0.002f * speed + settings.index * phase;
+        float t = settings.frameTimeMs * 0.002f * speed + settings.index * phase;
         float s = 0.5f + 0.5f * Mth.sin(t);
         float k = base + amp * 0.25f * s;
 
@@ -61,6 +62,44 @@ public class PulseEffect extends BaseEffect {
         }
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        float time = glyphs.frameTimeMs * 0.002f * speed;
+        for (int i = from; i < to; i++) {
+            float t = time + glyphs.index[i] * phase;
+            float s = 0.5f + 0.5f * Mth.sin(t);
+            float k = base + amp * 0.25f * s;
+
+            if (hasColors) {
+                float[] rgba = palette.sample(s);
+                glyphs.r[i] = rgba[0] * k;
+                glyphs.g[i] = rgba[1] * k;
+                glyphs.b[i] = rgba[2] * k;
+                glyphs.a[i] *= rgba[3];
+            } else {
+                glyphs.r[i] *= k;
+                glyphs.g[i] *= k;
+                glyphs.b[i] *= k;
+            }
+        }
+    }
+
+    @Override
+    public int reads() {
+        if (hasColors) {
+            return palette.isOpaque() ? 0 : ALPHA;
+        }
+        return RGB;
+    }
+
+    @Override
+    public int writes() {
+        if (hasColors) {
+            return palette.isOpaque() ? RGB : RGB | ALPHA;
+        }
+        return RGB;
+    }
+
     @NotNull
     @Override
     public String getName() {
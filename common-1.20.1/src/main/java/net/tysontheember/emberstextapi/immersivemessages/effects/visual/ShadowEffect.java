@@ -51,6 +51,16 @@ public class ShadowEffect extends BaseEffect {
         settings.a *= a;
     }
 
+    @Override
+    public boolean affectsShadowPass() {
+        return true;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String getName() {
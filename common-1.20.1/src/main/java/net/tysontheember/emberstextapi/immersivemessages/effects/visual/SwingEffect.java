@@ -1,14 +1,15 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class SwingEffect extends BaseEffect {
+public class SwingEffect extends BaseEffect implements BulkEffect {
 
     private final float amp;
     private final float speed;
@@ -27,11 +28,29 @@ public class SwingEffect extends BaseEffect {
     @Override
     public void apply(@NotNull EffectSettings settings) {
 
-        float t = Util.getMillis() * 0.003f * speed + settings.index * phase;
+        float t = settings.frameTimeMs * 0.003f * speed + settings.index * phase;
 
         settings.rot += Mth.sin(t) * amp * 0.5f;
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        float time = glyphs.frameTimeMs * 0.003f * speed;
+        for (int i = from; i < to; i++) {
+            glyphs.rot[i] += Mth.sin(time + glyphs.index[i] * phase) * amp * 0.5f;
+        }
+    }
+
+    @Override
+    public int reads() {
+        return ROT;
+    }
+
+    @Override
+    public int writes() {
+        return ROT;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -11,6 +11,8 @@ import net.minecraft.client.renderer.texture.TextureManager;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.util.profiling.ProfilerFiller;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
+import net.tysontheember.emberstextapi.glow.GlowAtlas;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
 import net.tysontheember.emberstextapi.sdf.SDFGlyphProviderDefinition;
 import net.tysontheember.emberstextapi.sdf.SDFProviderRegistry;
@@ -26,12 +28,14 @@ import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.attr.MessageAttributeRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.preset.PresetDefinition;
 import net.tysontheember.emberstextapi.immersivemessages.effects.preset.PresetLoader;
 import net.tysontheember.emberstextapi.immersivemessages.effects.preset.PresetRegistry;
+import net.tysontheember.emberstextapi.util.StaticGlyphCache;
 
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -99,6 +103,8 @@ public abstract class FontManagerMixin {
         for (PresetDefinition preset : presets) {
             PresetRegistry.register(preset);
         }
+        MarkupParseCache.invalidate();
+        ClientTemplateCache.invalidateParsed();
 
         try {
             if (!ConfigHelper.getInstance().isSdfEnabled()) {
@@ -113,6 +119,9 @@ public abstract class FontManagerMixin {
 
     @Inject(method = "apply", at = @At("TAIL"))
     private void emberstextapi$afterApply(CallbackInfo ci) {
+        GlowAtlas.clear();
+        StaticGlyphCache.clear();
+
         if (!SDFProviderRegistry.hasProviders()) {
             return;
         }
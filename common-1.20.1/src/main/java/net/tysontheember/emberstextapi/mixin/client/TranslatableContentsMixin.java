@@ -3,16 +3,13 @@ package net.tysontheember.emberstextapi.mixin.client;
 import net.minecraft.network.chat.FormattedText;
 import net.minecraft.network.chat.Style;
 import net.minecraft.network.chat.contents.TranslatableContents;
-import net.tysontheember.emberstextapi.accessor.ETAStyle;
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
 import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParser;
 import net.tysontheember.emberstextapi.immersivemessages.api.TextSpan;
-import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
-import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterTrack;
 import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterTracks;
 import net.tysontheember.emberstextapi.compat.patchouli.PatchouliBypass;
-import net.tysontheember.emberstextapi.util.StyleUtil;
-import net.tysontheember.emberstextapi.immersivemessages.effects.animation.ObfKey;
+import net.tysontheember.emberstextapi.util.StyledRuns;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -30,6 +27,9 @@ public abstract class TranslatableContentsMixin {
     @Unique
     private final long emberstextapi$obfInstanceId = java.util.concurrent.ThreadLocalRandom.current().nextLong();
 
+    @Unique
+    private StyledRuns emberstextapi$runs;
+
     @Shadow
     @Final
     private String fallback;
@@ -55,125 +55,33 @@ public abstract class TranslatableContentsMixin {
             return;
         }
 
-        List<TextSpan> spans = MarkupParser.parse(fallback);
+        MarkupParseCache.Entry parsed = MarkupParseCache.get(fallback);
+        List<TextSpan> spans = parsed != null ? parsed.spans() : null;
 
         if (spans == null || spans.isEmpty()) {
             return;
         }
 
-        boolean hasEffectsOrFormattingOrItems = false;
-        boolean hasTypewriter = false;
-        boolean hasObfuscate = false;
-        for (TextSpan span : spans) {
-            List<Effect> effects = span.getEffects();
-            boolean hasEffects = effects != null && !effects.isEmpty();
-            boolean hasFormatting = (span.getBold() != null && span.getBold()) ||
-                                   (span.getItalic() != null && span.getItalic()) ||
-                                   (span.getUnderline() != null && span.getUnderline()) ||
-                                   (span.getStrikethrough() != null && span.getStrikethrough()) ||
-                                   (span.getObfuscated() != null && span.getObfuscated());
-            boolean hasFont = span.getFont() != null;
-            boolean hasItem = span.getItemId() != null;
-            boolean hasClick = span.getClickAction() != null;
-            boolean hasHover = span.getHoverAction() != null;
-
-            if (hasEffects || hasFormatting || hasFont || hasItem || hasClick || hasHover) {
-                hasEffectsOrFormattingOrItems = true;
-            }
-
-            if (effects != null) {
-                for (Effect effect : effects) {
-                    if (effect instanceof TypewriterEffect) {
-                        hasTypewriter = true;
-                    }
-                    if (effect instanceof net.tysontheember.emberstextapi.immersivemessages.effects.animation.ObfuscateEffect) {
-                        hasObfuscate = true;
-                    }
-                }
-            }
-        }
+        boolean hasEffectsOrFormattingOrItems = parsed.hasStyling();
+        boolean hasTypewriter = parsed.hasTypewriter();
+        boolean spanKeys = parsed.needsSpanKeys();
         if (!hasEffectsOrFormattingOrItems && !MarkupParser.containsLangTag(fallback)) {
             return;
         }
 
-        TypewriterTrack track = null;
-        if (hasTypewriter) {
-            track = TypewriterTracks.getInstance().get(fallback.intern());
-
-            int totalChars = 0;
-            for (TextSpan s : spans) {
-                String c = s.getContent();
-                if (c != null && !c.isEmpty()) {
-                    totalChars += c.length();
-                } else if (s.getItemId() != null) {
-                    totalChars += 1;
-                }
-            }
-            track.setTotalChars(totalChars);
-        }
-
-        int globalCharIndex = 0;
-
-        Object baseObfKey = null;
-
-        for (int spanIdx = 0; spanIdx < spans.size(); spanIdx++) {
-            TextSpan span = spans.get(spanIdx);
-            String content = span.getContent();
-
-            boolean isItemSpan = span.getItemId() != null;
-            if (content == null || content.isEmpty()) {
-                if (isItemSpan) {
-                    content = " ";
-                } else {
-                    continue;
-                }
-            }
-
-            Style spanStyle = StyleUtil.applyTextSpanFormatting(style, span);
-
-            int spanStartIndex = globalCharIndex;
-            int spanLength = content.length();
+        TypewriterTrack track = hasTypewriter ? TypewriterTracks.getInstance().get(fallback.intern()) : null;
 
-            for (int i = 0; i < content.length(); i++) {
-                int codePoint = content.codePointAt(i);
-
-                Style charStyle = spanStyle;
-                if (track != null || hasObfuscate) {
-
-                    charStyle = emberstextapi$forceCloneStyle(spanStyle);
-                    ETAStyle etaCharStyle = (ETAStyle) charStyle;
-                    if (track != null) {
-                        etaCharStyle.emberstextapi$setTypewriterTrack(track);
-                        etaCharStyle.emberstextapi$setTypewriterIndex(globalCharIndex);
-                    }
-                    if (hasObfuscate) {
-                        etaCharStyle.emberstextapi$setObfuscateKey(new ObfKey(baseObfKey, spanIdx));
-                    }
-                    etaCharStyle.emberstextapi$setObfuscateSpanStart(spanStartIndex);
-                    etaCharStyle.emberstextapi$setObfuscateSpanLength(spanLength);
-                }
-
-                Optional<T> result = consumer.accept(charStyle, Character.toString(codePoint));
-
-                globalCharIndex++;
-
-                if (result.isPresent()) {
-                    cir.setReturnValue(result);
-                    return;
-                }
-
-                if (Character.charCount(codePoint) > 1) {
-                    i++;
-                }
-            }
+        StyledRuns runs = emberstextapi$runs;
+        if (runs == null || !runs.matches(parsed, style, track)) {
+            Object baseObfKey = spanKeys ? this.emberstextapi$obfInstanceId : null;
+            Object stableObfKey = spanKeys ? fallback.intern() : null;
+            runs = StyledRuns.compile(parsed, style, track, baseObfKey, stableObfKey);
+            emberstextapi$runs = runs;
+        }
+        if (track != null) {
+            track.setTotalChars(runs.typewriterLength());
         }
 
-        cir.setReturnValue(Optional.empty());
-    }
-
-    @Unique
-    private static Style emberstextapi$forceCloneStyle(Style original) {
-        boolean origBold = original.isBold();
-        return original.withBold(!origBold).withBold(origBold);
+        cir.setReturnValue(runs.visit(consumer));
     }
 }
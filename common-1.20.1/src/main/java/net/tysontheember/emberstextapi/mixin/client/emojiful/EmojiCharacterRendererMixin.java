@@ -12,6 +12,7 @@ import net.minecraft.network.chat.TextColor;
 import net.tysontheember.emberstextapi.accessor.ETAStyle;
 import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
 import net.tysontheember.emberstextapi.mixin.client.FontAccess;
 import net.tysontheember.emberstextapi.util.EffectApplicator;
 import org.joml.Matrix4f;
@@ -188,23 +189,28 @@ public abstract class EmojiCharacterRendererMixin {
             float shadowOffset = dropShadow ? glyphInfo.getShadowOffset() : 0.0f;
 
             if (!(bakedGlyph instanceof EmptyGlyph)) {
-                EffectSettings settings = EffectApplicator.buildSettings(
-                        etaStyle, style, index, codepoint,
-                        x, y, shadowOffset,
-                        red, green, blue, alpha, dropShadow
-                );
+                EffectSettingsArena arena = EffectSettingsArena.current();
+                int arenaMark = arena.mark();
+                try {
+                    EffectSettings settings = EffectApplicator.buildSettings(
+                            etaStyle, style, index, codepoint,
+                            x, y, shadowOffset,
+                            red, green, blue, alpha, dropShadow
+                    );
 
-                settings.charAdvance = glyphInfo.getAdvance(style.isBold());
-                EffectApplicator.applyEffects(effects, settings);
+                    settings.charAdvance = glyphInfo.getAdvance(style.isBold());
+                    EffectApplicator.applyEffects(effects, settings);
 
-                EffectApplicator.renderChar(settings, codepoint, style, fontSet, glyphInfo, bakedGlyph,
-                        pose, bufferSource, displayMode, packedLight, font.lineHeight);
+                    EffectApplicator.renderChar(settings, codepoint, style, fontSet, glyphInfo, bakedGlyph,
+                            pose, bufferSource, displayMode, packedLight, font.lineHeight);
 
-                if (settings.hasSiblings()) {
-                    for (EffectSettings sibling : settings.getSiblingsOrEmpty()) {
-                        EffectApplicator.renderChar(sibling, codepoint, style, fontSet, glyphInfo, bakedGlyph,
+                    List<EffectSettings> siblings = settings.getSiblingsOrEmpty();
+                    for (int i = 0; i < siblings.size(); i++) {
+                        EffectApplicator.renderChar(siblings.get(i), codepoint, style, fontSet, glyphInfo, bakedGlyph,
                                 pose, bufferSource, displayMode, packedLight, font.lineHeight);
                     }
+                } finally {
+                    arena.release(arenaMark);
                 }
             }
 
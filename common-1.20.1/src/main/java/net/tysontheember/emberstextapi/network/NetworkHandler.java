@@ -2,7 +2,9 @@ package net.tysontheember.emberstextapi.network;
 
 import net.minecraft.server.level.ServerPlayer;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NetworkHandler {
@@ -28,4 +30,14 @@ public interface NetworkHandler {
     void sendStopQueue(ServerPlayer player, String channel);
 
     void sendStopAllQueues(ServerPlayer player);
+
+    void broadcastMessage(Collection<ServerPlayer> players, ImmersiveMessage message);
+
+    void broadcastOpenMessage(Collection<ServerPlayer> players, ImmersiveMessage message);
+
+    void broadcastQueue(Collection<ServerPlayer> players, String channel, List<List<ImmersiveMessage>> steps);
+
+    void sendTemplate(ServerPlayer player, MessageTemplate template, List<String> args);
+
+    void broadcastTemplate(Collection<ServerPlayer> players, MessageTemplate template, List<String> args);
 }
@@ -549,6 +549,20 @@ public final class MSDFGenerator {
                                    double glyphMinX, double glyphMinY,
                                    double glyphMaxX, double glyphMaxY,
                                    double pxRange) {
+        return MSDFGridGenerator.generate(outline, coloredEdges, width, height,
+                glyphMinX, glyphMinY, glyphMaxX, glyphMaxY, pxRange);
+    }
+
+    /**
+     * Brute-force generator that tests every edge at every texel. Kept as the reference
+     * {@link MSDFGridGenerator} must match byte for byte.
+     */
+    static byte[] generateReference(GlyphOutline outline,
+                                    EdgeColoring.ColoredContour[] coloredEdges,
+                                    int width, int height,
+                                    double glyphMinX, double glyphMinY,
+                                    double glyphMaxX, double glyphMaxY,
+                                    double pxRange) {
         byte[] msdf = new byte[width * height * 3];
 
         double glyphW = glyphMaxX - glyphMinX;
@@ -1,11 +1,18 @@
 package net.tysontheember.emberstextapi.sdf;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 public final class PreBakedMSDFCache {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/PreBakedMSDFCache");
+
     private static final ConcurrentHashMap<CacheKey, Map<Integer, PreBakedMSDF>> CACHE = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<CacheKey, Optional<MSDFDiskCache>> DISK = new ConcurrentHashMap<>();
 
     private PreBakedMSDFCache() {}
 
@@ -13,6 +20,41 @@ public final class PreBakedMSDFCache {
         return CACHE.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
     }
 
+    /**
+     * Like {@link #getOrCreate}, but the first call for a key also loads glyphs persisted by earlier
+     * launches.
+     */
+    public static Map<Integer, PreBakedMSDF> getOrLoad(CacheKey key) {
+        Map<Integer, PreBakedMSDF> glyphs = getOrCreate(key);
+        DISK.computeIfAbsent(key, k -> {
+            MSDFDiskCache disk = MSDFDiskCache.open(k);
+            if (disk != null) {
+                int loaded = disk.loadInto(glyphs);
+                if (loaded > 0) {
+                    LOGGER.info("Loaded {} cached SDF glyphs from {}", loaded, disk.file().getFileName());
+                }
+            }
+            return Optional.ofNullable(disk);
+        });
+        return glyphs;
+    }
+
+    /** Writes a newly baked glyph to the on-disk cache for {@code key}, if there is one. */
+    static void persist(CacheKey key, int codepoint, PreBakedMSDF glyph) {
+        Optional<MSDFDiskCache> disk = DISK.get(key);
+        if (disk != null) {
+            disk.ifPresent(d -> d.append(codepoint, glyph));
+        }
+    }
+
+    /** Closes the on-disk cache file for {@code key}; glyphs baked later reopen it. */
+    static void closeDisk(CacheKey key) {
+        Optional<MSDFDiskCache> disk = DISK.get(key);
+        if (disk != null) {
+            disk.ifPresent(MSDFDiskCache::close);
+        }
+    }
+
     public record CacheKey(
             long fontHash,
             int sdfResolution,
@@ -54,7 +54,7 @@ public class SDFGlyphInfo implements GlyphInfo {
     @Override
     public BakedGlyph bake(Function<SheetGlyphInfo, BakedGlyph> baker) {
 
-        PreBakedMSDF preBaked = provider != null ? provider.getPreBaked(codepoint) : null;
+        PreBakedMSDF preBaked = provider != null ? provider.getOrBake(codepoint) : null;
         if (preBaked != null) {
             LOGGER.debug("Using pre-baked MSDF for '{}' (cp={})", (char) codepoint, codepoint);
             if (SDF_DEBUG) {
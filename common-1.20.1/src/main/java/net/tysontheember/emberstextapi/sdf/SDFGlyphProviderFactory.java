@@ -9,8 +9,8 @@ final class SDFGlyphProviderFactory {
 
     private SDFGlyphProviderFactory() {}
 
-    static GlyphProvider create(ByteBuffer fontData, SDFConfig config) {
+    static GlyphProvider create(ByteBuffer fontData, long fontHash, SDFConfig config) {
         FT_Face ftFace = FreeTypeManager.getInstance().loadFace(fontData);
-        return new SDFGlyphProvider(ftFace, fontData, config);
+        return new SDFGlyphProvider(ftFace, fontData, fontHash, config);
     }
 }
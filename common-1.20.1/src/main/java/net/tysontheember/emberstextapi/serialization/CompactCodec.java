@@ -0,0 +1,297 @@
+package net.tysontheember.emberstextapi.serialization;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.tysontheember.emberstextapi.client.QueueStep;
+import net.tysontheember.emberstextapi.client.QueuedMessage;
+import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static net.tysontheember.emberstextapi.serialization.SerializationUtil.*;
+
+/**
+ * The binary wire format for immersive messages, shared by every loader.
+ * <p>
+ * A payload starts with the format {@link #VERSION} and a message count, followed by the messages. Optional
+ * fields are announced by presence bits so defaults cost nothing, integral values are varints, and the
+ * strings and colors that repeat across a payload (font ids, effect tags, palette colors) are written the
+ * first time they appear and referenced by index afterwards. The tables span the whole payload, so a queue
+ * sent in one packet shares them between all of its messages. Effects are written in binary by
+ * {@link EffectCodec} and tabled by instance.
+ */
+public final class CompactCodec {
+
+    /** Bumped whenever the layout changes; readers reject versions they don't know. */
+    public static final int VERSION = 2;
+
+    /** Upper bound for an encoded payload carried as a byte array inside a packet. */
+    public static final int MAX_PAYLOAD_SIZE = 1 << 20;
+
+    private static final int MAX_TABLE_SIZE = 4096;
+    private static final int MAX_MESSAGES = 1 << 16;
+
+    private CompactCodec() {
+        throw new UnsupportedOperationException("Codec class");
+    }
+
+    public static byte[] encode(ImmersiveMessage message) {
+        return encodeAll(List.of(message));
+    }
+
+    public static ImmersiveMessage decode(byte[] data) {
+        return readMessage(new FriendlyByteBuf(Unpooled.wrappedBuffer(data)));
+    }
+
+    public static byte[] encodeAll(List<ImmersiveMessage> messages) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(256));
+        try {
+            write(messages, buf);
+            byte[] data = new byte[buf.readableBytes()];
+            buf.readBytes(data);
+            return data;
+        } finally {
+            buf.release();
+        }
+    }
+
+    public static List<ImmersiveMessage> decodeAll(byte[] data) {
+        return read(new FriendlyByteBuf(Unpooled.wrappedBuffer(data)));
+    }
+
+    public static void write(List<ImmersiveMessage> messages, FriendlyByteBuf buf) {
+        buf.writeVarInt(VERSION);
+        buf.writeVarInt(messages.size());
+        Writer out = new Writer(buf);
+        for (ImmersiveMessage message : messages) {
+            message.encodeCompact(out);
+        }
+    }
+
+    public static List<ImmersiveMessage> read(FriendlyByteBuf buf) {
+        int version = buf.readVarInt();
+        if (version != VERSION) {
+            throw new DecoderException("Unsupported message format version: " + version);
+        }
+        int count = buf.readVarInt();
+        if (count < 0 || count > MAX_MESSAGES) {
+            throw new DecoderException("Invalid message count: " + count);
+        }
+        Reader in = new Reader(buf);
+        List<ImmersiveMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(ImmersiveMessage.decodeCompact(in));
+        }
+        return messages;
+    }
+
+    /** Encodes every message of a queue into one payload, step after step. */
+    public static byte[] encodeQueue(List<List<ImmersiveMessage>> steps) {
+        List<ImmersiveMessage> messages = new ArrayList<>();
+        for (List<ImmersiveMessage> step : steps) {
+            messages.addAll(step);
+        }
+        return encodeAll(messages);
+    }
+
+    /** Decodes a payload from {@link #encodeQueue} back into steps shaped like {@code ids}. */
+    public static List<QueueStep> decodeQueue(List<List<UUID>> ids, byte[] data) {
+        List<ImmersiveMessage> messages = decodeAll(data);
+        int expected = 0;
+        for (List<UUID> stepIds : ids) {
+            expected += stepIds.size();
+        }
+        if (messages.size() != expected) {
+            throw new DecoderException("Queue carries " + messages.size() + " messages for " + expected + " ids");
+        }
+        List<QueueStep> steps = new ArrayList<>(ids.size());
+        int next = 0;
+        for (List<UUID> stepIds : ids) {
+            List<QueuedMessage> step = new ArrayList<>(stepIds.size());
+            for (UUID id : stepIds) {
+                step.add(new QueuedMessage(id, messages.get(next++)));
+            }
+            steps.add(new QueueStep(step));
+        }
+        return steps;
+    }
+
+    public static void writeMessage(ImmersiveMessage message, FriendlyByteBuf buf) {
+        write(List.of(message), buf);
+    }
+
+    public static ImmersiveMessage readMessage(FriendlyByteBuf buf) {
+        List<ImmersiveMessage> messages = read(buf);
+        if (messages.size() != 1) {
+            throw new DecoderException("Expected one message, got " + messages.size());
+        }
+        return messages.get(0);
+    }
+
+    /**
+     * Writes one payload. A tabled value is written as a varint reference: 0 introduces a new entry, whose
+     * value follows and takes the next index; n refers back to entry n - 1.
+     */
+    public static final class Writer {
+        private final FriendlyByteBuf buf;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<Integer, Integer> colors = new HashMap<>();
+        private final Map<Effect, Integer> effects = new IdentityHashMap<>();
+
+        Writer(FriendlyByteBuf buf) {
+            this.buf = buf;
+        }
+
+        public void writeVarInt(int value) {
+            buf.writeVarInt(value);
+        }
+
+        public void writeFloat(float value) {
+            buf.writeFloat(value);
+        }
+
+        public void writeDouble(double value) {
+            buf.writeDouble(value);
+        }
+
+        public <E extends Enum<E>> void writeEnum(E value) {
+            buf.writeVarInt(value.ordinal());
+        }
+
+        /** A string that is unlikely to repeat, such as span content. */
+        public void writeText(String value) {
+            buf.writeUtf(value, MAX_CONTENT_LENGTH);
+        }
+
+        /** A string that is likely to repeat within the payload, such as a font id or an effect tag. */
+        public void writeString(String value) {
+            Integer index = strings.get(value);
+            if (index != null) {
+                buf.writeVarInt(index + 1);
+                return;
+            }
+            buf.writeVarInt(0);
+            buf.writeUtf(value, MAX_CONTENT_LENGTH);
+            if (strings.size() < MAX_TABLE_SIZE) {
+                strings.put(value, strings.size());
+            }
+        }
+
+        public void writeColor(int argb) {
+            Integer index = colors.get(argb);
+            if (index != null) {
+                buf.writeVarInt(index + 1);
+                return;
+            }
+            buf.writeVarInt(0);
+            buf.writeInt(argb);
+            if (colors.size() < MAX_TABLE_SIZE) {
+                colors.put(argb, colors.size());
+            }
+        }
+
+        /** An effect; parsed effects are interned, so spans sharing a tag share the entry. */
+        public void writeEffect(Effect effect) {
+            Integer index = effects.get(effect);
+            if (index != null) {
+                buf.writeVarInt(index + 1);
+                return;
+            }
+            buf.writeVarInt(0);
+            EffectCodec.write(effect, this);
+            if (effects.size() < MAX_TABLE_SIZE) {
+                effects.put(effect, effects.size());
+            }
+        }
+    }
+
+    public static final class Reader {
+        private final FriendlyByteBuf buf;
+        private final List<String> strings = new ArrayList<>();
+        private final List<Integer> colors = new ArrayList<>();
+        private final List<Effect> effects = new ArrayList<>();
+
+        Reader(FriendlyByteBuf buf) {
+            this.buf = buf;
+        }
+
+        public int readVarInt() {
+            return buf.readVarInt();
+        }
+
+        public float readFloat() {
+            return buf.readFloat();
+        }
+
+        public double readDouble() {
+            return buf.readDouble();
+        }
+
+        public <E extends Enum<E>> E readEnum(Class<E> enumClass) {
+            return readEnumSafe(buf, enumClass);
+        }
+
+        public String readText(int maxLength) {
+            return buf.readUtf(maxLength);
+        }
+
+        public String readString(int maxLength) {
+            int ref = buf.readVarInt();
+            if (ref == 0) {
+                String value = buf.readUtf(MAX_CONTENT_LENGTH);
+                if (value.length() > maxLength) {
+                    throw new DecoderException("Tabled string too long: " + value.length() + " > " + maxLength);
+                }
+                if (strings.size() < MAX_TABLE_SIZE) {
+                    strings.add(value);
+                }
+                return value;
+            }
+            if (ref < 0 || ref > strings.size()) {
+                throw new DecoderException("Invalid string table reference: " + ref);
+            }
+            String value = strings.get(ref - 1);
+            if (value.length() > maxLength) {
+                throw new DecoderException("Tabled string too long: " + value.length() + " > " + maxLength);
+            }
+            return value;
+        }
+
+        public int readColor() {
+            int ref = buf.readVarInt();
+            if (ref == 0) {
+                int argb = buf.readInt();
+                if (colors.size() < MAX_TABLE_SIZE) {
+                    colors.add(argb);
+                }
+                return argb;
+            }
+            if (ref < 0 || ref > colors.size()) {
+                throw new DecoderException("Invalid color table reference: " + ref);
+            }
+            return colors.get(ref - 1);
+        }
+
+        public Effect readEffect() {
+            int ref = buf.readVarInt();
+            if (ref == 0) {
+                Effect effect = EffectCodec.read(this);
+                if (effects.size() < MAX_TABLE_SIZE) {
+                    effects.add(effect);
+                }
+                return effect;
+            }
+            if (ref < 0 || ref > effects.size()) {
+                throw new DecoderException("Invalid effect table reference: " + ref);
+            }
+            return effects.get(ref - 1);
+        }
+    }
+}
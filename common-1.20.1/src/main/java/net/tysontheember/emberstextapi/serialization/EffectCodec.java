@@ -0,0 +1,263 @@
+package net.tysontheember.emberstextapi.serialization;
+
+import com.google.common.collect.ImmutableMap;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import net.tysontheember.emberstextapi.immersivemessages.effects.NoOpEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.params.EmptyParams;
+import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
+import net.tysontheember.emberstextapi.immersivemessages.effects.params.TypedParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+import static net.tysontheember.emberstextapi.serialization.SerializationUtil.*;
+
+/**
+ * Binary form of an {@link Effect} inside a {@link CompactCodec} payload.
+ * <p>
+ * Built-in effects are sent by {@link EffectRegistry#builtInId id}, other registered effects by name,
+ * and their params as typed values, so the receiver builds the effect without splitting or parsing a
+ * tag. Effects whose params aren't plain tag values fall back to their tag text. Effects the receiver
+ * doesn't know, and effects the sender had disabled, become {@link NoOpEffect}s.
+ */
+final class EffectCodec {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/EffectCodec");
+
+    private static final int FORM_TAG = 0;
+    private static final int FORM_NO_OP = 1;
+    private static final int FORM_NAMED = 2;
+    private static final int FORM_BUILT_IN = 3;
+
+    private static final int TYPE_TRUE = 0;
+    private static final int TYPE_FALSE = 1;
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_FLOAT = 3;
+    private static final int TYPE_DOUBLE = 4;
+    private static final int TYPE_COLOR = 5;
+    private static final int TYPE_PALETTE = 6;
+    private static final int TYPE_STRING = 7;
+
+    private static final int COLOR_HASH = 1;
+    private static final int COLOR_ALPHA = 1 << 1;
+    private static final int COLOR_LOWER = 1 << 2;
+
+    private static final String UNKNOWN = "unknown";
+
+    private EffectCodec() {
+    }
+
+    static void write(Effect effect, CompactCodec.Writer out) {
+        if (effect instanceof NoOpEffect) {
+            out.writeVarInt(FORM_NO_OP);
+            out.writeString(effect.getName());
+            return;
+        }
+        Map<String, Object> params = typedParams(effect);
+        if (params == null) {
+            out.writeVarInt(FORM_TAG);
+            out.writeString(effect.serialize());
+            return;
+        }
+        int id = EffectRegistry.builtInId(effect.getName());
+        if (id >= 0) {
+            out.writeVarInt(FORM_BUILT_IN + id);
+        } else {
+            out.writeVarInt(FORM_NAMED);
+            out.writeString(effect.getName());
+        }
+        out.writeVarInt(params.size());
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            out.writeString(entry.getKey());
+            writeValue(entry.getValue(), out);
+        }
+    }
+
+    static Effect read(CompactCodec.Reader in) {
+        int form = in.readVarInt();
+        if (form == FORM_TAG) {
+            String tag = in.readString(MAX_EFFECT_TAG_LENGTH);
+            try {
+                return EffectRegistry.parseTag(tag);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Failed to decode effect: {}", tag, e);
+                return new NoOpEffect(tag);
+            }
+        }
+        if (form == FORM_NO_OP) {
+            return new NoOpEffect(in.readString(MAX_ID_LENGTH));
+        }
+        String name = form == FORM_NAMED ? in.readString(MAX_ID_LENGTH) : EffectRegistry.builtInName(form - FORM_BUILT_IN);
+
+        int count = in.readVarInt();
+        if (count < 0 || count > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("Invalid effect param count: " + count);
+        }
+        ImmutableMap.Builder<String, Object> params = ImmutableMap.builderWithExpectedSize(count);
+        for (int i = 0; i < count; i++) {
+            String key = in.readString(MAX_ID_LENGTH);
+            params.put(key, readValue(in));
+        }
+
+        if (name == null || !EffectRegistry.isRegistered(name)) {
+            LOGGER.debug("Unknown effect on the wire: {}", name != null ? name : "#" + (form - FORM_BUILT_IN));
+            return new NoOpEffect(name != null ? name : UNKNOWN);
+        }
+        try {
+            return EffectRegistry.createInterned(name, params.build());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Failed to decode effect: {}", name, e);
+            return new NoOpEffect(name);
+        }
+    }
+
+    /** The effect's params if they hold only values a tag can express, otherwise null. */
+    private static Map<String, Object> typedParams(Effect effect) {
+        if (!(effect instanceof BaseEffect base)) {
+            return null;
+        }
+        Params params = base.getParams();
+        if (params instanceof EmptyParams) {
+            return ImmutableMap.of();
+        }
+        if (!(params instanceof TypedParams typed)) {
+            return null;
+        }
+        ImmutableMap<String, Object> raw = typed.getRawParams();
+        for (Object value : raw.values()) {
+            if (!(value instanceof Boolean) && !(value instanceof Double) && !(value instanceof String)) {
+                return null;
+            }
+        }
+        return raw;
+    }
+
+    private static void writeValue(Object value, CompactCodec.Writer out) {
+        if (value instanceof Boolean bool) {
+            out.writeVarInt(bool ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof Double number) {
+            double d = number;
+            if (d == Math.rint(d) && Math.abs(d) <= Integer.MAX_VALUE && Double.doubleToRawLongBits(d) != Double.doubleToRawLongBits(-0.0)) {
+                int n = (int) d;
+                out.writeVarInt(TYPE_INT);
+                out.writeVarInt((n << 1) ^ (n >> 31));
+            } else if ((double) (float) d == d) {
+                out.writeVarInt(TYPE_FLOAT);
+                out.writeFloat((float) d);
+            } else {
+                out.writeVarInt(TYPE_DOUBLE);
+                out.writeDouble(d);
+            }
+        } else {
+            writeString((String) value, out);
+        }
+    }
+
+    private static void writeString(String value, CompactCodec.Writer out) {
+        int flags = colorFlags(value);
+        if (flags >= 0) {
+            out.writeVarInt(TYPE_COLOR);
+            writeColor(value, flags, out);
+            return;
+        }
+        if (value.indexOf(',') > 0) {
+            String[] parts = value.split(",", -1);
+            boolean palette = parts.length <= MAX_ARRAY_SIZE;
+            for (int i = 0; palette && i < parts.length; i++) {
+                palette = colorFlags(parts[i]) >= 0;
+            }
+            if (palette) {
+                out.writeVarInt(TYPE_PALETTE);
+                out.writeVarInt(parts.length);
+                for (String part : parts) {
+                    writeColor(part, colorFlags(part), out);
+                }
+                return;
+            }
+        }
+        out.writeVarInt(TYPE_STRING);
+        out.writeString(value);
+    }
+
+    private static void writeColor(String value, int flags, CompactCodec.Writer out) {
+        String hex = (flags & COLOR_HASH) != 0 ? value.substring(1) : value;
+        out.writeVarInt(flags);
+        out.writeColor(Integer.parseUnsignedInt(hex, 16));
+    }
+
+    private static Object readValue(CompactCodec.Reader in) {
+        int type = in.readVarInt();
+        return switch (type) {
+            case TYPE_TRUE -> Boolean.TRUE;
+            case TYPE_FALSE -> Boolean.FALSE;
+            case TYPE_INT -> {
+                int z = in.readVarInt();
+                yield (double) ((z >>> 1) ^ -(z & 1));
+            }
+            case TYPE_FLOAT -> (double) in.readFloat();
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_COLOR -> readColor(in);
+            case TYPE_PALETTE -> readPalette(in);
+            case TYPE_STRING -> in.readString(MAX_EFFECT_TAG_LENGTH);
+            default -> throw new IllegalArgumentException("Invalid effect param type: " + type);
+        };
+    }
+
+    private static String readPalette(CompactCodec.Reader in) {
+        int count = in.readVarInt();
+        if (count < 0 || count > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("Invalid palette size: " + count);
+        }
+        StringBuilder palette = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                palette.append(',');
+            }
+            palette.append(readColor(in));
+        }
+        return palette.toString();
+    }
+
+    private static String readColor(CompactCodec.Reader in) {
+        int flags = in.readVarInt();
+        int argb = in.readColor();
+        String hex = (flags & COLOR_ALPHA) != 0
+                ? String.format("%08X", argb)
+                : String.format("%06X", argb & 0xFFFFFF);
+        if ((flags & COLOR_LOWER) != 0) {
+            hex = hex.toLowerCase(java.util.Locale.ROOT);
+        }
+        return (flags & COLOR_HASH) != 0 ? "#" + hex : hex;
+    }
+
+    /**
+     * Flags describing how to spell {@code value} back out if it's a hex color that round-trips exactly
+     * (six or eight digits, optional {@code #}, one letter case), otherwise -1.
+     */
+    private static int colorFlags(String value) {
+        int start = value.startsWith("#") ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits != 6 && digits != 8) {
+            return -1;
+        }
+        boolean upper = false;
+        boolean lower = false;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'F') {
+                upper = true;
+            } else if (c >= 'a' && c <= 'f') {
+                lower = true;
+            } else if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        if (upper && lower) {
+            return -1;
+        }
+        return (start == 1 ? COLOR_HASH : 0) | (digits == 8 ? COLOR_ALPHA : 0) | (lower ? COLOR_LOWER : 0);
+    }
+}
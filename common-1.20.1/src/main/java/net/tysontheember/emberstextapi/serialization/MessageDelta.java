@@ -0,0 +1,293 @@
+package net.tysontheember.emberstextapi.serialization;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.TextSpan;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Update payloads for a message the client is already showing.
+ * <p>
+ * A payload starts with the {@link CompactCodec#VERSION} and a kind. A full update carries the whole message
+ * and replaces the live one. A patch carries the message settings when they changed, followed by span
+ * operations applied in order to the live message, so it keeps its age, typewriter progress and cached
+ * layout. The server diffs against a {@link Snapshot} of the last update it sent: spans are compared by
+ * content and by their encoded form without content, so a span whose text changed only resends the
+ * characters that differ. A plain text message has no spans, so it is patched only when its text is
+ * unchanged; otherwise it goes out in full.
+ */
+public final class MessageDelta {
+
+    private static final int KIND_FULL = 0;
+    private static final int KIND_PATCH = 1;
+
+    private static final int SETTINGS = 1;
+
+    private static final int OP_REPLACE = 0;
+    private static final int OP_CONTENT = 1;
+
+    private static final int MAX_OPS = 1 << 16;
+
+    private MessageDelta() {
+        throw new UnsupportedOperationException("Codec class");
+    }
+
+    public static Snapshot snapshot(ImmersiveMessage message) {
+        byte[] settings = bytes(message::encodeCompactSettings);
+        if (!message.isSpanMode()) {
+            return new Snapshot(settings, null, null, bytes(message::encodeCompactText));
+        }
+        List<TextSpan> spans = message.getSpans();
+        String[] contents = new String[spans.size()];
+        byte[][] shapes = new byte[spans.size()][];
+        for (int i = 0; i < spans.size(); i++) {
+            TextSpan span = spans.get(i);
+            contents[i] = span.getContent();
+            shapes[i] = bytes(out -> TextSpanCodec.encodeCompact(span, "", out));
+        }
+        return new Snapshot(settings, contents, shapes, null);
+    }
+
+    /** An update replacing the live message with {@code message}. */
+    public static byte[] full(ImmersiveMessage message) {
+        return bytes(out -> {
+            out.writeVarInt(CompactCodec.VERSION);
+            out.writeVarInt(KIND_FULL);
+            message.encodeCompact(out);
+        });
+    }
+
+    /**
+     * A patch turning the message {@code base} was taken from into {@code message}, whose snapshot is
+     * {@code next}; null when only a full update will do.
+     */
+    @Nullable
+    public static byte[] diff(Snapshot base, Snapshot next, ImmersiveMessage message) {
+        boolean settingsChanged = !Arrays.equals(base.settings, next.settings);
+        if (base.contents == null || next.contents == null) {
+            if (base.text == null || next.text == null || !Arrays.equals(base.text, next.text)) {
+                return null;
+            }
+            // Same plain text: patch the settings alone so the message keeps its age and typewriter progress.
+            return bytes(out -> {
+                out.writeVarInt(CompactCodec.VERSION);
+                out.writeVarInt(KIND_PATCH);
+                out.writeVarInt(settingsChanged ? SETTINGS : 0);
+                if (settingsChanged) {
+                    message.encodeCompactSettings(out);
+                }
+                out.writeVarInt(0);
+            });
+        }
+        List<TextSpan> spans = message.getSpans();
+        int oldCount = base.contents.length;
+        int newCount = next.contents.length;
+
+        int prefix = 0;
+        while (prefix < oldCount && prefix < newCount && base.sameSpan(prefix, next, prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldCount - prefix && suffix < newCount - prefix
+                && base.sameSpan(oldCount - 1 - suffix, next, newCount - 1 - suffix)) {
+            suffix++;
+        }
+        int start = prefix;
+        int removed = oldCount - prefix - suffix;
+        int added = newCount - prefix - suffix;
+
+        return bytes(out -> {
+            out.writeVarInt(CompactCodec.VERSION);
+            out.writeVarInt(KIND_PATCH);
+            out.writeVarInt(settingsChanged ? SETTINGS : 0);
+            if (settingsChanged) {
+                message.encodeCompactSettings(out);
+            }
+            if (removed != added) {
+                out.writeVarInt(1);
+                writeReplace(out, start, removed, spans.subList(start, start + added));
+                return;
+            }
+            // Same number of spans: patch the text of those that only differ in content.
+            out.writeVarInt(removed);
+            for (int i = start; i < start + removed; i++) {
+                if (Arrays.equals(base.shapes[i], next.shapes[i])) {
+                    writeContent(out, i, base.contents[i], next.contents[i]);
+                } else {
+                    writeReplace(out, i, 1, spans.subList(i, i + 1));
+                }
+            }
+        });
+    }
+
+    public static Update decode(byte[] data) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(data));
+        int version = buf.readVarInt();
+        if (version != CompactCodec.VERSION) {
+            throw new DecoderException("Unsupported message format version: " + version);
+        }
+        int kind = buf.readVarInt();
+        CompactCodec.Reader in = new CompactCodec.Reader(buf);
+        if (kind == KIND_FULL) {
+            return new Update(ImmersiveMessage.decodeCompact(in), null, List.of());
+        }
+        if (kind != KIND_PATCH) {
+            throw new DecoderException("Unknown update kind: " + kind);
+        }
+        int flags = in.readVarInt();
+        ImmersiveMessage settings = (flags & SETTINGS) != 0 ? ImmersiveMessage.decodeCompact(in) : null;
+        int count = in.readVarInt();
+        if (count < 0 || count > MAX_OPS) {
+            throw new DecoderException("Invalid operation count: " + count);
+        }
+        List<Consumer<ImmersiveMessage>> ops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int op = in.readVarInt();
+            if (op == OP_CONTENT) {
+                int index = in.readVarInt();
+                int keepPrefix = in.readVarInt();
+                int keepSuffix = in.readVarInt();
+                String replacement = in.readText(SerializationUtil.MAX_CONTENT_LENGTH);
+                ops.add(message -> message.patchSpanContent(index, keepPrefix, keepSuffix, replacement));
+            } else if (op == OP_REPLACE) {
+                int start = in.readVarInt();
+                int removeCount = in.readVarInt();
+                int addCount = in.readVarInt();
+                if (addCount < 0 || addCount > MAX_OPS) {
+                    throw new DecoderException("Invalid span count: " + addCount);
+                }
+                List<TextSpan> added = new ArrayList<>(addCount);
+                for (int j = 0; j < addCount; j++) {
+                    added.add(TextSpanCodec.decodeCompact(in));
+                }
+                ops.add(message -> message.replaceSpans(start, removeCount, added));
+            } else {
+                throw new DecoderException("Unknown update operation: " + op);
+            }
+        }
+        return new Update(null, settings, ops);
+    }
+
+    private static void writeReplace(CompactCodec.Writer out, int start, int removeCount, List<TextSpan> added) {
+        out.writeVarInt(OP_REPLACE);
+        out.writeVarInt(start);
+        out.writeVarInt(removeCount);
+        out.writeVarInt(added.size());
+        for (TextSpan span : added) {
+            TextSpanCodec.encodeCompact(span, out);
+        }
+    }
+
+    private static void writeContent(CompactCodec.Writer out, int index, String before, String after) {
+        int shorter = Math.min(before.length(), after.length());
+        int keepPrefix = 0;
+        while (keepPrefix < shorter && before.charAt(keepPrefix) == after.charAt(keepPrefix)) {
+            keepPrefix++;
+        }
+        int keepSuffix = 0;
+        while (keepSuffix < shorter - keepPrefix
+                && before.charAt(before.length() - 1 - keepSuffix) == after.charAt(after.length() - 1 - keepSuffix)) {
+            keepSuffix++;
+        }
+        // Never split a surrogate pair: the replacement is written as text and must hold whole code points.
+        if (keepPrefix > 0 && Character.isHighSurrogate(after.charAt(keepPrefix - 1))) {
+            keepPrefix--;
+        }
+        if (keepSuffix > 0 && Character.isLowSurrogate(after.charAt(after.length() - keepSuffix))) {
+            keepSuffix--;
+        }
+        out.writeVarInt(OP_CONTENT);
+        out.writeVarInt(index);
+        out.writeVarInt(keepPrefix);
+        out.writeVarInt(keepSuffix);
+        out.writeText(after.substring(keepPrefix, after.length() - keepSuffix));
+    }
+
+    private static byte[] bytes(Consumer<CompactCodec.Writer> body) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(64));
+        try {
+            body.accept(new CompactCodec.Writer(buf));
+            byte[] data = new byte[buf.readableBytes()];
+            buf.readBytes(data);
+            return data;
+        } finally {
+            buf.release();
+        }
+    }
+
+    /**
+     * What was last sent under a message id, kept as bytes so later changes to the message object can't leak
+     * into the baseline.
+     */
+    public static final class Snapshot {
+        private final byte[] settings;
+        @Nullable
+        private final String[] contents;
+        @Nullable
+        private final byte[][] shapes;
+        /** The text of a plain text message, which has no spans to compare. */
+        @Nullable
+        private final byte[] text;
+
+        private Snapshot(byte[] settings, @Nullable String[] contents, @Nullable byte[][] shapes,
+                         @Nullable byte[] text) {
+            this.settings = settings;
+            this.contents = contents;
+            this.shapes = shapes;
+            this.text = text;
+        }
+
+        private boolean sameSpan(int index, Snapshot other, int otherIndex) {
+            return contents[index].equals(other.contents[otherIndex])
+                    && Arrays.equals(shapes[index], other.shapes[otherIndex]);
+        }
+    }
+
+    /** A decoded update: either a replacement message or a patch for the live one. */
+    public static final class Update {
+        @Nullable
+        private final ImmersiveMessage message;
+        @Nullable
+        private final ImmersiveMessage settings;
+        private final List<Consumer<ImmersiveMessage>> ops;
+
+        private Update(@Nullable ImmersiveMessage message, @Nullable ImmersiveMessage settings,
+                       List<Consumer<ImmersiveMessage>> ops) {
+            this.message = message;
+            this.settings = settings;
+            this.ops = ops;
+        }
+
+        public boolean isFull() {
+            return message != null;
+        }
+
+        /** The replacement message of a full update. */
+        public ImmersiveMessage message() {
+            if (message == null) {
+                throw new IllegalStateException("Not a full update");
+            }
+            return message;
+        }
+
+        /**
+         * Patches {@code live} in place. Throws if it doesn't match the message the patch was made against,
+         * e.g. because the client dropped an earlier update.
+         */
+        public void applyTo(ImmersiveMessage live) {
+            if (settings != null) {
+                live.applySettings(settings);
+            }
+            for (Consumer<ImmersiveMessage> op : ops) {
+                op.accept(live);
+            }
+        }
+    }
+}
@@ -3,6 +3,9 @@ package net.tysontheember.emberstextapi.serialization;
 import io.netty.handler.codec.DecoderException;
 import net.minecraft.network.FriendlyByteBuf;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public final class SerializationUtil {
 
     public static final int MAX_CONTENT_LENGTH = 65536;
@@ -31,4 +34,23 @@ public final class SerializationUtil {
         }
         return values[ordinal];
     }
+
+    public static void writeStringList(FriendlyByteBuf buf, List<String> values) {
+        buf.writeVarInt(values.size());
+        for (String value : values) {
+            buf.writeUtf(value, MAX_CONTENT_LENGTH);
+        }
+    }
+
+    public static List<String> readStringList(FriendlyByteBuf buf, int maxCount) {
+        int count = buf.readVarInt();
+        if (count < 0 || count > maxCount) {
+            throw new DecoderException("Invalid list size: " + count);
+        }
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(buf.readUtf(MAX_CONTENT_LENGTH));
+        }
+        return values;
+    }
 }
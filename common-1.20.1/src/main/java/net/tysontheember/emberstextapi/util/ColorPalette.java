@@ -25,6 +25,16 @@ public final class ColorPalette {
 
     public int size() { return stops.length; }
 
+    /** True when every stop is fully opaque, so samples never change alpha. */
+    public boolean isOpaque() {
+        for (float[] stop : stops) {
+            if (stop[3] < 1f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public float[] sample(float t) {
         float u = applyMode(t);
 
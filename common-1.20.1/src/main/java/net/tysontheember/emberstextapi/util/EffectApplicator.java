@@ -10,8 +10,10 @@ import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.network.chat.Style;
 import net.tysontheember.emberstextapi.accessor.ETABakedGlyph;
 import net.tysontheember.emberstextapi.accessor.ETAStyle;
+import net.tysontheember.emberstextapi.glow.GlowAtlas;
 import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
 import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterTrack;
 import org.joml.Matrix4f;
 import org.slf4j.Logger;
@@ -31,7 +33,7 @@ public final class EffectApplicator {
             float r, float g, float b, float a,
             boolean dropShadow) {
 
-        EffectSettings settings = new EffectSettings(
+        EffectSettings settings = EffectSettingsArena.current().acquire(
                 x + shadowOffset, y + shadowOffset,
                 r, g, b, a,
                 index, codepoint, dropShadow
@@ -62,8 +64,72 @@ public final class EffectApplicator {
         return settings;
     }
 
+    /**
+     * Builds and applies one glyph's effects for a pass of {@code Font}'s string output. Effects ahead of
+     * the first one that {@link Effect#affectsShadowPass() affects the shadow pass} are computed once at
+     * the main position: the shadow pass records the result and offsets it, and the main pass that
+     * follows reuses the record. The remaining effects still run in each pass.
+     * <p>
+     * Neon glow is left on {@link EffectSettings#glow} for {@link #renderChar} to draw from
+     * {@link GlowAtlas}; callers that can't use the baked glow call {@code addGlowSiblings} instead.
+     */
+    public static EffectSettings buildAndApply(
+            Object pass, List<Effect> effects, ETAStyle etaStyle, Style style, int index, int codepoint,
+            float x, float y, float shadowOffset,
+            float r, float g, float b, float a,
+            boolean dropShadow, float charAdvance) {
+
+        int shared = 0;
+        while (shared < effects.size() && !effects.get(shared).affectsShadowPass()) {
+            shared++;
+        }
+        if (shared == 0) {
+            EffectSettings settings = buildSettings(etaStyle, style, index, codepoint,
+                    x, y, shadowOffset, r, g, b, a, dropShadow);
+            settings.charAdvance = charAdvance;
+            settings.bakedGlow = true;
+            applyEffects(effects, settings);
+            return settings;
+        }
+
+        ShadowPassCache cache = ShadowPassCache.current();
+        EffectSettings settings = dropShadow ? null : cache.replay(pass, style, index, codepoint, x, y);
+        if (settings == null) {
+            settings = buildSettings(etaStyle, style, index, codepoint, x, y, 0f, r, g, b, a, false);
+            settings.charAdvance = charAdvance;
+            settings.bakedGlow = true;
+            applyEffects(effects, 0, shared, settings);
+            if (dropShadow) {
+                cache.record(pass, style, index, codepoint, x, y, settings);
+            }
+        }
+
+        if (dropShadow) {
+            toShadow(settings, shadowOffset);
+            List<EffectSettings> siblings = settings.getSiblingsOrEmpty();
+            for (int i = 0; i < siblings.size(); i++) {
+                toShadow(siblings.get(i), shadowOffset);
+            }
+        }
+        applyEffects(effects, shared, effects.size(), settings);
+        return settings;
+    }
+
+    private static void toShadow(EffectSettings settings, float shadowOffset) {
+        settings.x += shadowOffset;
+        settings.y += shadowOffset;
+        settings.isShadow = true;
+        settings.shadowOffset = shadowOffset;
+    }
+
     public static void applyEffects(List<Effect> effects, EffectSettings settings) {
-        for (Effect effect : effects) {
+        applyEffects(effects, 0, effects.size(), settings);
+    }
+
+    /** Applies {@code effects[from, to)} to {@code settings} and the siblings they add. */
+    public static void applyEffects(List<Effect> effects, int from, int to, EffectSettings settings) {
+        for (int n = from; n < to; n++) {
+            Effect effect = effects.get(n);
             try {
                 effect.apply(settings);
                 List<EffectSettings> currentSiblings = settings.getSiblingsOrEmpty();
@@ -121,5 +187,18 @@ public final class EffectApplicator {
         if (style.isBold()) {
             etaGlyph.emberstextapi$render(settings, style.isItalic(), glyphInfo.getBoldOffset(), renderPose, vertexConsumer, packedLightCoords);
         }
+
+        if (settings.glow != null) {
+            GlowAtlas.Glyph glow = settings.glowGlyph != null
+                    ? settings.glowGlyph
+                    : GlowAtlas.get(style.getFont(), settings.codepoint,
+                            fontSet.getGlyphInfo(settings.codepoint, false), settings.glow);
+            if (glow != null) {
+                GlowAtlas.render(glow, settings, style.isItalic(), 0f, renderPose, bufferSource, mode, packedLightCoords);
+                if (style.isBold()) {
+                    GlowAtlas.render(glow, settings, style.isItalic(), glyphInfo.getBoldOffset(), renderPose, bufferSource, mode, packedLightCoords);
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,143 @@
+package net.tysontheember.emberstextapi.util;
+
+import com.mojang.blaze3d.font.GlyphInfo;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.font.FontSet;
+import net.minecraft.client.gui.font.glyphs.BakedGlyph;
+import net.minecraft.client.gui.font.glyphs.EmptyGlyph;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.network.chat.Style;
+import net.minecraft.resources.ResourceLocation;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.mixin.client.FontAccess;
+import org.joml.Matrix4f;
+
+/**
+ * Writes effect-driven glyph quads for a whole message straight into the GUI buffer source,
+ * resolving glyphs through {@link FontSet} instead of issuing one {@code drawString} per character.
+ * One instance is reused per message; call {@link #begin}, emit glyphs, then {@link #end}.
+ */
+public final class GlyphBatchRenderer {
+
+    private static final float SHADOW_DIM = 0.25f;
+    private static final float SHADOW_Z_OFFSET = 0.03f;
+
+    private final Matrix4f mainPose = new Matrix4f();
+    private Matrix4f shadowPose;
+    private MultiBufferSource.BufferSource bufferSource;
+    private GuiGraphics graphics;
+    private Font font;
+    private FontAccess fontAccess;
+    private boolean dropShadow;
+
+    private ResourceLocation lastFontId;
+    private FontSet lastFontSet;
+
+    public void begin(GuiGraphics graphics, Font font, boolean dropShadow) {
+        this.graphics = graphics;
+        this.font = font;
+        this.fontAccess = (FontAccess) font;
+        this.bufferSource = graphics.bufferSource();
+        this.shadowPose = graphics.pose().last().pose();
+        this.mainPose.set(shadowPose);
+        if (dropShadow) {
+            this.mainPose.translate(0f, 0f, SHADOW_Z_OFFSET);
+        }
+        this.dropShadow = dropShadow;
+        this.lastFontId = null;
+        this.lastFontSet = null;
+    }
+
+    public void end() {
+        if (graphics != null) {
+            graphics.flush();
+        }
+        graphics = null;
+        bufferSource = null;
+        shadowPose = null;
+        lastFontSet = null;
+        lastFontId = null;
+    }
+
+    public float emit(EffectSettings settings, int codepoint, Style style, boolean decorate) {
+        FontSet fontSet = fontSet(style.getFont());
+        GlyphInfo glyphInfo = fontSet.getGlyphInfo(codepoint, fontAccess.getFilterFishyGlyphs());
+        float advance = glyphInfo.getAdvance(style.isBold());
+
+        if ((settings.getPackedColor() >>> 24) <= 3) {
+            return advance;
+        }
+
+        BakedGlyph bakedGlyph = style.isObfuscated() && codepoint != 32
+                ? fontSet.getRandomGlyph(glyphInfo)
+                : fontSet.getGlyph(codepoint);
+        boolean visible = !(bakedGlyph instanceof EmptyGlyph);
+        decorate = decorate && (style.isStrikethrough() || style.isUnderlined());
+
+        float x = settings.x;
+        float y = settings.y;
+        float r = settings.r;
+        float g = settings.g;
+        float b = settings.b;
+
+        if (dropShadow) {
+            float offset = glyphInfo.getShadowOffset();
+            settings.x = x + offset;
+            settings.y = y + offset;
+            settings.r = r * SHADOW_DIM;
+            settings.g = g * SHADOW_DIM;
+            settings.b = b * SHADOW_DIM;
+            if (decorate) {
+                renderDecorations(fontSet, style, settings, advance, shadowPose);
+            }
+            if (visible) {
+                EffectApplicator.renderChar(settings, codepoint, style, fontSet, glyphInfo, bakedGlyph,
+                        shadowPose, bufferSource, Font.DisplayMode.NORMAL, LightTexture.FULL_BRIGHT, font.lineHeight);
+            }
+            settings.x = x;
+            settings.y = y;
+            settings.r = r;
+            settings.g = g;
+            settings.b = b;
+        }
+
+        if (decorate) {
+            renderDecorations(fontSet, style, settings, advance, mainPose);
+        }
+        if (visible) {
+            EffectApplicator.renderChar(settings, codepoint, style, fontSet, glyphInfo, bakedGlyph,
+                    mainPose, bufferSource, Font.DisplayMode.NORMAL, LightTexture.FULL_BRIGHT, font.lineHeight);
+        }
+        return advance;
+    }
+
+    private void renderDecorations(FontSet fontSet, Style style, EffectSettings settings, float width, Matrix4f pose) {
+        BakedGlyph white = fontSet.whiteGlyph();
+        VertexConsumer vertexConsumer = bufferSource.getBuffer(white.renderType(Font.DisplayMode.NORMAL));
+        if (style.isStrikethrough()) {
+            white.renderEffect(new BakedGlyph.Effect(
+                    settings.x - 1.0f, settings.y + 4.5f,
+                    settings.x + width, settings.y + 4.5f - 1.0f,
+                    0.01f, settings.r, settings.g, settings.b, settings.a
+            ), pose, vertexConsumer, LightTexture.FULL_BRIGHT);
+        }
+        if (style.isUnderlined()) {
+            white.renderEffect(new BakedGlyph.Effect(
+                    settings.x - 1.0f, settings.y + 9.0f,
+                    settings.x + width, settings.y + 9.0f - 1.0f,
+                    0.01f, settings.r, settings.g, settings.b, settings.a
+            ), pose, vertexConsumer, LightTexture.FULL_BRIGHT);
+        }
+    }
+
+    private FontSet fontSet(ResourceLocation fontId) {
+        if (lastFontSet == null || fontId != lastFontId) {
+            lastFontSet = fontAccess.callGetFontSet(fontId);
+            lastFontId = fontId;
+        }
+        return lastFontSet;
+    }
+}
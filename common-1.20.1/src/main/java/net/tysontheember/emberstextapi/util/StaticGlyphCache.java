@@ -0,0 +1,269 @@
+package net.tysontheember.emberstextapi.util;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.network.chat.Style;
+import net.tysontheember.emberstextapi.accessor.ETAStyle;
+import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retained quads for glyphs whose effects are all {@link Effect#isStatic() static}, so static styled
+ * text such as colored chat history or tooltips is replayed from a recording instead of running its
+ * effects every frame.
+ * <p>
+ * Entries are keyed by the glyph's style, codepoint, index in its line and incoming color. Vertices are
+ * stored relative to the pen position with the pose taken out, so an entry replays wherever the line is
+ * drawn and under any transform. Render thread only; cleared on font reload.
+ */
+public final class StaticGlyphCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private static final Map<Key, Glyph> GLYPHS = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Glyph> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static final Recorder RECORDER = new Recorder();
+
+    private StaticGlyphCache() {}
+
+    /** Whether a glyph with these effects looks the same every frame and can be replayed. */
+    public static boolean isCacheable(List<Effect> effects, ETAStyle etaStyle, Style style) {
+        if (style.isObfuscated() || etaStyle.emberstextapi$getTypewriterTrack() != null) {
+            return false;
+        }
+        for (int i = 0; i < effects.size(); i++) {
+            if (!effects.get(i).isStatic()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static Key key(Style style, int codepoint, int index, float r, float g, float b, float a,
+                          boolean dropShadow, Font.DisplayMode mode) {
+        return new Key(style, codepoint, index, r, g, b, a, dropShadow, mode, QualityGovernor.level());
+    }
+
+    @Nullable
+    public static Glyph get(Key key) {
+        return GLYPHS.get(key);
+    }
+
+    /**
+     * Returns a buffer source that draws into {@code target} and records what is drawn, relative to
+     * ({@code originX}, {@code originY}) under {@code pose}, until {@link #store} or the next call.
+     */
+    public static MultiBufferSource record(MultiBufferSource target, Matrix4f pose, float originX, float originY) {
+        RECORDER.begin(target, pose, originX, originY);
+        return RECORDER;
+    }
+
+    /** Keeps the recording under {@code key}, along with what the caller needs to finish the glyph. */
+    public static void store(Key key, float r, float g, float b, float a, float advance, float shadowOffset) {
+        Glyph glyph = RECORDER.finish(r, g, b, a, advance, shadowOffset);
+        if (glyph != null) {
+            GLYPHS.put(key, glyph);
+        }
+    }
+
+    public static void clear() {
+        GLYPHS.clear();
+    }
+
+    public record Key(Style style, int codepoint, int index, float r, float g, float b, float a,
+                      boolean dropShadow, Font.DisplayMode mode, int quality) {
+    }
+
+    /**
+     * A recorded glyph: its quads, grouped into runs by render type, and the final color, advance and
+     * shadow offset for the underline, strikethrough and pen.
+     */
+    public static final class Glyph {
+        private final RenderType[] types;
+        private final int[] runEnds;
+        private final float[] vertices;
+        private final int[] colors;
+        public final float r;
+        public final float g;
+        public final float b;
+        public final float a;
+        public final float advance;
+        public final float shadowOffset;
+
+        Glyph(RenderType[] types, int[] runEnds, float[] vertices, int[] colors,
+              float r, float g, float b, float a, float advance, float shadowOffset) {
+            this.types = types;
+            this.runEnds = runEnds;
+            this.vertices = vertices;
+            this.colors = colors;
+            this.r = r;
+            this.g = g;
+            this.b = b;
+            this.a = a;
+            this.advance = advance;
+            this.shadowOffset = shadowOffset;
+        }
+
+        /** Draws the recorded quads with the pen at ({@code x}, {@code y}) under {@code pose}. */
+        public void replay(Matrix4f pose, MultiBufferSource bufferSource, float x, float y, int packedLight) {
+            int v = 0;
+            for (int run = 0; run < types.length; run++) {
+                VertexConsumer buffer = bufferSource.getBuffer(types[run]);
+                for (; v < runEnds[run]; v++) {
+                    int o = v * Recorder.STRIDE;
+                    int color = colors[v];
+                    buffer.vertex(pose, x + vertices[o], y + vertices[o + 1], vertices[o + 2])
+                            .color((color >> 16) & 0xFF, (color >> 8) & 0xFF, color & 0xFF, color >>> 24)
+                            .uv(vertices[o + 3], vertices[o + 4])
+                            .uv2(packedLight)
+                            .endVertex();
+                }
+            }
+        }
+    }
+
+    /**
+     * Forwards everything to the real buffers while keeping position, color and uv per vertex. Anything a
+     * glyph quad doesn't use (normals, overlay, default color) marks the recording as not replayable.
+     */
+    private static final class Recorder implements MultiBufferSource, VertexConsumer {
+        static final int STRIDE = 5;
+
+        private final Matrix4f inverse = new Matrix4f();
+        private final Vector3f local = new Vector3f();
+        private final List<RenderType> types = new ArrayList<>();
+        private int[] runEnds = new int[4];
+        private float[] vertices = new float[STRIDE * 16];
+        private int[] colors = new int[16];
+        private MultiBufferSource target;
+        private VertexConsumer delegate;
+        private float originX;
+        private float originY;
+        private int count;
+        private boolean valid;
+
+        void begin(MultiBufferSource target, Matrix4f pose, float originX, float originY) {
+            this.target = target;
+            this.originX = originX;
+            this.originY = originY;
+            this.types.clear();
+            this.count = 0;
+            this.valid = Math.abs(pose.determinant()) > 1.0e-12f;
+            if (valid) {
+                inverse.set(pose).invert();
+            }
+        }
+
+        @Nullable
+        Glyph finish(float r, float g, float b, float a, float advance, float shadowOffset) {
+            target = null;
+            delegate = null;
+            if (!valid) {
+                return null;
+            }
+            if (!types.isEmpty()) {
+                runEnds[types.size() - 1] = count;
+            }
+            return new Glyph(types.toArray(new RenderType[0]), Arrays.copyOf(runEnds, types.size()),
+                    Arrays.copyOf(vertices, count * STRIDE), Arrays.copyOf(colors, count),
+                    r, g, b, a, advance, shadowOffset);
+        }
+
+        @Override
+        public VertexConsumer getBuffer(RenderType type) {
+            delegate = target.getBuffer(type);
+            if (!types.isEmpty()) {
+                runEnds[types.size() - 1] = count;
+            }
+            if (types.size() == runEnds.length) {
+                runEnds = Arrays.copyOf(runEnds, runEnds.length * 2);
+            }
+            types.add(type);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer vertex(double x, double y, double z) {
+            delegate.vertex(x, y, z);
+            if (count == colors.length) {
+                colors = Arrays.copyOf(colors, count * 2);
+                vertices = Arrays.copyOf(vertices, count * 2 * STRIDE);
+            }
+            inverse.transformPosition((float) x, (float) y, (float) z, local);
+            int o = count * STRIDE;
+            vertices[o] = local.x - originX;
+            vertices[o + 1] = local.y - originY;
+            vertices[o + 2] = local.z;
+            count++;
+            return this;
+        }
+
+        @Override
+        public VertexConsumer color(int r, int g, int b, int a) {
+            delegate.color(r, g, b, a);
+            colors[count - 1] = (a & 0xFF) << 24 | (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer uv(float u, float v) {
+            delegate.uv(u, v);
+            int o = (count - 1) * STRIDE;
+            vertices[o + 3] = u;
+            vertices[o + 4] = v;
+            return this;
+        }
+
+        @Override
+        public VertexConsumer overlayCoords(int u, int v) {
+            delegate.overlayCoords(u, v);
+            valid = false;
+            return this;
+        }
+
+        @Override
+        public VertexConsumer uv2(int u, int v) {
+            delegate.uv2(u, v);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer normal(float x, float y, float z) {
+            delegate.normal(x, y, z);
+            valid = false;
+            return this;
+        }
+
+        @Override
+        public void endVertex() {
+            delegate.endVertex();
+        }
+
+        @Override
+        public void defaultColor(int r, int g, int b, int a) {
+            delegate.defaultColor(r, g, b, a);
+            valid = false;
+        }
+
+        @Override
+        public void unsetDefaultColor() {
+            delegate.unsetDefaultColor();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package net.tysontheember.emberstextapi.util;
+
+import net.minecraft.network.chat.FormattedText;
+import net.minecraft.network.chat.Style;
+import net.tysontheember.emberstextapi.accessor.ETAStyle;
+import net.tysontheember.emberstextapi.accessor.StyleExtension;
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
+import net.tysontheember.emberstextapi.immersivemessages.api.TextSpan;
+import net.tysontheember.emberstextapi.immersivemessages.effects.animation.ObfKey;
+import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterTrack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Parsed markup flattened into the (style, text) pieces a contents visit hands to its consumer, built
+ * once per parse and base style and reused across visits.
+ * <p>
+ * A span is emitted as one run unless its characters need different styles: with a typewriter track
+ * each character carries its own index, so those styles and one-character strings are precomputed
+ * here. Content containing a section sign is also split per character, as it always was, so vanilla
+ * doesn't start reading it as a formatting code.
+ */
+public final class StyledRuns {
+
+    private final MarkupParseCache.Entry parsed;
+    private final Style base;
+    @Nullable
+    private final StyleExtension baseExtension;
+    @Nullable
+    private final TypewriterTrack track;
+    private final Style[] styles;
+    private final String[] texts;
+    private final int typewriterLength;
+
+    private StyledRuns(MarkupParseCache.Entry parsed, Style base, @Nullable TypewriterTrack track,
+                       Style[] styles, String[] texts, int typewriterLength) {
+        this.parsed = parsed;
+        this.base = base;
+        this.baseExtension = ((ETAStyle) base).emberstextapi$getExtension();
+        this.track = track;
+        this.styles = styles;
+        this.texts = texts;
+        this.typewriterLength = typewriterLength;
+    }
+
+    /**
+     * Flattens {@code parsed} on top of {@code base}. When the markup obfuscates or scrolls, each span gets
+     * keys built from {@code obfuscateKey} and {@code obfuscateStableKey} plus its span index.
+     */
+    public static StyledRuns compile(MarkupParseCache.Entry parsed, Style base, @Nullable TypewriterTrack track,
+                                     @Nullable Object obfuscateKey, @Nullable Object obfuscateStableKey) {
+        List<TextSpan> spans = parsed.spans();
+        boolean keyed = parsed.needsSpanKeys();
+        List<Style> styles = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        int globalCharIndex = 0;
+        int typewriterLength = 0;
+
+        for (int spanIdx = 0; spanIdx < spans.size(); spanIdx++) {
+            TextSpan span = spans.get(spanIdx);
+            String content = span.getContent();
+            if (content == null || content.isEmpty()) {
+                if (span.getItemId() == null && span.getEntityId() == null) {
+                    continue;
+                }
+                content = " ";
+            }
+            typewriterLength += content.length();
+
+            Style spanStyle = StyleUtil.applyTextSpanFormatting(base, span);
+            int spanStartIndex = globalCharIndex;
+            int spanLength = content.length();
+            ObfKey key = keyed ? new ObfKey(obfuscateKey, spanIdx) : null;
+            ObfKey stableKey = keyed ? new ObfKey(obfuscateStableKey, spanIdx) : null;
+
+            if (track == null && content.indexOf('\u00a7') < 0) {
+                styles.add(keyed ? withState(spanStyle, null, -1, key, stableKey, spanStartIndex, spanLength) : spanStyle);
+                texts.add(content);
+                globalCharIndex += content.codePointCount(0, content.length());
+                continue;
+            }
+
+            for (int i = 0; i < content.length(); ) {
+                int end = i + Character.charCount(content.codePointAt(i));
+                Style charStyle = spanStyle;
+                if (track != null || keyed) {
+                    charStyle = withState(spanStyle, track, globalCharIndex, key, stableKey, spanStartIndex, spanLength);
+                }
+                styles.add(charStyle);
+                texts.add(content.substring(i, end));
+                globalCharIndex++;
+                i = end;
+            }
+        }
+
+        return new StyledRuns(parsed, base, track, styles.toArray(new Style[0]), texts.toArray(new String[0]),
+                typewriterLength);
+    }
+
+    /** True if these runs were compiled from the same parse, base style and typewriter track. */
+    public boolean matches(MarkupParseCache.Entry parsed, Style base, @Nullable TypewriterTrack track) {
+        if (this.parsed != parsed || this.track != track) {
+            return false;
+        }
+        // Extensions are interned, so comparing them by reference also covers the state Style.equals skips.
+        return this.base == base
+                || (this.base.equals(base) && baseExtension == ((ETAStyle) base).emberstextapi$getExtension());
+    }
+
+    /** Character count the typewriter track should reveal, item and entity placeholders included. */
+    public int typewriterLength() {
+        return typewriterLength;
+    }
+
+    public <T> Optional<T> visit(FormattedText.StyledContentConsumer<T> consumer) {
+        for (int i = 0; i < texts.length; i++) {
+            Optional<T> result = consumer.accept(styles[i], texts[i]);
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Style withState(Style spanStyle, @Nullable TypewriterTrack track, int index,
+                                   @Nullable ObfKey key, @Nullable ObfKey stableKey, int spanStart, int spanLength) {
+        // Style.withX returns the same instance for unchanged values; flipping bold twice forces a copy we own.
+        boolean bold = spanStyle.isBold();
+        Style copy = spanStyle.withBold(!bold).withBold(bold);
+        ETAStyle eta = (ETAStyle) copy;
+        StyleExtension.Builder ext = StyleExtension.orEmpty(eta.emberstextapi$getExtension()).toBuilder();
+        if (track != null) {
+            ext.typewriterTrack(track).typewriterIndex(index);
+        }
+        if (key != null) {
+            ext.obfuscateKey(key)
+                    .obfuscateStableKey(stableKey)
+                    .obfuscateSpanStart(spanStart)
+                    .obfuscateSpanLength(spanLength);
+        }
+        eta.emberstextapi$setExtension(ext.build());
+        return copy;
+    }
+}
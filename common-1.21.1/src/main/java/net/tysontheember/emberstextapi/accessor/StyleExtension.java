@@ -0,0 +1,241 @@
+package net.tysontheember.emberstextapi.accessor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterTrack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Everything EmbersTextAPI attaches to a {@code Style}, held in one immutable value so vanilla styles
+ * that never use it only pay for a single null field. Instances are interned, so styles built from the
+ * same markup share one extension. Unset values use the same defaults the accessors report: an empty
+ * effect list, null objects and -1 for indices.
+ */
+public record StyleExtension(
+        ImmutableList<Effect> effects,
+        @Nullable String itemId,
+        @Nullable Integer itemCount,
+        @Nullable Float itemOffsetX,
+        @Nullable Float itemOffsetY,
+        @Nullable String itemNbt,
+        @Nullable String entityId,
+        @Nullable Float entityScale,
+        @Nullable Float entityOffsetX,
+        @Nullable Float entityOffsetY,
+        @Nullable Float entityYaw,
+        @Nullable Float entityPitch,
+        @Nullable Float entityRoll,
+        @Nullable Integer entityLighting,
+        @Nullable Float entitySpin,
+        @Nullable String entityAnimation,
+        @Nullable String entityNbt,
+        @Nullable TypewriterTrack typewriterTrack,
+        int typewriterIndex,
+        @Nullable Object obfuscateKey,
+        @Nullable Object obfuscateStableKey,
+        int obfuscateSpanStart,
+        int obfuscateSpanLength) {
+
+    public static final StyleExtension EMPTY = new StyleExtension(ImmutableList.of(),
+            null, null, null, null, null,
+            null, null, null, null, null, null, null, null, null, null, null,
+            null, -1, null, null, -1, -1);
+
+    private static final Interner<StyleExtension> INTERNER = Interners.newWeakInterner();
+
+    public static StyleExtension orEmpty(@Nullable StyleExtension ext) {
+        return ext != null ? ext : EMPTY;
+    }
+
+    /**
+     * Returns the shared instance equal to this one, or null when this carries nothing so the owning
+     * style can drop its reference.
+     */
+    @Nullable
+    public StyleExtension intern() {
+        return equals(EMPTY) ? null : INTERNER.intern(this);
+    }
+
+    /** True if effects, typewriter or obfuscate state would be carried over by {@code Style.withX}. */
+    public boolean hasPropagatedState() {
+        return !effects.isEmpty()
+                || typewriterTrack != null
+                || obfuscateKey != null
+                || obfuscateStableKey != null
+                || obfuscateSpanStart >= 0
+                || obfuscateSpanLength >= 0;
+    }
+
+    /**
+     * Returns {@code target} with this extension's effects, typewriter and obfuscate state copied over,
+     * the way {@code Style.withX} carries them to the new style. Item and entity values are not copied.
+     */
+    @Nullable
+    public StyleExtension propagateInto(@Nullable StyleExtension target) {
+        if (target == null && itemId == null && itemCount == null && itemOffsetX == null && itemOffsetY == null
+                && itemNbt == null && entityId == null && entityScale == null && entityOffsetX == null
+                && entityOffsetY == null && entityYaw == null && entityPitch == null && entityRoll == null
+                && entityLighting == null && entitySpin == null && entityAnimation == null && entityNbt == null
+                && (typewriterTrack != null || typewriterIndex == -1)
+                && obfuscateSpanStart >= -1 && obfuscateSpanLength >= -1) {
+            return this;
+        }
+        Builder b = orEmpty(target).toBuilder().effects(effects);
+        if (typewriterTrack != null) {
+            b.typewriterTrack(typewriterTrack).typewriterIndex(typewriterIndex);
+        }
+        if (obfuscateKey != null) {
+            b.obfuscateKey(obfuscateKey);
+        }
+        if (obfuscateStableKey != null) {
+            b.obfuscateStableKey(obfuscateStableKey);
+        }
+        if (obfuscateSpanStart >= 0) {
+            b.obfuscateSpanStart(obfuscateSpanStart);
+        }
+        if (obfuscateSpanLength >= 0) {
+            b.obfuscateSpanLength(obfuscateSpanLength);
+        }
+        return b.build();
+    }
+
+    /**
+     * Hash over the values that take part in {@code Style} equality; item/entity NBT, entity animation,
+     * the typewriter track and obfuscate state are deliberately left out, as before.
+     */
+    public static int styleHash(@Nullable StyleExtension ext) {
+        StyleExtension e = orEmpty(ext);
+        int h = e.effects.hashCode();
+        h = 31 * h + Objects.hashCode(e.itemId);
+        h = 31 * h + Objects.hashCode(e.itemCount);
+        h = 31 * h + Objects.hashCode(e.itemOffsetX);
+        h = 31 * h + Objects.hashCode(e.itemOffsetY);
+        h = 31 * h + Objects.hashCode(e.entityId);
+        h = 31 * h + Objects.hashCode(e.entityScale);
+        h = 31 * h + Objects.hashCode(e.entityOffsetX);
+        h = 31 * h + Objects.hashCode(e.entityOffsetY);
+        h = 31 * h + Objects.hashCode(e.entityYaw);
+        h = 31 * h + Objects.hashCode(e.entityPitch);
+        h = 31 * h + Objects.hashCode(e.entityRoll);
+        h = 31 * h + Objects.hashCode(e.entityLighting);
+        h = 31 * h + Objects.hashCode(e.entitySpin);
+        h = 31 * h + e.typewriterIndex;
+        return h;
+    }
+
+    /** Equality over the same values as {@link #styleHash}. */
+    public static boolean styleEquals(@Nullable StyleExtension a, @Nullable StyleExtension b) {
+        if (a == b) return true;
+        StyleExtension x = orEmpty(a);
+        StyleExtension y = orEmpty(b);
+        return Objects.equals(x.effects, y.effects)
+                && Objects.equals(x.itemId, y.itemId)
+                && Objects.equals(x.itemCount, y.itemCount)
+                && Objects.equals(x.itemOffsetX, y.itemOffsetX)
+                && Objects.equals(x.itemOffsetY, y.itemOffsetY)
+                && Objects.equals(x.entityId, y.entityId)
+                && Objects.equals(x.entityScale, y.entityScale)
+                && Objects.equals(x.entityOffsetX, y.entityOffsetX)
+                && Objects.equals(x.entityOffsetY, y.entityOffsetY)
+                && Objects.equals(x.entityYaw, y.entityYaw)
+                && Objects.equals(x.entityPitch, y.entityPitch)
+                && Objects.equals(x.entityRoll, y.entityRoll)
+                && Objects.equals(x.entityLighting, y.entityLighting)
+                && Objects.equals(x.entitySpin, y.entitySpin)
+                && x.typewriterIndex == y.typewriterIndex;
+    }
+
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /** Mutable copy used by the style setters; {@link #build()} returns an interned instance or null. */
+    public static final class Builder {
+        private ImmutableList<Effect> effects;
+        private String itemId;
+        private Integer itemCount;
+        private Float itemOffsetX;
+        private Float itemOffsetY;
+        private String itemNbt;
+        private String entityId;
+        private Float entityScale;
+        private Float entityOffsetX;
+        private Float entityOffsetY;
+        private Float entityYaw;
+        private Float entityPitch;
+        private Float entityRoll;
+        private Integer entityLighting;
+        private Float entitySpin;
+        private String entityAnimation;
+        private String entityNbt;
+        private TypewriterTrack typewriterTrack;
+        private int typewriterIndex;
+        private Object obfuscateKey;
+        private Object obfuscateStableKey;
+        private int obfuscateSpanStart;
+        private int obfuscateSpanLength;
+
+        private Builder(StyleExtension e) {
+            effects = e.effects;
+            itemId = e.itemId;
+            itemCount = e.itemCount;
+            itemOffsetX = e.itemOffsetX;
+            itemOffsetY = e.itemOffsetY;
+            itemNbt = e.itemNbt;
+            entityId = e.entityId;
+            entityScale = e.entityScale;
+            entityOffsetX = e.entityOffsetX;
+            entityOffsetY = e.entityOffsetY;
+            entityYaw = e.entityYaw;
+            entityPitch = e.entityPitch;
+            entityRoll = e.entityRoll;
+            entityLighting = e.entityLighting;
+            entitySpin = e.entitySpin;
+            entityAnimation = e.entityAnimation;
+            entityNbt = e.entityNbt;
+            typewriterTrack = e.typewriterTrack;
+            typewriterIndex = e.typewriterIndex;
+            obfuscateKey = e.obfuscateKey;
+            obfuscateStableKey = e.obfuscateStableKey;
+            obfuscateSpanStart = e.obfuscateSpanStart;
+            obfuscateSpanLength = e.obfuscateSpanLength;
+        }
+
+        public Builder effects(ImmutableList<Effect> effects) { this.effects = effects != null ? effects : ImmutableList.of(); return this; }
+        public Builder itemId(String itemId) { this.itemId = itemId; return this; }
+        public Builder itemCount(Integer itemCount) { this.itemCount = itemCount; return this; }
+        public Builder itemOffsetX(Float itemOffsetX) { this.itemOffsetX = itemOffsetX; return this; }
+        public Builder itemOffsetY(Float itemOffsetY) { this.itemOffsetY = itemOffsetY; return this; }
+        public Builder itemNbt(String itemNbt) { this.itemNbt = itemNbt; return this; }
+        public Builder entityId(String entityId) { this.entityId = entityId; return this; }
+        public Builder entityScale(Float entityScale) { this.entityScale = entityScale; return this; }
+        public Builder entityOffsetX(Float entityOffsetX) { this.entityOffsetX = entityOffsetX; return this; }
+        public Builder entityOffsetY(Float entityOffsetY) { this.entityOffsetY = entityOffsetY; return this; }
+        public Builder entityYaw(Float entityYaw) { this.entityYaw = entityYaw; return this; }
+        public Builder entityPitch(Float entityPitch) { this.entityPitch = entityPitch; return this; }
+        public Builder entityRoll(Float entityRoll) { this.entityRoll = entityRoll; return this; }
+        public Builder entityLighting(Integer entityLighting) { this.entityLighting = entityLighting; return this; }
+        public Builder entitySpin(Float entitySpin) { this.entitySpin = entitySpin; return this; }
+        public Builder entityAnimation(String entityAnimation) { this.entityAnimation = entityAnimation; return this; }
+        public Builder entityNbt(String entityNbt) { this.entityNbt = entityNbt; return this; }
+        public Builder typewriterTrack(TypewriterTrack typewriterTrack) { this.typewriterTrack = typewriterTrack; return this; }
+        public Builder typewriterIndex(int typewriterIndex) { this.typewriterIndex = typewriterIndex; return this; }
+        public Builder obfuscateKey(Object obfuscateKey) { this.obfuscateKey = obfuscateKey; return this; }
+        public Builder obfuscateStableKey(Object obfuscateStableKey) { this.obfuscateStableKey = obfuscateStableKey; return this; }
+        public Builder obfuscateSpanStart(int obfuscateSpanStart) { this.obfuscateSpanStart = obfuscateSpanStart; return this; }
+        public Builder obfuscateSpanLength(int obfuscateSpanLength) { this.obfuscateSpanLength = obfuscateSpanLength; return this; }
+
+        @Nullable
+        public StyleExtension build() {
+            return new StyleExtension(effects, itemId, itemCount, itemOffsetX, itemOffsetY, itemNbt,
+                    entityId, entityScale, entityOffsetX, entityOffsetY, entityYaw, entityPitch, entityRoll,
+                    entityLighting, entitySpin, entityAnimation, entityNbt,
+                    typewriterTrack, typewriterIndex, obfuscateKey, obfuscateStableKey,
+                    obfuscateSpanStart, obfuscateSpanLength).intern();
+        }
+    }
+}
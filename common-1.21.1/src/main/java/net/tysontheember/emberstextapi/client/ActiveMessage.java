@@ -4,12 +4,15 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.network.chat.Component;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.serialization.MessageDelta;
 
 import java.util.UUID;
 
 public final class ActiveMessage {
     private final UUID id;
     private ImmersiveMessage message;
+    private TextLayoutCache.Key lastKey;
+    private TextLayoutCache.Layout lastLayout;
 
     public ActiveMessage(UUID id, ImmersiveMessage message) {
         this.id = id;
@@ -34,12 +37,17 @@ public final class ActiveMessage {
 
     public void render(GuiGraphics graphics, float partialTick) {
         Component draw = message.component();
-        int colour = message.renderColour(partialTick);
+        int colour = message.renderColour(partialTick) & 0x00FFFFFF;
         float scale = message.getTextScale();
         int wrap = message.getWrapWidth();
         String fontKey = message.fontKey();
-        TextLayoutCache.Key key = new TextLayoutCache.Key(draw, colour, scale, wrap, fontKey);
-        TextLayoutCache.Layout layout = TextLayoutCache.getOrCompute(key, () -> message.buildLayout(draw));
+        TextLayoutCache.Layout layout = lastLayout;
+        if (layout == null || !lastKey.matches(draw, colour, scale, wrap, fontKey)) {
+            TextLayoutCache.Key key = new TextLayoutCache.Key(draw, colour, scale, wrap, fontKey);
+            layout = TextLayoutCache.getOrCompute(key, () -> message.buildLayout(draw));
+            lastKey = key;
+            lastLayout = layout;
+        }
         int screenW = Minecraft.getInstance().getWindow().getGuiScaledWidth();
         int screenH = Minecraft.getInstance().getWindow().getGuiScaledHeight();
         message.renderWithLayout(graphics, draw, layout, screenW, screenH, partialTick);
@@ -47,5 +55,15 @@ public final class ActiveMessage {
 
     public void update(ImmersiveMessage newMessage) {
         this.message = newMessage;
+        this.lastKey = null;
+        this.lastLayout = null;
+    }
+
+    /**
+     * Patches the current message in place, keeping its age and reveal progress. The cached layout stays
+     * valid until the patched message draws something different.
+     */
+    public void patch(MessageDelta.Update update) {
+        update.applyTo(message);
     }
 }
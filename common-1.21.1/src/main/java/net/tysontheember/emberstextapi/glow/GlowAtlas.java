@@ -0,0 +1,254 @@
+package net.tysontheember.emberstextapi.glow;
+
+import com.mojang.blaze3d.font.GlyphInfo;
+import com.mojang.blaze3d.font.SheetGlyphInfo;
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.platform.TextureUtil;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.font.GlyphRenderTypes;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.NeonEffect;
+import net.tysontheember.emberstextapi.sdf.SDFSheetGlyphInfo;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Texture pages of pre-blurred neon glows, one per font, codepoint and glow shape, so a glowing glyph
+ * costs one extra quad instead of up to 24 offset copies.
+ * <p>
+ * A glyph's coverage is read back by uploading it into a scratch texture the same way the font atlas
+ * does, then baked with {@link GlowBaker}. Glyphs that can't be baked (SDF glyphs, glyphs larger than a
+ * page, or once the page budget is used up) resolve to null and the caller falls back to sibling copies.
+ * Render thread only; cleared on font reload.
+ */
+public final class GlowAtlas {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/GlowAtlas");
+
+    private static final int PAGE_SIZE = 256;
+    private static final int MAX_PAGES = 16;
+
+    private static final Glyph MISSING = new Glyph(null, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    private static final Map<Key, Glyph> GLYPHS = new HashMap<>();
+    private static final List<Page> PAGES = new ArrayList<>();
+
+    private GlowAtlas() {}
+
+    /**
+     * Returns the baked glow for {@code codepoint} of {@code font} in {@code neon}'s shape, baking it on
+     * first use, or null if it can't be baked.
+     */
+    @Nullable
+    public static Glyph get(ResourceLocation font, int codepoint, GlyphInfo glyphInfo, NeonEffect neon) {
+        if (!RenderSystem.isOnRenderThread()) {
+            return null;
+        }
+        Key key = new Key(font, codepoint, neon.glowKey());
+        Glyph glyph = GLYPHS.get(key);
+        if (glyph == null) {
+            glyph = bake(glyphInfo, neon);
+            GLYPHS.put(key, glyph);
+        }
+        return glyph == MISSING ? null : glyph;
+    }
+
+    /** Draws {@code glyph} at the pen position of {@code settings}, tinted with its glow color. */
+    public static void render(Glyph glyph, EffectSettings settings, boolean italic, float boldOffset,
+                              Matrix4f pose, MultiBufferSource bufferSource, Font.DisplayMode mode,
+                              int packedLight) {
+        float alpha = settings.a * settings.glowPulse;
+        if (alpha <= 0) {
+            return;
+        }
+        VertexConsumer buffer = bufferSource.getBuffer(glyph.renderTypes.select(mode));
+
+        float x = settings.x + boldOffset;
+        float leftX = x + glyph.left;
+        float rightX = x + glyph.right;
+        float upY = settings.y + glyph.up;
+        float downY = settings.y + glyph.down;
+        float italicOffsetUp = italic ? 1.0f - 0.25f * glyph.up : 0.0f;
+        float italicOffsetDown = italic ? 1.0f - 0.25f * glyph.down : 0.0f;
+
+        buffer.addVertex(pose, leftX + italicOffsetUp, upY, 0.0f)
+                .setColor(settings.glowR, settings.glowG, settings.glowB, alpha)
+                .setUv(glyph.u0, glyph.v0)
+                .setLight(packedLight);
+        buffer.addVertex(pose, leftX + italicOffsetDown, downY, 0.0f)
+                .setColor(settings.glowR, settings.glowG, settings.glowB, alpha)
+                .setUv(glyph.u0, glyph.v1)
+                .setLight(packedLight);
+        buffer.addVertex(pose, rightX + italicOffsetDown, downY, 0.0f)
+                .setColor(settings.glowR, settings.glowG, settings.glowB, alpha)
+                .setUv(glyph.u1, glyph.v1)
+                .setLight(packedLight);
+        buffer.addVertex(pose, rightX + italicOffsetUp, upY, 0.0f)
+                .setColor(settings.glowR, settings.glowG, settings.glowB, alpha)
+                .setUv(glyph.u1, glyph.v0)
+                .setLight(packedLight);
+    }
+
+    /** Releases every page; glows are baked again on demand. */
+    public static void clear() {
+        GLYPHS.clear();
+        if (PAGES.isEmpty()) {
+            return;
+        }
+        var textureManager = Minecraft.getInstance().getTextureManager();
+        for (Page page : PAGES) {
+            textureManager.release(page.location);
+        }
+        PAGES.clear();
+    }
+
+    private static Glyph bake(GlyphInfo glyphInfo, NeonEffect neon) {
+        SheetGlyphInfo[] captured = new SheetGlyphInfo[1];
+        glyphInfo.bake(sheet -> {
+            captured[0] = sheet;
+            return null;
+        });
+        SheetGlyphInfo sheet = captured[0];
+        if (sheet == null || sheet instanceof SDFSheetGlyphInfo) {
+            return MISSING;
+        }
+
+        int w = sheet.getPixelWidth();
+        int h = sheet.getPixelHeight();
+        float oversample = sheet.getOversample();
+        NeonEffect.Ring[] rings = neon.rings();
+        int pad = GlowBaker.padding(rings, oversample);
+        int outW = w + 2 * pad;
+        int outH = h + 2 * pad;
+        if (w <= 0 || h <= 0 || outW > PAGE_SIZE || outH > PAGE_SIZE) {
+            return MISSING;
+        }
+
+        byte[] coverage;
+        try {
+            coverage = readCoverage(sheet, w, h);
+        } catch (Exception e) {
+            LOGGER.debug("Could not read glyph coverage for glow: {}", e.getMessage());
+            return MISSING;
+        }
+        byte[] glow = GlowBaker.bake(coverage, w, h, pad, oversample, rings);
+
+        Page page = allocate(outW, outH);
+        if (page == null) {
+            return MISSING;
+        }
+        int px = page.slotX;
+        int py = page.slotY;
+        NativeImage pixels = page.texture.getPixels();
+        for (int y = 0; y < outH; y++) {
+            for (int x = 0; x < outW; x++) {
+                int alpha = glow[y * outW + x] & 0xFF;
+                pixels.setPixelRGBA(px + x, py + y, (alpha << 24) | 0xFFFFFF);
+            }
+        }
+        page.texture.bind();
+        pixels.upload(0, px, py, px, py, outW, outH, false, false);
+
+        float padUnits = pad / oversample;
+        return new Glyph(page.renderTypes,
+                px / (float) PAGE_SIZE, (px + outW) / (float) PAGE_SIZE,
+                py / (float) PAGE_SIZE, (py + outH) / (float) PAGE_SIZE,
+                sheet.getLeft() - padUnits, sheet.getRight() + padUnits,
+                sheet.getUp() - padUnits, sheet.getDown() + padUnits);
+    }
+
+    /** Uploads the glyph into a scratch texture and reads its coverage back: alpha if colored, else red. */
+    private static byte[] readCoverage(SheetGlyphInfo sheet, int w, int h) {
+        int id = TextureUtil.generateTextureId();
+        try {
+            TextureUtil.prepareImage(id, w, h);
+            sheet.upload(0, 0);
+            try (NativeImage image = new NativeImage(w, h, false)) {
+                image.downloadTexture(0, false);
+                byte[] coverage = new byte[w * h];
+                boolean colored = sheet.isColored();
+                for (int y = 0; y < h; y++) {
+                    for (int x = 0; x < w; x++) {
+                        int abgr = image.getPixelRGBA(x, y);
+                        coverage[y * w + x] = (byte) (colored ? abgr >>> 24 : abgr & 0xFF);
+                    }
+                }
+                return coverage;
+            }
+        } finally {
+            TextureUtil.releaseTextureId(id);
+        }
+    }
+
+    /** Finds room for a {@code w}x{@code h} slot, shelf by shelf, opening a new page when needed. */
+    @Nullable
+    private static Page allocate(int w, int h) {
+        for (Page page : PAGES) {
+            if (page.fit(w, h)) {
+                return page;
+            }
+        }
+        if (PAGES.size() >= MAX_PAGES) {
+            return null;
+        }
+        ResourceLocation location = ResourceLocation.fromNamespaceAndPath("emberstextapi", "glow/" + PAGES.size());
+        DynamicTexture texture = new DynamicTexture(new NativeImage(NativeImage.Format.RGBA, PAGE_SIZE, PAGE_SIZE, true));
+        Minecraft.getInstance().getTextureManager().register(location, texture);
+        Page page = new Page(location, texture, GlyphRenderTypes.createForColorTexture(location));
+        PAGES.add(page);
+        return page.fit(w, h) ? page : null;
+    }
+
+    public record Glyph(GlyphRenderTypes renderTypes, float u0, float u1, float v0, float v1,
+                        float left, float right, float up, float down) {
+    }
+
+    private record Key(ResourceLocation font, int codepoint, NeonEffect.GlowKey glow) {
+    }
+
+    private static final class Page {
+        final ResourceLocation location;
+        final DynamicTexture texture;
+        final GlyphRenderTypes renderTypes;
+        int shelfX;
+        int shelfY;
+        int shelfHeight;
+        int slotX;
+        int slotY;
+
+        Page(ResourceLocation location, DynamicTexture texture, GlyphRenderTypes renderTypes) {
+            this.location = location;
+            this.texture = texture;
+            this.renderTypes = renderTypes;
+        }
+
+        boolean fit(int w, int h) {
+            if (shelfX + w > PAGE_SIZE) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (shelfY + h > PAGE_SIZE) {
+                return false;
+            }
+            slotX = shelfX;
+            slotY = shelfY;
+            shelfX += w;
+            shelfHeight = Math.max(shelfHeight, h);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package net.tysontheember.emberstextapi.glow;
+
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.NeonEffect;
+
+import java.util.Arrays;
+
+/**
+ * Bakes a neon glow from a glyph's coverage bitmap, so it can be drawn as one textured quad instead of
+ * one offset copy of the glyph per ring sample.
+ * <p>
+ * Each ring of copies is treated as spread continuously around its circle: the glyph's coverage is
+ * averaged over the ring, and the ring's copies are composited as {@code samples} layers of that average.
+ */
+public final class GlowBaker {
+
+    /** Points each ring is averaged over; matches the angle table {@link NeonEffect} places copies on. */
+    static final int RING_STEPS = 24;
+
+    private static final float[] COS = new float[RING_STEPS];
+    private static final float[] SIN = new float[RING_STEPS];
+
+    static {
+        for (int i = 0; i < RING_STEPS; i++) {
+            double angle = (Math.PI * 2.0 * i) / RING_STEPS;
+            COS[i] = (float) Math.cos(angle);
+            SIN[i] = (float) Math.sin(angle);
+        }
+    }
+
+    private GlowBaker() {}
+
+    /** Texels to add on each side of the glyph bitmap so the widest ring fits. */
+    public static int padding(NeonEffect.Ring[] rings, float texelsPerUnit) {
+        float max = 0f;
+        for (NeonEffect.Ring ring : rings) {
+            max = Math.max(max, ring.radius());
+        }
+        return (int) Math.ceil(max * texelsPerUnit) + 1;
+    }
+
+    /**
+     * Returns the glow alpha for a {@code width}x{@code height} coverage bitmap (row-major, 0-255), as a
+     * bitmap padded by {@code pad} texels on every side. {@code texelsPerUnit} converts ring radii from
+     * glyph units to texels, which is the glyph's oversample.
+     */
+    public static byte[] bake(byte[] coverage, int width, int height, int pad, float texelsPerUnit,
+                              NeonEffect.Ring[] rings) {
+        int outW = width + 2 * pad;
+        int outH = height + 2 * pad;
+        float[] transmit = new float[outW * outH];
+        Arrays.fill(transmit, 1f);
+
+        for (NeonEffect.Ring ring : rings) {
+            if (ring.samples() <= 0 || ring.alpha() <= 0.01f) {
+                continue;
+            }
+            float r = ring.radius() * texelsPerUnit;
+            for (int y = 0; y < outH; y++) {
+                for (int x = 0; x < outW; x++) {
+                    // A copy offset by d covers texel p where the glyph covers p - d.
+                    float sum = 0f;
+                    for (int i = 0; i < RING_STEPS; i++) {
+                        sum += sample(coverage, width, height, x - pad - COS[i] * r, y - pad - SIN[i] * r);
+                    }
+                    float layer = 1f - ring.alpha() * (sum / RING_STEPS);
+                    transmit[y * outW + x] *= (float) Math.pow(layer, ring.samples());
+                }
+            }
+        }
+
+        byte[] out = new byte[outW * outH];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (byte) Math.round((1f - transmit[i]) * 255f);
+        }
+        return out;
+    }
+
+    /** Bilinear coverage in [0, 1] at texel-centre coordinates, zero outside the bitmap. */
+    static float sample(byte[] coverage, int width, int height, float x, float y) {
+        int x0 = (int) Math.floor(x);
+        int y0 = (int) Math.floor(y);
+        float fx = x - x0;
+        float fy = y - y0;
+        float top = texel(coverage, width, height, x0, y0) * (1f - fx) + texel(coverage, width, height, x0 + 1, y0) * fx;
+        float bottom = texel(coverage, width, height, x0, y0 + 1) * (1f - fx) + texel(coverage, width, height, x0 + 1, y0 + 1) * fx;
+        return (top * (1f - fy) + bottom * fy) / 255f;
+    }
+
+    private static int texel(byte[] coverage, int width, int height, int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0;
+        }
+        return coverage[y * width + x] & 0xFF;
+    }
+}
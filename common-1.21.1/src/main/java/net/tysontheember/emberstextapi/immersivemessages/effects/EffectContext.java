@@ -10,6 +10,10 @@ public class EffectContext {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EffectContext.class);
 
+    public static long frameTimeMs() {
+        return AnimationClock.millis();
+    }
+
     public static void applyEffects(@NotNull List<Effect> effects, @NotNull EffectSettings settings) {
         if (effects.isEmpty()) {
             return;
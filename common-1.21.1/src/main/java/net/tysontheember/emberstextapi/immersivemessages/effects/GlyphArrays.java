@@ -0,0 +1,83 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A run of glyphs laid out as parallel arrays, so {@link BulkEffect}s can process a whole span in one
+ * call. Slot {@code i} holds what {@link EffectSettings} would for the i-th glyph before effects: the
+ * offset from its pen position, rotation, color, index and codepoint. Reused across frames.
+ */
+public final class GlyphArrays {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    public float[] x = new float[INITIAL_CAPACITY];
+    public float[] y = new float[INITIAL_CAPACITY];
+    public float[] rot = new float[INITIAL_CAPACITY];
+    public float[] r = new float[INITIAL_CAPACITY];
+    public float[] g = new float[INITIAL_CAPACITY];
+    public float[] b = new float[INITIAL_CAPACITY];
+    public float[] a = new float[INITIAL_CAPACITY];
+    public int[] index = new int[INITIAL_CAPACITY];
+    public int[] codepoint = new int[INITIAL_CAPACITY];
+
+    /** Animation time shared by every glyph, as in {@link EffectSettings#frameTimeMs}. */
+    public long frameTimeMs;
+    public boolean isShadow;
+
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void clear(long frameTimeMs, boolean isShadow) {
+        this.size = 0;
+        this.frameTimeMs = frameTimeMs;
+        this.isShadow = isShadow;
+    }
+
+    /** Appends a glyph at offset 0 with no rotation and returns its slot. */
+    public int add(int index, int codepoint, float r, float g, float b, float a) {
+        if (size == x.length) {
+            grow(size * 2);
+        }
+        int i = size++;
+        this.x[i] = 0f;
+        this.y[i] = 0f;
+        this.rot[i] = 0f;
+        this.r[i] = r;
+        this.g[i] = g;
+        this.b[i] = b;
+        this.a[i] = a;
+        this.index[i] = index;
+        this.codepoint[i] = codepoint;
+        return i;
+    }
+
+    /** Copies slot {@code i} into {@code settings}; index and codepoint are left to the caller. */
+    public void store(int i, @NotNull EffectSettings settings) {
+        settings.x = x[i];
+        settings.y = y[i];
+        settings.rot = rot[i];
+        settings.r = r[i];
+        settings.g = g[i];
+        settings.b = b[i];
+        settings.a = a[i];
+        settings.frameTimeMs = frameTimeMs;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        rot = Arrays.copyOf(rot, capacity);
+        r = Arrays.copyOf(r, capacity);
+        g = Arrays.copyOf(g, capacity);
+        b = Arrays.copyOf(b, capacity);
+        a = Arrays.copyOf(a, capacity);
+        index = Arrays.copyOf(index, capacity);
+        codepoint = Arrays.copyOf(codepoint, capacity);
+    }
+}
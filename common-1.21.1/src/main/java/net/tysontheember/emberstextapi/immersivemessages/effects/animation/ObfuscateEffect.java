@@ -1,7 +1,7 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.animation;
 
-import net.minecraft.Util;
 import net.tysontheember.emberstextapi.immersivemessages.api.ObfuscateMode;
+import net.tysontheember.emberstextapi.immersivemessages.effects.AnimationClock;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
 import net.tysontheember.emberstextapi.immersivemessages.effects.animation.ObfKey;
@@ -29,8 +29,6 @@ public class ObfuscateEffect extends BaseEffect {
 
     private final boolean useReadableAlphabet;
 
-    private final Map<Object, Integer> lengthDetection = new HashMap<>();
-
     private enum Mode {
         REVEAL,
         HIDE,
@@ -119,7 +117,7 @@ public class ObfuscateEffect extends BaseEffect {
         }
         track.checkAndResetIfNeeded();
 
-        long now = System.currentTimeMillis();
+        long now = settings.frameTimeMs;
         if (track.startTimeMs == 0) {
             track.startTimeMs = now;
         }
@@ -157,7 +155,7 @@ public class ObfuscateEffect extends BaseEffect {
         }
         track.checkAndResetIfNeeded();
 
-        long now = System.currentTimeMillis();
+        long now = settings.frameTimeMs;
         if (track.startTimeMs == 0) {
             track.startTimeMs = now;
         }
@@ -177,7 +175,7 @@ public class ObfuscateEffect extends BaseEffect {
 
     private void applyRandom(@NotNull EffectSettings settings) {
         ObfuscateTrack track = getOrCreateTrack(settings);
-        long now = System.currentTimeMillis();
+        long now = settings.frameTimeMs;
 
         updateLengthDetection(track, settings.index);
         int detectedLength = getDetectedLength(track);
@@ -239,22 +237,14 @@ public class ObfuscateEffect extends BaseEffect {
     }
 
     private void updateLengthDetection(ObfuscateTrack track, int index) {
-        Object key = track.cacheKey;
-        if (key != null) {
-            Integer currentMax = lengthDetection.get(key);
-            if (currentMax == null || index > currentMax) {
-                lengthDetection.put(key, index);
-            }
+        if (index > track.maxSeenIndex) {
+            track.maxSeenIndex = index;
         }
     }
 
     private int getDetectedLength(ObfuscateTrack track) {
-        Object key = track.cacheKey;
-        if (key != null) {
-            Integer max = lengthDetection.get(key);
-            if (max != null) {
-                return max + 1;
-            }
+        if (track.maxSeenIndex >= 0) {
+            return track.maxSeenIndex + 1;
         }
 
         return track.length > 0 ? track.length : 0;
@@ -319,7 +309,7 @@ public class ObfuscateEffect extends BaseEffect {
     private int getReadableRandomChar(int seed) {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
 
-        long timeSeed = Util.getMillis() / 50;
+        long timeSeed = AnimationClock.millis() / 50;
         long combinedSeed = timeSeed + seed * 31L;
 
         combinedSeed = combinedSeed ^ (combinedSeed >>> 33);
@@ -0,0 +1,92 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects.rendering;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.FormattedCharSequence;
+import net.tysontheember.emberstextapi.client.TextLayoutCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A partly revealed view of a message laid out in full. Typewriter and obfuscation progress is read
+ * from a {@link Mask} while the glyphs are drawn, so revealing a character costs nothing beyond moving
+ * a cursor: the component, the line wrapping and the layout are built once for the whole text.
+ * <p>
+ * Each wrapped line is mapped back to its offset in the full string the first time a layout is seen;
+ * characters are indexed by that offset, so dropped wrap whitespace doesn't shift the mask.
+ */
+public final class RevealedText {
+
+    public interface Mask {
+        /** Whether the character at {@code index} of the full text is drawn yet. */
+        boolean isVisible(int index);
+
+        /** Whether the character at {@code index} of the full text is drawn obfuscated. */
+        boolean isObfuscated(int index);
+    }
+
+    private TextLayoutCache.Layout layout;
+    private int[] lineStarts;
+
+    /** Maps {@code layout}'s lines back into {@code draw}'s text, unless that was done for it already. */
+    public void prepare(Component draw, TextLayoutCache.Layout layout) {
+        if (this.layout == layout) {
+            return;
+        }
+        this.layout = layout;
+        List<FormattedCharSequence> lines = layout.lines();
+        if (lines == null) {
+            lineStarts = null;
+            return;
+        }
+        String full = draw.getString();
+        lineStarts = new int[lines.size()];
+        StringBuilder line = new StringBuilder();
+        int from = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            line.setLength(0);
+            lines.get(i).accept((pos, style, codePoint) -> {
+                line.appendCodePoint(codePoint);
+                return true;
+            });
+            int start = line.length() > 0 ? full.indexOf(line.toString(), from) : -1;
+            if (start < 0) {
+                start = from;
+            }
+            lineStarts[i] = start;
+            from = start + line.length();
+        }
+    }
+
+    /** The prepared layout's lines with {@code mask} applied, or null if it isn't wrapped. */
+    public List<FormattedCharSequence> lines(Mask mask) {
+        List<FormattedCharSequence> lines = layout.lines();
+        if (lines == null) {
+            return null;
+        }
+        List<FormattedCharSequence> masked = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            masked.add(apply(lines.get(i), lineStarts[i], mask));
+        }
+        return masked;
+    }
+
+    /** The prepared layout's unwrapped text with {@code mask} applied. */
+    public FormattedCharSequence visualOrder(Mask mask) {
+        return apply(layout.visualOrder(), 0, mask);
+    }
+
+    private static FormattedCharSequence apply(FormattedCharSequence sequence, int start, Mask mask) {
+        return sink -> {
+            int[] index = {start};
+            return sequence.accept((pos, style, codePoint) -> {
+                int i = index[0];
+                index[0] += Character.charCount(codePoint);
+                if (!mask.isVisible(i)) {
+                    return true;
+                }
+                return sink.accept(pos, mask.isObfuscated(i) ? style.withObfuscated(true) : style, codePoint);
+            });
+        };
+    }
+}
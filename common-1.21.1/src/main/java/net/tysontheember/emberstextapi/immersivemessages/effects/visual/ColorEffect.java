@@ -1,12 +1,14 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.util.ColorParser;
 import org.jetbrains.annotations.NotNull;
 
-public class ColorEffect extends BaseEffect {
+public class ColorEffect extends BaseEffect implements BulkEffect {
 
     private static final float[] DEFAULT_COLOR = {1.0f, 1.0f, 1.0f, 1.0f};
 
@@ -28,6 +30,31 @@ public class ColorEffect extends BaseEffect {
         settings.a *= rgba[3];
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            glyphs.r[i] = rgba[0];
+            glyphs.g[i] = rgba[1];
+            glyphs.b[i] = rgba[2];
+            glyphs.a[i] *= rgba[3];
+        }
+    }
+
+    @Override
+    public int reads() {
+        return rgba[3] == 1f ? 0 : ALPHA;
+    }
+
+    @Override
+    public int writes() {
+        return rgba[3] == 1f ? RGB : RGB | ALPHA;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -1,14 +1,15 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class FadeEffect extends BaseEffect {
+public class FadeEffect extends BaseEffect implements BulkEffect {
 
     private final float minA;
     private final float speed;
@@ -27,13 +28,32 @@ public class FadeEffect extends BaseEffect {
     @Override
     public void apply(@NotNull EffectSettings settings) {
 
-        float t = Util.getMillis() * 0.002f * speed + settings.index * phase;
+        float t = settings.frameTimeMs * 0.002f * speed + settings.index * phase;
 
         float k = minA + (1f - minA) * (0.5f + 0.5f * Mth.sin(t));
 
         settings.a *= k;
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        float time = glyphs.frameTimeMs * 0.002f * speed;
+        for (int i = from; i < to; i++) {
+            float t = time + glyphs.index[i] * phase;
+            glyphs.a[i] *= minA + (1f - minA) * (0.5f + 0.5f * Mth.sin(t));
+        }
+    }
+
+    @Override
+    public int reads() {
+        return ALPHA;
+    }
+
+    @Override
+    public int writes() {
+        return ALPHA;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -1,8 +1,8 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.Util;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import org.jetbrains.annotations.NotNull;
 
@@ -29,7 +29,7 @@ public class GlitchEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
-        double time = Util.getMillis() * 0.025 * frequency;
+        double time = settings.frameTimeMs * 0.025 * frequency;
         int pulse = (int) time % 3;
 
         long seed = settings.index + settings.codepoint + (long) (time * 1000);
@@ -46,13 +46,14 @@ public class GlitchEffect extends BaseEffect {
         }
 
         double sliceTime = time * 2;
-        long sliceSeed = (long) sliceTime * 1000L * hashCode();
+        long sliceSeed = (long) sliceTime * 1000L * spanSeed(settings);
 
         if (seedToFloat(sliceSeed) < shiftChance) {
-            if (numSlices == 2) {
+            int slices = Math.min(numSlices, QualityGovernor.maxGlitchSlices());
+            if (slices == 2) {
                 applyTwoSliceGlitch(settings, sliceSeed);
             } else {
-                applyMultiSliceGlitch(settings, sliceSeed);
+                applyMultiSliceGlitch(settings, sliceSeed, slices);
             }
         }
     }
@@ -106,7 +107,7 @@ public class GlitchEffect extends BaseEffect {
         }
     }
 
-    private void applyMultiSliceGlitch(EffectSettings settings, long seed) {
+    private void applyMultiSliceGlitch(EffectSettings settings, long seed, int numSlices) {
 
         if (settings.isShadow) {
             settings.addSibling(settings.copy());
@@ -199,6 +200,16 @@ public class GlitchEffect extends BaseEffect {
         parent.addSibling(cyanFringe);
     }
 
+    /**
+     * A seed for the span being drawn, so every glyph of a span slices together while other spans using the
+     * same shared effect glitch on their own schedule.
+     */
+    private long spanSeed(EffectSettings settings) {
+        Object key = settings.obfuscateStableKey != null ? settings.obfuscateStableKey : settings.obfuscateKey;
+        int hash = key != null ? key.hashCode() : hashCode();
+        return hash * 31L + settings.obfuscateSpanStart;
+    }
+
     private static float seedToFloat(long seed) {
         seed = (seed ^ (seed >>> 33)) * 0xff51afd7ed558ccdL;
         seed = (seed ^ (seed >>> 33)) * 0xc4ceb9fe1a85ec53L;
@@ -206,6 +217,11 @@ public class GlitchEffect extends BaseEffect {
         return (seed & 0x7FFFFFFFL) / (float) 0x80000000L;
     }
 
+    @Override
+    public boolean affectsShadowPass() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String getName() {
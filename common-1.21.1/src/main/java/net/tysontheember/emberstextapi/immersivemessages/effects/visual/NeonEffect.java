@@ -1,8 +1,8 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.Util;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
 import org.jetbrains.annotations.NotNull;
@@ -29,6 +29,7 @@ public class NeonEffect extends BaseEffect {
     };
 
     private static final int MAX_SAMPLES = 28;
+    private static final int RING_COUNT = 3;
 
     private final float radius;
     private final float intensity;
@@ -39,10 +40,6 @@ public class NeonEffect extends BaseEffect {
     @Nullable
     private final float[] glowColor;
 
-    private final int innerSamples;
-    private final int outerSamples;
-    private final float innerRadiusRatio;
-
     public NeonEffect(@NotNull Params params) {
         super(params);
 
@@ -59,36 +56,102 @@ public class NeonEffect extends BaseEffect {
         this.falloffPower = clamp(params.getDouble("f").map(Number::floatValue).orElse(2.0f), 0.5f, 4.0f);
 
         this.glowColor = parseColor(params, "c", null);
-
-        int[] preset = QUALITY_PRESETS[quality - 1];
-        this.innerSamples = Math.min(preset[0], MAX_SAMPLES / 2);
-        this.outerSamples = Math.min(preset[1], MAX_SAMPLES - innerSamples);
-        this.innerRadiusRatio = preset[2] / 100.0f;
     }
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
         float pulseModifier = 1.0f;
         if (pulseSpeed > 0) {
-            double time = Util.getMillis() * 0.001 * pulseSpeed;
+            double time = settings.frameTimeMs * 0.001 * pulseSpeed;
             pulseModifier = 0.85f + 0.15f * (float) Math.sin(time * Math.PI * 2);
         }
 
-        float effectiveIntensity = intensity * pulseModifier;
+        settings.glowPulse = pulseModifier;
+        settings.glowR = glowColor != null ? glowColor[0] : settings.r;
+        settings.glowG = glowColor != null ? glowColor[1] : settings.g;
+        settings.glowB = glowColor != null ? glowColor[2] : settings.b;
 
-        float glowR = glowColor != null ? glowColor[0] : settings.r;
-        float glowG = glowColor != null ? glowColor[1] : settings.g;
-        float glowB = glowColor != null ? glowColor[2] : settings.b;
+        if (settings.bakedGlow) {
+            // The renderer draws one pre-blurred quad from GlowAtlas, or calls addGlowSiblings if it can't.
+            settings.glow = this;
+            return;
+        }
+        addGlowSiblings(settings);
+    }
 
-        float centerAlpha = calculateAlpha(0.0f, effectiveIntensity);
-        addGlowRing(settings, radius * 0.25f, Math.max(4, innerSamples / 2), centerAlpha, glowR, glowG, glowB);
+    /**
+     * Adds the offset glow copies as siblings, using the pulse and glow color {@link #apply} stored on
+     * {@code settings}.
+     */
+    public void addGlowSiblings(@NotNull EffectSettings settings) {
+        float effectiveIntensity = intensity * settings.glowPulse;
+        int[] preset = preset();
+        for (int ring = 0; ring < RING_COUNT; ring++) {
+            addGlowRing(settings, ringRadius(ring, preset), ringSamples(ring, preset),
+                    calculateAlpha(ringDistance(ring, preset), effectiveIntensity),
+                    settings.glowR, settings.glowG, settings.glowB);
+        }
+    }
 
-        float innerRadius = radius * innerRadiusRatio;
-        float innerAlpha = calculateAlpha(innerRadiusRatio, effectiveIntensity);
-        addGlowRing(settings, innerRadius, innerSamples, innerAlpha, glowR, glowG, glowB);
+    /**
+     * The rings {@link #addGlowSiblings} draws at full pulse, for baking the same glow into a texture.
+     * Copies are spread evenly around each ring at the given radius, each with the given alpha.
+     */
+    @NotNull
+    public Ring[] rings() {
+        int[] preset = preset();
+        Ring[] rings = new Ring[RING_COUNT];
+        for (int ring = 0; ring < RING_COUNT; ring++) {
+            rings[ring] = new Ring(ringRadius(ring, preset), ringSamples(ring, preset),
+                    calculateAlpha(ringDistance(ring, preset), intensity));
+        }
+        return rings;
+    }
+
+    /** Identifies the baked glow this effect produces; equal keys bake identical textures. */
+    @NotNull
+    public GlowKey glowKey() {
+        return new GlowKey(radius, intensity, falloffPower, effectiveQuality());
+    }
+
+    public record Ring(float radius, int samples, float alpha) {
+    }
+
+    public record GlowKey(float radius, float intensity, float falloffPower, int quality) {
+    }
+
+    /** The configured quality, lowered further while {@link QualityGovernor} is stepping quality down. */
+    private int effectiveQuality() {
+        return Math.min(quality, QualityGovernor.maxNeonQuality());
+    }
+
+    private int[] preset() {
+        return QUALITY_PRESETS[effectiveQuality() - 1];
+    }
+
+    private float ringRadius(int ring, int[] preset) {
+        return switch (ring) {
+            case 0 -> radius * 0.25f;
+            case 1 -> radius * preset[2] / 100.0f;
+            default -> radius;
+        };
+    }
+
+    private int ringSamples(int ring, int[] preset) {
+        int innerSamples = Math.min(preset[0], MAX_SAMPLES / 2);
+        return switch (ring) {
+            case 0 -> Math.max(4, innerSamples / 2);
+            case 1 -> innerSamples;
+            default -> Math.min(preset[1], MAX_SAMPLES - innerSamples);
+        };
+    }
 
-        float outerAlpha = calculateAlpha(1.0f, effectiveIntensity);
-        addGlowRing(settings, radius, outerSamples, outerAlpha, glowR, glowG, glowB);
+    private float ringDistance(int ring, int[] preset) {
+        return switch (ring) {
+            case 0 -> 0.0f;
+            case 1 -> preset[2] / 100.0f;
+            default -> 1.0f;
+        };
     }
 
     private void addGlowRing(EffectSettings settings, float ringRadius, int samples,
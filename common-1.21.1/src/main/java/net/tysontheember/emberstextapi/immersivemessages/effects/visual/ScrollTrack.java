@@ -0,0 +1,34 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
+
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Per-span render state for {@link ScrollEffect}: the span width measured from the previous frame and
+ * the positions seen so far in this one.
+ */
+public class ScrollTrack {
+    public float measuredSpanWidth;
+    public float frameFirstX;
+    public float frameLastX;
+    public float frameLastAdvance;
+    public int frameCharCount;
+
+    public float advanceAccum;
+
+    /** Tile copies added this glyph, which the effect must not scroll again. */
+    public final Set<EffectSettings> ownSiblings;
+
+    public ScrollTrack() {
+        this.measuredSpanWidth = -1;
+        this.frameFirstX = 0;
+        this.frameLastX = 0;
+        this.frameLastAdvance = 0;
+        this.frameCharCount = 0;
+        this.advanceAccum = 0;
+        this.ownSiblings = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
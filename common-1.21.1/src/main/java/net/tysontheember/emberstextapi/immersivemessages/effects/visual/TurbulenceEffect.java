@@ -1,14 +1,16 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class TurbulenceEffect extends BaseEffect {
+public class TurbulenceEffect extends BaseEffect implements BulkEffect {
 
     private final float amp;
     private final float speed;
@@ -23,10 +25,13 @@ public class TurbulenceEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
+        if (1.5f * amp < 1f && QualityGovernor.skipSubPixelMotion()) {
+            return;
+        }
 
         float amplitude = this.amp * 1.5f;
 
-        float t = Util.getMillis() * 0.002f * speed;
+        float t = settings.frameTimeMs * 0.002f * speed;
 
         float nx = Mth.sin(t * 1.7f + settings.index * 0.31f + settings.codepoint * 0.07f);
 
@@ -36,6 +41,36 @@ public class TurbulenceEffect extends BaseEffect {
         settings.y += ny * amplitude;
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        if (1.5f * amp < 1f && QualityGovernor.skipSubPixelMotion()) {
+            return;
+        }
+        float amplitude = this.amp * 1.5f;
+        float t = glyphs.frameTimeMs * 0.002f * speed;
+        for (int i = from; i < to; i++) {
+            int index = glyphs.index[i];
+            int codepoint = glyphs.codepoint[i];
+            glyphs.x[i] += Mth.sin(t * 1.7f + index * 0.31f + codepoint * 0.07f) * amplitude;
+            glyphs.y[i] += Mth.sin(t * 2.3f + index * 0.27f + codepoint * 0.11f) * amplitude;
+        }
+    }
+
+    @Override
+    public int reads() {
+        return POSITION;
+    }
+
+    @Override
+    public int writes() {
+        return POSITION;
+    }
+
+    @Override
+    public boolean isOffset() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -1,14 +1,15 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class WaveEffect extends BaseEffect {
+public class WaveEffect extends BaseEffect implements BulkEffect {
 
     private final float amplitude;
     private final float frequency;
@@ -26,15 +27,41 @@ public class WaveEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
+        settings.y += offset(settings.frameTimeMs, settings.index);
+    }
 
-        float time = Util.getMillis() * 0.002f * frequency;
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        float[] y = glyphs.y;
+        int[] index = glyphs.index;
+        for (int i = from; i < to; i++) {
+            y[i] += offset(glyphs.frameTimeMs, index[i]);
+        }
+    }
 
-        float phase = time + settings.index * wavelength * 0.2f;
+    @Override
+    public int reads() {
+        return Y;
+    }
 
-        float safeWavelength = Math.max(0.0001f, wavelength);
-        float offset = Mth.sin(phase * Mth.TWO_PI / safeWavelength) * amplitude;
+    @Override
+    public int writes() {
+        return Y;
+    }
 
-        settings.y += offset;
+    @Override
+    public boolean isOffset() {
+        return true;
+    }
+
+    private float offset(long frameTimeMs, int index) {
+
+        float time = frameTimeMs * 0.002f * frequency;
+
+        float phase = time + index * wavelength * 0.2f;
+
+        float safeWavelength = Math.max(0.0001f, wavelength);
+        return Mth.sin(phase * Mth.TWO_PI / safeWavelength) * amplitude;
     }
 
     @NotNull
@@ -9,6 +9,8 @@ import net.minecraft.client.gui.font.FontManager;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.util.profiling.ProfilerFiller;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
+import net.tysontheember.emberstextapi.glow.GlowAtlas;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
 import net.tysontheember.emberstextapi.sdf.SDFGlyphProviderDefinition;
 import net.tysontheember.emberstextapi.sdf.SDFProviderRegistry;
@@ -21,12 +23,14 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.attr.MessageAttributeRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.preset.PresetDefinition;
 import net.tysontheember.emberstextapi.immersivemessages.effects.preset.PresetLoader;
 import net.tysontheember.emberstextapi.immersivemessages.effects.preset.PresetRegistry;
+import net.tysontheember.emberstextapi.util.StaticGlyphCache;
 
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -86,6 +90,10 @@ public abstract class FontManagerMixin {
         for (PresetDefinition preset : presets) {
             PresetRegistry.register(preset);
         }
+        MarkupParseCache.invalidate();
+        ClientTemplateCache.invalidateParsed();
+        GlowAtlas.clear();
+        StaticGlyphCache.clear();
 
         try {
             if (!ConfigHelper.getInstance().isSdfEnabled()) {
@@ -9,9 +9,14 @@ import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.network.chat.Style;
 import net.minecraft.network.chat.TextColor;
 import net.tysontheember.emberstextapi.accessor.ETAStyle;
+import net.tysontheember.emberstextapi.glow.GlowAtlas;
 import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.NeonEffect;
 import net.tysontheember.emberstextapi.util.EffectApplicator;
+import net.tysontheember.emberstextapi.util.StaticGlyphCache;
 import org.joml.Matrix4f;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +28,8 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import java.util.List;
+
 @Mixin(targets = "net.minecraft.client.gui.Font$StringRenderOutput", priority = 1200)
 public abstract class StringRenderOutputMixin {
 
@@ -100,19 +107,12 @@ public abstract class StringRenderOutputMixin {
             return;
         }
 
-        java.util.List<Effect> effects = etaStyle.emberstextapi$getEffects().asList();
+        List<Effect> effects = etaStyle.emberstextapi$getEffects().asList();
 
         if (effects.isEmpty()) {
             return;
         }
 
-        FontAccess fontAccess = (FontAccess) this$0;
-        FontSet fontSet = fontAccess.callGetFontSet(style.getFont());
-        GlyphInfo glyphInfo = fontSet.getGlyphInfo(codepoint, fontAccess.getFilterFishyGlyphs());
-        BakedGlyph bakedGlyph = style.isObfuscated() && codepoint != 32
-                ? fontSet.getRandomGlyph(glyphInfo)
-                : fontSet.getGlyph(codepoint);
-
         float red, green, blue;
         float alpha = this.a;
 
@@ -129,49 +129,110 @@ public abstract class StringRenderOutputMixin {
             blue = this.b / dim;
         }
 
+        StaticGlyphCache.Key staticKey = StaticGlyphCache.isCacheable(effects, etaStyle, style)
+                ? StaticGlyphCache.key(style, codepoint, index, red, green, blue, alpha, this.dropShadow, this.mode)
+                : null;
+        if (staticKey != null) {
+            StaticGlyphCache.Glyph cached = StaticGlyphCache.get(staticKey);
+            if (cached != null) {
+                cached.replay(this.pose, this.bufferSource, this.x, this.y, this.packedLightCoords);
+                emberstextapi$finishGlyph(style, cached.advance, cached.shadowOffset,
+                        cached.r, cached.g, cached.b, cached.a);
+                cir.setReturnValue(true);
+                return;
+            }
+        }
+
+        FontAccess fontAccess = (FontAccess) this$0;
+        FontSet fontSet = fontAccess.callGetFontSet(style.getFont());
+        GlyphInfo glyphInfo = fontSet.getGlyphInfo(codepoint, fontAccess.getFilterFishyGlyphs());
+        BakedGlyph bakedGlyph = style.isObfuscated() && codepoint != 32
+                ? fontSet.getRandomGlyph(glyphInfo)
+                : fontSet.getGlyph(codepoint);
+
         float shadowOffset = this.dropShadow ? glyphInfo.getShadowOffset() : 0.0f;
 
-        EffectSettings settings = EffectApplicator.buildSettings(
-                etaStyle, style, index, codepoint,
-                this.x, this.y, shadowOffset,
-                red, green, blue, alpha, this.dropShadow
-        );
-
-        settings.charAdvance = glyphInfo.getAdvance(style.isBold());
-        EffectApplicator.applyEffects(effects, settings);
-
-        if (this.dropShadow) {
-            settings.r *= this.dimFactor;
-            settings.g *= this.dimFactor;
-            settings.b *= this.dimFactor;
-            if (settings.hasSiblings()) {
-                for (EffectSettings sibling : settings.getSiblingsOrEmpty()) {
+        EffectSettingsArena arena = EffectSettingsArena.current();
+        int arenaMark = arena.mark();
+        long governorStart = QualityGovernor.start();
+        try {
+            EffectSettings settings = EffectApplicator.buildAndApply(
+                    this, effects, etaStyle, style, index, codepoint,
+                    this.x, this.y, shadowOffset,
+                    red, green, blue, alpha, this.dropShadow,
+                    glyphInfo.getAdvance(style.isBold())
+            );
+
+            NeonEffect neon = settings.glow;
+            if (neon != null) {
+                GlowAtlas.Glyph glowGlyph = settings.useRandomGlyph || settings.maskTop != 0 || settings.maskBottom != 0
+                        ? null
+                        : GlowAtlas.get(style.getFont(), settings.codepoint,
+                                fontSet.getGlyphInfo(settings.codepoint, false), neon);
+                if (glowGlyph != null) {
+                    settings.glowGlyph = glowGlyph;
+                } else {
+                    settings.glow = null;
+                    neon.addGlowSiblings(settings);
+                }
+            }
+
+            if (this.dropShadow) {
+                settings.r *= this.dimFactor;
+                settings.g *= this.dimFactor;
+                settings.b *= this.dimFactor;
+                settings.glowR *= this.dimFactor;
+                settings.glowG *= this.dimFactor;
+                settings.glowB *= this.dimFactor;
+                List<EffectSettings> siblings = settings.getSiblingsOrEmpty();
+                for (int i = 0; i < siblings.size(); i++) {
+                    EffectSettings sibling = siblings.get(i);
                     sibling.r *= this.dimFactor;
                     sibling.g *= this.dimFactor;
                     sibling.b *= this.dimFactor;
                 }
             }
-        }
-
-        if (!(bakedGlyph instanceof EmptyGlyph)) {
-            EffectApplicator.renderChar(settings, codepoint, style, fontSet, glyphInfo, bakedGlyph,
-                    this.pose, this.bufferSource, this.mode, this.packedLightCoords, this$0.lineHeight);
 
-            if (settings.hasSiblings()) {
-                for (EffectSettings sibling : settings.getSiblingsOrEmpty()) {
-                    EffectApplicator.renderChar(sibling, codepoint, style, fontSet, glyphInfo, bakedGlyph,
-                            this.pose, this.bufferSource, this.mode, this.packedLightCoords, this$0.lineHeight);
+            if (settings.useRandomGlyph || settings.glow != null) {
+                staticKey = null;
+            }
+            MultiBufferSource target = staticKey != null
+                    ? StaticGlyphCache.record(this.bufferSource, this.pose, this.x, this.y)
+                    : this.bufferSource;
+
+            if (!(bakedGlyph instanceof EmptyGlyph)) {
+                EffectApplicator.renderChar(settings, codepoint, style, fontSet, glyphInfo, bakedGlyph,
+                        this.pose, target, this.mode, this.packedLightCoords, this$0.lineHeight);
+
+                List<EffectSettings> siblings = settings.getSiblingsOrEmpty();
+                for (int i = 0; i < siblings.size(); i++) {
+                    EffectApplicator.renderChar(siblings.get(i), codepoint, style, fontSet, glyphInfo, bakedGlyph,
+                            this.pose, target, this.mode, this.packedLightCoords, this$0.lineHeight);
                 }
             }
-        }
 
-        red = settings.r;
-        green = settings.g;
-        blue = settings.b;
-        alpha = settings.a;
+            red = settings.r;
+            green = settings.g;
+            blue = settings.b;
+            alpha = settings.a;
+        } finally {
+            QualityGovernor.stop(governorStart);
+            arena.release(arenaMark);
+        }
 
         float glyphWidth = glyphInfo.getAdvance(style.isBold());
+        if (staticKey != null) {
+            StaticGlyphCache.store(staticKey, red, green, blue, alpha, glyphWidth, shadowOffset);
+        }
 
+        emberstextapi$finishGlyph(style, glyphWidth, shadowOffset, red, green, blue, alpha);
+        cir.setReturnValue(true);
+    }
+
+    /** Adds the strikethrough and underline for a glyph drawn here, then advances the pen. */
+    @Unique
+    private void emberstextapi$finishGlyph(Style style, float glyphWidth, float shadowOffset,
+                                           float red, float green, float blue, float alpha) {
         if (alpha != 0 && style.isStrikethrough()) {
             this.addEffect(new BakedGlyph.Effect(
                     this.x + shadowOffset - 1.0f,
@@ -201,7 +262,6 @@ public abstract class StringRenderOutputMixin {
         }
 
         this.x += glyphWidth;
-        cir.setReturnValue(true);
     }
 
     @Unique
@@ -0,0 +1,68 @@
+package net.tysontheember.emberstextapi.network;
+
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side message templates, and which of them each connected player has been sent. A template's
+ * definition goes to a player along with the first send that uses it; later sends carry only arguments.
+ * Re-registering an id replaces the template and makes every player receive it again. What a player was
+ * sent is forgotten when they log out and after a resource reload.
+ */
+public final class TemplateRegistry {
+
+    private static final Map<String, MessageTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<UUID, Map<String, MessageTemplate>> SENT = new ConcurrentHashMap<>();
+
+    private TemplateRegistry() {
+    }
+
+    /** Registers {@code prototype} under {@code id}; it is sanitized now and must not be changed afterwards. */
+    public static MessageTemplate register(String id, ImmersiveMessage prototype) {
+        if (id == null || id.isEmpty() || prototype == null) {
+            throw new IllegalArgumentException("Template id and prototype must be set");
+        }
+        ServerMessageLimiter.sanitize(prototype);
+        MessageTemplate template = new MessageTemplate(id, prototype);
+        TEMPLATES.put(id, template);
+        return template;
+    }
+
+    public static void unregister(String id) {
+        TEMPLATES.remove(id);
+    }
+
+    public static MessageTemplate get(String id) {
+        MessageTemplate template = TEMPLATES.get(id);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown message template: " + id);
+        }
+        return template;
+    }
+
+    public static List<String> checkArgs(List<String> args) {
+        if (args.size() > MessageTemplate.MAX_ARGS) {
+            throw new IllegalArgumentException("Too many template arguments: " + args.size() + " > " + MessageTemplate.MAX_ARGS);
+        }
+        return args;
+    }
+
+    /** Records {@code template} as sent to {@code player}; false if they already have this version of it. */
+    public static boolean markSent(UUID player, MessageTemplate template) {
+        Map<String, MessageTemplate> sent = SENT.computeIfAbsent(player, k -> new ConcurrentHashMap<>());
+        return sent.put(template.id(), template) != template;
+    }
+
+    public static void forget(UUID player) {
+        SENT.remove(player);
+    }
+
+    public static void forgetAll() {
+        SENT.clear();
+    }
+}
@@ -0,0 +1,94 @@
+package net.tysontheember.emberstextapi.network;
+
+import net.minecraft.core.HolderLookup;
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.serialization.MessageDelta;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The last update sent to each player under each message id, so the next one can go out as a
+ * {@link MessageDelta} patch. The first update for an id, and any update once the client has likely
+ * expired the message, goes out in full. Baselines are dropped when the client's messages are closed, when
+ * its queues are stopped and when the player logs out; those of messages that expired are dropped on the
+ * player's next update. A client that gets a patch for a message it no longer shows asks for a
+ * {@link #resync}.
+ */
+public final class UpdateTracker {
+
+    /** Updates this close to the message's expiry are sent in full in case the client has already dropped it. */
+    private static final long EXPIRY_MARGIN_MS = 1000L;
+    private static final long MS_PER_TICK = 50L;
+
+    private static final Map<UUID, Map<String, Baseline>> SENT = new ConcurrentHashMap<>();
+
+    private UpdateTracker() {
+    }
+
+    /** The update payload for {@code message}, recorded as the new baseline for {@code messageId}. */
+    public static byte[] encode(UUID player, String messageId, ImmersiveMessage message, @Nullable HolderLookup.Provider registries) {
+        Map<String, Baseline> sent = SENT.computeIfAbsent(player, k -> new ConcurrentHashMap<>());
+        MessageDelta.Snapshot next = MessageDelta.snapshot(message, registries);
+        long now = System.currentTimeMillis();
+        // Messages that ran out on their own are never closed, so their baselines are dropped here.
+        sent.values().removeIf(b -> now + EXPIRY_MARGIN_MS >= b.expiresAt);
+        Baseline base = sent.get(messageId);
+        if (base != null) {
+            byte[] delta = MessageDelta.diff(base.snapshot, next, message, registries);
+            if (delta != null) {
+                // A patch keeps the client's message alive from when it was first opened.
+                sent.put(messageId, new Baseline(next, message, base.openedAt, expiresAt(base.openedAt, message)));
+                return delta;
+            }
+        }
+        sent.put(messageId, new Baseline(next, message, now, expiresAt(now, message)));
+        return MessageDelta.full(message, registries);
+    }
+
+    /**
+     * A full update for {@code messageId}, re-sent because the client got a patch for it after dropping it;
+     * null once the message is closed or expired here too.
+     */
+    @Nullable
+    public static byte[] resync(UUID player, String messageId, @Nullable HolderLookup.Provider registries) {
+        Map<String, Baseline> sent = SENT.get(player);
+        Baseline base = sent != null ? sent.get(messageId) : null;
+        if (base == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now + EXPIRY_MARGIN_MS >= base.expiresAt) {
+            sent.remove(messageId);
+            return null;
+        }
+        ImmersiveMessage message = base.message;
+        sent.put(messageId, new Baseline(MessageDelta.snapshot(message, registries), message, now, expiresAt(now, message)));
+        return MessageDelta.full(message, registries);
+    }
+
+    public static void forget(UUID player, String messageId) {
+        Map<String, Baseline> sent = SENT.get(player);
+        if (sent != null) {
+            sent.remove(messageId);
+        }
+    }
+
+    public static void forget(UUID player) {
+        SENT.remove(player);
+    }
+
+    static int baselineCount(UUID player) {
+        Map<String, Baseline> sent = SENT.get(player);
+        return sent != null ? sent.size() : 0;
+    }
+
+    private static long expiresAt(long openedAt, ImmersiveMessage message) {
+        return message.hasDuration() ? openedAt + (long) message.totalLifetimeTicks() * MS_PER_TICK : Long.MAX_VALUE;
+    }
+
+    private record Baseline(MessageDelta.Snapshot snapshot, ImmersiveMessage message, long openedAt, long expiresAt) {
+    }
+}
@@ -100,6 +100,11 @@ public interface ConfigHelper {
         return 3;
     }
 
+    /** Milliseconds per frame text effects may take before quality steps down. 0 disables the governor. */
+    default double getEffectFrameBudgetMs() {
+        return 2.0;
+    }
+
     default int getTextLayoutCacheSize() {
         return 256;
     }
@@ -1,8 +1,11 @@
 package net.tysontheember.emberstextapi.platform;
 
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NetworkHelper {
@@ -17,6 +20,10 @@ public interface NetworkHelper {
 
     void sendOpenMessage(ServerPlayer player, ImmersiveMessage message);
 
+    /**
+     * Opens or replaces the message shown under {@code messageId}. Once the player has it, later updates only
+     * carry what changed and the client edits the live message, keeping its age and typewriter progress.
+     */
     void sendUpdateMessage(ServerPlayer player, String messageId, ImmersiveMessage message);
 
     void sendCloseMessage(ServerPlayer player, String messageId);
@@ -32,4 +39,55 @@ public interface NetworkHelper {
     void sendStopQueue(ServerPlayer player, String channel);
 
     void sendStopAllQueues(ServerPlayer player);
+
+    /**
+     * Sends {@code message} to every player in {@code players}. The message is sanitized and serialized
+     * once, and the same packet goes out to each connection.
+     */
+    void broadcastMessage(Collection<ServerPlayer> players, ImmersiveMessage message);
+
+    void broadcastOpenMessage(Collection<ServerPlayer> players, ImmersiveMessage message);
+
+    void broadcastQueue(Collection<ServerPlayer> players, String channel, List<List<ImmersiveMessage>> steps);
+
+    /**
+     * Opens a message from the template registered under {@code templateId} with
+     * {@link net.tysontheember.emberstextapi.network.TemplateRegistry TemplateRegistry}, filled with
+     * {@code args}. Only the id and arguments are sent, plus the template itself the first time a player needs it.
+     */
+    void sendTemplate(ServerPlayer player, String templateId, List<String> args);
+
+    void broadcastTemplate(Collection<ServerPlayer> players, String templateId, List<String> args);
+
+    default void broadcastMessage(ServerLevel level, ImmersiveMessage message) {
+        broadcastMessage(level.players(), message);
+    }
+
+    default void broadcastMessage(MinecraftServer server, ImmersiveMessage message) {
+        broadcastMessage(server.getPlayerList().getPlayers(), message);
+    }
+
+    default void broadcastOpenMessage(ServerLevel level, ImmersiveMessage message) {
+        broadcastOpenMessage(level.players(), message);
+    }
+
+    default void broadcastOpenMessage(MinecraftServer server, ImmersiveMessage message) {
+        broadcastOpenMessage(server.getPlayerList().getPlayers(), message);
+    }
+
+    default void broadcastQueue(ServerLevel level, String channel, List<List<ImmersiveMessage>> steps) {
+        broadcastQueue(level.players(), channel, steps);
+    }
+
+    default void broadcastQueue(MinecraftServer server, String channel, List<List<ImmersiveMessage>> steps) {
+        broadcastQueue(server.getPlayerList().getPlayers(), channel, steps);
+    }
+
+    default void broadcastTemplate(ServerLevel level, String templateId, List<String> args) {
+        broadcastTemplate(level.players(), templateId, args);
+    }
+
+    default void broadcastTemplate(MinecraftServer server, String templateId, List<String> args) {
+        broadcastTemplate(server.getPlayerList().getPlayers(), templateId, args);
+    }
 }
@@ -0,0 +1,277 @@
+package net.tysontheember.emberstextapi.sdf;
+
+import net.minecraft.client.Minecraft;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of baked glyphs for one {@link PreBakedMSDFCache.CacheKey}, so glyphs survive restarts.
+ * <p>
+ * Layout: magic, format version, the key's string form, then one record per glyph
+ * ({@code codepoint, texW, texH, bearingLeft, bearingTop, oversample, data length, data, CRC32}). Loading maps
+ * the file and stops at the first record that fails validation; new records are written over whatever
+ * followed the last good one, so a torn write from a crash is simply overwritten. Bump {@link #VERSION}
+ * whenever generator output changes.
+ */
+final class MSDFDiskCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/MSDFDiskCache");
+
+    private static final boolean ENABLED = !"false".equals(System.getProperty("eta.sdf.diskCache"));
+    private static final String DIR_PROPERTY = "eta.sdf.cacheDir";
+
+    private static final int MAGIC = 0x4554414D;
+    static final int VERSION = 1;
+    private static final String EXTENSION = ".msdf";
+
+    private static final long MAX_FILE_BYTES = 64L << 20;
+    private static final long MAX_TOTAL_BYTES = 256L << 20;
+    private static final int MAX_TEXTURE_SIZE = 4096;
+    /** codepoint, texW, texH, three floats, data length. */
+    private static final int RECORD_HEADER_BYTES = 4 * 7;
+
+    private static volatile boolean directoryTrimmed;
+
+    private final Path file;
+    private final byte[] header;
+    private FileChannel channel;
+    private long writePos;
+    private boolean full;
+
+    private MSDFDiskCache(Path file, PreBakedMSDFCache.CacheKey key) {
+        this.file = file;
+        byte[] keyBytes = key.toString().getBytes(StandardCharsets.UTF_8);
+        this.header = ByteBuffer.allocate(12 + keyBytes.length)
+                .putInt(MAGIC).putInt(VERSION).putInt(keyBytes.length).put(keyBytes)
+                .array();
+    }
+
+    /** Returns the cache file for {@code key} in the game's cache directory, or null when disabled. */
+    @Nullable
+    static MSDFDiskCache open(PreBakedMSDFCache.CacheKey key) {
+        Path dir = cacheDirectory();
+        if (dir == null) return null;
+        return open(dir, key);
+    }
+
+    static MSDFDiskCache open(Path dir, PreBakedMSDFCache.CacheKey key) {
+        if (!directoryTrimmed) {
+            directoryTrimmed = true;
+            trimDirectory(dir);
+        }
+        String name = String.format("%016x-%08x%s", key.fontHash(), key.toString().hashCode(), EXTENSION);
+        return new MSDFDiskCache(dir.resolve(name), key);
+    }
+
+    /** Directory holding the glyph files, or null when disabled. */
+    @Nullable
+    static Path cacheDirectory() {
+        if (!ENABLED) return null;
+        String override = System.getProperty(DIR_PROPERTY);
+        if (override != null && !override.isEmpty()) {
+            return Path.of(override);
+        }
+        Minecraft mc = Minecraft.getInstance();
+        if (mc == null) return null;
+        return mc.gameDirectory.toPath().resolve("cache").resolve("emberstextapi").resolve("msdf");
+    }
+
+    /** Deletes the least recently written cache files until the directory fits {@link #MAX_TOTAL_BYTES}. */
+    private static void trimDirectory(Path dir) {
+        if (!Files.isDirectory(dir)) return;
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(dir)) {
+            stream.filter(p -> p.getFileName().toString().endsWith(EXTENSION)).forEach(files::add);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to list MSDF cache directory {}", dir, e);
+            return;
+        }
+        long total = 0;
+        for (Path p : files) {
+            total += sizeOf(p);
+        }
+        files.sort(Comparator.comparingLong(MSDFDiskCache::lastModified));
+        for (Path p : files) {
+            if (total <= MAX_TOTAL_BYTES) break;
+            long size = sizeOf(p);
+            try {
+                Files.deleteIfExists(p);
+                total -= size;
+                LOGGER.debug("Evicted MSDF cache file {}", p.getFileName());
+            } catch (IOException e) {
+                LOGGER.warn("Failed to evict MSDF cache file {}", p, e);
+            }
+        }
+    }
+
+    /**
+     * Reads every valid record into {@code target}. Returns the number of glyphs loaded.
+     */
+    synchronized int loadInto(Map<Integer, PreBakedMSDF> target) {
+        writePos = 0;
+        if (!Files.isRegularFile(file)) return 0;
+
+        int loaded = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size > MAX_FILE_BYTES + header.length) {
+                LOGGER.warn("Ignoring oversized MSDF cache file {}", file.getFileName());
+                return 0;
+            }
+            // Checked before mapping so a stale file can still be truncated on platforms that refuse to
+            // truncate mapped files.
+            ByteBuffer head = ByteBuffer.allocate(header.length);
+            while (head.hasRemaining()) {
+                if (in.read(head, head.position()) <= 0) break;
+            }
+            if (head.hasRemaining() || !ByteBuffer.wrap(header).equals(head.flip())) {
+                LOGGER.debug("Discarding MSDF cache file {} written for another version or key", file.getFileName());
+                return 0;
+            }
+
+            MappedByteBuffer buf = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buf.position(header.length);
+            long good = buf.position();
+            CRC32 crc = new CRC32();
+            while (buf.remaining() >= RECORD_HEADER_BYTES) {
+                int start = buf.position();
+                int codepoint = buf.getInt();
+                int texW = buf.getInt();
+                int texH = buf.getInt();
+                float bearingLeft = buf.getFloat();
+                float bearingTop = buf.getFloat();
+                float oversample = buf.getFloat();
+                int length = buf.getInt();
+                if (texW <= 0 || texH <= 0 || texW > MAX_TEXTURE_SIZE || texH > MAX_TEXTURE_SIZE
+                        || length != texW * texH * 3 || buf.remaining() < length + 4) {
+                    break;
+                }
+                byte[] data = new byte[length];
+                buf.get(data);
+                int expected = buf.getInt();
+
+                crc.reset();
+                crc.update(buf.duplicate().position(start).limit(start + RECORD_HEADER_BYTES + length));
+                if ((int) crc.getValue() != expected) {
+                    break;
+                }
+                target.putIfAbsent(codepoint, new PreBakedMSDF(data, texW, texH, bearingLeft, bearingTop, oversample));
+                good = buf.position();
+                loaded++;
+            }
+            writePos = good;
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            if (good < size) {
+                LOGGER.warn("MSDF cache file {} has {} unreadable trailing bytes, they will be overwritten",
+                        file.getFileName(), size - good);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read MSDF cache file {}", file, e);
+            writePos = 0;
+            return 0;
+        }
+        return loaded;
+    }
+
+    /** Appends one glyph. Failures are logged and disable further writes to this file. */
+    synchronized void append(int codepoint, PreBakedMSDF glyph) {
+        if (full) return;
+        byte[] data = glyph.msdfData();
+        int recordBytes = RECORD_HEADER_BYTES + data.length + 4;
+        try {
+            if (channel == null) {
+                Files.createDirectories(file.getParent());
+                if (writePos == 0) {
+                    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+                    writeFully(ByteBuffer.wrap(header), 0);
+                    writePos = header.length;
+                } else {
+                    channel = FileChannel.open(file, StandardOpenOption.WRITE);
+                }
+            }
+            if (writePos + recordBytes > MAX_FILE_BYTES + header.length) {
+                full = true;
+                LOGGER.info("MSDF cache file {} reached its size cap, new glyphs will not be persisted",
+                        file.getFileName());
+                return;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(recordBytes);
+            record.putInt(codepoint)
+                    .putInt(glyph.texW())
+                    .putInt(glyph.texH())
+                    .putFloat(glyph.bearingLeft())
+                    .putFloat(glyph.bearingTop())
+                    .putFloat(glyph.oversample())
+                    .putInt(data.length)
+                    .put(data);
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), 0, record.position());
+            record.putInt((int) crc.getValue());
+            record.flip();
+
+            writeFully(record, writePos);
+            writePos += recordBytes;
+        } catch (IOException e) {
+            full = true;
+            LOGGER.warn("Failed to write MSDF cache file {}, disabling it for this session", file, e);
+        }
+    }
+
+    /** Closes the append channel; a later {@link #append} reopens it at the same position. */
+    synchronized void close() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close MSDF cache file {}", file, e);
+        }
+        channel = null;
+    }
+
+    private void writeFully(ByteBuffer buf, long position) throws IOException {
+        long pos = position;
+        while (buf.hasRemaining()) {
+            pos += channel.write(buf, pos);
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    private static long sizeOf(Path p) {
+        try {
+            return Files.size(p);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
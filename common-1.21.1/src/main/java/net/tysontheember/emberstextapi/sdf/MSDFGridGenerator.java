@@ -0,0 +1,747 @@
+package net.tysontheember.emberstextapi.sdf;
+
+import net.tysontheember.emberstextapi.sdf.GlyphOutline.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Accelerated counterpart of {@link MSDFGenerator#generateReference}. Produces byte-identical output:
+ * <ul>
+ *   <li>Edges are flattened into primitive arrays with control-hull bounding boxes and binned per
+ *       {@value #CELL}x{@value #CELL} texel cell; a cell only keeps edges that can still be the nearest
+ *       edge of some channel for a texel inside it.</li>
+ *   <li>Per texel, candidates are visited nearest-box-first and skipped once their box is farther than
+ *       every channel's current best. Ties resolve to the lowest edge index, matching the reference order.</li>
+ *   <li>Distances are evaluated into a scratch array with the same arithmetic as the reference, so no
+ *       result records or temporary vectors are allocated per texel.</li>
+ *   <li>Inside/outside comes from one scanline pass per row over sorted ray crossings instead of a
+ *       full winding test per texel.</li>
+ * </ul>
+ */
+final class MSDFGridGenerator {
+
+    static final int CELL = 8;
+
+    private static final int LINE = 0;
+    private static final int QUAD = 1;
+    private static final int CUBIC = 2;
+
+    private static final int CUBIC_RAY_SUBDIVISIONS = 16;
+
+    private MSDFGridGenerator() {}
+
+    static byte[] generate(GlyphOutline outline,
+                           EdgeColoring.ColoredContour[] coloredEdges,
+                           int width, int height,
+                           double glyphMinX, double glyphMinY,
+                           double glyphMaxX, double glyphMaxY,
+                           double pxRange) {
+        byte[] msdf = new byte[width * height * 3];
+
+        double glyphW = glyphMaxX - glyphMinX;
+        double glyphH = glyphMaxY - glyphMinY;
+        double maxDim = Math.max(glyphW, glyphH);
+        if (maxDim < 1.0) maxDim = 1.0;
+
+        double texelToGlyph = maxDim / (Math.max(width, height) - pxRange);
+
+        double unitRange = pxRange * texelToGlyph;
+        double centerX = (glyphMinX + glyphMaxX) * 0.5;
+        double centerY = (glyphMinY + glyphMaxY) * 0.5;
+        double originX = centerX - width * 0.5 * texelToGlyph;
+        double originY = centerY - height * 0.5 * texelToGlyph;
+
+        int windingSign = outline.reverseFill() ? 1 : -1;
+
+        Edges edges = Edges.flatten(coloredEdges);
+        int edgeCount = edges.count;
+
+        // Tolerance for bounding-box tests, well above rounding in curve evaluation.
+        double extent = Math.max(maxDim, Math.max(width, height) * texelToGlyph);
+        double eps = extent * 1e-9 + 1e-9;
+
+        int channelMask = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            channelMask |= edges.color[e];
+        }
+
+        int cellsX = (width + CELL - 1) / CELL;
+        int cellsY = (height + CELL - 1) / CELL;
+        int[][] cellCandidates = new int[cellsX * cellsY][];
+        double[][] cellLowerBounds = new double[cellsX * cellsY][];
+        buildCells(edges, cellsX, cellsY, width, height, originX, originY, texelToGlyph, eps,
+                cellCandidates, cellLowerBounds);
+
+        double[] scratch = new double[4];
+        Crossings crossings = new Crossings();
+        int[] rowWinding = new int[width];
+        double norm = 127.0 / (unitRange * 0.5);
+
+        for (int py = 0; py < height; py++) {
+            double gy = originY + ((height - 1 - py) + 0.5) * texelToGlyph;
+            computeRowWinding(outline, gy, originX, texelToGlyph, width, crossings, rowWinding);
+            int cellRow = (py / CELL) * cellsX;
+
+            for (int px = 0; px < width; px++) {
+
+                double gx = originX + (px + 0.5) * texelToGlyph;
+
+                int winding = rowWinding[px];
+                boolean truthInside = outline.evenOddFill() ? (winding & 1) != 0 : winding != 0;
+                int truthSign = truthInside ? 1 : -1;
+
+                double minDistR = Double.MAX_VALUE, signR = 1;
+                double minDistG = Double.MAX_VALUE, signG = 1;
+                double minDistB = Double.MAX_VALUE, signB = 1;
+                double minPseudoR = Double.MAX_VALUE;
+                double minPseudoG = Double.MAX_VALUE;
+                double minPseudoB = Double.MAX_VALUE;
+                int winR = Integer.MAX_VALUE, winG = Integer.MAX_VALUE, winB = Integer.MAX_VALUE;
+                double minDistOverall = Double.MAX_VALUE;
+
+                int cell = cellRow + px / CELL;
+                int[] candidates = cellCandidates[cell];
+                double[] cellLower = cellLowerBounds[cell];
+
+                for (int k = 0; k < candidates.length; k++) {
+                    double bound = minDistOverall;
+                    if ((channelMask & EdgeColoring.RED) != 0 && minDistR > bound) bound = minDistR;
+                    if ((channelMask & EdgeColoring.GREEN) != 0 && minDistG > bound) bound = minDistG;
+                    if ((channelMask & EdgeColoring.BLUE) != 0 && minDistB > bound) bound = minDistB;
+                    if (cellLower[k] > bound) {
+                        break;
+                    }
+
+                    int e = candidates[k];
+                    int color = edges.color[e];
+                    double lower = edges.boxDistance(e, gx, gy) - eps;
+                    if (lower >= minDistOverall
+                            && ((color & EdgeColoring.RED) == 0 || lower > minDistR)
+                            && ((color & EdgeColoring.GREEN) == 0 || lower > minDistG)
+                            && ((color & EdgeColoring.BLUE) == 0 || lower > minDistB)) {
+                        continue;
+                    }
+
+                    edges.pseudoDistance(e, gx, gy, scratch);
+                    double distance = scratch[0];
+                    int edgeSign = scratch[1] * windingSign >= 0 ? 1 : -1;
+                    double pseudo = scratch[2];
+
+                    if (distance < minDistOverall) {
+                        minDistOverall = distance;
+                    }
+
+                    if ((color & EdgeColoring.RED) != 0
+                            && (distance < minDistR || (distance == minDistR && e < winR))) {
+                        minDistR = distance;
+                        signR = edgeSign;
+                        minPseudoR = pseudo;
+                        winR = e;
+                    }
+                    if ((color & EdgeColoring.GREEN) != 0
+                            && (distance < minDistG || (distance == minDistG && e < winG))) {
+                        minDistG = distance;
+                        signG = edgeSign;
+                        minPseudoG = pseudo;
+                        winG = e;
+                    }
+                    if ((color & EdgeColoring.BLUE) != 0
+                            && (distance < minDistB || (distance == minDistB && e < winB))) {
+                        minDistB = distance;
+                        signB = edgeSign;
+                        minPseudoB = pseudo;
+                        winB = e;
+                    }
+                }
+
+                double sdR = signR * minPseudoR;
+                double sdG = signG * minPseudoG;
+                double sdB = signB * minPseudoB;
+
+                int r = (int) Math.round(128.0 + norm * sdR);
+                int g = (int) Math.round(128.0 + norm * sdG);
+                int b = (int) Math.round(128.0 + norm * sdB);
+
+                r = Math.max(0, Math.min(255, r));
+                g = Math.max(0, Math.min(255, g));
+                b = Math.max(0, Math.min(255, b));
+
+                float med = MSDFGenerator.median(r, g, b);
+                boolean medianInside = med >= 128;
+                if (medianInside != truthInside) {
+                    double groundTruthSD = truthSign * minDistOverall;
+                    int gtMed = (int) Math.round(128.0 + norm * groundTruthSD);
+                    gtMed = Math.max(0, Math.min(255, gtMed));
+                    int shift = (int) (gtMed - med);
+                    r = Math.max(0, Math.min(255, r + shift));
+                    g = Math.max(0, Math.min(255, g + shift));
+                    b = Math.max(0, Math.min(255, b + shift));
+                }
+
+                int idx = (py * width + px) * 3;
+                msdf[idx] = (byte) r;
+                msdf[idx + 1] = (byte) g;
+                msdf[idx + 2] = (byte) b;
+            }
+        }
+
+        return msdf;
+    }
+
+    /**
+     * For every cell, keeps the edges whose box can come within the best guaranteed distance of one of
+     * their channels, sorted by box distance. Any point on an edge lies inside its control-hull box, so
+     * the farthest box corner bounds the edge's distance from above and the nearest point from below.
+     */
+    private static void buildCells(Edges edges, int cellsX, int cellsY, int width, int height,
+                                   double originX, double originY, double texelToGlyph, double eps,
+                                   int[][] cellCandidates, double[][] cellLowerBounds) {
+        int edgeCount = edges.count;
+        double[] lower = new double[edgeCount];
+        double[] upper = new double[edgeCount];
+        Integer[] order = new Integer[edgeCount];
+        int[] keep = new int[edgeCount];
+
+        for (int cy = 0; cy < cellsY; cy++) {
+            int py0 = cy * CELL;
+            int py1 = Math.min(height, py0 + CELL) - 1;
+            double cellMaxY = originY + ((height - 1 - py0) + 0.5) * texelToGlyph;
+            double cellMinY = originY + ((height - 1 - py1) + 0.5) * texelToGlyph;
+
+            for (int cx = 0; cx < cellsX; cx++) {
+                int px0 = cx * CELL;
+                int px1 = Math.min(width, px0 + CELL) - 1;
+                double cellMinX = originX + (px0 + 0.5) * texelToGlyph;
+                double cellMaxX = originX + (px1 + 0.5) * texelToGlyph;
+
+                double bestR = Double.MAX_VALUE, bestG = Double.MAX_VALUE, bestB = Double.MAX_VALUE;
+                for (int e = 0; e < edgeCount; e++) {
+                    lower[e] = edges.boxDistance(e, cellMinX, cellMinY, cellMaxX, cellMaxY) - eps;
+                    upper[e] = edges.farthestBoxDistance(e, cellMinX, cellMinY, cellMaxX, cellMaxY) + eps;
+                    int color = edges.color[e];
+                    if ((color & EdgeColoring.RED) != 0) bestR = Math.min(bestR, upper[e]);
+                    if ((color & EdgeColoring.GREEN) != 0) bestG = Math.min(bestG, upper[e]);
+                    if ((color & EdgeColoring.BLUE) != 0) bestB = Math.min(bestB, upper[e]);
+                }
+
+                int kept = 0;
+                for (int e = 0; e < edgeCount; e++) {
+                    int color = edges.color[e];
+                    double reach = 0;
+                    if ((color & EdgeColoring.RED) != 0) reach = Math.max(reach, bestR);
+                    if ((color & EdgeColoring.GREEN) != 0) reach = Math.max(reach, bestG);
+                    if ((color & EdgeColoring.BLUE) != 0) reach = Math.max(reach, bestB);
+                    if (color == 0 || lower[e] <= reach) {
+                        keep[kept++] = e;
+                    }
+                }
+
+                for (int i = 0; i < kept; i++) {
+                    order[i] = keep[i];
+                }
+                Arrays.sort(order, 0, kept, (a, b) -> Double.compare(lower[a], lower[b]));
+
+                int[] candidates = new int[kept];
+                double[] bounds = new double[kept];
+                for (int i = 0; i < kept; i++) {
+                    candidates[i] = order[i];
+                    bounds[i] = lower[order[i]];
+                }
+                int cell = cy * cellsX + cx;
+                cellCandidates[cell] = candidates;
+                cellLowerBounds[cell] = bounds;
+            }
+        }
+    }
+
+    /**
+     * Fills {@code rowWinding} with the winding number of each texel centre in the row at {@code gy},
+     * using the same per-segment crossing arithmetic as {@link MSDFGenerator#computeWindingNumber}.
+     */
+    private static void computeRowWinding(GlyphOutline outline, double gy, double originX, double texelToGlyph,
+                                          int width, Crossings crossings, int[] rowWinding) {
+        crossings.clear();
+        for (Contour contour : outline.contours()) {
+            List<Segment> segments = contour.segments();
+            for (int i = 0, n = segments.size(); i < n; i++) {
+                Segment seg = segments.get(i);
+                if (seg instanceof Line line) {
+                    lineCrossings(gy, line, crossings);
+                } else if (seg instanceof QuadBezier quad) {
+                    quadCrossings(gy, quad, crossings);
+                } else if (seg instanceof CubicBezier cubic) {
+                    cubicCrossings(gy, cubic, crossings);
+                }
+            }
+        }
+        crossings.sort();
+
+        int remaining = crossings.totalDirection;
+        int next = 0;
+        for (int px = 0; px < width; px++) {
+            double gx = originX + (px + 0.5) * texelToGlyph;
+            while (next < crossings.size && crossings.x[next] <= gx) {
+                remaining -= crossings.dir[next];
+                next++;
+            }
+            rowWinding[px] = remaining;
+        }
+    }
+
+    private static void lineCrossings(double py, Line line, Crossings out) {
+        double y0 = line.y0(), y1 = line.y1();
+
+        if (y0 <= py && y1 > py) {
+            double t = (py - y0) / (y1 - y0);
+            out.add(line.x0() + t * (line.x1() - line.x0()), 1);
+        } else if (y1 <= py && y0 > py) {
+            double t = (py - y0) / (y1 - y0);
+            out.add(line.x0() + t * (line.x1() - line.x0()), -1);
+        }
+    }
+
+    private static void quadCrossings(double py, QuadBezier q, Crossings out) {
+        double y0 = q.y0(), y1 = q.cy(), y2 = q.y1();
+
+        double a = y0 - 2 * y1 + y2;
+        double b = 2 * (y1 - y0);
+        double c = y0 - py;
+
+        if (Math.abs(a) < 1e-12) {
+            if (Math.abs(b) < 1e-12) return;
+            double t = -c / b;
+            if (t >= 0 && t < 1) {
+                double mt = 1 - t;
+                out.add(mt * mt * q.x0() + 2 * mt * t * q.cx() + t * t * q.x1(), b > 0 ? 1 : -1);
+            }
+            return;
+        }
+
+        double disc = b * b - 4 * a * c;
+        if (disc < 0) return;
+
+        double sqrtDisc = Math.sqrt(disc);
+        double inv2a = 1.0 / (2 * a);
+        quadRoot((-b - sqrtDisc) * inv2a, q, y0, y1, y2, out);
+        quadRoot((-b + sqrtDisc) * inv2a, q, y0, y1, y2, out);
+    }
+
+    private static void quadRoot(double t, QuadBezier q, double y0, double y1, double y2, Crossings out) {
+        if (t >= 0 && t < 1) {
+            double mt = 1 - t;
+            double dydt = 2 * (1 - t) * (y1 - y0) + 2 * t * (y2 - y1);
+            out.add(mt * mt * q.x0() + 2 * mt * t * q.cx() + t * t * q.x1(), dydt > 0 ? 1 : -1);
+        }
+    }
+
+    private static void cubicCrossings(double py, CubicBezier c, Crossings out) {
+        double y0 = c.y0(), y1 = c.cy1(), y2 = c.cy2(), y3 = c.y1();
+
+        double minY = Math.min(Math.min(y0, y1), Math.min(y2, y3));
+        double maxY = Math.max(Math.max(y0, y1), Math.max(y2, y3));
+        if (py < minY || py >= maxY) return;
+
+        double p0x = c.x0(), p0y = c.y0();
+        double p1x = c.cx1(), p1y = c.cy1();
+        double p2x = c.cx2(), p2y = c.cy2();
+        double p3x = c.x1(), p3y = c.y1();
+
+        double prevX = c.x0(), prevY = c.y0();
+        for (int i = 1; i <= CUBIC_RAY_SUBDIVISIONS; i++) {
+            double t = (double) i / CUBIC_RAY_SUBDIVISIONS;
+            double mt = 1.0 - t;
+            double mt2 = mt * mt;
+            double t2 = t * t;
+            double curX = mt2 * mt * p0x + 3 * mt2 * t * p1x + 3 * mt * t2 * p2x + t2 * t * p3x;
+            double curY = mt2 * mt * p0y + 3 * mt2 * t * p1y + 3 * mt * t2 * p2y + t2 * t * p3y;
+
+            if (prevY <= py && curY > py) {
+                double frac = (py - prevY) / (curY - prevY);
+                out.add(prevX + frac * (curX - prevX), 1);
+            } else if (curY <= py && prevY > py) {
+                double frac = (py - prevY) / (curY - prevY);
+                out.add(prevX + frac * (curX - prevX), -1);
+            }
+            prevX = curX;
+            prevY = curY;
+        }
+    }
+
+    /** Ray crossings for one scanline, sortable by x without boxing. */
+    private static final class Crossings {
+        double[] x = new double[32];
+        int[] dir = new int[32];
+        int size;
+        int totalDirection;
+
+        void clear() {
+            size = 0;
+            totalDirection = 0;
+        }
+
+        void add(double crossX, int direction) {
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                dir = Arrays.copyOf(dir, size * 2);
+            }
+            x[size] = crossX;
+            dir[size] = direction;
+            size++;
+            totalDirection += direction;
+        }
+
+        void sort() {
+            for (int i = 1; i < size; i++) {
+                double cx = x[i];
+                int cd = dir[i];
+                int j = i - 1;
+                while (j >= 0 && x[j] > cx) {
+                    x[j + 1] = x[j];
+                    dir[j + 1] = dir[j];
+                    j--;
+                }
+                x[j + 1] = cx;
+                dir[j + 1] = cd;
+            }
+        }
+    }
+
+    /**
+     * Colored edges flattened to primitive arrays: 8 coordinates per edge (unused slots zero) and the
+     * control-hull bounding box.
+     */
+    private static final class Edges {
+        final int count;
+        final int[] type;
+        final int[] color;
+        final double[] pts;
+        final double[] box;
+
+        private Edges(int count) {
+            this.count = count;
+            this.type = new int[count];
+            this.color = new int[count];
+            this.pts = new double[count * 8];
+            this.box = new double[count * 4];
+        }
+
+        static Edges flatten(EdgeColoring.ColoredContour[] coloredEdges) {
+            int count = 0;
+            for (EdgeColoring.ColoredContour cc : coloredEdges) {
+                count += cc.edges().size();
+            }
+            Edges edges = new Edges(count);
+            int e = 0;
+            for (EdgeColoring.ColoredContour cc : coloredEdges) {
+                for (EdgeColoring.ColoredEdge edge : cc.edges()) {
+                    edges.set(e++, edge.segment(), edge.color());
+                }
+            }
+            return edges;
+        }
+
+        private void set(int e, Segment seg, int edgeColor) {
+            int o = e * 8;
+            color[e] = edgeColor;
+            int points;
+            if (seg instanceof Line line) {
+                type[e] = LINE;
+                pts[o] = line.x0(); pts[o + 1] = line.y0();
+                pts[o + 2] = line.x1(); pts[o + 3] = line.y1();
+                points = 2;
+            } else if (seg instanceof QuadBezier q) {
+                type[e] = QUAD;
+                pts[o] = q.x0(); pts[o + 1] = q.y0();
+                pts[o + 2] = q.cx(); pts[o + 3] = q.cy();
+                pts[o + 4] = q.x1(); pts[o + 5] = q.y1();
+                points = 3;
+            } else {
+                CubicBezier c = (CubicBezier) seg;
+                type[e] = CUBIC;
+                pts[o] = c.x0(); pts[o + 1] = c.y0();
+                pts[o + 2] = c.cx1(); pts[o + 3] = c.cy1();
+                pts[o + 4] = c.cx2(); pts[o + 5] = c.cy2();
+                pts[o + 6] = c.x1(); pts[o + 7] = c.y1();
+                points = 4;
+            }
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < points; i++) {
+                minX = Math.min(minX, pts[o + i * 2]);
+                maxX = Math.max(maxX, pts[o + i * 2]);
+                minY = Math.min(minY, pts[o + i * 2 + 1]);
+                maxY = Math.max(maxY, pts[o + i * 2 + 1]);
+            }
+            int b = e * 4;
+            box[b] = minX;
+            box[b + 1] = minY;
+            box[b + 2] = maxX;
+            box[b + 3] = maxY;
+        }
+
+        double boxDistance(int e, double x, double y) {
+            int b = e * 4;
+            double dx = Math.max(Math.max(box[b] - x, x - box[b + 2]), 0);
+            double dy = Math.max(Math.max(box[b + 1] - y, y - box[b + 3]), 0);
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
+        double boxDistance(int e, double minX, double minY, double maxX, double maxY) {
+            int b = e * 4;
+            double dx = Math.max(Math.max(box[b] - maxX, minX - box[b + 2]), 0);
+            double dy = Math.max(Math.max(box[b + 1] - maxY, minY - box[b + 3]), 0);
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
+        double farthestBoxDistance(int e, double minX, double minY, double maxX, double maxY) {
+            int b = e * 4;
+            double dx = Math.max(maxX - box[b], box[b + 2] - minX);
+            double dy = Math.max(maxY - box[b + 1], box[b + 3] - minY);
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
+        /** Writes distance, cross product and pseudo-distance into {@code out[0..2]}. */
+        void pseudoDistance(int e, double px, double py, double[] out) {
+            int o = e * 8;
+            switch (type[e]) {
+                case LINE -> line(px, py, pts[o], pts[o + 1], pts[o + 2], pts[o + 3], out);
+                case QUAD -> quad(px, py, pts[o], pts[o + 1], pts[o + 2], pts[o + 3], pts[o + 4], pts[o + 5], out);
+                default -> cubic(px, py, pts[o], pts[o + 1], pts[o + 2], pts[o + 3],
+                        pts[o + 4], pts[o + 5], pts[o + 6], pts[o + 7], out);
+            }
+        }
+
+        private static void line(double px, double py, double ax, double ay, double bx, double by, double[] out) {
+            double dx = bx - ax;
+            double dy = by - ay;
+            double lenSq = dx * dx + dy * dy;
+
+            if (lenSq < 1e-20) {
+                double ex = px - ax, ey = py - ay;
+                double d = Math.sqrt(ex * ex + ey * ey);
+                out[0] = d;
+                out[1] = 0;
+                out[2] = d;
+                return;
+            }
+
+            double t = ((px - ax) * dx + (py - ay) * dy) / lenSq;
+
+            double len = Math.sqrt(lenSq);
+            double perpDist = Math.abs(dx * (py - ay) - dy * (px - ax)) / len;
+
+            double tClamped = Math.max(0.0, Math.min(1.0, t));
+            double closestX = ax + tClamped * dx;
+            double closestY = ay + tClamped * dy;
+            double ex = px - closestX;
+            double ey = py - closestY;
+            double trueDist = Math.sqrt(ex * ex + ey * ey);
+
+            out[0] = trueDist;
+            out[1] = dx * ey - dy * ex;
+            out[2] = (t >= 0.0 && t <= 1.0) ? perpDist : trueDist;
+        }
+
+        private static void quad(double px, double py, double p0x, double p0y, double p1x, double p1y,
+                                 double p2x, double p2y, double[] out) {
+            double bestDist = Double.MAX_VALUE;
+            double bestT = 0;
+            double bestCross = 0;
+
+            for (int end = 0; end < 2; end++) {
+                double tInit = end;
+                double mt = 1.0 - tInit;
+                double x = mt * mt * p0x + 2 * mt * tInit * p1x + tInit * tInit * p2x;
+                double y = mt * mt * p0y + 2 * mt * tInit * p1y + tInit * tInit * p2y;
+                double dx = px - x, dy = py - y;
+                double d = Math.sqrt(dx * dx + dy * dy);
+                if (d < bestDist) {
+                    double tx = 2 * mt * (p1x - p0x) + 2 * tInit * (p2x - p1x);
+                    double ty = 2 * mt * (p1y - p0y) + 2 * tInit * (p2y - p1y);
+                    bestDist = d;
+                    bestT = tInit;
+                    bestCross = tx * dy - ty * dx;
+                }
+            }
+
+            for (int i = 0; i <= 8; i++) {
+                double t = (double) i / 8;
+                for (int iter = 0; iter < 8; iter++) {
+                    double mt = 1.0 - t;
+                    double ptx = mt * mt * p0x + 2 * mt * t * p1x + t * t * p2x;
+                    double pty = mt * mt * p0y + 2 * mt * t * p1y + t * t * p2y;
+                    double d1x = 2 * mt * (p1x - p0x) + 2 * t * (p2x - p1x);
+                    double d1y = 2 * mt * (p1y - p0y) + 2 * t * (p2y - p1y);
+
+                    double d2x = 2 * (p2x - 2 * p1x + p0x);
+                    double d2y = 2 * (p2y - 2 * p1y + p0y);
+
+                    double diffx = ptx - px;
+                    double diffy = pty - py;
+
+                    double f = diffx * d1x + diffy * d1y;
+                    double fp = d1x * d1x + d1y * d1y + diffx * d2x + diffy * d2y;
+
+                    if (Math.abs(fp) < 1e-20) break;
+
+                    double dt = f / fp;
+                    t -= dt;
+                    t = Math.max(-0.1, Math.min(1.1, t));
+
+                    if (Math.abs(dt) < 1e-10) break;
+                }
+                t = Math.max(0.0, Math.min(1.0, t));
+
+                double mt = 1.0 - t;
+                double x = mt * mt * p0x + 2 * mt * t * p1x + t * t * p2x;
+                double y = mt * mt * p0y + 2 * mt * t * p1y + t * t * p2y;
+                double dx = px - x, dy = py - y;
+                double d = Math.sqrt(dx * dx + dy * dy);
+
+                if (d < bestDist) {
+                    double tx = 2 * mt * (p1x - p0x) + 2 * t * (p2x - p1x);
+                    double ty = 2 * mt * (p1y - p0y) + 2 * t * (p2y - p1y);
+                    bestDist = d;
+                    bestT = t;
+                    bestCross = tx * dy - ty * dx;
+                }
+            }
+
+            double t = bestT;
+            double mt = 1.0 - t;
+            double tx = 2 * mt * (p1x - p0x) + 2 * t * (p2x - p1x);
+            double ty = 2 * mt * (p1y - p0y) + 2 * t * (p2y - p1y);
+            double tanLen = Math.sqrt(tx * tx + ty * ty);
+
+            double pseudoDist;
+            if (tanLen < 1e-12) {
+                pseudoDist = bestDist;
+            } else {
+                double x = mt * mt * p0x + 2 * mt * t * p1x + t * t * p2x;
+                double y = mt * mt * p0y + 2 * mt * t * p1y + t * t * p2y;
+                double diffx = px - x, diffy = py - y;
+                pseudoDist = Math.abs(tx * diffy - ty * diffx) / tanLen;
+            }
+
+            if (t <= 0.0 || t >= 1.0) {
+                pseudoDist = bestDist;
+            }
+
+            out[0] = bestDist;
+            out[1] = bestCross;
+            out[2] = pseudoDist;
+        }
+
+        private static void cubic(double px, double py, double p0x, double p0y, double p1x, double p1y,
+                                  double p2x, double p2y, double p3x, double p3y, double[] out) {
+            double bestDist = Double.MAX_VALUE;
+            double bestT = 0;
+            double bestCross = 0;
+
+            for (int end = 0; end < 2; end++) {
+                double tInit = end;
+                double mt = 1.0 - tInit;
+                double mt2 = mt * mt;
+                double t2 = tInit * tInit;
+                double x = mt2 * mt * p0x + 3 * mt2 * tInit * p1x + 3 * mt * t2 * p2x + t2 * tInit * p3x;
+                double y = mt2 * mt * p0y + 3 * mt2 * tInit * p1y + 3 * mt * t2 * p2y + t2 * tInit * p3y;
+                double dx = px - x, dy = py - y;
+                double d = Math.sqrt(dx * dx + dy * dy);
+                if (d < bestDist) {
+                    double tx = 3 * mt * mt * (p1x - p0x) + 6 * mt * tInit * (p2x - p1x) + 3 * tInit * tInit * (p3x - p2x);
+                    double ty = 3 * mt * mt * (p1y - p0y) + 6 * mt * tInit * (p2y - p1y) + 3 * tInit * tInit * (p3y - p2y);
+                    if (tx * tx + ty * ty < 1e-20) {
+                        tx = 6 * mt * (p2x - 2 * p1x + p0x) + 6 * tInit * (p3x - 2 * p2x + p1x);
+                        ty = 6 * mt * (p2y - 2 * p1y + p0y) + 6 * tInit * (p3y - 2 * p2y + p1y);
+                    }
+                    bestDist = d;
+                    bestT = tInit;
+                    bestCross = tx * dy - ty * dx;
+                }
+            }
+
+            for (int i = 0; i <= 12; i++) {
+                double t = (double) i / 12;
+                for (int iter = 0; iter < 10; iter++) {
+                    double mt = 1.0 - t;
+                    double mt2 = mt * mt;
+                    double t2 = t * t;
+                    double ptx = mt2 * mt * p0x + 3 * mt2 * t * p1x + 3 * mt * t2 * p2x + t2 * t * p3x;
+                    double pty = mt2 * mt * p0y + 3 * mt2 * t * p1y + 3 * mt * t2 * p2y + t2 * t * p3y;
+                    double d1x = 3 * mt * mt * (p1x - p0x) + 6 * mt * t * (p2x - p1x) + 3 * t * t * (p3x - p2x);
+                    double d1y = 3 * mt * mt * (p1y - p0y) + 6 * mt * t * (p2y - p1y) + 3 * t * t * (p3y - p2y);
+                    double d2x = 6 * mt * (p2x - 2 * p1x + p0x) + 6 * t * (p3x - 2 * p2x + p1x);
+                    double d2y = 6 * mt * (p2y - 2 * p1y + p0y) + 6 * t * (p3y - 2 * p2y + p1y);
+
+                    double diffx = ptx - px;
+                    double diffy = pty - py;
+
+                    double f = diffx * d1x + diffy * d1y;
+                    double fp = d1x * d1x + d1y * d1y + diffx * d2x + diffy * d2y;
+
+                    if (Math.abs(fp) < 1e-20) break;
+
+                    double dt = f / fp;
+                    t -= dt;
+                    t = Math.max(-0.1, Math.min(1.1, t));
+
+                    if (Math.abs(dt) < 1e-10) break;
+                }
+                t = Math.max(0.0, Math.min(1.0, t));
+
+                double mt = 1.0 - t;
+                double mt2 = mt * mt;
+                double t2 = t * t;
+                double x = mt2 * mt * p0x + 3 * mt2 * t * p1x + 3 * mt * t2 * p2x + t2 * t * p3x;
+                double y = mt2 * mt * p0y + 3 * mt2 * t * p1y + 3 * mt * t2 * p2y + t2 * t * p3y;
+                double dx = px - x, dy = py - y;
+                double d = Math.sqrt(dx * dx + dy * dy);
+
+                if (d < bestDist) {
+                    double tx = 3 * mt * mt * (p1x - p0x) + 6 * mt * t * (p2x - p1x) + 3 * t * t * (p3x - p2x);
+                    double ty = 3 * mt * mt * (p1y - p0y) + 6 * mt * t * (p2y - p1y) + 3 * t * t * (p3y - p2y);
+                    if (tx * tx + ty * ty < 1e-20) {
+                        tx = 6 * mt * (p2x - 2 * p1x + p0x) + 6 * t * (p3x - 2 * p2x + p1x);
+                        ty = 6 * mt * (p2y - 2 * p1y + p0y) + 6 * t * (p3y - 2 * p2y + p1y);
+                    }
+                    bestDist = d;
+                    bestT = t;
+                    bestCross = tx * dy - ty * dx;
+                }
+            }
+
+            double t = bestT;
+            double mt = 1.0 - t;
+            double tx = 3 * mt * mt * (p1x - p0x) + 6 * mt * t * (p2x - p1x) + 3 * t * t * (p3x - p2x);
+            double ty = 3 * mt * mt * (p1y - p0y) + 6 * mt * t * (p2y - p1y) + 3 * t * t * (p3y - p2y);
+            double tanLen = Math.sqrt(tx * tx + ty * ty);
+
+            if (tanLen < 1e-12) {
+                tx = 6 * mt * (p2x - 2 * p1x + p0x) + 6 * t * (p3x - 2 * p2x + p1x);
+                ty = 6 * mt * (p2y - 2 * p1y + p0y) + 6 * t * (p3y - 2 * p2y + p1y);
+                tanLen = Math.sqrt(tx * tx + ty * ty);
+            }
+
+            double pseudoDist;
+            if (tanLen < 1e-12) {
+                pseudoDist = bestDist;
+            } else {
+                double mt2 = mt * mt;
+                double t2 = t * t;
+                double x = mt2 * mt * p0x + 3 * mt2 * t * p1x + 3 * mt * t2 * p2x + t2 * t * p3x;
+                double y = mt2 * mt * p0y + 3 * mt2 * t * p1y + 3 * mt * t2 * p2y + t2 * t * p3y;
+                double diffx = px - x, diffy = py - y;
+                pseudoDist = Math.abs(tx * diffy - ty * diffx) / tanLen;
+            }
+
+            if (t <= 0.0 || t >= 1.0) {
+                pseudoDist = bestDist;
+            }
+
+            out[0] = bestDist;
+            out[1] = bestCross;
+            out[2] = pseudoDist;
+        }
+    }
+}
@@ -89,13 +89,13 @@ public final class SDFGlyphProviderDefinition {
             ResourceLocation fontResourceLoc = ResourceLocation.fromNamespaceAndPath(
                     fontFile.getNamespace(), "font/" + fontFile.getPath());
 
-            ByteBuffer fontData = loadFontData(resourceManager, fontResourceLoc);
-            if (fontData == null) {
+            FontFile font = loadFontData(resourceManager, fontResourceLoc);
+            if (font == null) {
                 LOGGER.error("Failed to load font file: {}", fontResourceLoc);
                 return null;
             }
 
-            return SDFGlyphProviderFactory.create(fontData, config);
+            return SDFGlyphProviderFactory.create(font.data(), font.fingerprint(), config);
 
         } catch (Exception e) {
             LOGGER.error("Failed to create SDF glyph provider", e);
@@ -103,8 +103,10 @@ public final class SDFGlyphProviderDefinition {
         }
     }
 
+    private record FontFile(ByteBuffer data, long fingerprint) {}
+
     @Nullable
-    private static ByteBuffer loadFontData(ResourceManager resourceManager, ResourceLocation location) {
+    private static FontFile loadFontData(ResourceManager resourceManager, ResourceLocation location) {
         try {
             var resource = resourceManager.getResource(location);
             if (resource.isEmpty()) {
@@ -115,7 +117,8 @@ public final class SDFGlyphProviderDefinition {
                 ByteBuffer buf = MemoryUtil.memAlloc(bytes.length);
                 buf.put(bytes);
                 buf.flip();
-                return buf;
+                long fingerprint = FontFingerprints.fingerprint(buf);
+                return new FontFile(buf, fingerprint);
             }
         } catch (IOException e) {
             LOGGER.error("Failed to read font file: {}", location, e);
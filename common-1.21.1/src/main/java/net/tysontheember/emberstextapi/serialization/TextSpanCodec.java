@@ -292,4 +292,251 @@ public final class TextSpanCodec {
 
         return span;
     }
+
+    // Presence bits for the compact format, one varint per span. Flags that are false and fields that are
+    // unset cost nothing.
+    private static final int BOLD = 1;
+    private static final int ITALIC = 1 << 1;
+    private static final int UNDERLINE = 1 << 2;
+    private static final int STRIKETHROUGH = 1 << 3;
+    private static final int OBFUSCATED = 1 << 4;
+    private static final int COLOR = 1 << 5;
+    private static final int FONT = 1 << 6;
+    private static final int TYPEWRITER = 1 << 7;
+    private static final int TYPEWRITER_CENTER = 1 << 8;
+    private static final int OBFUSCATE_MODE = 1 << 9;
+    private static final int HAS_BACKGROUND = 1 << 10;
+    private static final int BACKGROUND_COLOR = 1 << 11;
+    private static final int BACKGROUND_GRADIENT = 1 << 12;
+    private static final int FADE_IN = 1 << 13;
+    private static final int FADE_OUT = 1 << 14;
+    private static final int ITEM = 1 << 15;
+    private static final int ENTITY = 1 << 16;
+    private static final int CLICK = 1 << 17;
+    private static final int HOVER = 1 << 18;
+    private static final int EFFECTS = 1 << 19;
+
+    // Item and entity fields get their own varint, written only when the span has one.
+    private static final int ITEM_COUNT = 1;
+    private static final int ITEM_OFFSET_X = 1 << 1;
+    private static final int ITEM_OFFSET_Y = 1 << 2;
+    private static final int ITEM_NBT = 1 << 3;
+
+    private static final int ENTITY_SCALE = 1;
+    private static final int ENTITY_OFFSET_X = 1 << 1;
+    private static final int ENTITY_OFFSET_Y = 1 << 2;
+    private static final int ENTITY_YAW = 1 << 3;
+    private static final int ENTITY_PITCH = 1 << 4;
+    private static final int ENTITY_ROLL = 1 << 5;
+    private static final int ENTITY_LIGHTING = 1 << 6;
+    private static final int ENTITY_SPIN = 1 << 7;
+    private static final int ENTITY_ANIMATION = 1 << 8;
+    private static final int ENTITY_NBT = 1 << 9;
+
+    /** Writes {@code span} in the {@link CompactCodec} format. */
+    public static void encodeCompact(TextSpan span, CompactCodec.Writer out) {
+        encodeCompact(span, span.getContent(), out);
+    }
+
+    /** Writes {@code span} with {@code content} in place of its own, e.g. to compare spans by everything but their text. */
+    static void encodeCompact(TextSpan span, String content, CompactCodec.Writer out) {
+        List<Effect> effects = span.getEffects();
+        boolean click = span.getClickAction() != null && span.getClickValue() != null;
+        boolean hover = span.getHoverAction() != null && span.getHoverValue() != null;
+
+        int bits = 0;
+        if (Boolean.TRUE.equals(span.getBold())) bits |= BOLD;
+        if (Boolean.TRUE.equals(span.getItalic())) bits |= ITALIC;
+        if (Boolean.TRUE.equals(span.getUnderline())) bits |= UNDERLINE;
+        if (Boolean.TRUE.equals(span.getStrikethrough())) bits |= STRIKETHROUGH;
+        if (Boolean.TRUE.equals(span.getObfuscated())) bits |= OBFUSCATED;
+        if (span.getColor() != null) bits |= COLOR;
+        if (span.getFont() != null) bits |= FONT;
+        if (span.getTypewriterSpeed() != null) bits |= TYPEWRITER;
+        if (Boolean.TRUE.equals(span.getTypewriterCenter())) bits |= TYPEWRITER_CENTER;
+        if (span.getObfuscateMode() != null) bits |= OBFUSCATE_MODE;
+        if (Boolean.TRUE.equals(span.getHasBackground())) bits |= HAS_BACKGROUND;
+        if (span.getBackgroundColor() != null) bits |= BACKGROUND_COLOR;
+        if (span.getBackgroundGradient() != null) bits |= BACKGROUND_GRADIENT;
+        if (span.getFadeInTicks() != null) bits |= FADE_IN;
+        if (span.getFadeOutTicks() != null) bits |= FADE_OUT;
+        if (span.getItemId() != null) bits |= ITEM;
+        if (span.getEntityId() != null) bits |= ENTITY;
+        if (click) bits |= CLICK;
+        if (hover) bits |= HOVER;
+        if (effects != null && !effects.isEmpty()) bits |= EFFECTS;
+
+        out.writeVarInt(bits);
+        out.writeText(content);
+
+        if ((bits & COLOR) != 0) out.writeColor(span.getColor().getValue());
+        if ((bits & FONT) != 0) out.writeString(span.getFont().toString());
+        if ((bits & TYPEWRITER) != 0) out.writeFloat(span.getTypewriterSpeed());
+        if ((bits & OBFUSCATE_MODE) != 0) {
+            out.writeEnum(span.getObfuscateMode());
+            out.writeFloat(span.getObfuscateSpeed() != null ? span.getObfuscateSpeed() : 1f);
+        }
+        if ((bits & BACKGROUND_COLOR) != 0) out.writeColor(span.getBackgroundColor().getARGB());
+        if ((bits & BACKGROUND_GRADIENT) != 0) {
+            out.writeVarInt(span.getBackgroundGradient().length);
+            for (ImmersiveColor bgColor : span.getBackgroundGradient()) {
+                out.writeColor(bgColor.getARGB());
+            }
+        }
+        if ((bits & FADE_IN) != 0) out.writeVarInt(span.getFadeInTicks());
+        if ((bits & FADE_OUT) != 0) out.writeVarInt(span.getFadeOutTicks());
+
+        if ((bits & ITEM) != 0) {
+            int item = 0;
+            if (span.getItemCount() != null && span.getItemCount() != 1) item |= ITEM_COUNT;
+            if (span.getItemOffsetX() != null) item |= ITEM_OFFSET_X;
+            if (span.getItemOffsetY() != null) item |= ITEM_OFFSET_Y;
+            if (span.getItemNbt() != null) item |= ITEM_NBT;
+            out.writeVarInt(item);
+            out.writeString(span.getItemId());
+            if ((item & ITEM_COUNT) != 0) out.writeVarInt(span.getItemCount());
+            if ((item & ITEM_OFFSET_X) != 0) out.writeFloat(span.getItemOffsetX());
+            if ((item & ITEM_OFFSET_Y) != 0) out.writeFloat(span.getItemOffsetY());
+            if ((item & ITEM_NBT) != 0) out.writeText(span.getItemNbt());
+        }
+
+        if ((bits & ENTITY) != 0) {
+            int entity = 0;
+            if (span.getEntityScale() != null && span.getEntityScale() != 1.0f) entity |= ENTITY_SCALE;
+            if (span.getEntityOffsetX() != null) entity |= ENTITY_OFFSET_X;
+            if (span.getEntityOffsetY() != null) entity |= ENTITY_OFFSET_Y;
+            if (span.getEntityYaw() != null) entity |= ENTITY_YAW;
+            if (span.getEntityPitch() != null) entity |= ENTITY_PITCH;
+            if (span.getEntityRoll() != null) entity |= ENTITY_ROLL;
+            if (span.getEntityLighting() != null) entity |= ENTITY_LIGHTING;
+            if (span.getEntitySpin() != null) entity |= ENTITY_SPIN;
+            if (span.getEntityAnimation() != null) entity |= ENTITY_ANIMATION;
+            if (span.getEntityNbt() != null) entity |= ENTITY_NBT;
+            out.writeVarInt(entity);
+            out.writeString(span.getEntityId());
+            if ((entity & ENTITY_SCALE) != 0) out.writeFloat(span.getEntityScale());
+            if ((entity & ENTITY_OFFSET_X) != 0) out.writeFloat(span.getEntityOffsetX());
+            if ((entity & ENTITY_OFFSET_Y) != 0) out.writeFloat(span.getEntityOffsetY());
+            if ((entity & ENTITY_YAW) != 0) out.writeFloat(span.getEntityYaw());
+            if ((entity & ENTITY_PITCH) != 0) out.writeFloat(span.getEntityPitch());
+            if ((entity & ENTITY_ROLL) != 0) out.writeFloat(span.getEntityRoll());
+            if ((entity & ENTITY_LIGHTING) != 0) out.writeVarInt(span.getEntityLighting());
+            if ((entity & ENTITY_SPIN) != 0) out.writeFloat(span.getEntitySpin());
+            if ((entity & ENTITY_ANIMATION) != 0) out.writeString(span.getEntityAnimation());
+            if ((entity & ENTITY_NBT) != 0) out.writeText(span.getEntityNbt());
+        }
+
+        if (click) {
+            out.writeString(span.getClickAction());
+            out.writeText(span.getClickValue());
+        }
+        if (hover) {
+            out.writeString(span.getHoverAction());
+            out.writeText(span.getHoverValue());
+        }
+
+        if ((bits & EFFECTS) != 0) {
+            out.writeVarInt(effects.size());
+            for (Effect effect : effects) {
+                out.writeEffect(effect);
+            }
+        }
+    }
+
+    public static TextSpan decodeCompact(CompactCodec.Reader in) {
+        int bits = in.readVarInt();
+        TextSpan span = new TextSpan(in.readText(MAX_CONTENT_LENGTH));
+
+        if ((bits & BOLD) != 0) span.bold(true);
+        if ((bits & ITALIC) != 0) span.italic(true);
+        if ((bits & UNDERLINE) != 0) span.underline(true);
+        if ((bits & STRIKETHROUGH) != 0) span.strikethrough(true);
+        if ((bits & OBFUSCATED) != 0) span.obfuscated(true);
+
+        if ((bits & COLOR) != 0) {
+            span.color(TextColor.fromRgb(in.readColor()));
+        }
+        if ((bits & FONT) != 0) {
+            String font = in.readString(MAX_ID_LENGTH);
+            ResourceLocation location = ResourceLocation.tryParse(font);
+            if (location != null) {
+                span.font(location);
+            } else {
+                LOGGER.warn("Ignoring invalid span font: {}", font);
+            }
+        }
+        if ((bits & TYPEWRITER) != 0) {
+            span.typewriter(clampFloat(in.readFloat(), 0.001f, 1000f));
+            span.setTypewriterCenter((bits & TYPEWRITER_CENTER) != 0);
+        }
+        if ((bits & OBFUSCATE_MODE) != 0) {
+            span.setObfuscateMode(in.readEnum(ObfuscateMode.class));
+            span.setObfuscateSpeed(clampFloat(in.readFloat(), 0f, 1000f));
+        }
+        if ((bits & HAS_BACKGROUND) != 0) {
+            span.setHasBackground(true);
+        }
+        if ((bits & BACKGROUND_COLOR) != 0) {
+            span.background(new ImmersiveColor(in.readColor()));
+        }
+        if ((bits & BACKGROUND_GRADIENT) != 0) {
+            int bgColorCount = in.readVarInt();
+            if (bgColorCount < 0 || bgColorCount > MAX_ARRAY_SIZE) {
+                throw new IllegalArgumentException("Invalid background gradient color count: " + bgColorCount);
+            }
+            ImmersiveColor[] bgColors = new ImmersiveColor[bgColorCount];
+            for (int i = 0; i < bgColorCount; i++) {
+                bgColors[i] = new ImmersiveColor(in.readColor());
+            }
+            span.backgroundGradient(bgColors);
+        }
+        if ((bits & FADE_IN) != 0) span.fadeIn(Math.max(0, in.readVarInt()));
+        if ((bits & FADE_OUT) != 0) span.fadeOut(Math.max(0, in.readVarInt()));
+
+        if ((bits & ITEM) != 0) {
+            int item = in.readVarInt();
+            String itemId = in.readString(MAX_ID_LENGTH);
+            int itemCount = (item & ITEM_COUNT) != 0 ? Math.min(Math.max(1, in.readVarInt()), MAX_ITEM_COUNT) : 1;
+            span.item(itemId, itemCount);
+            if ((item & ITEM_OFFSET_X) != 0) span.itemOffsetX(clampFloat(in.readFloat(), -MAX_OFFSET, MAX_OFFSET));
+            if ((item & ITEM_OFFSET_Y) != 0) span.itemOffsetY(clampFloat(in.readFloat(), -MAX_OFFSET, MAX_OFFSET));
+            if ((item & ITEM_NBT) != 0) span.itemNbt(in.readText(MAX_EFFECT_TAG_LENGTH));
+        }
+
+        if ((bits & ENTITY) != 0) {
+            int entity = in.readVarInt();
+            span.entity(in.readString(MAX_ID_LENGTH));
+            span.entityScale((entity & ENTITY_SCALE) != 0 ? clampFloat(in.readFloat(), 0.01f, MAX_SCALE) : 1.0f);
+            if ((entity & ENTITY_OFFSET_X) != 0) span.entityOffsetX(clampFloat(in.readFloat(), -MAX_OFFSET, MAX_OFFSET));
+            if ((entity & ENTITY_OFFSET_Y) != 0) span.entityOffsetY(clampFloat(in.readFloat(), -MAX_OFFSET, MAX_OFFSET));
+            if ((entity & ENTITY_YAW) != 0) span.entityYaw(clampFloat(in.readFloat(), -360f, 360f));
+            if ((entity & ENTITY_PITCH) != 0) span.entityPitch(clampFloat(in.readFloat(), -90f, 90f));
+            if ((entity & ENTITY_ROLL) != 0) span.entityRoll(clampFloat(in.readFloat(), -360f, 360f));
+            if ((entity & ENTITY_LIGHTING) != 0) span.entityLighting(Math.max(0, Math.min(15, in.readVarInt())));
+            if ((entity & ENTITY_SPIN) != 0) span.entitySpin(in.readFloat());
+            if ((entity & ENTITY_ANIMATION) != 0) span.setEntityAnimation(in.readString(MAX_ID_LENGTH));
+            if ((entity & ENTITY_NBT) != 0) span.entityNbt(in.readText(MAX_EFFECT_TAG_LENGTH));
+        }
+
+        if ((bits & CLICK) != 0) {
+            span.clickAction(in.readString(MAX_ID_LENGTH));
+            span.clickValue(in.readText(MAX_EFFECT_TAG_LENGTH));
+        }
+        if ((bits & HOVER) != 0) {
+            span.hoverAction(in.readString(MAX_ID_LENGTH));
+            span.hoverValue(in.readText(MAX_EFFECT_TAG_LENGTH));
+        }
+
+        if ((bits & EFFECTS) != 0) {
+            int effectCount = in.readVarInt();
+            if (effectCount < 0 || effectCount > MAX_ARRAY_SIZE) {
+                throw new IllegalArgumentException("Invalid effect count: " + effectCount);
+            }
+            for (int i = 0; i < effectCount; i++) {
+                span.addEffect(in.readEffect());
+            }
+        }
+
+        return span;
+    }
 }
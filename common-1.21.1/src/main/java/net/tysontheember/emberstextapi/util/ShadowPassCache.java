@@ -0,0 +1,106 @@
+package net.tysontheember.emberstextapi.util;
+
+import net.minecraft.network.chat.Style;
+import net.tysontheember.emberstextapi.immersivemessages.effects.AnimationClock;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-thread record of the glyph effects computed during a drop-shadow pass, so the main pass that
+ * follows can reuse them instead of running the same effects again.
+ * <p>
+ * Vanilla draws shadowed text as two passes over the same glyphs in the same order, so records are
+ * matched by their position in the sequence and checked against the glyph's style, index, codepoint
+ * and pen position. A glyph that doesn't match, or a record from an earlier frame, is computed afresh.
+ */
+final class ShadowPassCache {
+
+    private static final ThreadLocal<ShadowPassCache> CURRENT = ThreadLocal.withInitial(ShadowPassCache::new);
+
+    private final List<Entry> entries = new ArrayList<>();
+    private int size;
+    private int cursor;
+    private Object recordingPass;
+    private Object replayPass;
+    private long frameTimeMs;
+
+    static ShadowPassCache current() {
+        return CURRENT.get();
+    }
+
+    /** Stores a copy of {@code settings} and its siblings for the main pass of the same string. */
+    void record(Object pass, Style style, int index, int codepoint, float x, float y, EffectSettings settings) {
+        if (pass != recordingPass) {
+            recordingPass = pass;
+            replayPass = null;
+            size = 0;
+            frameTimeMs = settings.frameTimeMs;
+        }
+        Entry entry;
+        if (size < entries.size()) {
+            entry = entries.get(size);
+        } else {
+            entry = new Entry();
+            entries.add(entry);
+        }
+        size++;
+
+        entry.style = style;
+        entry.index = index;
+        entry.codepoint = codepoint;
+        entry.x = x;
+        entry.y = y;
+        entry.settings.copyFrom(settings);
+        List<EffectSettings> siblings = settings.getSiblingsOrEmpty();
+        entry.siblingCount = siblings.size();
+        for (int i = 0; i < siblings.size(); i++) {
+            if (i == entry.siblings.size()) {
+                entry.siblings.add(new EffectSettings());
+            }
+            entry.siblings.get(i).copyFrom(siblings.get(i));
+        }
+    }
+
+    /**
+     * Returns the recorded settings for the next glyph of {@code pass}, copied into the current arena,
+     * or null if the shadow pass didn't record this glyph.
+     */
+    @Nullable
+    EffectSettings replay(Object pass, Style style, int index, int codepoint, float x, float y) {
+        if (pass != replayPass) {
+            replayPass = pass;
+            cursor = 0;
+        }
+        if (cursor >= size || frameTimeMs != AnimationClock.millis()) {
+            return null;
+        }
+        Entry entry = entries.get(cursor);
+        if (entry.style != style || entry.index != index || entry.codepoint != codepoint
+                || entry.x != x || entry.y != y) {
+            return null;
+        }
+        cursor++;
+
+        EffectSettingsArena arena = EffectSettingsArena.current();
+        EffectSettings settings = arena.acquire().copyFrom(entry.settings);
+        for (int i = 0; i < entry.siblingCount; i++) {
+            settings.addSibling(arena.acquire().copyFrom(entry.siblings.get(i)));
+        }
+        return settings;
+    }
+
+    private static final class Entry {
+        Style style;
+        int index;
+        int codepoint;
+        float x;
+        float y;
+        final EffectSettings settings = new EffectSettings();
+        final List<EffectSettings> siblings = new ArrayList<>();
+        int siblingCount;
+    }
+}
@@ -4,10 +4,14 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphicsExtractor;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
+import net.tysontheember.emberstextapi.serialization.MessageDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
 
 public final class ClientMessageManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/ClientMessages");
     private static final Map<UUID, ActiveMessage> ACTIVE = new LinkedHashMap<>();
     private static int lastGuiScale = -1;
 
@@ -64,6 +68,34 @@ public final class ClientMessageManager {
         }
     }
 
+    /**
+     * Applies a server update: a full one replaces the message, a patch edits the live one in place.
+     * Returns false when a patch can't be applied because the message was already dropped here, or no longer
+     * matches it; the caller should then ask the server to resend it in full.
+     */
+    public static synchronized boolean update(UUID id, MessageDelta.Update update) {
+        if (id == null || update == null) {
+            return true;
+        }
+        if (update.isFull()) {
+            update(id, update.message());
+            return true;
+        }
+        ActiveMessage active = ACTIVE.get(id);
+        if (active == null) {
+            // Closed or expired here while the server still tracks it.
+            return false;
+        }
+        try {
+            active.patch(update);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Dropping message {} after an update that no longer matches it", id, e);
+            ACTIVE.remove(id);
+            return false;
+        }
+    }
+
     public static synchronized void close(UUID id) {
         if (id == null) {
             return;
@@ -47,6 +47,13 @@ public final class TextLayoutCache {
     }
 
     public record Key(Component component, int colour, float scale, int wrapWidth, String fontKey) {
+        public boolean matches(Component component, int colour, float scale, int wrapWidth, String fontKey) {
+            return this.component == component
+                    && this.colour == colour
+                    && this.scale == scale
+                    && this.wrapWidth == wrapWidth
+                    && this.fontKey.equals(fontKey);
+        }
     }
 
     public record Layout(List<FormattedCharSequence> lines, FormattedCharSequence visualOrder, int width, int height) {
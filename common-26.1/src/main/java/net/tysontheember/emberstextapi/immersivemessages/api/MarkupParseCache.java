@@ -0,0 +1,147 @@
+package net.tysontheember.emberstextapi.immersivemessages.api;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import net.tysontheember.emberstextapi.immersivemessages.effects.animation.ObfuscateEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.GlitchEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.ScrollEffect;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of {@link MarkupParser#parse(String)} results for text component visits.
+ * Entries are keyed by the raw markup and the current generation; {@link #invalidate()} bumps the
+ * generation whenever presets, effects, the config or the language resolver change.
+ */
+public final class MarkupParseCache {
+
+    private static final int MAX_ENTRIES = 512;
+
+    private static final Cache<Key, Entry> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .concurrencyLevel(4)
+            .build();
+
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private MarkupParseCache() {
+    }
+
+    @Nullable
+    public static Entry get(String text) {
+        if (text == null) {
+            return null;
+        }
+        Key key = new Key(text, GENERATION.get());
+        Entry cached = CACHE.getIfPresent(key);
+        if (cached != null) {
+            HITS.increment();
+            return cached;
+        }
+        MISSES.increment();
+        Entry entry = Entry.of(MarkupParser.parse(text));
+        CACHE.put(key, entry);
+        return entry;
+    }
+
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+        CACHE.invalidateAll();
+        EffectRegistry.clearInterned();
+    }
+
+    public static int generation() {
+        return GENERATION.get();
+    }
+
+    public static long hits() {
+        return HITS.sum();
+    }
+
+    public static long misses() {
+        return MISSES.sum();
+    }
+
+    public static long size() {
+        return CACHE.size();
+    }
+
+    public static void resetStats() {
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    private record Key(String text, int generation) {
+    }
+
+    /**
+     * Parsed spans plus the flags the contents mixins need. Spans must be treated as read-only.
+     */
+    public record Entry(List<TextSpan> spans, boolean hasStyling, boolean hasColor, boolean hasEntity,
+                        boolean hasTypewriter, boolean hasObfuscate, boolean hasSpanState) {
+
+        static Entry of(List<TextSpan> parsed) {
+            if (parsed == null || parsed.isEmpty()) {
+                return new Entry(Collections.emptyList(), false, false, false, false, false, false);
+            }
+
+            boolean hasStyling = false;
+            boolean hasColor = false;
+            boolean hasEntity = false;
+            boolean hasTypewriter = false;
+            boolean hasObfuscate = false;
+            boolean hasSpanState = false;
+            for (TextSpan span : parsed) {
+                List<Effect> effects = span.getEffects();
+                boolean hasEffects = effects != null && !effects.isEmpty();
+                boolean hasFormatting = Boolean.TRUE.equals(span.getBold()) ||
+                                       Boolean.TRUE.equals(span.getItalic()) ||
+                                       Boolean.TRUE.equals(span.getUnderline()) ||
+                                       Boolean.TRUE.equals(span.getStrikethrough()) ||
+                                       Boolean.TRUE.equals(span.getObfuscated());
+
+                if (hasEffects || hasFormatting || span.getFont() != null || span.getItemId() != null
+                        || span.getClickAction() != null || span.getHoverAction() != null) {
+                    hasStyling = true;
+                }
+                if (span.getColor() != null) {
+                    hasColor = true;
+                }
+                if (span.getEntityId() != null) {
+                    hasEntity = true;
+                }
+
+                if (hasEffects) {
+                    for (Effect effect : effects) {
+                        if (effect instanceof TypewriterEffect) {
+                            hasTypewriter = true;
+                        } else if (effect instanceof ObfuscateEffect) {
+                            hasObfuscate = true;
+                        } else if (effect instanceof ScrollEffect || effect instanceof GlitchEffect) {
+                            hasSpanState = true;
+                        }
+                    }
+                }
+            }
+            return new Entry(Collections.unmodifiableList(parsed), hasStyling, hasColor, hasEntity,
+                    hasTypewriter, hasObfuscate, hasSpanState);
+        }
+
+        /**
+         * Whether the runs need per-span keys: obfuscate and scroll keep state between frames by span, glitch
+         * seeds each span from its key, and their effects are shared by every span written with the same tag.
+         */
+        public boolean needsSpanKeys() {
+            return hasObfuscate || hasSpanState;
+        }
+    }
+}
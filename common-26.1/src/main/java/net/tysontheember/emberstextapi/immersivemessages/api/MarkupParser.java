@@ -727,6 +727,7 @@ public class MarkupParser {
 
     public static void setLangResolver(LangResolver resolver) {
         langResolver = resolver != null ? resolver : MarkupParser::defaultLangResolve;
+        MarkupParseCache.invalidate();
     }
 
     private static String defaultLangResolve(String key, String[] args) {
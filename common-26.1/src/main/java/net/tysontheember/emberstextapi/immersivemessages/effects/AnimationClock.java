@@ -0,0 +1,29 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import net.minecraft.util.Util;
+
+/**
+ * Frame-scoped animation time shared by all effects. The client publishes one snapshot per frame
+ * via {@link #beginFrame()}, so every glyph drawn in that frame animates against the same instant.
+ * Until the first frame is published (or off the render path) the live clock is used instead.
+ */
+public final class AnimationClock {
+
+    private static volatile long frameMillis;
+    private static volatile boolean published;
+
+    private AnimationClock() {
+    }
+
+    public static void beginFrame() {
+        frameMillis = Util.getMillis();
+        published = true;
+    }
+
+    /**
+     * @return milliseconds on the {@link Util#getMillis()} timeline for the current frame
+     */
+    public static long millis() {
+        return published ? frameMillis : Util.getMillis();
+    }
+}
@@ -3,13 +3,31 @@ package net.tysontheember.emberstextapi.immersivemessages.effects;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * A text effect as parsed from a tag. Effects are immutable once constructed: {@link EffectRegistry#parseTag}
+ * hands the same instance to every span using the same tag, so anything an effect has to remember between
+ * glyphs or frames lives in render-side state keyed by span (see {@code ObfuscateTracks} and
+ * {@code ScrollTracks}), never in the effect.
+ */
 public interface Effect {
 
+    /**
+     * Applies this effect to one glyph. Time-based effects should animate from
+     * {@link EffectSettings#frameTimeMs} so all glyphs in a frame stay in step.
+     */
     void apply(@NotNull EffectSettings settings);
 
     @NotNull
     String getName();
 
+    /**
+     * Whether this effect's result depends only on the glyph it's applied to, not on time or on state
+     * kept between frames. Glyphs whose effects are all static can be drawn once and replayed.
+     */
+    default boolean isStatic() {
+        return false;
+    }
+
     @NotNull
     default String serialize() {
         return getName();
@@ -0,0 +1,124 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An effect list compiled for one span. The leading run of {@link BulkEffect}s is applied to the whole
+ * span from {@link GlyphArrays}; everything from the first per-glyph effect on stays in order and runs
+ * per glyph through {@link #applyRest}.
+ * <p>
+ * Within the bulk run, effects whose writes are all overwritten before anything reads them (a color
+ * followed by a rainbow, say) are dropped, and pure offsets are pulled together so position effects
+ * run back to back instead of interleaved with color work.
+ */
+public final class EffectChain {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/EffectChain");
+
+    /** Bulk effects run every frame, so each failing effect is only reported once. */
+    private static final Set<String> REPORTED = ConcurrentHashMap.newKeySet();
+
+    private final List<Effect> source;
+    private final int sourceSize;
+    private final BulkEffect[] bulk;
+    private final List<Effect> rest;
+
+    private EffectChain(List<Effect> source, BulkEffect[] bulk, List<Effect> rest) {
+        this.source = source;
+        this.sourceSize = source.size();
+        this.bulk = bulk;
+        this.rest = rest;
+    }
+
+    @NotNull
+    public static EffectChain compile(@NotNull List<Effect> effects) {
+        int prefix = 0;
+        while (prefix < effects.size() && effects.get(prefix) instanceof BulkEffect) {
+            prefix++;
+        }
+        List<BulkEffect> live = eliminateDead(effects, prefix);
+        List<Effect> rest = prefix == effects.size()
+                ? Collections.emptyList()
+                : new ArrayList<>(effects.subList(prefix, effects.size()));
+        return new EffectChain(effects, groupOffsets(live).toArray(new BulkEffect[0]), rest);
+    }
+
+    /** Walks the bulk run backwards; everything is live after it, since per-glyph effects and the renderer read it all. */
+    private static List<BulkEffect> eliminateDead(List<Effect> effects, int prefix) {
+        List<BulkEffect> kept = new ArrayList<>(prefix);
+        int live = BulkEffect.ALL;
+        for (int i = prefix - 1; i >= 0; i--) {
+            BulkEffect effect = (BulkEffect) effects.get(i);
+            int writes = effect.writes();
+            if ((writes & live) == 0) {
+                continue;
+            }
+            int reads = effect.reads();
+            live = (live & ~(writes & ~reads)) | reads;
+            kept.add(effect);
+        }
+        Collections.reverse(kept);
+        return kept;
+    }
+
+    /** Moves each offset up behind the previous one when nothing between them touches position. */
+    private static List<BulkEffect> groupOffsets(List<BulkEffect> effects) {
+        List<BulkEffect> ordered = new ArrayList<>(effects.size());
+        for (BulkEffect effect : effects) {
+            int at = ordered.size();
+            if (effect.isOffset()) {
+                int j = ordered.size() - 1;
+                while (j >= 0 && !ordered.get(j).isOffset()
+                        && ((ordered.get(j).reads() | ordered.get(j).writes()) & BulkEffect.POSITION) == 0) {
+                    j--;
+                }
+                if (j >= 0 && ordered.get(j).isOffset()) {
+                    at = j + 1;
+                }
+            }
+            ordered.add(at, effect);
+        }
+        return ordered;
+    }
+
+    /** Whether this chain was compiled from a different list, or from {@code effects} before it changed size. */
+    public boolean isStale(@NotNull List<Effect> effects) {
+        return source != effects || sourceSize != effects.size();
+    }
+
+    public boolean hasBulk() {
+        return bulk.length > 0;
+    }
+
+    public boolean hasRest() {
+        return !rest.isEmpty();
+    }
+
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        for (BulkEffect effect : bulk) {
+            try {
+                effect.applyBulk(glyphs, from, to);
+            } catch (Exception e) {
+                if (REPORTED.add(effect.getName())) {
+                    LOGGER.warn("Effect {} failed to apply in bulk, further failures are not logged", effect.getName(), e);
+                }
+            }
+        }
+    }
+
+    public void applyRest(@NotNull EffectSettings settings) {
+        EffectContext.applyEffects(rest, settings);
+    }
+
+    List<BulkEffect> bulkEffects() {
+        return List.of(bulk);
+    }
+}
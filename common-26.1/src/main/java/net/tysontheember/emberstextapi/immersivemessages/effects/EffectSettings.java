@@ -50,6 +50,15 @@ public class EffectSettings {
     public float maskTop;
     public float maskBottom;
 
+    /**
+     * Animation time in milliseconds, snapshotted from {@link AnimationClock} when the settings are built.
+     * Time-driven effects should read this rather than the system clock so every glyph and sibling of a
+     * frame agrees on the same instant.
+     */
+    public long frameTimeMs;
+
+    EffectSettingsArena arena;
+
     public EffectSettings() {
         this.x = 0f;
         this.y = 0f;
@@ -76,10 +85,16 @@ public class EffectSettings {
         this.siblings = null;
         this.maskTop = 0f;
         this.maskBottom = 0f;
+        this.frameTimeMs = AnimationClock.millis();
     }
 
     public EffectSettings(float x, float y, float r, float g, float b, float a,
                           int index, int codepoint, boolean isShadow) {
+        set(x, y, r, g, b, a, index, codepoint, isShadow);
+    }
+
+    public EffectSettings set(float x, float y, float r, float g, float b, float a,
+                              int index, int codepoint, boolean isShadow) {
         this.x = x;
         this.y = y;
         this.rot = 0f;
@@ -102,9 +117,13 @@ public class EffectSettings {
         this.obfuscateSpanStart = -1;
         this.obfuscateSpanLength = -1;
         this.typewriterIndex = -1;
-        this.siblings = null;
+        if (this.siblings != null) {
+            this.siblings.clear();
+        }
         this.maskTop = 0f;
         this.maskBottom = 0f;
+        this.frameTimeMs = AnimationClock.millis();
+        return this;
     }
 
     public List<EffectSettings> getSiblings() {
@@ -114,8 +133,12 @@ public class EffectSettings {
         return siblings;
     }
 
+    /** Adds a sibling copy, unless the glyph already has as many as {@link QualityGovernor} allows. */
     public void addSibling(EffectSettings sibling) {
-        getSiblings().add(sibling);
+        List<EffectSettings> list = getSiblings();
+        if (list.size() < QualityGovernor.maxSiblings()) {
+            list.add(sibling);
+        }
     }
 
     public boolean hasSiblings() {
@@ -127,7 +150,7 @@ public class EffectSettings {
     }
 
     public EffectSettings copy() {
-        EffectSettings copy = new EffectSettings();
+        EffectSettings copy = arena != null ? arena.acquire() : new EffectSettings();
         copy.x = this.x;
         copy.y = this.y;
         copy.rot = this.rot;
@@ -152,6 +175,10 @@ public class EffectSettings {
         copy.typewriterIndex = this.typewriterIndex;
         copy.maskTop = this.maskTop;
         copy.maskBottom = this.maskBottom;
+        copy.frameTimeMs = this.frameTimeMs;
+        if (copy.siblings != null) {
+            copy.siblings.clear();
+        }
         return copy;
     }
 
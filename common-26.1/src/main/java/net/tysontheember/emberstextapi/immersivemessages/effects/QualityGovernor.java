@@ -0,0 +1,107 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import net.tysontheember.emberstextapi.platform.ConfigHelper;
+
+/**
+ * Steps effect quality down when text effects take more than their per-frame time budget, and back up
+ * once there is headroom again.
+ * <p>
+ * Renderers wrap effect work in {@link #start()} / {@link #stop(long)}; {@link #beginFrame()} closes the
+ * previous frame's total. A few frames over budget in a row drop one level; a longer run under half the
+ * budget raises one, so the level doesn't flap on a frame that happens to sit near the limit. Effects
+ * read the current limits when they apply. Render thread only.
+ */
+public final class QualityGovernor {
+
+    public static final int MAX_LEVEL = 3;
+
+    static final int FRAMES_TO_STEP_DOWN = 3;
+    static final int FRAMES_TO_STEP_UP = 120;
+
+    private static final int[] NEON_QUALITY = {3, 2, 1, 1};
+    private static final int[] GLITCH_SLICES = {5, 4, 3, 2};
+    private static final int[] SIBLINGS = {Integer.MAX_VALUE, 16, 8, 4};
+
+    private static int level;
+    private static long frameNanos;
+    private static int overFrames;
+    private static int underFrames;
+
+    private QualityGovernor() {
+    }
+
+    public static void beginFrame() {
+        double budgetMs;
+        try {
+            budgetMs = ConfigHelper.getInstance().getEffectFrameBudgetMs();
+        } catch (Exception e) {
+            budgetMs = 0;
+        }
+        endFrame(frameNanos, (long) (budgetMs * 1_000_000L));
+    }
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public static void stop(long start) {
+        frameNanos += System.nanoTime() - start;
+    }
+
+    /** Judges a frame that spent {@code nanos} on effects against {@code budgetNanos}; 0 turns the governor off. */
+    static void endFrame(long nanos, long budgetNanos) {
+        frameNanos = 0;
+        if (budgetNanos <= 0) {
+            level = 0;
+            overFrames = 0;
+            underFrames = 0;
+            return;
+        }
+        if (nanos > budgetNanos) {
+            underFrames = 0;
+            if (++overFrames >= FRAMES_TO_STEP_DOWN && level < MAX_LEVEL) {
+                level++;
+                overFrames = 0;
+            }
+        } else {
+            overFrames = 0;
+            if (nanos >= budgetNanos / 2) {
+                underFrames = 0;
+            } else if (++underFrames >= FRAMES_TO_STEP_UP && level > 0) {
+                level--;
+                underFrames = 0;
+            }
+        }
+    }
+
+    /** 0 is full quality, {@link #MAX_LEVEL} the cheapest. */
+    public static int level() {
+        return level;
+    }
+
+    /** Highest neon quality preset allowed right now. */
+    public static int maxNeonQuality() {
+        return NEON_QUALITY[level];
+    }
+
+    public static int maxGlitchSlices() {
+        return GLITCH_SLICES[level];
+    }
+
+    /** Most sibling copies a single glyph may add. */
+    public static int maxSiblings() {
+        return SIBLINGS[level];
+    }
+
+    /** True when motion effects that move a glyph by less than a pixel should be left out. */
+    public static boolean skipSubPixelMotion() {
+        return level >= 2;
+    }
+
+    static void reset() {
+        level = 0;
+        frameNanos = 0;
+        overFrames = 0;
+        underFrames = 0;
+    }
+}
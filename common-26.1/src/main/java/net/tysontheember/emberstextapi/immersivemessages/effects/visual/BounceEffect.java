@@ -1,14 +1,15 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.util.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class BounceEffect extends BaseEffect {
+public class BounceEffect extends BaseEffect implements BulkEffect {
 
     private final float amp;
     private final float speed;
@@ -26,8 +27,35 @@ public class BounceEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
+        settings.y -= lift(settings.frameTimeMs, settings.index);
+    }
+
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        float[] y = glyphs.y;
+        int[] index = glyphs.index;
+        for (int i = from; i < to; i++) {
+            y[i] -= lift(glyphs.frameTimeMs, index[i]);
+        }
+    }
+
+    @Override
+    public int reads() {
+        return Y;
+    }
+
+    @Override
+    public int writes() {
+        return Y;
+    }
+
+    @Override
+    public boolean isOffset() {
+        return true;
+    }
 
-        float t = (Util.getMillis() * 0.001f * speed - settings.index * phase * 0.2f) % 1;
+    private float lift(long frameTimeMs, int index) {
+        float t = (frameTimeMs * 0.001f * speed - index * phase * 0.2f) % 1;
 
         float offset = 0f;
 
@@ -55,7 +83,7 @@ public class BounceEffect extends BaseEffect {
             offset = 1 - offset;
         }
 
-        settings.y -= offset * amp * 4f;
+        return offset * amp * 4f;
     }
 
     @NotNull
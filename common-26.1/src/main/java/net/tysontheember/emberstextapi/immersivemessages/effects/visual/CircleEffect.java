@@ -1,14 +1,15 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.util.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class CircleEffect extends BaseEffect {
+public class CircleEffect extends BaseEffect implements BulkEffect {
 
     private final float radius;
     private final float speed;
@@ -27,12 +28,37 @@ public class CircleEffect extends BaseEffect {
     @Override
     public void apply(@NotNull EffectSettings settings) {
 
-        float t = Util.getMillis() * 0.002f * speed + settings.index * phase;
+        float t = settings.frameTimeMs * 0.002f * speed + settings.index * phase;
 
         settings.x += Mth.cos(t) * radius;
         settings.y += Mth.sin(t) * radius;
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        float time = glyphs.frameTimeMs * 0.002f * speed;
+        for (int i = from; i < to; i++) {
+            float t = time + glyphs.index[i] * phase;
+            glyphs.x[i] += Mth.cos(t) * radius;
+            glyphs.y[i] += Mth.sin(t) * radius;
+        }
+    }
+
+    @Override
+    public int reads() {
+        return POSITION;
+    }
+
+    @Override
+    public int writes() {
+        return POSITION;
+    }
+
+    @Override
+    public boolean isOffset() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -1,8 +1,8 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.util.Util;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
 import org.jetbrains.annotations.NotNull;
@@ -39,10 +39,6 @@ public class NeonEffect extends BaseEffect {
     @Nullable
     private final float[] glowColor;
 
-    private final int innerSamples;
-    private final int outerSamples;
-    private final float innerRadiusRatio;
-
     public NeonEffect(@NotNull Params params) {
         super(params);
 
@@ -59,23 +55,24 @@ public class NeonEffect extends BaseEffect {
         this.falloffPower = clamp(params.getDouble("f").map(Number::floatValue).orElse(2.0f), 0.5f, 4.0f);
 
         this.glowColor = parseColor(params, "c", null);
-
-        int[] preset = QUALITY_PRESETS[quality - 1];
-        this.innerSamples = Math.min(preset[0], MAX_SAMPLES / 2);
-        this.outerSamples = Math.min(preset[1], MAX_SAMPLES - innerSamples);
-        this.innerRadiusRatio = preset[2] / 100.0f;
     }
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
         float pulseModifier = 1.0f;
         if (pulseSpeed > 0) {
-            double time = Util.getMillis() * 0.001 * pulseSpeed;
+            double time = settings.frameTimeMs * 0.001 * pulseSpeed;
             pulseModifier = 0.85f + 0.15f * (float) Math.sin(time * Math.PI * 2);
         }
 
         float effectiveIntensity = intensity * pulseModifier;
 
+        // The configured quality, lowered further while QualityGovernor is stepping quality down.
+        int[] preset = QUALITY_PRESETS[Math.min(quality, QualityGovernor.maxNeonQuality()) - 1];
+        int innerSamples = Math.min(preset[0], MAX_SAMPLES / 2);
+        int outerSamples = Math.min(preset[1], MAX_SAMPLES - innerSamples);
+        float innerRadiusRatio = preset[2] / 100.0f;
+
         float glowR = glowColor != null ? glowColor[0] : settings.r;
         float glowG = glowColor != null ? glowColor[1] : settings.g;
         float glowB = glowColor != null ? glowColor[2] : settings.b;
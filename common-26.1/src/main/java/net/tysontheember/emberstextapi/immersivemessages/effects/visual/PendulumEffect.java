@@ -1,13 +1,14 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.util.Util;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class PendulumEffect extends BaseEffect {
+public class PendulumEffect extends BaseEffect implements BulkEffect {
 
     private final float speed;
     private final float maxAngle;
@@ -26,7 +27,7 @@ public class PendulumEffect extends BaseEffect {
     @Override
     public void apply(@NotNull EffectSettings settings) {
 
-        double phase = (Util.getMillis() * 0.002 * speed) - (settings.index * 0.1);
+        double phase = (settings.frameTimeMs * 0.002 * speed) - (settings.index * 0.1);
 
         float angleRad = (float) Math.toRadians(maxAngle);
 
@@ -40,6 +41,30 @@ public class PendulumEffect extends BaseEffect {
         }
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        double time = glyphs.frameTimeMs * 0.002 * speed;
+        float angleRad = (float) Math.toRadians(maxAngle);
+        for (int i = from; i < to; i++) {
+            double phase = time - (glyphs.index[i] * 0.1);
+            glyphs.rot[i] = (float) (Math.sin(phase) * angleRad);
+            if (radius != 0) {
+                glyphs.x[i] += (float) (Math.cos(phase) * radius);
+                glyphs.y[i] += (float) (Math.sin(phase) * radius);
+            }
+        }
+    }
+
+    @Override
+    public int reads() {
+        return radius != 0 ? POSITION : 0;
+    }
+
+    @Override
+    public int writes() {
+        return radius != 0 ? ROT | POSITION : ROT;
+    }
+
     @NotNull
     @Override
     public String getName() {
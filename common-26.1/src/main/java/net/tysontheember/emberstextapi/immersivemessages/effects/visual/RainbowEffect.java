@@ -1,13 +1,14 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.util.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import org.jetbrains.annotations.NotNull;
 
-public class RainbowEffect extends BaseEffect {
+public class RainbowEffect extends BaseEffect implements BulkEffect {
 
     private final float speed;
     private final float phase;
@@ -20,15 +21,43 @@ public class RainbowEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
-        float hue = ((Util.getMillis() * 0.02f * speed + settings.index * phase) % 30) / 30f;
-
-        int color = Mth.hsvToRgb(hue, 0.8f, 0.8f);
+        int color = color(settings.frameTimeMs, settings.index);
 
         settings.r = ((color >> 16) & 255) / 255f;
         settings.g = ((color >> 8) & 255) / 255f;
         settings.b = (color & 255) / 255f;
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int color = color(glyphs.frameTimeMs, glyphs.index[i]);
+            glyphs.r[i] = ((color >> 16) & 255) / 255f;
+            glyphs.g[i] = ((color >> 8) & 255) / 255f;
+            glyphs.b[i] = (color & 255) / 255f;
+        }
+    }
+
+    @Override
+    public int reads() {
+        return 0;
+    }
+
+    @Override
+    public int writes() {
+        return RGB;
+    }
+
+    private int color(long frameTimeMs, int index) {
+        float hue = ((frameTimeMs * 0.02f * speed + index * phase) % 30) / 30f;
+        return Mth.hsvToRgb(hue, 0.8f, 0.8f);
+    }
+
+    @Override
+    public boolean isStatic() {
+        return speed == 0f;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -1,16 +1,16 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.util.Util;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collections;
-import java.util.IdentityHashMap;
-import java.util.Set;
-
+/**
+ * Scrolls a span through a viewport, tiling it so the text wraps around. The span width is measured
+ * while rendering and kept in a {@link ScrollTrack} per span, so the effect itself holds only its
+ * parameters and can be shared.
+ */
 public class ScrollEffect extends BaseEffect {
 
     private static final float BASE_SPEED = 0.04f;
@@ -24,16 +24,6 @@ public class ScrollEffect extends BaseEffect {
     private final boolean scrollRight;
     private final float gap;
 
-    private float measuredSpanWidth = -1;
-    private float frameFirstX;
-    private float frameLastX;
-    private float frameLastAdvance;
-    private int frameCharCount;
-
-    private float advanceAccum;
-
-    private final Set<EffectSettings> ownSiblings = Collections.newSetFromMap(new IdentityHashMap<>());
-
     public ScrollEffect(@NotNull Params params) {
         super(params);
         this.speed = ValidationHelper.clamp("scroll", "speed",
@@ -60,53 +50,54 @@ public class ScrollEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
-        if (ownSiblings.remove(settings)) {
+        ScrollTrack track = ScrollTracks.getInstance().get(this, spanKey(settings));
+        if (track.ownSiblings.remove(settings)) {
             return;
         }
 
         if (settings.isShadow) {
             if (settings.index == 0) {
-                advanceAccum = 0;
+                track.advanceAccum = 0;
             }
-            advanceAccum += settings.charAdvance;
+            track.advanceAccum += settings.charAdvance;
 
-            if (measuredSpanWidth <= 0) {
+            if (track.measuredSpanWidth <= 0) {
                 settings.a = 0;
                 return;
             }
         } else {
-            if (frameCharCount > 0 && settings.x < frameLastX) {
-                measuredSpanWidth = frameLastX - frameFirstX + frameLastAdvance;
-                frameCharCount = 0;
+            if (track.frameCharCount > 0 && settings.x < track.frameLastX) {
+                track.measuredSpanWidth = track.frameLastX - track.frameFirstX + track.frameLastAdvance;
+                track.frameCharCount = 0;
             }
 
-            if (frameCharCount == 0) {
-                frameFirstX = settings.x;
-                if (measuredSpanWidth <= 0 && advanceAccum > 0) {
-                    measuredSpanWidth = advanceAccum;
+            if (track.frameCharCount == 0) {
+                track.frameFirstX = settings.x;
+                if (track.measuredSpanWidth <= 0 && track.advanceAccum > 0) {
+                    track.measuredSpanWidth = track.advanceAccum;
                 }
             }
-            frameLastX = settings.x;
-            frameLastAdvance = settings.charAdvance;
-            frameCharCount++;
+            track.frameLastX = settings.x;
+            track.frameLastAdvance = settings.charAdvance;
+            track.frameCharCount++;
         }
 
-        if (measuredSpanWidth <= 0) {
+        if (track.measuredSpanWidth <= 0) {
             settings.a = 0;
             return;
         }
 
-        float spanW = measuredSpanWidth;
+        float spanW = track.measuredSpanWidth;
         float vw = viewportW > 0 ? viewportW : spanW;
         float period = spanW + gap;
 
-        long now = Util.getMillis();
+        long now = settings.frameTimeMs;
         double scrollOffset = now * (double) BASE_SPEED * speed;
         if (scrollRight) {
             scrollOffset = -scrollOffset;
         }
 
-        float spanStartX = frameFirstX;
+        float spanStartX = track.frameFirstX;
         if (settings.isShadow) {
             spanStartX += settings.shadowOffset;
         }
@@ -143,7 +134,7 @@ public class ScrollEffect extends BaseEffect {
                     EffectSettings sib = settings.copy();
                     sib.x = viewportStartX + p;
                     sib.a = finalAlpha;
-                    ownSiblings.add(sib);
+                    track.ownSiblings.add(sib);
                     settings.addSibling(sib);
                 }
             }
@@ -156,6 +147,14 @@ public class ScrollEffect extends BaseEffect {
         }
     }
 
+    /** The span being drawn, from the per-span keys set for scroll and obfuscate spans; falls back to this effect. */
+    private Object spanKey(EffectSettings settings) {
+        if (settings.obfuscateStableKey != null) {
+            return settings.obfuscateStableKey;
+        }
+        return settings.obfuscateKey != null ? settings.obfuscateKey : this;
+    }
+
     private float computeClipAlpha(float pos, float vw) {
         return switch (clipMode) {
             case "cut" -> (pos >= 0 && pos < vw) ? 1.0f : 0.0f;
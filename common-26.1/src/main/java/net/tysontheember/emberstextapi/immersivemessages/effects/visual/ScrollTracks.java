@@ -0,0 +1,39 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ScrollTrack}s keyed by effect and span, so one {@link ScrollEffect} instance can be shared by
+ * every span that uses the same tag.
+ */
+public class ScrollTracks {
+    private static final ScrollTracks INSTANCE = new ScrollTracks();
+    private static final int MAX_CACHE_SIZE = 512;
+
+    private final Cache<Key, ScrollTrack> cache;
+
+    private ScrollTracks() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(MAX_CACHE_SIZE)
+                .expireAfterAccess(1, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public static ScrollTracks getInstance() {
+        return INSTANCE;
+    }
+
+    public ScrollTrack get(ScrollEffect effect, Object span) {
+        try {
+            return cache.get(new Key(effect, span), ScrollTrack::new);
+        } catch (ExecutionException e) {
+            return new ScrollTrack();
+        }
+    }
+
+    private record Key(ScrollEffect effect, Object span) {}
+}
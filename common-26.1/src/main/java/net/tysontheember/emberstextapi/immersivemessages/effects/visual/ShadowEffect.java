@@ -51,6 +51,11 @@ public class ShadowEffect extends BaseEffect {
         settings.a *= a;
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -1,14 +1,16 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.util.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class ShakeEffect extends BaseEffect {
+public class ShakeEffect extends BaseEffect implements BulkEffect {
 
     private final float amp;
     private final float speed;
@@ -23,15 +25,45 @@ public class ShakeEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
+        if (0.6f * amp < 1f && QualityGovernor.skipSubPixelMotion()) {
+            return;
+        }
 
-        int seed = (int) (Util.getMillis() * 0.01f * speed + settings.codepoint + settings.index);
+        float angle = angle(settings.frameTimeMs, settings.codepoint, settings.index);
+        settings.x += Mth.cos(angle) * 0.6f * amp;
+        settings.y += Mth.sin(angle) * 0.6f * amp;
+    }
+
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        if (0.6f * amp < 1f && QualityGovernor.skipSubPixelMotion()) {
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            float angle = angle(glyphs.frameTimeMs, glyphs.codepoint[i], glyphs.index[i]);
+            glyphs.x[i] += Mth.cos(angle) * 0.6f * amp;
+            glyphs.y[i] += Mth.sin(angle) * 0.6f * amp;
+        }
+    }
+
+    @Override
+    public int reads() {
+        return POSITION;
+    }
+
+    @Override
+    public int writes() {
+        return POSITION;
+    }
 
-        float angle = (seed % 30) * (Mth.TWO_PI / 30f);
-        float dirX = Mth.cos(angle);
-        float dirY = Mth.sin(angle);
+    @Override
+    public boolean isOffset() {
+        return true;
+    }
 
-        settings.x += dirX * 0.6f * amp;
-        settings.y += dirY * 0.6f * amp;
+    private float angle(long frameTimeMs, int codepoint, int index) {
+        int seed = (int) (frameTimeMs * 0.01f * speed + codepoint + index);
+        return (seed % 30) * (Mth.TWO_PI / 30f);
     }
 
     @NotNull
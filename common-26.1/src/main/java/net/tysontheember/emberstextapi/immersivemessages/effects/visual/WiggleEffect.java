@@ -1,14 +1,16 @@
 package net.tysontheember.emberstextapi.immersivemessages.effects.visual;
 
-import net.minecraft.util.Util;
 import net.minecraft.util.Mth;
 import net.tysontheember.emberstextapi.immersivemessages.effects.BaseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.BulkEffect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.GlyphArrays;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.Params;
 import net.tysontheember.emberstextapi.immersivemessages.effects.params.ValidationHelper;
 import org.jetbrains.annotations.NotNull;
 
-public class WiggleEffect extends BaseEffect {
+public class WiggleEffect extends BaseEffect implements BulkEffect {
 
     private final float amp;
     private final float speed;
@@ -26,17 +28,49 @@ public class WiggleEffect extends BaseEffect {
 
     @Override
     public void apply(@NotNull EffectSettings settings) {
+        if (1.5f * amp < 1f && QualityGovernor.skipSubPixelMotion()) {
+            return;
+        }
 
         float angle = (settings.codepoint % 30) * (Mth.TWO_PI / 30f);
         float dirX = Mth.cos(angle);
         float dirY = Mth.sin(angle);
 
-        float delta = Mth.sin(Util.getMillis() * 0.01f * speed + settings.index * 2f * phase) * 1.5f * amp;
+        float delta = Mth.sin(settings.frameTimeMs * 0.01f * speed + settings.index * 2f * phase) * 1.5f * amp;
 
         settings.x += dirX * delta;
         settings.y += dirY * delta;
     }
 
+    @Override
+    public void applyBulk(@NotNull GlyphArrays glyphs, int from, int to) {
+        if (1.5f * amp < 1f && QualityGovernor.skipSubPixelMotion()) {
+            return;
+        }
+        float time = glyphs.frameTimeMs * 0.01f * speed;
+        for (int i = from; i < to; i++) {
+            float angle = (glyphs.codepoint[i] % 30) * (Mth.TWO_PI / 30f);
+            float delta = Mth.sin(time + glyphs.index[i] * 2f * phase) * 1.5f * amp;
+            glyphs.x[i] += Mth.cos(angle) * delta;
+            glyphs.y[i] += Mth.sin(angle) * delta;
+        }
+    }
+
+    @Override
+    public int reads() {
+        return POSITION;
+    }
+
+    @Override
+    public int writes() {
+        return POSITION;
+    }
+
+    @Override
+    public boolean isOffset() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String getName() {
@@ -2,6 +2,7 @@ package net.tysontheember.emberstextapi.mixin;
 
 import com.google.common.collect.ImmutableList;
 import net.minecraft.network.chat.Style;
+import net.tysontheember.emberstextapi.accessor.StyleExtension;
 import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
 import net.tysontheember.emberstextapi.accessor.ETAStyle;
 import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterTrack;
@@ -11,88 +12,36 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.util.Objects;
-
 @Mixin(Style.class)
 public class StyleMixin implements ETAStyle {
 
+    /** Null for the vast majority of styles, which carry no EmbersTextAPI data. */
     @Unique
-    private ImmutableList<Effect> emberstextapi$effects = ImmutableList.of();
-
-    @Unique
-    private String emberstextapi$itemId = null;
-
-    @Unique
-    private Integer emberstextapi$itemCount = null;
-
-    @Unique
-    private Float emberstextapi$itemOffsetX = null;
-
-    @Unique
-    private Float emberstextapi$itemOffsetY = null;
-
-    @Unique
-    private String emberstextapi$itemNbt = null;
-
-    @Unique
-    private String emberstextapi$entityId = null;
-
-    @Unique
-    private Float emberstextapi$entityScale = null;
-
-    @Unique
-    private Float emberstextapi$entityOffsetX = null;
-
-    @Unique
-    private Float emberstextapi$entityOffsetY = null;
-
-    @Unique
-    private Float emberstextapi$entityYaw = null;
+    private StyleExtension emberstextapi$extension = null;
 
     @Unique
-    private Float emberstextapi$entityPitch = null;
-
-    @Unique
-    private Float emberstextapi$entityRoll = null;
-
-    @Unique
-    private Integer emberstextapi$entityLighting = null;
-
-    @Unique
-    private Float emberstextapi$entitySpin = null;
-
-    @Unique
-    private String emberstextapi$entityAnimation = null;
-
-    @Unique
-    private String emberstextapi$entityNbt = null;
-
-    @Unique
-    private TypewriterTrack emberstextapi$typewriterTrack = null;
-
-    @Unique
-    private int emberstextapi$typewriterIndex = -1;
-
-    @Unique
-    private Object emberstextapi$obfuscateKey = null;
-
-    @Unique
-    private Object emberstextapi$obfuscateStableKey = null;
+    private StyleExtension.Builder emberstextapi$edit() {
+        return StyleExtension.orEmpty(emberstextapi$extension).toBuilder();
+    }
 
-    @Unique
-    private int emberstextapi$obfuscateSpanStart = -1;
+    @Override
+    public StyleExtension emberstextapi$getExtension() {
+        return emberstextapi$extension;
+    }
 
-    @Unique
-    private int emberstextapi$obfuscateSpanLength = -1;
+    @Override
+    public void emberstextapi$setExtension(StyleExtension extension) {
+        this.emberstextapi$extension = extension != null ? extension.intern() : null;
+    }
 
     @Override
     public ImmutableList<Effect> emberstextapi$getEffects() {
-        return emberstextapi$effects;
+        return StyleExtension.orEmpty(emberstextapi$extension).effects();
     }
 
     @Override
     public void emberstextapi$setEffects(ImmutableList<Effect> effects) {
-        this.emberstextapi$effects = effects != null ? effects : ImmutableList.of();
+        this.emberstextapi$extension = emberstextapi$edit().effects(effects).build();
     }
 
     @Override
@@ -100,236 +49,236 @@ public class StyleMixin implements ETAStyle {
         if (effect == null) {
             return;
         }
-        if (emberstextapi$effects.isEmpty()) {
-            emberstextapi$effects = ImmutableList.of(effect);
+        ImmutableList<Effect> effects = emberstextapi$getEffects();
+        if (effects.isEmpty()) {
+            emberstextapi$setEffects(ImmutableList.of(effect));
         } else {
-            emberstextapi$effects = ImmutableList.<Effect>builder()
-                    .addAll(emberstextapi$effects)
+            emberstextapi$setEffects(ImmutableList.<Effect>builder()
+                    .addAll(effects)
                     .add(effect)
-                    .build();
+                    .build());
         }
     }
 
     @Override
     public String emberstextapi$getItemId() {
-        return emberstextapi$itemId;
+        return StyleExtension.orEmpty(emberstextapi$extension).itemId();
     }
 
     @Override
     public void emberstextapi$setItemId(String itemId) {
-        this.emberstextapi$itemId = itemId;
+        this.emberstextapi$extension = emberstextapi$edit().itemId(itemId).build();
     }
 
     @Override
     public Integer emberstextapi$getItemCount() {
-        return emberstextapi$itemCount;
+        return StyleExtension.orEmpty(emberstextapi$extension).itemCount();
     }
 
     @Override
     public void emberstextapi$setItemCount(Integer count) {
-        this.emberstextapi$itemCount = count;
+        this.emberstextapi$extension = emberstextapi$edit().itemCount(count).build();
     }
 
     @Override
     public Float emberstextapi$getItemOffsetX() {
-        return emberstextapi$itemOffsetX;
+        return StyleExtension.orEmpty(emberstextapi$extension).itemOffsetX();
     }
 
     @Override
     public void emberstextapi$setItemOffsetX(Float offsetX) {
-        this.emberstextapi$itemOffsetX = offsetX;
+        this.emberstextapi$extension = emberstextapi$edit().itemOffsetX(offsetX).build();
     }
 
     @Override
     public Float emberstextapi$getItemOffsetY() {
-        return emberstextapi$itemOffsetY;
+        return StyleExtension.orEmpty(emberstextapi$extension).itemOffsetY();
     }
 
     @Override
     public void emberstextapi$setItemOffsetY(Float offsetY) {
-        this.emberstextapi$itemOffsetY = offsetY;
+        this.emberstextapi$extension = emberstextapi$edit().itemOffsetY(offsetY).build();
     }
 
     @Override
     public String emberstextapi$getItemNbt() {
-        return emberstextapi$itemNbt;
+        return StyleExtension.orEmpty(emberstextapi$extension).itemNbt();
     }
 
     @Override
     public void emberstextapi$setItemNbt(String nbt) {
-        this.emberstextapi$itemNbt = nbt;
+        this.emberstextapi$extension = emberstextapi$edit().itemNbt(nbt).build();
     }
 
     @Override
     public String emberstextapi$getEntityId() {
-        return emberstextapi$entityId;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityId();
     }
 
     @Override
     public void emberstextapi$setEntityId(String entityId) {
-        this.emberstextapi$entityId = entityId;
+        this.emberstextapi$extension = emberstextapi$edit().entityId(entityId).build();
     }
 
     @Override
     public Float emberstextapi$getEntityScale() {
-        return emberstextapi$entityScale;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityScale();
     }
 
     @Override
     public void emberstextapi$setEntityScale(Float scale) {
-        this.emberstextapi$entityScale = scale;
+        this.emberstextapi$extension = emberstextapi$edit().entityScale(scale).build();
     }
 
     @Override
     public Float emberstextapi$getEntityOffsetX() {
-        return emberstextapi$entityOffsetX;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityOffsetX();
     }
 
     @Override
     public void emberstextapi$setEntityOffsetX(Float offsetX) {
-        this.emberstextapi$entityOffsetX = offsetX;
+        this.emberstextapi$extension = emberstextapi$edit().entityOffsetX(offsetX).build();
     }
 
     @Override
     public Float emberstextapi$getEntityOffsetY() {
-        return emberstextapi$entityOffsetY;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityOffsetY();
     }
 
     @Override
     public void emberstextapi$setEntityOffsetY(Float offsetY) {
-        this.emberstextapi$entityOffsetY = offsetY;
+        this.emberstextapi$extension = emberstextapi$edit().entityOffsetY(offsetY).build();
     }
 
     @Override
     public Float emberstextapi$getEntityYaw() {
-        return emberstextapi$entityYaw;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityYaw();
     }
 
     @Override
     public void emberstextapi$setEntityYaw(Float yaw) {
-        this.emberstextapi$entityYaw = yaw;
+        this.emberstextapi$extension = emberstextapi$edit().entityYaw(yaw).build();
     }
 
     @Override
     public Float emberstextapi$getEntityPitch() {
-        return emberstextapi$entityPitch;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityPitch();
     }
 
     @Override
     public void emberstextapi$setEntityPitch(Float pitch) {
-        this.emberstextapi$entityPitch = pitch;
+        this.emberstextapi$extension = emberstextapi$edit().entityPitch(pitch).build();
     }
 
     @Override
     public Float emberstextapi$getEntityRoll() {
-        return emberstextapi$entityRoll;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityRoll();
     }
 
     @Override
     public void emberstextapi$setEntityRoll(Float roll) {
-        this.emberstextapi$entityRoll = roll;
+        this.emberstextapi$extension = emberstextapi$edit().entityRoll(roll).build();
     }
 
     @Override
     public Integer emberstextapi$getEntityLighting() {
-        return emberstextapi$entityLighting;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityLighting();
     }
 
     @Override
     public void emberstextapi$setEntityLighting(Integer lighting) {
-        this.emberstextapi$entityLighting = lighting;
+        this.emberstextapi$extension = emberstextapi$edit().entityLighting(lighting).build();
     }
 
     @Override
     public Float emberstextapi$getEntitySpin() {
-        return emberstextapi$entitySpin;
+        return StyleExtension.orEmpty(emberstextapi$extension).entitySpin();
     }
 
     @Override
     public void emberstextapi$setEntitySpin(Float spin) {
-        this.emberstextapi$entitySpin = spin;
+        this.emberstextapi$extension = emberstextapi$edit().entitySpin(spin).build();
     }
 
     @Override
     public String emberstextapi$getEntityAnimation() {
-        return emberstextapi$entityAnimation;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityAnimation();
     }
 
     @Override
     public void emberstextapi$setEntityAnimation(String animation) {
-        this.emberstextapi$entityAnimation = animation;
+        this.emberstextapi$extension = emberstextapi$edit().entityAnimation(animation).build();
     }
 
     @Override
     public String emberstextapi$getEntityNbt() {
-        return emberstextapi$entityNbt;
+        return StyleExtension.orEmpty(emberstextapi$extension).entityNbt();
     }
 
     @Override
     public void emberstextapi$setEntityNbt(String nbt) {
-        this.emberstextapi$entityNbt = nbt;
+        this.emberstextapi$extension = emberstextapi$edit().entityNbt(nbt).build();
     }
 
     @Override
     public TypewriterTrack emberstextapi$getTypewriterTrack() {
-        return emberstextapi$typewriterTrack;
+        return StyleExtension.orEmpty(emberstextapi$extension).typewriterTrack();
     }
 
     @Override
     public void emberstextapi$setTypewriterTrack(TypewriterTrack track) {
-        this.emberstextapi$typewriterTrack = track;
+        this.emberstextapi$extension = emberstextapi$edit().typewriterTrack(track).build();
     }
 
     @Override
     public int emberstextapi$getTypewriterIndex() {
-        return emberstextapi$typewriterIndex;
+        return StyleExtension.orEmpty(emberstextapi$extension).typewriterIndex();
     }
 
     @Override
     public void emberstextapi$setTypewriterIndex(int index) {
-        this.emberstextapi$typewriterIndex = index;
+        this.emberstextapi$extension = emberstextapi$edit().typewriterIndex(index).build();
     }
 
     @Override
     public Object emberstextapi$getObfuscateKey() {
-        return emberstextapi$obfuscateKey;
+        return StyleExtension.orEmpty(emberstextapi$extension).obfuscateKey();
     }
 
     @Override
     public void emberstextapi$setObfuscateKey(Object key) {
-        this.emberstextapi$obfuscateKey = key;
+        this.emberstextapi$extension = emberstextapi$edit().obfuscateKey(key).build();
     }
 
     @Override
     public Object emberstextapi$getObfuscateStableKey() {
-        return emberstextapi$obfuscateStableKey;
+        return StyleExtension.orEmpty(emberstextapi$extension).obfuscateStableKey();
     }
 
     @Override
     public void emberstextapi$setObfuscateStableKey(Object key) {
-        this.emberstextapi$obfuscateStableKey = key;
+        this.emberstextapi$extension = emberstextapi$edit().obfuscateStableKey(key).build();
     }
 
     @Override
     public int emberstextapi$getObfuscateSpanStart() {
-        return emberstextapi$obfuscateSpanStart;
+        return StyleExtension.orEmpty(emberstextapi$extension).obfuscateSpanStart();
     }
 
     @Override
     public void emberstextapi$setObfuscateSpanStart(int start) {
-        this.emberstextapi$obfuscateSpanStart = start;
+        this.emberstextapi$extension = emberstextapi$edit().obfuscateSpanStart(start).build();
     }
 
     @Override
     public int emberstextapi$getObfuscateSpanLength() {
-        return emberstextapi$obfuscateSpanLength;
+        return StyleExtension.orEmpty(emberstextapi$extension).obfuscateSpanLength();
     }
 
     @Override
     public void emberstextapi$setObfuscateSpanLength(int length) {
-        this.emberstextapi$obfuscateSpanLength = length;
+        this.emberstextapi$extension = emberstextapi$edit().obfuscateSpanLength(length).build();
     }
-
     @Inject(method = "withColor(Lnet/minecraft/network/chat/TextColor;)Lnet/minecraft/network/chat/Style;", at = @At("RETURN"))
     private void emberstextapi$propagateOnWithColor(CallbackInfoReturnable<Style> cir) {
         emberstextapi$propagateData(cir.getReturnValue());
@@ -402,39 +351,26 @@ public class StyleMixin implements ETAStyle {
         if (self == result || that == result) {
             return;
         }
-        ETAStyle thatStyle = (ETAStyle) (Object) that;
         ETAStyle resultStyle = (ETAStyle) (Object) result;
+        StyleExtension own = StyleExtension.orEmpty(emberstextapi$extension);
+        StyleExtension parent = StyleExtension.orEmpty(((ETAStyle) (Object) that).emberstextapi$getExtension());
+        StyleExtension current = resultStyle.emberstextapi$getExtension();
+        if (own == StyleExtension.EMPTY && parent == StyleExtension.EMPTY && current == null) {
+            return;
+        }
 
-        ImmutableList<Effect> effects = emberstextapi$effects.isEmpty()
-                ? thatStyle.emberstextapi$getEffects()
-                : emberstextapi$effects;
-        resultStyle.emberstextapi$setEffects(effects);
-
-        TypewriterTrack track = emberstextapi$typewriterTrack != null
-                ? emberstextapi$typewriterTrack
-                : thatStyle.emberstextapi$getTypewriterTrack();
-        int index = emberstextapi$typewriterIndex >= 0
-                ? emberstextapi$typewriterIndex
-                : thatStyle.emberstextapi$getTypewriterIndex();
-        Object obfKey = emberstextapi$obfuscateKey != null
-                ? emberstextapi$obfuscateKey
-                : thatStyle.emberstextapi$getObfuscateKey();
-        int obfStart = emberstextapi$obfuscateSpanStart >= 0
-                ? emberstextapi$obfuscateSpanStart
-                : thatStyle.emberstextapi$getObfuscateSpanStart();
-        int obfLen = emberstextapi$obfuscateSpanLength >= 0
-                ? emberstextapi$obfuscateSpanLength
-                : thatStyle.emberstextapi$getObfuscateSpanLength();
-        Object obfStable = emberstextapi$obfuscateStableKey != null
-                ? emberstextapi$obfuscateStableKey
-                : thatStyle.emberstextapi$getObfuscateStableKey();
-
-        resultStyle.emberstextapi$setTypewriterTrack(track);
-        resultStyle.emberstextapi$setTypewriterIndex(index);
-        resultStyle.emberstextapi$setObfuscateKey(obfKey);
-        resultStyle.emberstextapi$setObfuscateStableKey(obfStable);
-        resultStyle.emberstextapi$setObfuscateSpanStart(obfStart);
-        resultStyle.emberstextapi$setObfuscateSpanLength(obfLen);
+        resultStyle.emberstextapi$setExtension(StyleExtension.orEmpty(current).toBuilder()
+                .effects(own.effects().isEmpty() ? parent.effects() : own.effects())
+                .typewriterTrack(own.typewriterTrack() != null ? own.typewriterTrack() : parent.typewriterTrack())
+                .typewriterIndex(own.typewriterIndex() >= 0 ? own.typewriterIndex() : parent.typewriterIndex())
+                .obfuscateKey(own.obfuscateKey() != null ? own.obfuscateKey() : parent.obfuscateKey())
+                .obfuscateStableKey(own.obfuscateStableKey() != null
+                        ? own.obfuscateStableKey() : parent.obfuscateStableKey())
+                .obfuscateSpanStart(own.obfuscateSpanStart() >= 0
+                        ? own.obfuscateSpanStart() : parent.obfuscateSpanStart())
+                .obfuscateSpanLength(own.obfuscateSpanLength() >= 0
+                        ? own.obfuscateSpanLength() : parent.obfuscateSpanLength())
+                .build());
     }
 
     @Unique
@@ -444,122 +380,24 @@ public class StyleMixin implements ETAStyle {
             return;
         }
 
-        if (emberstextapi$effects.isEmpty()
-                && emberstextapi$typewriterTrack == null
-                && emberstextapi$obfuscateKey == null
-                && emberstextapi$obfuscateStableKey == null
-                && emberstextapi$obfuscateSpanStart < 0
-                && emberstextapi$obfuscateSpanLength < 0) {
+        StyleExtension ext = emberstextapi$extension;
+        if (ext == null || !ext.hasPropagatedState()) {
             return;
         }
         ETAStyle resultStyle = (ETAStyle) (Object) result;
-        resultStyle.emberstextapi$setEffects(emberstextapi$effects);
-        if (emberstextapi$typewriterTrack != null) {
-            resultStyle.emberstextapi$setTypewriterTrack(emberstextapi$typewriterTrack);
-            resultStyle.emberstextapi$setTypewriterIndex(emberstextapi$typewriterIndex);
-        }
-        if (emberstextapi$obfuscateKey != null) {
-            resultStyle.emberstextapi$setObfuscateKey(emberstextapi$obfuscateKey);
-        }
-        if (emberstextapi$obfuscateStableKey != null) {
-            resultStyle.emberstextapi$setObfuscateStableKey(emberstextapi$obfuscateStableKey);
-        }
-        if (emberstextapi$obfuscateSpanStart >= 0) {
-            resultStyle.emberstextapi$setObfuscateSpanStart(emberstextapi$obfuscateSpanStart);
-        }
-        if (emberstextapi$obfuscateSpanLength >= 0) {
-            resultStyle.emberstextapi$setObfuscateSpanLength(emberstextapi$obfuscateSpanLength);
-        }
+        resultStyle.emberstextapi$setExtension(ext.propagateInto(resultStyle.emberstextapi$getExtension()));
     }
 
     @Inject(method = "hashCode", at = @At("RETURN"), cancellable = true)
     private void emberstextapi$hashCode(CallbackInfoReturnable<Integer> cir) {
-        int h = cir.getReturnValue();
-        h = 31 * h + emberstextapi$effects.hashCode();
-        h = 31 * h + Objects.hashCode(emberstextapi$itemId);
-        h = 31 * h + Objects.hashCode(emberstextapi$itemCount);
-        h = 31 * h + Objects.hashCode(emberstextapi$itemOffsetX);
-        h = 31 * h + Objects.hashCode(emberstextapi$itemOffsetY);
-        h = 31 * h + Objects.hashCode(emberstextapi$entityId);
-        h = 31 * h + Objects.hashCode(emberstextapi$entityScale);
-        h = 31 * h + Objects.hashCode(emberstextapi$entityOffsetX);
-        h = 31 * h + Objects.hashCode(emberstextapi$entityOffsetY);
-        h = 31 * h + Objects.hashCode(emberstextapi$entityYaw);
-        h = 31 * h + Objects.hashCode(emberstextapi$entityPitch);
-        h = 31 * h + Objects.hashCode(emberstextapi$entityRoll);
-        h = 31 * h + Objects.hashCode(emberstextapi$entityLighting);
-        h = 31 * h + Objects.hashCode(emberstextapi$entitySpin);
-        h = 31 * h + emberstextapi$typewriterIndex;
-        cir.setReturnValue(h);
+        cir.setReturnValue(31 * cir.getReturnValue() + StyleExtension.styleHash(emberstextapi$extension));
     }
 
     @Inject(method = "equals", at = @At("HEAD"), cancellable = true)
     private void emberstextapi$equals(Object obj, CallbackInfoReturnable<Boolean> cir) {
-
-        if (this != obj && obj instanceof ETAStyle otherStyle) {
-
-            if (!Objects.equals(this.emberstextapi$effects, otherStyle.emberstextapi$getEffects())) {
-                cir.setReturnValue(false);
-                return;
-            }
-
-            if (!Objects.equals(this.emberstextapi$itemId, otherStyle.emberstextapi$getItemId())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$itemCount, otherStyle.emberstextapi$getItemCount())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$itemOffsetX, otherStyle.emberstextapi$getItemOffsetX())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$itemOffsetY, otherStyle.emberstextapi$getItemOffsetY())) {
-                cir.setReturnValue(false);
-                return;
-            }
-
-            if (!Objects.equals(this.emberstextapi$entityId, otherStyle.emberstextapi$getEntityId())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$entityScale, otherStyle.emberstextapi$getEntityScale())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$entityOffsetX, otherStyle.emberstextapi$getEntityOffsetX())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$entityOffsetY, otherStyle.emberstextapi$getEntityOffsetY())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$entityYaw, otherStyle.emberstextapi$getEntityYaw())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$entityPitch, otherStyle.emberstextapi$getEntityPitch())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$entityRoll, otherStyle.emberstextapi$getEntityRoll())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$entityLighting, otherStyle.emberstextapi$getEntityLighting())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            if (!Objects.equals(this.emberstextapi$entitySpin, otherStyle.emberstextapi$getEntitySpin())) {
-                cir.setReturnValue(false);
-                return;
-            }
-
-            if (this.emberstextapi$typewriterIndex != otherStyle.emberstextapi$getTypewriterIndex()) {
-                cir.setReturnValue(false);
-            }
+        if (this != obj && obj instanceof ETAStyle otherStyle
+                && !StyleExtension.styleEquals(emberstextapi$extension, otherStyle.emberstextapi$getExtension())) {
+            cir.setReturnValue(false);
         }
     }
 }
@@ -8,6 +8,7 @@ import com.mojang.blaze3d.font.GlyphProvider;
 import net.minecraft.client.gui.font.FontManager;
 import net.minecraft.resources.Identifier;
 import net.minecraft.server.packs.resources.ResourceManager;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
 import net.tysontheember.emberstextapi.sdf.SDFGlyphProviderDefinition;
 import net.tysontheember.emberstextapi.sdf.SDFProviderRegistry;
@@ -20,6 +21,7 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.attr.MessageAttributeRegistry;
@@ -85,6 +87,8 @@ public abstract class FontManagerMixin {
         for (PresetDefinition preset : presets) {
             PresetRegistry.register(preset);
         }
+        MarkupParseCache.invalidate();
+        ClientTemplateCache.invalidateParsed();
 
         try {
             if (!ConfigHelper.getInstance().isSdfEnabled()) {
@@ -8,6 +8,7 @@ import net.minecraft.util.FormattedCharSequence;
 import net.tysontheember.emberstextapi.accessor.ETAStyle;
 import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
 import net.tysontheember.emberstextapi.util.EffectApplicator;
 import net.tysontheember.emberstextapi.util.ImmersiveRenderBypass;
 import org.spongepowered.asm.mixin.Mixin;
@@ -59,13 +60,19 @@ public abstract class FontPreMeasureMixin {
             BakedGlyph bakedGlyph = glyphSource.getGlyph(codepoint);
             GlyphInfo glyphInfo = bakedGlyph.info();
 
-            EffectSettings settings = EffectApplicator.buildSettings(
-                    etaStyle, style, index, codepoint,
-                    cursorX[0], y, 0f,
-                    0f, 0f, 0f, 0f, true
-            );
-            settings.charAdvance = glyphInfo.getAdvance(style.isBold());
-            EffectApplicator.applyEffects(effects, settings);
+            EffectSettingsArena arena = EffectSettingsArena.current();
+            int arenaMark = arena.mark();
+            try {
+                EffectSettings settings = EffectApplicator.buildSettings(
+                        etaStyle, style, index, codepoint,
+                        cursorX[0], y, 0f,
+                        0f, 0f, 0f, 0f, true
+                );
+                settings.charAdvance = glyphInfo.getAdvance(style.isBold());
+                EffectApplicator.applyEffects(effects, settings);
+            } finally {
+                arena.release(arenaMark);
+            }
 
             cursorX[0] += glyphInfo.getAdvance(style.isBold());
             return true;
@@ -0,0 +1,23 @@
+package net.tysontheember.emberstextapi.mixin.client;
+
+import net.minecraft.client.renderer.GameRenderer;
+import net.tysontheember.emberstextapi.immersivemessages.effects.AnimationClock;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Publishes the per-frame {@link AnimationClock} snapshot before anything is drawn, and closes the
+ * previous frame's effect timing for the {@link QualityGovernor}.
+ */
+@Mixin(GameRenderer.class)
+public abstract class GameRendererMixin {
+
+    @Inject(method = "render", at = @At("HEAD"))
+    private void emberstextapi$beginFrame(CallbackInfo ci) {
+        AnimationClock.beginFrame();
+        QualityGovernor.beginFrame();
+    }
+}
@@ -12,6 +12,8 @@ import net.tysontheember.emberstextapi.accessor.ETAStyle;
 import net.tysontheember.emberstextapi.client.RotatedGlyph;
 import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
+import net.tysontheember.emberstextapi.immersivemessages.effects.QualityGovernor;
 import net.tysontheember.emberstextapi.util.EffectApplicator;
 import net.tysontheember.emberstextapi.util.ImmersiveRenderBypass;
 import org.spongepowered.asm.mixin.Final;
@@ -78,63 +80,71 @@ public abstract class StringRenderOutputMixin {
         float blue = (textColor & 0xFF) / 255.0f;
         float shadowOffset = this.drawShadow ? glyphInfo.getShadowOffset() : 0.0f;
 
-        EffectSettings settings = EffectApplicator.buildSettings(
-                etaStyle, style, index, codepoint,
-                this.x, this.y, shadowOffset,
-                red, green, blue, alpha, false
-        );
-        settings.charAdvance = glyphInfo.getAdvance(style.isBold());
-        EffectApplicator.applyEffects(effects, settings);
-
-        if (settings.useRandomGlyph && codepoint != 32) {
-            int glyphWidth = Mth.ceil(glyphInfo.getAdvance(false));
-            bakedGlyph = glyphSource.getRandomGlyph(fontAccess.getRandom(), glyphWidth);
-        } else if (settings.codepoint != codepoint) {
-
-            BakedGlyph resolved = glyphSource.getGlyph(settings.codepoint);
-            if (resolved.info().getAdvance(false) > 0) {
-                bakedGlyph = resolved;
+        EffectSettingsArena arena = EffectSettingsArena.current();
+        int arenaMark = arena.mark();
+        long governorStart = QualityGovernor.start();
+        try {
+            EffectSettings settings = EffectApplicator.buildSettings(
+                    etaStyle, style, index, codepoint,
+                    this.x, this.y, shadowOffset,
+                    red, green, blue, alpha, false
+            );
+            settings.charAdvance = glyphInfo.getAdvance(style.isBold());
+            EffectApplicator.applyEffects(effects, settings);
+
+            if (settings.useRandomGlyph && codepoint != 32) {
+                int glyphWidth = Mth.ceil(glyphInfo.getAdvance(false));
+                bakedGlyph = glyphSource.getRandomGlyph(fontAccess.getRandom(), glyphWidth);
+            } else if (settings.codepoint != codepoint) {
+
+                BakedGlyph resolved = glyphSource.getGlyph(settings.codepoint);
+                if (resolved.info().getAdvance(false) > 0) {
+                    bakedGlyph = resolved;
+                }
             }
-        }
 
-        int effectColor = ((int)(settings.a * 255) << 24) |
-                         ((int)(settings.r * 255) << 16) |
-                         ((int)(settings.g * 255) << 8) |
-                         ((int)(settings.b * 255));
-        int shadowColor = this.getShadowColor(style, effectColor);
-        float boldOffset = style.isBold() ? glyphInfo.getBoldOffset() : 0.0f;
-
-        TextRenderable.Styled glyph = bakedGlyph.createGlyph(
-                settings.x, settings.y, effectColor, shadowColor, style, boldOffset, shadowOffset);
-        if (glyph != null) {
-
-            if (settings.rot != 0f) {
-                float halfWidth = glyphInfo.getAdvance(style.isBold()) / 2f;
-                float centerX = settings.x + halfWidth;
-                float centerY = settings.y + 4.5f;
-                glyph = new RotatedGlyph(glyph, settings.rot, centerX, centerY);
+            int effectColor = ((int)(settings.a * 255) << 24) |
+                             ((int)(settings.r * 255) << 16) |
+                             ((int)(settings.g * 255) << 8) |
+                             ((int)(settings.b * 255));
+            int shadowColor = this.getShadowColor(style, effectColor);
+            float boldOffset = style.isBold() ? glyphInfo.getBoldOffset() : 0.0f;
+
+            TextRenderable.Styled glyph = bakedGlyph.createGlyph(
+                    settings.x, settings.y, effectColor, shadowColor, style, boldOffset, shadowOffset);
+            if (glyph != null) {
+
+                if (settings.rot != 0f) {
+                    float halfWidth = glyphInfo.getAdvance(style.isBold()) / 2f;
+                    float centerX = settings.x + halfWidth;
+                    float centerY = settings.y + 4.5f;
+                    glyph = new RotatedGlyph(glyph, settings.rot, centerX, centerY);
+                }
+                this.addGlyph(glyph);
             }
-            this.addGlyph(glyph);
-        }
 
-        if (settings.hasSiblings()) {
-            for (EffectSettings sibling : settings.getSiblingsOrEmpty()) {
-                int sibColor = ((int)(sibling.a * 255) << 24) |
-                              ((int)(sibling.r * 255) << 16) |
-                              ((int)(sibling.g * 255) << 8) |
-                              ((int)(sibling.b * 255));
-                int sibShadow = this.getShadowColor(style, sibColor);
-                TextRenderable.Styled sibGlyph = bakedGlyph.createGlyph(
-                        sibling.x, sibling.y, sibColor, sibShadow, style, boldOffset, shadowOffset);
-                if (sibGlyph != null) {
-                    if (sibling.rot != 0f) {
-                        float halfWidth = glyphInfo.getAdvance(style.isBold()) / 2f;
-                        sibGlyph = new RotatedGlyph(sibGlyph, sibling.rot,
-                                sibling.x + halfWidth, sibling.y + 4.5f);
+            if (settings.hasSiblings()) {
+                for (EffectSettings sibling : settings.getSiblingsOrEmpty()) {
+                    int sibColor = ((int)(sibling.a * 255) << 24) |
+                                  ((int)(sibling.r * 255) << 16) |
+                                  ((int)(sibling.g * 255) << 8) |
+                                  ((int)(sibling.b * 255));
+                    int sibShadow = this.getShadowColor(style, sibColor);
+                    TextRenderable.Styled sibGlyph = bakedGlyph.createGlyph(
+                            sibling.x, sibling.y, sibColor, sibShadow, style, boldOffset, shadowOffset);
+                    if (sibGlyph != null) {
+                        if (sibling.rot != 0f) {
+                            float halfWidth = glyphInfo.getAdvance(style.isBold()) / 2f;
+                            sibGlyph = new RotatedGlyph(sibGlyph, sibling.rot,
+                                    sibling.x + halfWidth, sibling.y + 4.5f);
+                        }
+                        this.addGlyph(sibGlyph);
                     }
-                    this.addGlyph(sibGlyph);
                 }
             }
+        } finally {
+            QualityGovernor.stop(governorStart);
+            arena.release(arenaMark);
         }
 
         float glyphWidth = glyphInfo.getAdvance(style.isBold());
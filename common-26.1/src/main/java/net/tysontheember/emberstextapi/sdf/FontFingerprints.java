@@ -0,0 +1,65 @@
+package net.tysontheember.emberstextapi.sdf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fingerprints of font files, used to key {@link PreBakedMSDFCache} and its on-disk files.
+ * <p>
+ * Resource packs don't expose modification times, so there is nothing cheaper to tell an unchanged font by
+ * than its bytes. The whole file is hashed with a 64-bit, four-lane multiply-rotate hash, which is cheap
+ * next to baking even a single glyph.
+ */
+public final class FontFingerprints {
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+
+    private FontFingerprints() {}
+
+    /** Hashes the remaining bytes of {@code data} without moving its position. */
+    public static long fingerprint(ByteBuffer data) {
+        return hash(data, data.position(), data.remaining());
+    }
+
+    private static long hash(ByteBuffer data, int offset, int length) {
+        ByteBuffer buf = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int end = offset + length;
+        int i = offset;
+
+        long a = P1, b = P2, c = P3, d = ~P1;
+        for (; i + 32 <= end; i += 32) {
+            a = round(a, buf.getLong(i));
+            b = round(b, buf.getLong(i + 8));
+            c = round(c, buf.getLong(i + 16));
+            d = round(d, buf.getLong(i + 24));
+        }
+        long h = Long.rotateLeft(a, 1) + Long.rotateLeft(b, 7) + Long.rotateLeft(c, 12) + Long.rotateLeft(d, 18);
+        h += length;
+        for (; i + 8 <= end; i += 8) {
+            h = mix(h, buf.getLong(i));
+        }
+        for (; i < end; i++) {
+            h = mix(h, buf.get(i) & 0xFFL);
+        }
+        return avalanche(h);
+    }
+
+    private static long round(long acc, long input) {
+        return Long.rotateLeft(acc + input * P2, 31) * P1;
+    }
+
+    private static long mix(long h, long input) {
+        return Long.rotateLeft(h ^ round(0, input), 27) * P1 + P3;
+    }
+
+    private static long avalanche(long h) {
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+}
@@ -0,0 +1,175 @@
+package net.tysontheember.emberstextapi.sdf;
+
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bakes MSDF glyphs for one {@link SDFGlyphProvider} in the background.
+ * <p>
+ * Each worker pulls a codepoint, extracts its outline through {@link FreeTypeManager} (which holds the
+ * FreeType lock only for the extraction) and then runs edge coloring and distance field generation
+ * unlocked, so several glyphs are generated at once on the work-stealing background pool. Codepoints the
+ * game actually asks for are queued ahead of warm-up ranges, and a glyph that is needed right now is
+ * either joined if a worker already has it or baked on the calling thread.
+ */
+final class GlyphBakeScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/GlyphBakeScheduler");
+
+    /** Leaves half the background pool free for chunk loading and other game work. */
+    private static final int MAX_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    private final SDFGlyphProvider provider;
+    private final PreBakedMSDFCache.CacheKey cacheKey;
+    private final Map<Integer, PreBakedMSDF> cache;
+    private final Executor executor;
+
+    private final ConcurrentLinkedDeque<Integer> urgent = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Integer> background = new ConcurrentLinkedDeque<>();
+    /** Codepoints waiting in either queue; an entry polled after it left this set is a stale duplicate. */
+    private final Set<Integer> queued = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> promoted = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, CompletableFuture<PreBakedMSDF>> claimed = new ConcurrentHashMap<>();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final AtomicInteger baked = new AtomicInteger();
+    private volatile boolean closed;
+
+    GlyphBakeScheduler(SDFGlyphProvider provider, PreBakedMSDFCache.CacheKey cacheKey,
+                       Map<Integer, PreBakedMSDF> cache) {
+        this.provider = provider;
+        this.cacheKey = cacheKey;
+        this.cache = cache;
+        this.executor = Util.backgroundExecutor();
+    }
+
+    /**
+     * Queues every supported codepoint in {@code [from, to]} that is not cached yet behind any
+     * prioritized glyphs.
+     */
+    void warm(int from, int to) {
+        for (int cp = from; cp <= to; cp++) {
+            if (closed) return;
+            if (!provider.getSupportedGlyphs().contains(cp) || cache.containsKey(cp)) continue;
+            if (queued.add(cp)) {
+                background.addLast(cp);
+            }
+        }
+        pump();
+    }
+
+    /**
+     * Moves {@code codepoint} to the front of the queue. Called when a glyph is first looked up, which
+     * happens well before the atlas asks for its bitmap.
+     */
+    void prioritize(int codepoint) {
+        if (closed || cache.containsKey(codepoint) || claimed.containsKey(codepoint)) return;
+        if (!promoted.add(codepoint)) return;
+        // A copy still waiting in the background queue is skipped once this one has been polled.
+        queued.add(codepoint);
+        urgent.addFirst(codepoint);
+        pump();
+    }
+
+    /**
+     * Returns the baked glyph, waiting for a worker that already started on it or baking it on the
+     * calling thread otherwise. Returns null if the glyph has no outline.
+     */
+    @Nullable
+    PreBakedMSDF bakeNow(int codepoint) {
+        PreBakedMSDF cached = cache.get(codepoint);
+        if (cached != null) return cached;
+
+        CompletableFuture<PreBakedMSDF> own = new CompletableFuture<>();
+        CompletableFuture<PreBakedMSDF> running = claimed.putIfAbsent(codepoint, own);
+        if (running != null) {
+            return running.join();
+        }
+        return run(codepoint, own);
+    }
+
+    void close() {
+        closed = true;
+        urgent.clear();
+        background.clear();
+        queued.clear();
+        promoted.clear();
+        PreBakedMSDFCache.closeDisk(cacheKey);
+    }
+
+    /** Starts workers up to the limit, and no more than there are glyphs waiting. */
+    private void pump() {
+        while (!closed) {
+            int current = workers.get();
+            if (current >= MAX_WORKERS || current >= queued.size()) return;
+            // Only the caller whose CAS lands starts a worker, so concurrent pumps can't overshoot the limit.
+            if (workers.compareAndSet(current, current + 1)) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Integer next;
+            while (!closed && (next = poll()) != null) {
+                int cp = next;
+                CompletableFuture<PreBakedMSDF> own = new CompletableFuture<>();
+                if (cache.containsKey(cp) || claimed.putIfAbsent(cp, own) != null) continue;
+                run(cp, own);
+            }
+        } finally {
+            if (workers.decrementAndGet() == 0 && urgent.isEmpty() && background.isEmpty()) {
+                LOGGER.debug("SDF bake queue drained, {} glyphs baked", baked.get());
+            }
+        }
+        // Work queued between the last poll and the decrement would otherwise sit until the next request.
+        if (!closed && (!urgent.isEmpty() || !background.isEmpty())) {
+            pump();
+        }
+    }
+
+    @Nullable
+    private Integer poll() {
+        Integer cp;
+        while ((cp = urgent.pollFirst()) != null) {
+            promoted.remove(cp);
+            if (queued.remove(cp)) return cp;
+        }
+        while ((cp = background.pollFirst()) != null) {
+            if (queued.remove(cp)) return cp;
+        }
+        return null;
+    }
+
+    @Nullable
+    private PreBakedMSDF run(int codepoint, CompletableFuture<PreBakedMSDF> future) {
+        PreBakedMSDF data = null;
+        try {
+            if (!closed) {
+                data = provider.computeMSDF(codepoint, FreeTypeManager.getInstance());
+            }
+            if (data != null && cache.putIfAbsent(codepoint, data) == null) {
+                baked.incrementAndGet();
+                if (!closed) {
+                    PreBakedMSDFCache.persist(cacheKey, codepoint, data);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Bake failed for codepoint {} ('{}')", codepoint, new String(Character.toChars(codepoint)), e);
+        } finally {
+            future.complete(data);
+            claimed.remove(codepoint, future);
+        }
+        return data;
+    }
+}
@@ -69,7 +69,7 @@ public class SDFGlyphInfo implements UnbakedGlyph {
     @Override
     public BakedGlyph bake(UnbakedGlyph.Stitcher stitcher) {
 
-        PreBakedMSDF preBaked = provider != null ? provider.getPreBaked(codepoint) : null;
+        PreBakedMSDF preBaked = provider != null ? provider.getOrBake(codepoint) : null;
         if (preBaked != null) {
             LOGGER.debug("Using pre-baked MSDF for '{}' (cp={})", (char) codepoint, codepoint);
             if (SDF_DEBUG) {
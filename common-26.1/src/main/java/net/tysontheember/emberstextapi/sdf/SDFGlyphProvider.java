@@ -4,7 +4,6 @@ import com.mojang.blaze3d.font.GlyphInfo;
 import com.mojang.blaze3d.font.GlyphProvider;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
-import net.minecraft.util.Util;
 import org.jetbrains.annotations.Nullable;
 import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
@@ -14,12 +13,9 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 import static org.lwjgl.util.freetype.FreeType.*;
 
@@ -37,9 +33,10 @@ public class SDFGlyphProvider implements GlyphProvider {
     private final Map<Integer, SDFGlyphInfo> glyphCache;
     private final Map<Integer, PreBakedMSDF> preBakeCache;
     private final IntSet unsupportedGlyphs;
+    private final GlyphBakeScheduler bakeScheduler;
     private volatile boolean closed;
 
-    public SDFGlyphProvider(FT_Face ftFace, ByteBuffer fontData, SDFConfig config) {
+    public SDFGlyphProvider(FT_Face ftFace, ByteBuffer fontData, long fontHash, SDFConfig config) {
         this.ftFace = ftFace;
         this.fontData = fontData;
         this.config = config.validated();
@@ -58,7 +55,6 @@ public class SDFGlyphProvider implements GlyphProvider {
             }
         });
 
-        long fontHash = hashFontData(fontData);
         PreBakedMSDFCache.CacheKey cacheKey = new PreBakedMSDFCache.CacheKey(
                 fontHash,
                 this.config.sdfResolution(),
@@ -71,7 +67,8 @@ public class SDFGlyphProvider implements GlyphProvider {
                 this.config.shift()[0],
                 this.config.shift()[1],
                 this.config.skip());
-        this.preBakeCache = PreBakedMSDFCache.getOrCreate(cacheKey);
+        this.preBakeCache = PreBakedMSDFCache.getOrLoad(cacheKey);
+        this.bakeScheduler = new GlyphBakeScheduler(this, cacheKey, preBakeCache);
 
         LOGGER.info("SDF glyph provider initialized: {} supported glyphs, {} upem, ascender={}",
                 supportedGlyphs.size(), unitsPerEM, ascender);
@@ -81,21 +78,6 @@ public class SDFGlyphProvider implements GlyphProvider {
         }
     }
 
-    private static long hashFontData(ByteBuffer fontData) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(fontData.duplicate());
-            byte[] digest = md.digest();
-            long h = 0L;
-            for (int i = 0; i < 8; i++) {
-                h = (h << 8) | (digest[i] & 0xFFL);
-            }
-            return h;
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 not available", e);
-        }
-    }
-
     private boolean isPreBakeCoverageComplete() {
         for (int cp = 32; cp <= 255; cp++) {
             if (!supportedGlyphs.contains(cp)) continue;
@@ -105,32 +87,28 @@ public class SDFGlyphProvider implements GlyphProvider {
     }
 
     private void preBakeCommonGlyphs() {
-        CompletableFuture.runAsync(() -> {
-            FreeTypeManager ft = FreeTypeManager.getInstance();
-            int count = 0;
-            for (int cp = 32; cp <= 255; cp++) {
-                if (closed) break;
-                if (!supportedGlyphs.contains(cp)) continue;
-                if (preBakeCache.containsKey(cp)) continue;
-                try {
-                    PreBakedMSDF data = computeMSDF(cp, ft);
-                    if (data != null && preBakeCache.putIfAbsent(cp, data) == null) {
-                        count++;
-                    }
-                } catch (Exception e) {
-                    LOGGER.warn("Pre-bake failed for codepoint {} ('{}')", cp, (char) cp, e);
-                }
-            }
-            LOGGER.info("Pre-baked {} SDF glyphs", count);
-        }, Util.backgroundExecutor());
+        bakeScheduler.warm(32, 255);
+    }
+
+    /**
+     * Bakes every supported codepoint in {@code [from, to]} in the background, e.g. a CJK block a
+     * server is known to use. Glyphs the game looks up in the meantime are baked first.
+     */
+    public void warmRange(int from, int to) {
+        if (closed) return;
+        bakeScheduler.warm(Math.max(0, from), Math.min(Character.MAX_CODE_POINT, to));
     }
 
     @Nullable
     PreBakedMSDF computeMSDF(int codepoint, FreeTypeManager ft) {
-        int glyphIndex = ft.getCharIndex(ftFace, codepoint);
-        if (glyphIndex == 0) return null;
-
-        GlyphOutline outline = ft.extractOutline(ftFace, glyphIndex);
+        GlyphOutline outline;
+        // close() frees the face while holding the FreeType lock, so checking closed under it keeps the face alive for these calls.
+        synchronized (ft) {
+            if (closed) return null;
+            int glyphIndex = ft.getCharIndex(ftFace, codepoint);
+            if (glyphIndex == 0) return null;
+            outline = ft.extractOutline(ftFace, glyphIndex);
+        }
         if (outline == null || outline.contours().isEmpty()) return null;
 
         float glyphW = outline.width();
@@ -174,9 +152,14 @@ public class SDFGlyphProvider implements GlyphProvider {
         return new PreBakedMSDF(msdfData, texW, texH, bearingLeft, bearingTop, oversample);
     }
 
+    /**
+     * Returns the baked glyph, joining a background bake already in progress or baking it on the
+     * calling thread. The result is shared with every provider for the same font and config.
+     */
     @Nullable
-    PreBakedMSDF getPreBaked(int codepoint) {
-        return preBakeCache.get(codepoint);
+    PreBakedMSDF getOrBake(int codepoint) {
+        if (closed) return null;
+        return bakeScheduler.bakeNow(codepoint);
     }
 
     private static IntSet buildSupportedGlyphs(FT_Face face, String skip) {
@@ -225,13 +208,21 @@ public class SDFGlyphProvider implements GlyphProvider {
     @Nullable
     private SDFGlyphInfo createAndCacheGlyphInfo(int codepoint) {
         FreeTypeManager ft = FreeTypeManager.getInstance();
-        int glyphIndex = ft.getCharIndex(ftFace, codepoint);
-        if (glyphIndex == 0) {
-            unsupportedGlyphs.add(codepoint);
-            return null;
+        int glyphIndex;
+        long advanceUnits;
+        synchronized (ft) {
+            if (closed) return null;
+            glyphIndex = ft.getCharIndex(ftFace, codepoint);
+            if (glyphIndex == 0) {
+                unsupportedGlyphs.add(codepoint);
+                return null;
+            }
+            advanceUnits = ft.getGlyphAdvance(ftFace, glyphIndex);
         }
 
-        long advanceUnits = ft.getGlyphAdvance(ftFace, glyphIndex);
+        if (!preBakeCache.containsKey(codepoint)) {
+            bakeScheduler.prioritize(codepoint);
+        }
 
         float scale = config.fontSize() / unitsPerEM;
         float advance = advanceUnits * scale / config.oversample();
@@ -253,9 +244,14 @@ public class SDFGlyphProvider implements GlyphProvider {
     public void close() {
         if (!closed) {
             closed = true;
+            bakeScheduler.close();
             glyphCache.clear();
-            FreeTypeManager.getInstance().closeFace(ftFace);
-            MemoryUtil.memFree(fontData);
+            // Waits for any bake already inside its FreeType calls; later ones see closed and back off.
+            FreeTypeManager ft = FreeTypeManager.getInstance();
+            synchronized (ft) {
+                ft.closeFace(ftFace);
+                MemoryUtil.memFree(fontData);
+            }
             LOGGER.debug("SDF glyph provider closed");
         }
     }
@@ -36,6 +36,23 @@ public final class SDFProviderRegistry {
         return PROVIDERS.get(fontName);
     }
 
+    /**
+     * Bakes {@code [from, to]} in the background for every SDF provider of {@code fontName}.
+     * Returns false if the font has no SDF providers.
+     */
+    public static boolean warmRange(Identifier fontName, int from, int to) {
+        List<GlyphProvider> providers = PROVIDERS.get(fontName);
+        if (providers == null) return false;
+        boolean any = false;
+        for (GlyphProvider provider : providers) {
+            if (provider instanceof SDFGlyphProvider sdf) {
+                sdf.warmRange(from, to);
+                any = true;
+            }
+        }
+        return any;
+    }
+
     public static boolean hasProviders() {
         return !PROVIDERS.isEmpty();
     }
@@ -9,6 +9,7 @@ import net.minecraft.network.chat.Style;
 import net.tysontheember.emberstextapi.accessor.ETAStyle;
 import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
 import net.tysontheember.emberstextapi.immersivemessages.effects.animation.TypewriterTrack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,7 +28,7 @@ public final class EffectApplicator {
             float r, float g, float b, float a,
             boolean dropShadow) {
 
-        EffectSettings settings = new EffectSettings(
+        EffectSettings settings = EffectSettingsArena.current().acquire(
                 x + shadowOffset, y + shadowOffset,
                 r, g, b, a,
                 index, codepoint, dropShadow
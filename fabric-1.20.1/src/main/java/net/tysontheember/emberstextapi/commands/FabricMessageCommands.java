@@ -64,9 +64,7 @@ public class FabricMessageCommands {
             msg = ImmersiveMessage.builder(duration, text);
         }
 
-        for (ServerPlayer target : targets) {
-            NetworkHelper.getInstance().sendMessage(target, msg);
-        }
+        NetworkHelper.getInstance().broadcastMessage(targets, msg);
         return Command.SINGLE_SUCCESS;
     }
 
@@ -108,9 +106,7 @@ public class FabricMessageCommands {
                                 steps.add(msgs);
                             }
 
-                            for (ServerPlayer target : targets) {
-                                NetworkHelper.getInstance().sendQueue(target, channel, steps);
-                            }
+                            NetworkHelper.getInstance().broadcastQueue(targets, channel, steps);
                             return Command.SINGLE_SUCCESS;
                         }))));
     }
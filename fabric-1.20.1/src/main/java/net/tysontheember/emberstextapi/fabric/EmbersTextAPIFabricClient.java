@@ -3,10 +3,12 @@ package net.tysontheember.emberstextapi.fabric;
 import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.CoreShaderRegistrationCallback;
 import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.minecraft.resources.ResourceLocation;
 import net.tysontheember.emberstextapi.client.ClientMessageManager;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
 import net.tysontheember.emberstextapi.immersivemessages.ImmersiveMessagesManager;
 import net.tysontheember.emberstextapi.immersivemessages.api.FontAliasRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
@@ -40,6 +42,7 @@ public class EmbersTextAPIFabricClient implements ClientModInitializer {
         });
 
         FabricClientPacketHandlers.register();
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> ClientTemplateCache.clear());
 
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             ClientMessageManager.tick(client);
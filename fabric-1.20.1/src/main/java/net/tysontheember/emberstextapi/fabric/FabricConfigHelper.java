@@ -123,6 +123,11 @@ public class FabricConfigHelper implements ConfigHelper {
         return config != null ? config.maxNeonQuality : 3;
     }
 
+    @Override
+    public double getEffectFrameBudgetMs() {
+        return config != null ? config.effectFrameBudgetMs : 2.0;
+    }
+
     @Override
     public int getTextLayoutCacheSize() {
         return config != null ? config.textLayoutCacheSize : 256;
@@ -151,6 +156,7 @@ public class FabricConfigHelper implements ConfigHelper {
 
         public boolean reduceMotion = false;
         public int maxNeonQuality = 3;
+        public double effectFrameBudgetMs = 2.0;
 
         public int textLayoutCacheSize = 256;
         public boolean sdfEnabled = true;
@@ -3,9 +3,11 @@ package net.tysontheember.emberstextapi.fabric;
 import net.minecraft.server.level.ServerPlayer;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
 import net.tysontheember.emberstextapi.network.ServerMessageLimiter;
+import net.tysontheember.emberstextapi.network.TemplateRegistry;
 import net.tysontheember.emberstextapi.network.fabric.FabricNetworkHandler;
 import net.tysontheember.emberstextapi.platform.NetworkHelper;
 
+import java.util.Collection;
 import java.util.List;
 
 public class FabricNetworkHelper implements NetworkHelper {
@@ -68,4 +70,32 @@ public class FabricNetworkHelper implements NetworkHelper {
     public void sendStopAllQueues(ServerPlayer player) {
         handler.sendStopAllQueues(player);
     }
+
+    @Override
+    public void broadcastMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        ServerMessageLimiter.sanitize(message);
+        handler.broadcastMessage(players, message);
+    }
+
+    @Override
+    public void broadcastOpenMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        ServerMessageLimiter.sanitize(message);
+        handler.broadcastOpenMessage(players, message);
+    }
+
+    @Override
+    public void broadcastQueue(Collection<ServerPlayer> players, String channel, List<List<ImmersiveMessage>> steps) {
+        steps = ServerMessageLimiter.sanitizeQueue(steps);
+        handler.broadcastQueue(players, channel, steps);
+    }
+
+    @Override
+    public void sendTemplate(ServerPlayer player, String templateId, List<String> args) {
+        handler.sendTemplate(player, TemplateRegistry.get(templateId), TemplateRegistry.checkArgs(args));
+    }
+
+    @Override
+    public void broadcastTemplate(Collection<ServerPlayer> players, String templateId, List<String> args) {
+        handler.broadcastTemplate(players, TemplateRegistry.get(templateId), TemplateRegistry.checkArgs(args));
+    }
 }
@@ -2,16 +2,21 @@ package net.tysontheember.emberstextapi.network.fabric;
 
 import io.netty.buffer.Unpooled;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.tysontheember.emberstextapi.fabric.EmbersTextAPIFabric;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
 import net.tysontheember.emberstextapi.network.NetworkHandler;
+import net.tysontheember.emberstextapi.network.TemplateRegistry;
+import net.tysontheember.emberstextapi.network.UpdateTracker;
 import net.tysontheember.emberstextapi.network.fabric.packets.FabricPacketCodecs;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,6 +29,9 @@ public final class FabricNetworkHandler implements NetworkHandler {
     public static final ResourceLocation CLEAR_QUEUE_PACKET = new ResourceLocation(EmbersTextAPIFabric.MODID, "clear_queue");
     public static final ResourceLocation OPEN_QUEUE_PACKET = new ResourceLocation(EmbersTextAPIFabric.MODID, "open_queue");
     public static final ResourceLocation STOP_QUEUE_PACKET = new ResourceLocation(EmbersTextAPIFabric.MODID, "stop_queue");
+    public static final ResourceLocation DEFINE_TEMPLATE_PACKET = new ResourceLocation(EmbersTextAPIFabric.MODID, "define_template");
+    public static final ResourceLocation OPEN_TEMPLATE_PACKET = new ResourceLocation(EmbersTextAPIFabric.MODID, "open_template");
+    public static final ResourceLocation RESYNC_MESSAGE_PACKET = new ResourceLocation(EmbersTextAPIFabric.MODID, "resync_message");
 
     private static final FabricNetworkHandler INSTANCE = new FabricNetworkHandler();
 
@@ -36,6 +44,10 @@ public final class FabricNetworkHandler implements NetworkHandler {
 
     @Override
     public void register() {
+        ServerPlayNetworking.registerGlobalReceiver(RESYNC_MESSAGE_PACKET, (server, player, handler, buf, responseSender) -> {
+            UUID id = buf.readUUID();
+            server.execute(() -> resendMessage(player, id));
+        });
 
         EmbersTextAPIFabric.LOGGER.info("Fabric network handler registered");
     }
@@ -48,7 +60,7 @@ public final class FabricNetworkHandler implements NetworkHandler {
     @Override
     public void sendOpenMessage(ServerPlayer player, ImmersiveMessage message) {
         UUID id = UUID.randomUUID();
-        CompoundTag data = message.toNbt();
+        byte[] data = CompactCodec.encode(message);
         ServerPlayNetworking.send(player, OPEN_MESSAGE_PACKET,
             FabricPacketCodecs.encodeOpenMessage(id, data));
     }
@@ -56,40 +68,50 @@ public final class FabricNetworkHandler implements NetworkHandler {
     @Override
     public void sendUpdateMessage(ServerPlayer player, String messageId, ImmersiveMessage message) {
         UUID uuid = UUID.fromString(messageId);
-        CompoundTag data = message.toNbt();
+        byte[] data = UpdateTracker.encode(player.getUUID(), messageId, message);
         ServerPlayNetworking.send(player, UPDATE_MESSAGE_PACKET,
             FabricPacketCodecs.encodeUpdateMessage(uuid, data));
     }
 
+    /** Resends a message in full to a client that asked for it, if it is still open here. */
+    public void resendMessage(ServerPlayer player, UUID id) {
+        byte[] data = UpdateTracker.resync(player.getUUID(), id.toString());
+        if (data != null) {
+            ServerPlayNetworking.send(player, UPDATE_MESSAGE_PACKET,
+                FabricPacketCodecs.encodeUpdateMessage(id, data));
+        }
+    }
+
     @Override
     public void sendCloseMessage(ServerPlayer player, String messageId) {
         UUID uuid = UUID.fromString(messageId);
+        UpdateTracker.forget(player.getUUID(), messageId);
         ServerPlayNetworking.send(player, CLOSE_MESSAGE_PACKET,
             FabricPacketCodecs.encodeCloseMessage(uuid));
     }
 
     @Override
     public void sendCloseAllMessages(ServerPlayer player) {
+        UpdateTracker.forget(player.getUUID());
         ServerPlayNetworking.send(player, CLOSE_ALL_MESSAGES_PACKET,
             FabricPacketCodecs.encodeCloseAllMessages());
     }
 
     @Override
     public void sendQueue(ServerPlayer player, String channel, List<List<ImmersiveMessage>> steps) {
+        ServerPlayNetworking.send(player, OPEN_QUEUE_PACKET, encodeQueue(channel, steps));
+    }
+
+    private static FriendlyByteBuf encodeQueue(String channel, List<List<ImmersiveMessage>> steps) {
         List<List<UUID>> ids = new ArrayList<>();
-        List<List<CompoundTag>> stepData = new ArrayList<>();
         for (List<ImmersiveMessage> step : steps) {
             List<UUID> stepIds = new ArrayList<>();
-            List<CompoundTag> msgs = new ArrayList<>();
-            for (ImmersiveMessage msg : step) {
+            for (int i = 0; i < step.size(); i++) {
                 stepIds.add(UUID.randomUUID());
-                msgs.add(msg.toNbt());
             }
             ids.add(stepIds);
-            stepData.add(msgs);
         }
-        ServerPlayNetworking.send(player, OPEN_QUEUE_PACKET,
-            FabricPacketCodecs.encodeOpenQueue(channel, ids, stepData));
+        return FabricPacketCodecs.encodeOpenQueue(channel, ids, CompactCodec.encodeQueue(steps));
     }
 
     @Override
@@ -112,7 +134,68 @@ public final class FabricNetworkHandler implements NetworkHandler {
 
     @Override
     public void sendStopAllQueues(ServerPlayer player) {
+        // Stopping every queue closes all of the client's messages, not just queued ones.
+        UpdateTracker.forget(player.getUUID());
         ServerPlayNetworking.send(player, STOP_QUEUE_PACKET,
             FabricPacketCodecs.encodeStopQueue(""));
     }
+
+    @Override
+    public void broadcastMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        broadcastOpenMessage(players, message);
+    }
+
+    @Override
+    public void broadcastOpenMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        if (!players.isEmpty()) {
+            broadcast(players, OPEN_MESSAGE_PACKET,
+                FabricPacketCodecs.encodeOpenMessage(UUID.randomUUID(), CompactCodec.encode(message)));
+        }
+    }
+
+    @Override
+    public void broadcastQueue(Collection<ServerPlayer> players, String channel, List<List<ImmersiveMessage>> steps) {
+        if (!players.isEmpty()) {
+            broadcast(players, OPEN_QUEUE_PACKET, encodeQueue(channel, steps));
+        }
+    }
+
+    @Override
+    public void sendTemplate(ServerPlayer player, MessageTemplate template, List<String> args) {
+        if (TemplateRegistry.markSent(player.getUUID(), template)) {
+            ServerPlayNetworking.send(player, DEFINE_TEMPLATE_PACKET, encodeDefineTemplate(template));
+        }
+        ServerPlayNetworking.send(player, OPEN_TEMPLATE_PACKET,
+            FabricPacketCodecs.encodeOpenTemplate(UUID.randomUUID(), template.id(), args));
+    }
+
+    @Override
+    public void broadcastTemplate(Collection<ServerPlayer> players, MessageTemplate template, List<String> args) {
+        if (players.isEmpty()) {
+            return;
+        }
+        List<ServerPlayer> missing = new ArrayList<>();
+        for (ServerPlayer player : players) {
+            if (TemplateRegistry.markSent(player.getUUID(), template)) {
+                missing.add(player);
+            }
+        }
+        if (!missing.isEmpty()) {
+            broadcast(missing, DEFINE_TEMPLATE_PACKET, encodeDefineTemplate(template));
+        }
+        broadcast(players, OPEN_TEMPLATE_PACKET,
+            FabricPacketCodecs.encodeOpenTemplate(UUID.randomUUID(), template.id(), args));
+    }
+
+    private static FriendlyByteBuf encodeDefineTemplate(MessageTemplate template) {
+        return FabricPacketCodecs.encodeDefineTemplate(template.id(), CompactCodec.encode(template.prototype()));
+    }
+
+    /** Wraps {@code buf} in one vanilla packet and sends that same packet to every player. */
+    private static void broadcast(Collection<ServerPlayer> players, ResourceLocation id, FriendlyByteBuf buf) {
+        Packet<?> packet = ServerPlayNetworking.createS2CPacket(id, buf);
+        for (ServerPlayer player : players) {
+            player.connection.send(packet);
+        }
+    }
 }
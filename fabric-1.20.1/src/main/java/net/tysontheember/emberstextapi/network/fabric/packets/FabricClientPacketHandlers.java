@@ -1,12 +1,15 @@
 package net.tysontheember.emberstextapi.network.fabric.packets;
 
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
-import net.minecraft.nbt.CompoundTag;
 import net.tysontheember.emberstextapi.client.ClientMessageManager;
-import net.tysontheember.emberstextapi.client.QueuedMessage;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
 import net.tysontheember.emberstextapi.client.QueueStep;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
 import net.tysontheember.emberstextapi.network.fabric.FabricNetworkHandler;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
+import net.tysontheember.emberstextapi.serialization.MessageDelta;
+import net.tysontheember.emberstextapi.serialization.SerializationUtil;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,24 +23,21 @@ public class FabricClientPacketHandlers {
     public static void register() {
         ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.OPEN_MESSAGE_PACKET, (client, handler, buf, responseSender) -> {
             UUID id = buf.readUUID();
-            CompoundTag data = buf.readNbt();
+            byte[] data = buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE);
 
             client.execute(() -> {
-                if (data != null) {
-                    ImmersiveMessage message = ImmersiveMessage.fromNbt(data);
-                    ClientMessageManager.open(id, message);
-                }
+                ImmersiveMessage message = CompactCodec.decode(data);
+                ClientMessageManager.open(id, message);
             });
         });
 
         ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.UPDATE_MESSAGE_PACKET, (client, handler, buf, responseSender) -> {
             UUID id = buf.readUUID();
-            CompoundTag data = buf.readNbt();
+            byte[] data = buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE);
 
             client.execute(() -> {
-                if (data != null) {
-                    ImmersiveMessage message = ImmersiveMessage.fromNbt(data);
-                    ClientMessageManager.update(id, message);
+                if (!ClientMessageManager.update(id, MessageDelta.decode(data))) {
+                    responseSender.sendPacket(FabricNetworkHandler.RESYNC_MESSAGE_PACKET, FabricPacketCodecs.encodeResyncMessage(id));
                 }
             });
         });
@@ -80,35 +80,42 @@ public class FabricClientPacketHandlers {
                 throw new io.netty.handler.codec.DecoderException("Invalid queue step count: " + stepCount);
             }
             List<List<UUID>> ids = new ArrayList<>(stepCount);
-            List<List<CompoundTag>> stepData = new ArrayList<>(stepCount);
             for (int s = 0; s < stepCount; s++) {
                 int msgCount = buf.readVarInt();
                 if (msgCount < 0 || msgCount > MAX_MESSAGES_PER_STEP) {
                     throw new io.netty.handler.codec.DecoderException("Invalid queue message count: " + msgCount);
                 }
                 List<UUID> stepIds = new ArrayList<>(msgCount);
-                List<CompoundTag> msgs = new ArrayList<>(msgCount);
                 for (int m = 0; m < msgCount; m++) {
                     stepIds.add(buf.readUUID());
-                    CompoundTag tag = buf.readNbt();
-                    msgs.add(tag == null ? new CompoundTag() : tag);
                 }
                 ids.add(stepIds);
-                stepData.add(msgs);
             }
+            byte[] data = buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE);
 
             client.execute(() -> {
-                List<QueueStep> steps = new ArrayList<>();
-                for (int s = 0; s < stepData.size(); s++) {
-                    List<QueuedMessage> qmsgs = new ArrayList<>();
-                    for (int m = 0; m < stepData.get(s).size(); m++) {
-                        ImmersiveMessage message = ImmersiveMessage.fromNbt(stepData.get(s).get(m));
-                        qmsgs.add(new QueuedMessage(ids.get(s).get(m), message));
-                    }
-                    steps.add(new QueueStep(qmsgs));
-                }
+                List<QueueStep> steps = CompactCodec.decodeQueue(ids, data);
                 ClientMessageManager.enqueueSteps(channel, steps);
             });
         });
+
+        ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.DEFINE_TEMPLATE_PACKET, (client, handler, buf, responseSender) -> {
+            String templateId = buf.readUtf();
+            byte[] data = buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE);
+            client.execute(() -> ClientTemplateCache.define(templateId, data));
+        });
+
+        ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.OPEN_TEMPLATE_PACKET, (client, handler, buf, responseSender) -> {
+            UUID id = buf.readUUID();
+            String templateId = buf.readUtf();
+            List<String> args = SerializationUtil.readStringList(buf, MessageTemplate.MAX_ARGS);
+
+            client.execute(() -> {
+                ImmersiveMessage message = ClientTemplateCache.fill(templateId, args);
+                if (message != null) {
+                    ClientMessageManager.open(id, message);
+                }
+            });
+        });
     }
 }
@@ -1,24 +1,30 @@
 package net.tysontheember.emberstextapi.network.fabric.packets;
 
 import io.netty.buffer.Unpooled;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
+import net.tysontheember.emberstextapi.serialization.SerializationUtil;
 
 import java.util.List;
 import java.util.UUID;
 
 public class FabricPacketCodecs {
-    public static FriendlyByteBuf encodeOpenMessage(UUID id, CompoundTag data) {
+    public static FriendlyByteBuf encodeOpenMessage(UUID id, byte[] data) {
         FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
         buf.writeUUID(id);
-        buf.writeNbt(data);
+        buf.writeByteArray(data);
         return buf;
     }
 
-    public static FriendlyByteBuf encodeUpdateMessage(UUID id, CompoundTag data) {
+    public static FriendlyByteBuf encodeUpdateMessage(UUID id, byte[] data) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeUUID(id);
+        buf.writeByteArray(data);
+        return buf;
+    }
+
+    public static FriendlyByteBuf encodeResyncMessage(UUID id) {
         FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
         buf.writeUUID(id);
-        buf.writeNbt(data);
         return buf;
     }
 
@@ -44,19 +50,32 @@ public class FabricPacketCodecs {
         return buf;
     }
 
-    public static FriendlyByteBuf encodeOpenQueue(String channel, List<List<UUID>> ids, List<List<CompoundTag>> stepData) {
+    public static FriendlyByteBuf encodeOpenQueue(String channel, List<List<UUID>> ids, byte[] data) {
         FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
         buf.writeUtf(channel);
-        buf.writeVarInt(stepData.size());
-        for (int s = 0; s < stepData.size(); s++) {
-            List<UUID> stepIds = ids.get(s);
-            List<CompoundTag> msgs = stepData.get(s);
-            buf.writeVarInt(msgs.size());
-            for (int m = 0; m < msgs.size(); m++) {
-                buf.writeUUID(stepIds.get(m));
-                buf.writeNbt(msgs.get(m));
+        buf.writeVarInt(ids.size());
+        for (List<UUID> stepIds : ids) {
+            buf.writeVarInt(stepIds.size());
+            for (UUID id : stepIds) {
+                buf.writeUUID(id);
             }
         }
+        buf.writeByteArray(data);
+        return buf;
+    }
+
+    public static FriendlyByteBuf encodeDefineTemplate(String templateId, byte[] data) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeUtf(templateId);
+        buf.writeByteArray(data);
+        return buf;
+    }
+
+    public static FriendlyByteBuf encodeOpenTemplate(UUID id, String templateId, List<String> args) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeUUID(id);
+        buf.writeUtf(templateId);
+        SerializationUtil.writeStringList(buf, args);
         return buf;
     }
 }
@@ -1,11 +1,15 @@
 package net.tysontheember.emberstextapi.fabric;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.tysontheember.emberstextapi.chat.FabricChatMarkupHandler;
 import net.tysontheember.emberstextapi.commands.FabricCommands;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.attr.MessageAttributeRegistry;
+import net.tysontheember.emberstextapi.network.TemplateRegistry;
+import net.tysontheember.emberstextapi.network.UpdateTracker;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
 import net.tysontheember.emberstextapi.platform.NetworkHelper;
 import org.slf4j.Logger;
@@ -26,6 +30,11 @@ public class EmbersTextAPIFabric implements ModInitializer {
         MessageAttributeRegistry.initializeDefaultAttributes();
 
         NetworkHelper.getInstance().register();
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            TemplateRegistry.forget(handler.player.getUUID());
+            UpdateTracker.forget(handler.player.getUUID());
+        });
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> TemplateRegistry.forgetAll());
 
         FabricCommands.register();
 
@@ -63,9 +63,7 @@ public class FabricMessageCommands {
             msg = ImmersiveMessage.builder(duration, text);
         }
 
-        for (ServerPlayer target : targets) {
-            NetworkHelper.getInstance().sendMessage(target, msg);
-        }
+        NetworkHelper.getInstance().broadcastMessage(targets, msg);
         return Command.SINGLE_SUCCESS;
     }
 
@@ -112,9 +110,7 @@ public class FabricMessageCommands {
                                 steps.add(stepMsgs);
                             }
 
-                            for (ServerPlayer target : targets) {
-                                NetworkHelper.getInstance().sendQueue(target, channel, steps);
-                            }
+                            NetworkHelper.getInstance().broadcastQueue(targets, channel, steps);
                             return Command.SINGLE_SUCCESS;
                         }))));
     }
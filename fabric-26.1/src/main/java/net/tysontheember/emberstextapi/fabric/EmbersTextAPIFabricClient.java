@@ -2,9 +2,11 @@ package net.tysontheember.emberstextapi.fabric;
 
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.hud.HudElementRegistry;
 import net.minecraft.resources.Identifier;
 import net.tysontheember.emberstextapi.client.ClientMessageManager;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
 import net.tysontheember.emberstextapi.immersivemessages.api.FontAliasRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectRegistry;
@@ -23,6 +25,7 @@ public class EmbersTextAPIFabricClient implements ClientModInitializer {
         EmbersTextAPIFabric.LOGGER.info("Initialized visual effects system");
 
         FabricClientPacketHandlers.register();
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> ClientTemplateCache.clear());
 
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             ClientMessageManager.tick(client);
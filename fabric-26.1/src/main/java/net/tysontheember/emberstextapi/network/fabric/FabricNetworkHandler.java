@@ -2,7 +2,7 @@ package net.tysontheember.emberstextapi.network.fabric;
 
 import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.core.HolderLookup;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
@@ -10,10 +10,16 @@ import net.minecraft.resources.Identifier;
 import net.minecraft.server.level.ServerPlayer;
 import net.tysontheember.emberstextapi.fabric.EmbersTextAPIFabric;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
 import net.tysontheember.emberstextapi.network.NetworkHandler;
+import net.tysontheember.emberstextapi.network.TemplateRegistry;
+import net.tysontheember.emberstextapi.network.UpdateTracker;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
+import net.tysontheember.emberstextapi.serialization.SerializationUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -41,6 +47,12 @@ public final class FabricNetworkHandler implements NetworkHandler {
         PayloadTypeRegistry.clientboundPlay().register(OpenQueuePayload.TYPE, OpenQueuePayload.STREAM_CODEC);
         PayloadTypeRegistry.clientboundPlay().register(ClearQueuePayload.TYPE, ClearQueuePayload.STREAM_CODEC);
         PayloadTypeRegistry.clientboundPlay().register(StopQueuePayload.TYPE, StopQueuePayload.STREAM_CODEC);
+        PayloadTypeRegistry.clientboundPlay().register(DefineTemplatePayload.TYPE, DefineTemplatePayload.STREAM_CODEC);
+        PayloadTypeRegistry.clientboundPlay().register(OpenTemplatePayload.TYPE, OpenTemplatePayload.STREAM_CODEC);
+        PayloadTypeRegistry.serverboundPlay().register(ResyncMessagePayload.TYPE, ResyncMessagePayload.STREAM_CODEC);
+
+        ServerPlayNetworking.registerGlobalReceiver(ResyncMessagePayload.TYPE, (payload, context) ->
+            context.server().execute(() -> resendMessage(context.player(), payload.messageId())));
 
         EmbersTextAPIFabric.LOGGER.info("Fabric network handler registered");
     }
@@ -53,41 +65,51 @@ public final class FabricNetworkHandler implements NetworkHandler {
     @Override
     public void sendOpenMessage(ServerPlayer player, ImmersiveMessage message) {
         UUID id = UUID.randomUUID();
-        CompoundTag data = message.toNbt(player.registryAccess());
+        byte[] data = CompactCodec.encode(message, player.registryAccess());
         ServerPlayNetworking.send(player, new OpenMessagePayload(id, data));
     }
 
     @Override
     public void sendUpdateMessage(ServerPlayer player, String messageId, ImmersiveMessage message) {
-        CompoundTag data = message.toNbt(player.registryAccess());
+        byte[] data = UpdateTracker.encode(player.getUUID(), messageId, message, player.registryAccess());
         ServerPlayNetworking.send(player, new UpdateMessagePayload(messageId, data));
     }
 
+    /** Resends a message in full to a client that asked for it, if it is still open here. */
+    public void resendMessage(ServerPlayer player, String messageId) {
+        byte[] data = UpdateTracker.resync(player.getUUID(), messageId, player.registryAccess());
+        if (data != null) {
+            ServerPlayNetworking.send(player, new UpdateMessagePayload(messageId, data));
+        }
+    }
+
     @Override
     public void sendCloseMessage(ServerPlayer player, String messageId) {
+        UpdateTracker.forget(player.getUUID(), messageId);
         ServerPlayNetworking.send(player, new CloseMessagePayload(messageId));
     }
 
     @Override
     public void sendCloseAllMessages(ServerPlayer player) {
+        UpdateTracker.forget(player.getUUID());
         ServerPlayNetworking.send(player, new CloseAllMessagesPayload());
     }
 
     @Override
     public void sendQueue(ServerPlayer player, String channel, List<List<ImmersiveMessage>> steps) {
+        ServerPlayNetworking.send(player, queuePayload(channel, steps, player.registryAccess()));
+    }
+
+    private static OpenQueuePayload queuePayload(String channel, List<List<ImmersiveMessage>> steps, HolderLookup.Provider registries) {
         List<List<UUID>> ids = new ArrayList<>();
-        List<List<CompoundTag>> stepData = new ArrayList<>();
         for (List<ImmersiveMessage> stepMsgs : steps) {
             List<UUID> stepIds = new ArrayList<>();
-            List<CompoundTag> stepNbts = new ArrayList<>();
-            for (ImmersiveMessage msg : stepMsgs) {
+            for (int i = 0; i < stepMsgs.size(); i++) {
                 stepIds.add(UUID.randomUUID());
-                stepNbts.add(msg.toNbt(player.registryAccess()));
             }
             ids.add(stepIds);
-            stepData.add(stepNbts);
         }
-        ServerPlayNetworking.send(player, new OpenQueuePayload(channel, ids, stepData));
+        return new OpenQueuePayload(channel, ids, CompactCodec.encodeQueue(steps, registries));
     }
 
     @Override
@@ -107,19 +129,80 @@ public final class FabricNetworkHandler implements NetworkHandler {
 
     @Override
     public void sendStopAllQueues(ServerPlayer player) {
+        // Stopping every queue closes all of the client's messages, not just queued ones.
+        UpdateTracker.forget(player.getUUID());
         ServerPlayNetworking.send(player, new StopQueuePayload(""));
     }
 
-    public record OpenMessagePayload(UUID id, CompoundTag data) implements CustomPacketPayload {
+    @Override
+    public void broadcastMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        broadcastOpenMessage(players, message);
+    }
+
+    @Override
+    public void broadcastOpenMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        if (!players.isEmpty()) {
+            broadcast(players, new OpenMessagePayload(UUID.randomUUID(), CompactCodec.encode(message, registries(players))));
+        }
+    }
+
+    @Override
+    public void broadcastQueue(Collection<ServerPlayer> players, String channel, List<List<ImmersiveMessage>> steps) {
+        if (!players.isEmpty()) {
+            broadcast(players, queuePayload(channel, steps, registries(players)));
+        }
+    }
+
+    @Override
+    public void sendTemplate(ServerPlayer player, MessageTemplate template, List<String> args) {
+        if (TemplateRegistry.markSent(player.getUUID(), template)) {
+            ServerPlayNetworking.send(player, defineTemplatePayload(template, player.registryAccess()));
+        }
+        ServerPlayNetworking.send(player, new OpenTemplatePayload(UUID.randomUUID(), template.id(), args));
+    }
+
+    @Override
+    public void broadcastTemplate(Collection<ServerPlayer> players, MessageTemplate template, List<String> args) {
+        if (players.isEmpty()) {
+            return;
+        }
+        List<ServerPlayer> missing = new ArrayList<>();
+        for (ServerPlayer player : players) {
+            if (TemplateRegistry.markSent(player.getUUID(), template)) {
+                missing.add(player);
+            }
+        }
+        if (!missing.isEmpty()) {
+            broadcast(missing, defineTemplatePayload(template, registries(missing)));
+        }
+        broadcast(players, new OpenTemplatePayload(UUID.randomUUID(), template.id(), args));
+    }
+
+    private static DefineTemplatePayload defineTemplatePayload(MessageTemplate template, HolderLookup.Provider registries) {
+        return new DefineTemplatePayload(template.id(), CompactCodec.encode(template.prototype(), registries));
+    }
+
+    /** Every player on a server shares its registries, so any of them will do for encoding. */
+    private static HolderLookup.Provider registries(Collection<ServerPlayer> players) {
+        return players.iterator().next().registryAccess();
+    }
+
+    private static void broadcast(Collection<ServerPlayer> players, CustomPacketPayload payload) {
+        for (ServerPlayer player : players) {
+            ServerPlayNetworking.send(player, payload);
+        }
+    }
+
+    public record OpenMessagePayload(UUID id, byte[] data) implements CustomPacketPayload {
         public static final CustomPacketPayload.Type<OpenMessagePayload> TYPE =
             new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "open_message"));
 
         public static final StreamCodec<FriendlyByteBuf, OpenMessagePayload> STREAM_CODEC = StreamCodec.of(
             (buf, payload) -> {
                 buf.writeUUID(payload.id);
-                buf.writeNbt(payload.data);
+                buf.writeByteArray(payload.data);
             },
-            buf -> new OpenMessagePayload(buf.readUUID(), buf.readNbt())
+            buf -> new OpenMessagePayload(buf.readUUID(), buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE))
         );
 
         @Override
@@ -128,16 +211,32 @@ public final class FabricNetworkHandler implements NetworkHandler {
         }
     }
 
-    public record UpdateMessagePayload(String messageId, CompoundTag data) implements CustomPacketPayload {
+    public record UpdateMessagePayload(String messageId, byte[] data) implements CustomPacketPayload {
         public static final CustomPacketPayload.Type<UpdateMessagePayload> TYPE =
             new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "update_message"));
 
         public static final StreamCodec<FriendlyByteBuf, UpdateMessagePayload> STREAM_CODEC = StreamCodec.of(
             (buf, payload) -> {
                 buf.writeUtf(payload.messageId);
-                buf.writeNbt(payload.data);
+                buf.writeByteArray(payload.data);
             },
-            buf -> new UpdateMessagePayload(buf.readUtf(), buf.readNbt())
+            buf -> new UpdateMessagePayload(buf.readUtf(), buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE))
+        );
+
+        @Override
+        public @NotNull Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+
+    /** Sent by a client that got a patch for a message it no longer shows, asking for the message in full. */
+    public record ResyncMessagePayload(String messageId) implements CustomPacketPayload {
+        public static final CustomPacketPayload.Type<ResyncMessagePayload> TYPE =
+            new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "resync_message"));
+
+        public static final StreamCodec<FriendlyByteBuf, ResyncMessagePayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> buf.writeUtf(payload.messageId),
+            buf -> new ResyncMessagePayload(buf.readUtf())
         );
 
         @Override
@@ -176,7 +275,7 @@ public final class FabricNetworkHandler implements NetworkHandler {
         }
     }
 
-    public record OpenQueuePayload(String channel, List<List<UUID>> ids, List<List<CompoundTag>> stepData)
+    public record OpenQueuePayload(String channel, List<List<UUID>> ids, byte[] data)
             implements CustomPacketPayload {
 
         public static final CustomPacketPayload.Type<OpenQueuePayload> TYPE =
@@ -186,15 +285,13 @@ public final class FabricNetworkHandler implements NetworkHandler {
             (buf, payload) -> {
                 buf.writeUtf(payload.channel);
                 buf.writeVarInt(payload.ids.size());
-                for (int s = 0; s < payload.ids.size(); s++) {
-                    List<UUID> stepIds = payload.ids.get(s);
-                    List<CompoundTag> stepNbts = payload.stepData.get(s);
+                for (List<UUID> stepIds : payload.ids) {
                     buf.writeVarInt(stepIds.size());
-                    for (int m = 0; m < stepIds.size(); m++) {
-                        buf.writeUUID(stepIds.get(m));
-                        buf.writeNbt(stepNbts.get(m));
+                    for (UUID id : stepIds) {
+                        buf.writeUUID(id);
                     }
                 }
+                buf.writeByteArray(payload.data);
             },
             buf -> {
                 String channel = buf.readUtf();
@@ -203,22 +300,18 @@ public final class FabricNetworkHandler implements NetworkHandler {
                     throw new io.netty.handler.codec.DecoderException("Invalid queue step count: " + stepCount);
                 }
                 List<List<UUID>> ids = new ArrayList<>(stepCount);
-                List<List<CompoundTag>> stepData = new ArrayList<>(stepCount);
                 for (int s = 0; s < stepCount; s++) {
                     int msgCount = buf.readVarInt();
                     if (msgCount < 0 || msgCount > MAX_MESSAGES_PER_STEP) {
                         throw new io.netty.handler.codec.DecoderException("Invalid queue message count: " + msgCount);
                     }
                     List<UUID> stepIds = new ArrayList<>(msgCount);
-                    List<CompoundTag> stepNbts = new ArrayList<>(msgCount);
                     for (int m = 0; m < msgCount; m++) {
                         stepIds.add(buf.readUUID());
-                        stepNbts.add(buf.readNbt());
                     }
                     ids.add(stepIds);
-                    stepData.add(stepNbts);
                 }
-                return new OpenQueuePayload(channel, ids, stepData);
+                return new OpenQueuePayload(channel, ids, buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE));
             }
         );
 
@@ -257,4 +350,42 @@ public final class FabricNetworkHandler implements NetworkHandler {
             return TYPE;
         }
     }
+
+    public record DefineTemplatePayload(String templateId, byte[] data) implements CustomPacketPayload {
+        public static final CustomPacketPayload.Type<DefineTemplatePayload> TYPE =
+            new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "define_template"));
+
+        public static final StreamCodec<FriendlyByteBuf, DefineTemplatePayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> {
+                buf.writeUtf(payload.templateId);
+                buf.writeByteArray(payload.data);
+            },
+            buf -> new DefineTemplatePayload(buf.readUtf(), buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE))
+        );
+
+        @Override
+        public @NotNull Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+
+    public record OpenTemplatePayload(UUID id, String templateId, List<String> args) implements CustomPacketPayload {
+        public static final CustomPacketPayload.Type<OpenTemplatePayload> TYPE =
+            new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "open_template"));
+
+        public static final StreamCodec<FriendlyByteBuf, OpenTemplatePayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> {
+                buf.writeUUID(payload.id);
+                buf.writeUtf(payload.templateId);
+                SerializationUtil.writeStringList(buf, payload.args);
+            },
+            buf -> new OpenTemplatePayload(buf.readUUID(), buf.readUtf(),
+                SerializationUtil.readStringList(buf, MessageTemplate.MAX_ARGS))
+        );
+
+        @Override
+        public @NotNull Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
 }
@@ -2,12 +2,13 @@ package net.tysontheember.emberstextapi.network.fabric.packets;
 
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.tysontheember.emberstextapi.client.ClientMessageManager;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
 import net.tysontheember.emberstextapi.client.QueueStep;
-import net.tysontheember.emberstextapi.client.QueuedMessage;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
 import net.tysontheember.emberstextapi.network.fabric.FabricNetworkHandler;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
+import net.tysontheember.emberstextapi.serialization.MessageDelta;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,7 +17,7 @@ public class FabricClientPacketHandlers {
         ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.OpenMessagePayload.TYPE, (payload, context) -> {
             context.client().execute(() -> {
                 if (payload.data() != null) {
-                    ImmersiveMessage message = ImmersiveMessage.fromNbt(payload.data(), context.player().registryAccess());
+                    ImmersiveMessage message = CompactCodec.decode(payload.data(), context.player().registryAccess());
                     ClientMessageManager.open(payload.id(), message);
                 }
             });
@@ -26,8 +27,9 @@ public class FabricClientPacketHandlers {
             context.client().execute(() -> {
                 if (payload.data() != null) {
                     UUID id = UUID.fromString(payload.messageId());
-                    ImmersiveMessage message = ImmersiveMessage.fromNbt(payload.data(), context.player().registryAccess());
-                    ClientMessageManager.update(id, message);
+                    if (!ClientMessageManager.update(id, MessageDelta.decode(payload.data(), context.player().registryAccess()))) {
+                        context.responseSender().sendPacket(new FabricNetworkHandler.ResyncMessagePayload(payload.messageId()));
+                    }
                 }
             });
         });
@@ -45,21 +47,25 @@ public class FabricClientPacketHandlers {
 
         ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.OpenQueuePayload.TYPE, (payload, context) -> {
             context.client().execute(() -> {
-                List<QueueStep> steps = new ArrayList<>();
-                for (int s = 0; s < payload.ids().size(); s++) {
-                    List<UUID> stepIds = payload.ids().get(s);
-                    List<net.minecraft.nbt.CompoundTag> stepNbts = payload.stepData().get(s);
-                    List<QueuedMessage> messages = new ArrayList<>();
-                    for (int m = 0; m < stepIds.size(); m++) {
-                        ImmersiveMessage msg = ImmersiveMessage.fromNbt(stepNbts.get(m), context.player().registryAccess());
-                        messages.add(new QueuedMessage(stepIds.get(m), msg));
-                    }
-                    steps.add(new QueueStep(messages));
-                }
+                List<QueueStep> steps = CompactCodec.decodeQueue(payload.ids(), payload.data(), context.player().registryAccess());
                 ClientMessageManager.enqueueSteps(payload.channel(), steps);
             });
         });
 
+        ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.DefineTemplatePayload.TYPE, (payload, context) -> {
+            context.client().execute(() ->
+                ClientTemplateCache.define(payload.templateId(), payload.data(), context.player().registryAccess()));
+        });
+
+        ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.OpenTemplatePayload.TYPE, (payload, context) -> {
+            context.client().execute(() -> {
+                ImmersiveMessage message = ClientTemplateCache.fill(payload.templateId(), payload.args());
+                if (message != null) {
+                    ClientMessageManager.open(payload.id(), message);
+                }
+            });
+        });
+
         ClientPlayNetworking.registerGlobalReceiver(FabricNetworkHandler.ClearQueuePayload.TYPE, (payload, context) -> {
             context.client().execute(() -> {
                 if (payload.channel().isEmpty()) {
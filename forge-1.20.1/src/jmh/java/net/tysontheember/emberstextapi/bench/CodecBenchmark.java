@@ -0,0 +1,119 @@
+package net.tysontheember.emberstextapi.bench;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParser;
+import net.tysontheember.emberstextapi.immersivemessages.api.TextSpan;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
+import net.tysontheember.emberstextapi.serialization.TextSpanCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private static final String MARKUP = "<color value=#FFD700><bold>Legendary Sword</bold></color> "
+            + "<grad colors=#FF0000,#FFAA00>+12 Attack Damage</grad> <neon>Soulbound</neon> "
+            + "<typewriter speed=2><wave a=1.5>The ancient gate</wave> awaits</typewriter> "
+            + "<shake>beyond</shake> <rainbow>the Keeper</rainbow>";
+
+    /** Queue steps are usually variations on one styled line, so fonts, colors and effects repeat. */
+    private static final int QUEUE_LENGTH = 8;
+
+    private List<TextSpan> spans;
+    private ImmersiveMessage message;
+    private List<ImmersiveMessage> queue;
+    private FriendlyByteBuf buf;
+
+    @Setup
+    public void setup() {
+        EffectRegistry.initializeDefaultEffects();
+        spans = MarkupParser.parse(MARKUP);
+        message = ImmersiveMessage.fromMarkup(100f, MARKUP);
+        queue = new ArrayList<>();
+        for (int i = 0; i < QUEUE_LENGTH; i++) {
+            queue.add(ImmersiveMessage.fromMarkup(60f, "<font id=minecraft:uniform><grad colors=#FF0000,#FFAA00>"
+                    + "<wave a=1.5>Line " + i + "</wave></grad> of the <shake>tale</shake></font>").background(true));
+        }
+        buf = new FriendlyByteBuf(Unpooled.buffer(16384));
+    }
+
+    @Benchmark
+    public void spanRoundTrip(Blackhole bh) {
+        buf.clear();
+        for (TextSpan span : spans) {
+            TextSpanCodec.encode(span, buf);
+        }
+        bh.consume(buf.writerIndex());
+        for (int i = 0; i < spans.size(); i++) {
+            bh.consume(TextSpanCodec.decode(buf));
+        }
+    }
+
+    @Benchmark
+    public ImmersiveMessage messageRoundTrip(Blackhole bh) {
+        buf.clear();
+        message.encode(buf);
+        bh.consume(buf.writerIndex());
+        return ImmersiveMessage.decode(buf);
+    }
+
+    @Benchmark
+    public ImmersiveMessage nbtRoundTrip(Blackhole bh) {
+        buf.clear();
+        buf.writeNbt(message.toNbt());
+        bh.consume(buf.writerIndex());
+        return ImmersiveMessage.fromNbt(buf.readNbt());
+    }
+
+    @Benchmark
+    public ImmersiveMessage compactRoundTrip(Blackhole bh) {
+        buf.clear();
+        CompactCodec.writeMessage(message, buf);
+        bh.consume(buf.writerIndex());
+        return CompactCodec.readMessage(buf);
+    }
+
+    @Benchmark
+    public void queueNbtRoundTrip(Blackhole bh) {
+        buf.clear();
+        for (ImmersiveMessage queued : queue) {
+            buf.writeNbt(queued.toNbt());
+        }
+        bh.consume(buf.writerIndex());
+        for (int i = 0; i < QUEUE_LENGTH; i++) {
+            bh.consume(ImmersiveMessage.fromNbt(buf.readNbt()));
+        }
+    }
+
+    @Benchmark
+    public void queueLegacyRoundTrip(Blackhole bh) {
+        buf.clear();
+        for (ImmersiveMessage queued : queue) {
+            queued.encode(buf);
+        }
+        bh.consume(buf.writerIndex());
+        for (int i = 0; i < QUEUE_LENGTH; i++) {
+            bh.consume(ImmersiveMessage.decode(buf));
+        }
+    }
+
+    @Benchmark
+    public List<ImmersiveMessage> queueCompactRoundTrip(Blackhole bh) {
+        buf.clear();
+        CompactCodec.write(queue, buf);
+        bh.consume(buf.writerIndex());
+        return CompactCodec.read(buf);
+    }
+}
@@ -0,0 +1,59 @@
+package net.tysontheember.emberstextapi.bench;
+
+import net.tysontheember.emberstextapi.immersivemessages.effects.AnimationClock;
+import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettings;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectSettingsArena;
+import net.tysontheember.emberstextapi.util.EffectApplicator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One op = one 64-glyph line pushed through {@link EffectApplicator#applyEffects}, including sibling
+ * glyphs spawned by effects such as neon and shadow.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffectApplyBenchmark {
+
+    private static final int GLYPHS = 64;
+
+    @Param({"rainbow", "grad", "color", "pulse", "fade", "wave", "bounce", "swing", "turb", "shake",
+            "circle", "wiggle", "pend", "glitch", "neon", "shadow", "scroll", "typewriter", "obfuscate"})
+    public String effect;
+
+    private List<Effect> effects;
+    private EffectSettingsArena arena;
+
+    @Setup
+    public void setup() {
+        EffectRegistry.initializeDefaultEffects();
+        effects = List.of(EffectRegistry.parseTag(effect));
+        arena = EffectSettingsArena.current();
+        AnimationClock.beginFrame();
+    }
+
+    @Benchmark
+    public void applyLine(Blackhole bh) {
+        AnimationClock.beginFrame();
+        float x = 0f;
+        for (int i = 0; i < GLYPHS; i++) {
+            int mark = arena.mark();
+            EffectSettings settings = arena.acquire(x, 0f, 1f, 1f, 1f, 1f, i, 'a' + (i % 26), false);
+            settings.charAdvance = 6f;
+            EffectApplicator.applyEffects(effects, settings);
+            bh.consume(settings.x + settings.y + settings.a);
+            bh.consume(settings.getSiblingsOrEmpty().size());
+            arena.release(mark);
+            x += 6f;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package net.tysontheember.emberstextapi.bench;
+
+import net.tysontheember.emberstextapi.sdf.EdgeColoring;
+import net.tysontheember.emberstextapi.sdf.FreeTypeManager;
+import net.tysontheember.emberstextapi.sdf.GlyphOutline;
+import net.tysontheember.emberstextapi.sdf.MSDFGenerator;
+import net.tysontheember.emberstextapi.sdf.SDFConfig;
+import org.lwjgl.system.MemoryUtil;
+import org.lwjgl.util.freetype.FT_Face;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MSDF generation for real glyph outlines from the bundled fonts, sized the way
+ * {@code SDFGlyphInfo} sizes them at the default config. FreeType is only used in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MSDFGenerateBenchmark {
+
+    private static final String GLYPHS = "AgQ&8@Rsw";
+
+    @Param({"cinzel.ttf", "cardo.ttf", "norse.otf"})
+    public String font;
+
+    private final List<Job> jobs = new ArrayList<>();
+    private ByteBuffer fontData;
+    private FT_Face face;
+
+    private record Job(GlyphOutline outline, EdgeColoring.ColoredContour[] colored, int texW, int texH, float pxRange) {
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        FreeTypeManager ft = FreeTypeManager.getInstance();
+        if (!ft.isAvailable()) {
+            throw new IllegalStateException("FreeType natives are required for the MSDF benchmark");
+        }
+
+        byte[] bytes;
+        try (InputStream in = MSDFGenerateBenchmark.class.getResourceAsStream("/assets/emberstextapi/font/" + font)) {
+            if (in == null) {
+                throw new IOException("Missing bundled font " + font);
+            }
+            bytes = in.readAllBytes();
+        }
+        fontData = MemoryUtil.memAlloc(bytes.length);
+        fontData.put(bytes).flip();
+        face = ft.loadFace(fontData);
+
+        SDFConfig config = SDFConfig.defaults();
+        float pxRange = config.pxRange();
+        int padPx = (int) Math.ceil(pxRange);
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            GlyphOutline outline = ft.extractOutline(face, ft.getCharIndex(face, GLYPHS.charAt(i)));
+            if (outline == null || outline.contours().isEmpty()) {
+                continue;
+            }
+            int sdfRes = config.sdfResolution();
+            int texW, texH;
+            if (outline.width() >= outline.height()) {
+                texW = sdfRes;
+                texH = Math.max(1, Math.round(sdfRes * outline.height() / outline.width()));
+            } else {
+                texH = sdfRes;
+                texW = Math.max(1, Math.round(sdfRes * outline.width() / outline.height()));
+            }
+            jobs.add(new Job(outline, EdgeColoring.colorEdges(outline, config.angleThreshold()),
+                    texW + 2 * padPx, texH + 2 * padPx, pxRange));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (face != null) {
+            FreeTypeManager.getInstance().closeFace(face);
+            face = null;
+        }
+        if (fontData != null) {
+            MemoryUtil.memFree(fontData);
+            fontData = null;
+        }
+        jobs.clear();
+    }
+
+    @Benchmark
+    public void generate(Blackhole bh) {
+        for (Job job : jobs) {
+            GlyphOutline o = job.outline();
+            bh.consume(MSDFGenerator.generate(o, job.colored(), job.texW(), job.texH(),
+                    o.minX(), o.minY(), o.maxX(), o.maxY(), job.pxRange()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package net.tysontheember.emberstextapi.bench;
+
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParser;
+import net.tysontheember.emberstextapi.immersivemessages.api.TextSpan;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkupParseBenchmark {
+
+    @Param({"plain", "tooltip", "quest", "nested"})
+    public String input;
+
+    private String markup;
+
+    @Setup
+    public void setup() {
+        EffectRegistry.initializeDefaultEffects();
+        markup = switch (input) {
+            case "plain" -> "A sturdy blade forged in the depths of the Nether. Deals extra damage to undead.";
+            case "tooltip" -> "<color value=#FFD700><bold>Legendary Sword</bold></color>\n"
+                    + "<grad colors=#FF0000,#FFAA00>+12 Attack Damage</grad>\n"
+                    + "<neon>Soulbound</neon> <i>Cannot be dropped</i>\n"
+                    + "<c value=#AAAAAA>Durability: 1561 / 1561</c>";
+            case "quest" -> "<typewriter speed=2><wave a=1.5>The ancient gate</wave> awaits beyond the "
+                    + "<shake>crimson forest</shake>.</typewriter> Bring <item id=minecraft:diamond count=3/> "
+                    + "and speak to <rainbow>the Keeper</rainbow>. <click action=run_command value=\"/quest accept\">"
+                    + "<u>Accept</u></click> <hover text=\"Abandons all progress\"><s>Decline</s></hover>";
+            case "nested" -> "<bold><color value=#55FFFF><wave><pulse><glitch>Deeply</glitch> nested</pulse> "
+                    + "<neon><fade>markup</fade></neon></wave> with <obfuscate>secrets</obfuscate></color></bold>";
+            default -> throw new IllegalArgumentException(input);
+        };
+    }
+
+    @Benchmark
+    public List<TextSpan> parse() {
+        return MarkupParser.parse(markup);
+    }
+}
@@ -5,6 +5,7 @@ import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
@@ -12,6 +13,7 @@ import net.minecraftforge.client.event.RegisterShadersEvent;
 import org.slf4j.Logger;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
 import net.tysontheember.emberstextapi.immersivemessages.api.FontAliasRegistry;
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.attr.MessageAttributeRegistry;
@@ -32,6 +34,7 @@ public class EmbersTextAPI
         IEventBus modEventBus = FMLJavaModLoadingContext.get().getModEventBus();
 
         modEventBus.addListener(this::commonSetup);
+        modEventBus.addListener(this::onConfigReload);
         ConfigHelper.getInstance().register();
     }
 
@@ -40,6 +43,12 @@ public class EmbersTextAPI
         NetworkHelper.getInstance().register();
     }
 
+    private void onConfigReload(final ModConfigEvent.Reloading event)
+    {
+        // Parsed markup and interned effects bake in whether each effect is disabled.
+        MarkupParseCache.invalidate();
+    }
+
     public static void sendMessage(net.minecraft.server.level.ServerPlayer player, ImmersiveMessage message) {
         NetworkHelper.getInstance().sendMessage(player, message);
     }
@@ -33,6 +33,7 @@ public class ModConfig {
 
     public static final ForgeConfigSpec.BooleanValue REDUCE_MOTION;
     public static final ForgeConfigSpec.IntValue MAX_NEON_QUALITY;
+    public static final ForgeConfigSpec.DoubleValue EFFECT_FRAME_BUDGET_MS;
 
     public static final ForgeConfigSpec.IntValue TEXT_LAYOUT_CACHE_SIZE;
     public static final ForgeConfigSpec.BooleanValue SDF_ENABLED;
@@ -107,6 +108,10 @@ public class ModConfig {
             .comment("Caps neon/glow quality. 1=fast(6 samples), 2=balanced(12), 3=quality(20). Lower for better performance.")
             .defineInRange("maxNeonQuality", 3, 1, 3);
 
+        EFFECT_FRAME_BUDGET_MS = CLIENT_BUILDER
+            .comment("Milliseconds per frame text effects may use. When exceeded, neon, glitch and sibling effects step down in quality until there is headroom again. 0 = never step down.")
+            .defineInRange("effectFrameBudgetMs", 2.0, 0.0, 100.0);
+
         CLIENT_BUILDER.pop();
 
         CLIENT_BUILDER.comment("Limits").push("limits");
@@ -226,6 +231,14 @@ public class ModConfig {
         }
     }
 
+    public static double getEffectFrameBudgetMs() {
+        try {
+            return EFFECT_FRAME_BUDGET_MS.get();
+        } catch (Exception e) {
+            return 2.0;
+        }
+    }
+
     public static int getTextLayoutCacheSize() {
         try {
             return TEXT_LAYOUT_CACHE_SIZE.get();
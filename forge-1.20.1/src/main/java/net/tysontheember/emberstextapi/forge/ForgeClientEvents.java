@@ -2,12 +2,14 @@ package net.tysontheember.emberstextapi.forge;
 
 import net.minecraft.client.Minecraft;
 import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.client.event.RegisterGuiOverlaysEvent;
 import net.minecraftforge.client.gui.overlay.VanillaGuiOverlay;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.tysontheember.emberstextapi.client.ClientMessageManager;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
 
 @Mod.EventBusSubscriber(modid = "emberstextapi", bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
 public class ForgeClientEvents {
@@ -19,6 +21,11 @@ public class ForgeClientEvents {
         ClientMessageManager.tick(Minecraft.getInstance());
     }
 
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        ClientTemplateCache.clear();
+    }
+
     @Mod.EventBusSubscriber(modid = "emberstextapi", bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
     public static class ForgeClientOverlays {
         @SubscribeEvent
@@ -81,6 +81,11 @@ public class ForgeConfigHelper implements ConfigHelper {
         return ModConfig.getMaxNeonQuality();
     }
 
+    @Override
+    public double getEffectFrameBudgetMs() {
+        return ModConfig.getEffectFrameBudgetMs();
+    }
+
     @Override
     public int getTextLayoutCacheSize() {
         return ModConfig.getTextLayoutCacheSize();
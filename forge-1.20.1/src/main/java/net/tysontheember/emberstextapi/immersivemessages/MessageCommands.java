@@ -155,9 +155,7 @@ public class MessageCommands {
             msg = ImmersiveMessage.builder(duration, text);
         }
 
-        for (ServerPlayer target : targets) {
-            EmbersTextAPI.sendMessage(target, msg);
-        }
+        NetworkHelper.getInstance().broadcastMessage(targets, msg);
         return Command.SINGLE_SUCCESS;
     }
 
@@ -204,9 +202,7 @@ public class MessageCommands {
                                 steps.add(stepMsgs);
                             }
 
-                            for (ServerPlayer target : targets) {
-                                NetworkHelper.getInstance().sendQueue(target, channel, steps);
-                            }
+                            NetworkHelper.getInstance().broadcastQueue(targets, channel, steps);
                             return Command.SINGLE_SUCCESS;
                         }))));
     }
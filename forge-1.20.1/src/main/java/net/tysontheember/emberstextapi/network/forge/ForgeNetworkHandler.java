@@ -1,22 +1,28 @@
 package net.tysontheember.emberstextapi.network.forge;
 
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.network.simple.SimpleChannel;
 import net.tysontheember.emberstextapi.EmbersTextAPI;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
 import net.tysontheember.emberstextapi.network.NetworkHandler;
+import net.tysontheember.emberstextapi.network.TemplateRegistry;
+import net.tysontheember.emberstextapi.network.UpdateTracker;
 import net.tysontheember.emberstextapi.network.forge.packets.*;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public final class ForgeNetworkHandler implements NetworkHandler {
-    private static final String PROTOCOL = "5";
+    private static final String PROTOCOL = "9";
     private static final ResourceLocation ID = new ResourceLocation(EmbersTextAPI.MODID, "tooltip");
 
     public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
@@ -45,7 +51,10 @@ public final class ForgeNetworkHandler implements NetworkHandler {
         CHANNEL.registerMessage(id++, S2C_CloseAllMessagesPacket.class, S2C_CloseAllMessagesPacket::encode, S2C_CloseAllMessagesPacket::decode, S2C_CloseAllMessagesPacket::handle);
         CHANNEL.registerMessage(id++, S2C_ClearQueuePacket.class, S2C_ClearQueuePacket::encode, S2C_ClearQueuePacket::decode, S2C_ClearQueuePacket::handle);
         CHANNEL.registerMessage(id++, S2C_OpenQueuePacket.class, S2C_OpenQueuePacket::encode, S2C_OpenQueuePacket::decode, S2C_OpenQueuePacket::handle);
-        CHANNEL.registerMessage(id, S2C_StopQueuePacket.class, S2C_StopQueuePacket::encode, S2C_StopQueuePacket::decode, S2C_StopQueuePacket::handle);
+        CHANNEL.registerMessage(id++, S2C_StopQueuePacket.class, S2C_StopQueuePacket::encode, S2C_StopQueuePacket::decode, S2C_StopQueuePacket::handle);
+        CHANNEL.registerMessage(id++, S2C_DefineTemplatePacket.class, S2C_DefineTemplatePacket::encode, S2C_DefineTemplatePacket::decode, S2C_DefineTemplatePacket::handle);
+        CHANNEL.registerMessage(id++, S2C_OpenTemplatePacket.class, S2C_OpenTemplatePacket::encode, S2C_OpenTemplatePacket::decode, S2C_OpenTemplatePacket::handle);
+        CHANNEL.registerMessage(id, C2S_ResyncMessagePacket.class, C2S_ResyncMessagePacket::encode, C2S_ResyncMessagePacket::decode, C2S_ResyncMessagePacket::handle);
     }
 
     @Override
@@ -56,41 +65,51 @@ public final class ForgeNetworkHandler implements NetworkHandler {
     @Override
     public void sendOpenMessage(ServerPlayer player, ImmersiveMessage message) {
         UUID id = UUID.randomUUID();
-        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_OpenMessagePacket(id, message.toNbt()));
+        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_OpenMessagePacket(id, CompactCodec.encode(message)));
     }
 
     @Override
     public void sendUpdateMessage(ServerPlayer player, String id, ImmersiveMessage message) {
         UUID uuid = UUID.fromString(id);
-        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_UpdateMessagePacket(uuid, message.toNbt()));
+        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_UpdateMessagePacket(uuid, UpdateTracker.encode(player.getUUID(), id, message)));
+    }
+
+    /** Resends a message in full to a client that asked for it, if it is still open here. */
+    public void resendMessage(ServerPlayer player, UUID id) {
+        byte[] data = UpdateTracker.resync(player.getUUID(), id.toString());
+        if (data != null) {
+            CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_UpdateMessagePacket(id, data));
+        }
     }
 
     @Override
     public void sendCloseMessage(ServerPlayer player, String id) {
         UUID uuid = UUID.fromString(id);
+        UpdateTracker.forget(player.getUUID(), id);
         CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_CloseMessagePacket(uuid));
     }
 
     @Override
     public void sendCloseAllMessages(ServerPlayer player) {
+        UpdateTracker.forget(player.getUUID());
         CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_CloseAllMessagesPacket());
     }
 
     @Override
     public void sendQueue(ServerPlayer player, String channel, List<List<ImmersiveMessage>> steps) {
+        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), queuePacket(channel, steps));
+    }
+
+    private static S2C_OpenQueuePacket queuePacket(String channel, List<List<ImmersiveMessage>> steps) {
         List<List<UUID>> ids = new ArrayList<>();
-        List<List<CompoundTag>> stepData = new ArrayList<>();
         for (List<ImmersiveMessage> step : steps) {
             List<UUID> stepIds = new ArrayList<>();
-            List<CompoundTag> msgs = new ArrayList<>();
-            for (ImmersiveMessage msg : step) {
+            for (int i = 0; i < step.size(); i++) {
                 stepIds.add(UUID.randomUUID());
-                msgs.add(msg.toNbt());
             }
             ids.add(stepIds);
-            stepData.add(msgs);
         }
-        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_OpenQueuePacket(channel, ids, stepData));
+        return new S2C_OpenQueuePacket(channel, ids, CompactCodec.encodeQueue(steps));
     }
 
     @Override
@@ -110,6 +129,66 @@ public final class ForgeNetworkHandler implements NetworkHandler {
 
     @Override
     public void sendStopAllQueues(ServerPlayer player) {
+        // Stopping every queue closes all of the client's messages, not just queued ones.
+        UpdateTracker.forget(player.getUUID());
         CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_StopQueuePacket(""));
     }
+
+    @Override
+    public void broadcastMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        if (!players.isEmpty()) {
+            broadcast(players, new TooltipPacket(message));
+        }
+    }
+
+    @Override
+    public void broadcastOpenMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        if (!players.isEmpty()) {
+            broadcast(players, new S2C_OpenMessagePacket(UUID.randomUUID(), CompactCodec.encode(message)));
+        }
+    }
+
+    @Override
+    public void broadcastQueue(Collection<ServerPlayer> players, String channel, List<List<ImmersiveMessage>> steps) {
+        if (!players.isEmpty()) {
+            broadcast(players, queuePacket(channel, steps));
+        }
+    }
+
+    @Override
+    public void sendTemplate(ServerPlayer player, MessageTemplate template, List<String> args) {
+        if (TemplateRegistry.markSent(player.getUUID(), template)) {
+            CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), defineTemplatePacket(template));
+        }
+        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new S2C_OpenTemplatePacket(UUID.randomUUID(), template.id(), args));
+    }
+
+    @Override
+    public void broadcastTemplate(Collection<ServerPlayer> players, MessageTemplate template, List<String> args) {
+        if (players.isEmpty()) {
+            return;
+        }
+        List<ServerPlayer> missing = new ArrayList<>();
+        for (ServerPlayer player : players) {
+            if (TemplateRegistry.markSent(player.getUUID(), template)) {
+                missing.add(player);
+            }
+        }
+        if (!missing.isEmpty()) {
+            broadcast(missing, defineTemplatePacket(template));
+        }
+        broadcast(players, new S2C_OpenTemplatePacket(UUID.randomUUID(), template.id(), args));
+    }
+
+    private static S2C_DefineTemplatePacket defineTemplatePacket(MessageTemplate template) {
+        return new S2C_DefineTemplatePacket(template.id(), CompactCodec.encode(template.prototype()));
+    }
+
+    /** Encodes {@code packet} into a vanilla packet once and sends that same packet to every player. */
+    private static void broadcast(Collection<ServerPlayer> players, Object packet) {
+        Packet<?> encoded = CHANNEL.toVanillaPacket(packet, NetworkDirection.PLAY_TO_CLIENT);
+        for (ServerPlayer player : players) {
+            player.connection.send(encoded);
+        }
+    }
 }
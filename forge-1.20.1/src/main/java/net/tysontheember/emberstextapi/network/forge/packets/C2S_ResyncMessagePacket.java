@@ -0,0 +1,34 @@
+package net.tysontheember.emberstextapi.network.forge.packets;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkEvent;
+import net.tysontheember.emberstextapi.network.forge.ForgeNetworkHandler;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/** Sent by a client that got a patch for a message it no longer shows, asking for the message in full. */
+public record C2S_ResyncMessagePacket(UUID id) {
+    public static void encode(C2S_ResyncMessagePacket packet, FriendlyByteBuf buf) {
+        buf.writeUUID(packet.id);
+    }
+
+    public static C2S_ResyncMessagePacket decode(FriendlyByteBuf buf) {
+        return new C2S_ResyncMessagePacket(buf.readUUID());
+    }
+
+    public static void handle(C2S_ResyncMessagePacket packet, Supplier<NetworkEvent.Context> ctx) {
+        NetworkEvent.Context context = ctx.get();
+        if (context.getDirection() == NetworkDirection.PLAY_TO_SERVER) {
+            context.enqueueWork(() -> {
+                ServerPlayer player = context.getSender();
+                if (player != null) {
+                    ForgeNetworkHandler.getInstance().resendMessage(player, packet.id);
+                }
+            });
+        }
+        context.setPacketHandled(true);
+    }
+}
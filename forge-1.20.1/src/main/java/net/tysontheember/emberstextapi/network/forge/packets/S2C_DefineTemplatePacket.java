@@ -0,0 +1,30 @@
+package net.tysontheember.emberstextapi.network.forge.packets;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkEvent;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
+
+import java.util.function.Supplier;
+
+/** Sends a message template's prototype, as a {@link CompactCodec} payload, for later argument-only sends. */
+public record S2C_DefineTemplatePacket(String templateId, byte[] data) {
+    public static void encode(S2C_DefineTemplatePacket packet, FriendlyByteBuf buf) {
+        buf.writeUtf(packet.templateId);
+        buf.writeByteArray(packet.data);
+    }
+
+    public static S2C_DefineTemplatePacket decode(FriendlyByteBuf buf) {
+        String templateId = buf.readUtf();
+        return new S2C_DefineTemplatePacket(templateId, buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE));
+    }
+
+    public static void handle(S2C_DefineTemplatePacket packet, Supplier<NetworkEvent.Context> ctx) {
+        NetworkEvent.Context context = ctx.get();
+        if (context.getDirection() == NetworkDirection.PLAY_TO_CLIENT) {
+            context.enqueueWork(() -> ClientTemplateCache.define(packet.templateId, packet.data));
+        }
+        context.setPacketHandled(true);
+    }
+}
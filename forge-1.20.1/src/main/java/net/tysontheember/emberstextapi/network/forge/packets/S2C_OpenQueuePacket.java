@@ -1,37 +1,34 @@
 package net.tysontheember.emberstextapi.network.forge.packets;
 
 import net.minecraft.client.Minecraft;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent;
 import net.tysontheember.emberstextapi.client.ClientMessageManager;
-import net.tysontheember.emberstextapi.client.QueuedMessage;
 import net.tysontheember.emberstextapi.client.QueueStep;
-import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Supplier;
 
-public record S2C_OpenQueuePacket(String channel, List<List<UUID>> ids, List<List<CompoundTag>> stepData) {
+/** Opens a queue; the messages of all steps travel as one {@link CompactCodec} payload, in step order. */
+public record S2C_OpenQueuePacket(String channel, List<List<UUID>> ids, byte[] data) {
 
     private static final int MAX_QUEUE_STEPS = 1024;
     private static final int MAX_MESSAGES_PER_STEP = 256;
 
     public static void encode(S2C_OpenQueuePacket packet, FriendlyByteBuf buf) {
         buf.writeUtf(packet.channel);
-        buf.writeVarInt(packet.stepData.size());
-        for (int s = 0; s < packet.stepData.size(); s++) {
-            List<UUID> stepIds = packet.ids.get(s);
-            List<CompoundTag> stepMsgs = packet.stepData.get(s);
-            buf.writeVarInt(stepMsgs.size());
-            for (int m = 0; m < stepMsgs.size(); m++) {
-                buf.writeUUID(stepIds.get(m));
-                buf.writeNbt(stepMsgs.get(m));
+        buf.writeVarInt(packet.ids.size());
+        for (List<UUID> stepIds : packet.ids) {
+            buf.writeVarInt(stepIds.size());
+            for (UUID id : stepIds) {
+                buf.writeUUID(id);
             }
         }
+        buf.writeByteArray(packet.data);
     }
 
     public static S2C_OpenQueuePacket decode(FriendlyByteBuf buf) {
@@ -41,23 +38,18 @@ public record S2C_OpenQueuePacket(String channel, List<List<UUID>> ids, List<Lis
             throw new io.netty.handler.codec.DecoderException("Invalid queue step count: " + stepCount);
         }
         List<List<UUID>> ids = new ArrayList<>(stepCount);
-        List<List<CompoundTag>> stepData = new ArrayList<>(stepCount);
         for (int s = 0; s < stepCount; s++) {
             int msgCount = buf.readVarInt();
             if (msgCount < 0 || msgCount > MAX_MESSAGES_PER_STEP) {
                 throw new io.netty.handler.codec.DecoderException("Invalid queue message count: " + msgCount);
             }
             List<UUID> stepIds = new ArrayList<>(msgCount);
-            List<CompoundTag> msgs = new ArrayList<>(msgCount);
             for (int m = 0; m < msgCount; m++) {
                 stepIds.add(buf.readUUID());
-                CompoundTag tag = buf.readNbt();
-                msgs.add(tag == null ? new CompoundTag() : tag);
             }
             ids.add(stepIds);
-            stepData.add(msgs);
         }
-        return new S2C_OpenQueuePacket(channel, ids, stepData);
+        return new S2C_OpenQueuePacket(channel, ids, buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE));
     }
 
     public static void handle(S2C_OpenQueuePacket packet, Supplier<NetworkEvent.Context> ctx) {
@@ -66,17 +58,7 @@ public record S2C_OpenQueuePacket(String channel, List<List<UUID>> ids, List<Lis
             context.enqueueWork(() -> {
                 Minecraft mc = Minecraft.getInstance();
                 if (mc.player != null) {
-                    List<QueueStep> steps = new ArrayList<>();
-                    for (int s = 0; s < packet.stepData.size(); s++) {
-                        List<QueuedMessage> msgs = new ArrayList<>();
-                        List<UUID> stepIds = packet.ids.get(s);
-                        List<CompoundTag> stepMsgs = packet.stepData.get(s);
-                        for (int m = 0; m < stepMsgs.size(); m++) {
-                            ImmersiveMessage message = ImmersiveMessage.fromNbt(stepMsgs.get(m));
-                            msgs.add(new QueuedMessage(stepIds.get(m), message));
-                        }
-                        steps.add(new QueueStep(msgs));
-                    }
+                    List<QueueStep> steps = CompactCodec.decodeQueue(packet.ids, packet.data);
                     ClientMessageManager.enqueueSteps(packet.channel, steps);
                 }
             });
@@ -0,0 +1,46 @@
+package net.tysontheember.emberstextapi.network.forge.packets;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkEvent;
+import net.tysontheember.emberstextapi.client.ClientMessageManager;
+import net.tysontheember.emberstextapi.client.ClientTemplateCache;
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
+import net.tysontheember.emberstextapi.serialization.SerializationUtil;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/** Opens a message from a template the client was sent earlier, carrying only the argument values. */
+public record S2C_OpenTemplatePacket(UUID id, String templateId, List<String> args) {
+    public static void encode(S2C_OpenTemplatePacket packet, FriendlyByteBuf buf) {
+        buf.writeUUID(packet.id);
+        buf.writeUtf(packet.templateId);
+        SerializationUtil.writeStringList(buf, packet.args);
+    }
+
+    public static S2C_OpenTemplatePacket decode(FriendlyByteBuf buf) {
+        UUID id = buf.readUUID();
+        String templateId = buf.readUtf();
+        return new S2C_OpenTemplatePacket(id, templateId, SerializationUtil.readStringList(buf, MessageTemplate.MAX_ARGS));
+    }
+
+    public static void handle(S2C_OpenTemplatePacket packet, Supplier<NetworkEvent.Context> ctx) {
+        NetworkEvent.Context context = ctx.get();
+        if (context.getDirection() == NetworkDirection.PLAY_TO_CLIENT) {
+            context.enqueueWork(() -> {
+                Minecraft mc = Minecraft.getInstance();
+                if (mc.player != null) {
+                    ImmersiveMessage message = ClientTemplateCache.fill(packet.templateId, packet.args);
+                    if (message != null) {
+                        ClientMessageManager.open(packet.id, message);
+                    }
+                }
+            });
+        }
+        context.setPacketHandled(true);
+    }
+}
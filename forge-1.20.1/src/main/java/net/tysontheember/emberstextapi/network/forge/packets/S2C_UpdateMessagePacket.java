@@ -1,26 +1,26 @@
 package net.tysontheember.emberstextapi.network.forge.packets;
 
 import net.minecraft.client.Minecraft;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent;
 import net.tysontheember.emberstextapi.client.ClientMessageManager;
-import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.network.forge.ForgeNetworkHandler;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
+import net.tysontheember.emberstextapi.serialization.MessageDelta;
 
 import java.util.UUID;
 import java.util.function.Supplier;
 
-public record S2C_UpdateMessagePacket(UUID id, CompoundTag nbt) {
+public record S2C_UpdateMessagePacket(UUID id, byte[] data) {
     public static void encode(S2C_UpdateMessagePacket packet, FriendlyByteBuf buf) {
         buf.writeUUID(packet.id);
-        buf.writeNbt(packet.nbt);
+        buf.writeByteArray(packet.data);
     }
 
     public static S2C_UpdateMessagePacket decode(FriendlyByteBuf buf) {
         UUID id = buf.readUUID();
-        CompoundTag tag = buf.readNbt();
-        return new S2C_UpdateMessagePacket(id, tag == null ? new CompoundTag() : tag);
+        return new S2C_UpdateMessagePacket(id, buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE));
     }
 
     public static void handle(S2C_UpdateMessagePacket packet, Supplier<NetworkEvent.Context> ctx) {
@@ -29,8 +29,9 @@ public record S2C_UpdateMessagePacket(UUID id, CompoundTag nbt) {
             context.enqueueWork(() -> {
                 Minecraft mc = Minecraft.getInstance();
                 if (mc.player != null) {
-                    ImmersiveMessage message = ImmersiveMessage.fromNbt(packet.nbt);
-                    ClientMessageManager.update(packet.id, message);
+                    if (!ClientMessageManager.update(packet.id, MessageDelta.decode(packet.data))) {
+                        ForgeNetworkHandler.CHANNEL.sendToServer(new C2S_ResyncMessagePacket(packet.id));
+                    }
                 }
             });
         }
@@ -9,6 +9,7 @@ import net.tysontheember.emberstextapi.EmbersTextAPI;
 import net.tysontheember.emberstextapi.network.forge.ForgeNetworkHandler;
 import net.tysontheember.emberstextapi.immersivemessages.ImmersiveMessagesManager;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
 
 import java.util.function.Supplier;
 
@@ -23,11 +24,11 @@ public class TooltipPacket {
     }
 
     public static void encode(TooltipPacket packet, FriendlyByteBuf buf) {
-        packet.message.encode(buf);
+        CompactCodec.writeMessage(packet.message, buf);
     }
 
     public static TooltipPacket decode(FriendlyByteBuf buf) {
-        return new TooltipPacket(ImmersiveMessage.decode(buf));
+        return new TooltipPacket(CompactCodec.readMessage(buf));
     }
 
     public static void handle(TooltipPacket packet, Supplier<NetworkEvent.Context> ctx) {
@@ -0,0 +1,120 @@
+package net.tysontheember.emberstextapi.glow;
+
+import com.google.common.collect.ImmutableMap;
+import net.tysontheember.emberstextapi.immersivemessages.effects.params.TypedParams;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.NeonEffect;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlowBakerTest {
+
+    /** 5x7 box with a crossbar, each glyph pixel scaled up to {@code scale} texels. */
+    private static byte[] glyph(int scale) {
+        int w = 5 * scale;
+        int h = 7 * scale;
+        byte[] coverage = new byte[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int gx = x / scale;
+                int gy = y / scale;
+                if (gx == 0 || gx == 4 || gy == 0 || gy == 3) {
+                    coverage[y * w + x] = (byte) 255;
+                }
+            }
+        }
+        return coverage;
+    }
+
+    /** What the sibling glow composites to: every discrete copy blended over the last. */
+    private static byte[] siblingGlow(byte[] coverage, int w, int h, int pad, float texelsPerUnit,
+                                      NeonEffect.Ring[] rings) {
+        int outW = w + 2 * pad;
+        int outH = h + 2 * pad;
+        float[] transmit = new float[outW * outH];
+        Arrays.fill(transmit, 1f);
+        for (NeonEffect.Ring ring : rings) {
+            if (ring.samples() <= 0 || ring.alpha() <= 0.01f) {
+                continue;
+            }
+            int lutStep = Math.max(1, GlowBaker.RING_STEPS / ring.samples());
+            for (int s = 0; s < ring.samples(); s++) {
+                double angle = Math.PI * 2.0 * ((s * lutStep) % GlowBaker.RING_STEPS) / GlowBaker.RING_STEPS;
+                float dx = (float) Math.cos(angle) * ring.radius() * texelsPerUnit;
+                float dy = (float) Math.sin(angle) * ring.radius() * texelsPerUnit;
+                for (int y = 0; y < outH; y++) {
+                    for (int x = 0; x < outW; x++) {
+                        transmit[y * outW + x] *= 1f - ring.alpha() * GlowBaker.sample(coverage, w, h, x - pad - dx, y - pad - dy);
+                    }
+                }
+            }
+        }
+        byte[] out = new byte[outW * outH];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (byte) Math.round((1f - transmit[i]) * 255f);
+        }
+        return out;
+    }
+
+    private static void assertCloseToSiblings(double radius, int scale, double maxMeanError) {
+        NeonEffect neon = new NeonEffect(new TypedParams(ImmutableMap.of("r", radius, "q", 3.0)));
+        NeonEffect.Ring[] rings = neon.rings();
+        byte[] coverage = glyph(scale);
+        int w = 5 * scale;
+        int h = 7 * scale;
+        int pad = GlowBaker.padding(rings, scale);
+
+        byte[] baked = GlowBaker.bake(coverage, w, h, pad, scale, rings);
+        byte[] expected = siblingGlow(coverage, w, h, pad, scale, rings);
+        assertEquals(expected.length, baked.length);
+
+        long bakedTotal = 0;
+        long expectedTotal = 0;
+        long error = 0;
+        for (int i = 0; i < baked.length; i++) {
+            int b = baked[i] & 0xFF;
+            int e = expected[i] & 0xFF;
+            bakedTotal += b;
+            expectedTotal += e;
+            error += Math.abs(b - e);
+        }
+        double ratio = (double) bakedTotal / expectedTotal;
+        assertTrue(Math.abs(ratio - 1.0) < 0.05, "total glow differs by " + ratio);
+        double meanError = (double) error / baked.length;
+        assertTrue(meanError < maxMeanError, "mean error " + meanError);
+    }
+
+    @Test
+    @DisplayName("Default glow on a bitmap glyph matches the sibling copies")
+    void testDefaultRadius() {
+        assertCloseToSiblings(2.0, 1, 4.0);
+    }
+
+    @Test
+    @DisplayName("Oversampled glyphs scale the rings with the texels")
+    void testOversampled() {
+        assertCloseToSiblings(2.0, 4, 10.0);
+    }
+
+    @Test
+    @DisplayName("Wide glow keeps the same total coverage")
+    void testWideRadius() {
+        // Sparse copies at a large radius show up as separate ghosts, which the bake smooths out, so
+        // only the total is held close here.
+        assertCloseToSiblings(8.0, 1, 20.0);
+    }
+
+    @Test
+    @DisplayName("Output is padded to fit the widest ring")
+    void testPadding() {
+        NeonEffect.Ring[] rings = {new NeonEffect.Ring(2.5f, 8, 0.3f)};
+        int pad = GlowBaker.padding(rings, 2f);
+        assertEquals(6, pad);
+        byte[] baked = GlowBaker.bake(glyph(1), 5, 7, pad, 2f, rings);
+        assertEquals((5 + 2 * pad) * (7 + 2 * pad), baked.length);
+        assertEquals(0, baked[0]);
+    }
+}
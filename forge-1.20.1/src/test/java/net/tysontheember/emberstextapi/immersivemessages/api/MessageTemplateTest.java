@@ -0,0 +1,71 @@
+package net.tysontheember.emberstextapi.immersivemessages.api;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.Style;
+import net.minecraft.network.chat.contents.LiteralContents;
+import net.minecraft.network.chat.contents.TranslatableContents;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    @BeforeAll
+    static void init() {
+        EffectRegistry.initializeDefaultEffects();
+    }
+
+    @Test
+    @DisplayName("Placeholders are replaced by index; unmatched ones are kept")
+    void testSubstitute() {
+        List<String> args = List.of("Steve", "3");
+        assertEquals("Steve has 3 hearts", MessageTemplate.substitute("{0} has {1} hearts", args));
+        assertEquals("{2} {x} {} {0", MessageTemplate.substitute("{2} {x} {} {0", args));
+        assertEquals("{Steve}", MessageTemplate.substitute("{{0}}", args));
+        assertEquals("no placeholders", MessageTemplate.substitute("no placeholders", args));
+    }
+
+    @Test
+    @DisplayName("Filling a template copies its spans and shares their effects")
+    void testFillSharesEffects() {
+        TextSpan name = new TextSpan("{0}");
+        name.addEffect(EffectRegistry.parseTag("wave a=2"));
+        ImmersiveMessage prototype = ImmersiveMessage.fromSpans(100f, List.of(name, new TextSpan(" joined")))
+                .shadow(false);
+        MessageTemplate template = new MessageTemplate("join", prototype);
+
+        ImmersiveMessage first = template.fill(List.of("Alex"));
+        ImmersiveMessage second = template.fill(List.of("Steve"));
+
+        assertEquals("Alex joined", first.getFullText());
+        assertEquals("Steve joined", second.getFullText());
+        assertEquals("{0} joined", prototype.getFullText());
+        assertSame(first.getSpans().get(0).getEffects().get(0), second.getSpans().get(0).getEffects().get(0));
+        assertEquals(prototype.durationTicks(), first.durationTicks());
+    }
+
+    @Test
+    @DisplayName("Filling a plain text template keeps its styles and translation keys")
+    void testFillKeepsStyle() {
+        Component text = Component.literal("{0}").withStyle(ChatFormatting.GOLD, ChatFormatting.BOLD)
+                .append(Component.literal(" joined").withStyle(ChatFormatting.GRAY))
+                .append(Component.translatable("multiplayer.player.joined", "{0}"));
+        MessageTemplate template = new MessageTemplate("join", new ImmersiveMessage(text, 100f));
+
+        Component filled = template.fill(List.of("Alex")).getText();
+        assertEquals("Alex", ((LiteralContents) filled.getContents()).text());
+        assertEquals(Style.EMPTY.applyFormats(ChatFormatting.GOLD, ChatFormatting.BOLD), filled.getStyle());
+        assertEquals(Style.EMPTY.applyFormat(ChatFormatting.GRAY), filled.getSiblings().get(0).getStyle());
+
+        TranslatableContents joined = (TranslatableContents) filled.getSiblings().get(1).getContents();
+        assertEquals("multiplayer.player.joined", joined.getKey());
+        assertEquals("Alex", joined.getArgs()[0]);
+        assertEquals("{0}", ((TranslatableContents) text.getSiblings().get(1).getContents()).getArgs()[0]);
+    }
+}
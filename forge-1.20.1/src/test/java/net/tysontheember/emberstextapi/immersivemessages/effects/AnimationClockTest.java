@@ -0,0 +1,36 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import net.tysontheember.emberstextapi.immersivemessages.effects.params.EmptyParams;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.WaveEffect;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnimationClockTest {
+
+    @Test
+    void settingsSnapshotTheFrameClock() throws InterruptedException {
+        AnimationClock.beginFrame();
+        long frame = AnimationClock.millis();
+        EffectSettings first = new EffectSettings(0f, 0f, 1f, 1f, 1f, 1f, 0, 'a', false);
+        Thread.sleep(5);
+        EffectSettings second = new EffectSettings(6f, 0f, 1f, 1f, 1f, 1f, 1, 'b', false);
+
+        assertEquals(frame, first.frameTimeMs);
+        assertEquals(frame, second.frameTimeMs);
+        assertEquals(frame, first.copy().frameTimeMs);
+        assertEquals(frame, EffectContext.frameTimeMs());
+    }
+
+    @Test
+    void glyphsInOneFrameAnimateTogether() throws InterruptedException {
+        WaveEffect wave = new WaveEffect(EmptyParams.INSTANCE);
+        AnimationClock.beginFrame();
+        EffectSettings first = new EffectSettings(0f, 0f, 1f, 1f, 1f, 1f, 3, 'a', false);
+        wave.apply(first);
+        Thread.sleep(20);
+        EffectSettings second = new EffectSettings(0f, 0f, 1f, 1f, 1f, 1f, 3, 'a', false);
+        wave.apply(second);
+        assertEquals(first.y, second.y);
+    }
+}
@@ -0,0 +1,116 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import com.google.common.collect.ImmutableMap;
+import net.tysontheember.emberstextapi.immersivemessages.effects.params.TypedParams;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.BounceEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.ColorEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.FadeEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.GradientEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.PendulumEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.PulseEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.RainbowEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.ShakeEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.SwingEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.WaveEffect;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EffectChainTest {
+
+    private static final long TIME = 123_456L;
+    private static final int GLYPHS = 24;
+
+    private static TypedParams params(Object... keyValues) {
+        ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            builder.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return new TypedParams(builder.build());
+    }
+
+    /** Runs {@code effects} once through a compiled chain and once per glyph, and compares every field. */
+    private static void assertMatchesPerGlyph(List<Effect> effects) {
+        EffectChain chain = EffectChain.compile(effects);
+        GlyphArrays glyphs = new GlyphArrays();
+        glyphs.clear(TIME, false);
+        for (int i = 0; i < GLYPHS; i++) {
+            glyphs.add(i, 'a' + i, 0.2f, 0.4f, 0.6f, 0.9f);
+        }
+        chain.applyBulk(glyphs, 0, GLYPHS);
+
+        for (int i = 0; i < GLYPHS; i++) {
+            EffectSettings expected = new EffectSettings(0f, 0f, 0.2f, 0.4f, 0.6f, 0.9f, i, 'a' + i, false);
+            expected.frameTimeMs = TIME;
+            EffectContext.applyEffects(effects, expected);
+
+            EffectSettings actual = new EffectSettings(0f, 0f, 0f, 0f, 0f, 0f, i, 'a' + i, false);
+            glyphs.store(i, actual);
+            chain.applyRest(actual);
+
+            assertEquals(expected.x, actual.x, 1e-5f, "x of glyph " + i);
+            assertEquals(expected.y, actual.y, 1e-5f, "y of glyph " + i);
+            assertEquals(expected.rot, actual.rot, 1e-5f, "rot of glyph " + i);
+            assertEquals(expected.r, actual.r, 1e-5f, "r of glyph " + i);
+            assertEquals(expected.g, actual.g, 1e-5f, "g of glyph " + i);
+            assertEquals(expected.b, actual.b, 1e-5f, "b of glyph " + i);
+            assertEquals(expected.a, actual.a, 1e-5f, "a of glyph " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk motion and color effects match the per-glyph path")
+    void testBulkMatchesPerGlyph() {
+        assertMatchesPerGlyph(List.of(
+                new WaveEffect(params("a", 2.0)),
+                new GradientEffect(params("colors", "FF000080,00FF00")),
+                new BounceEffect(params()),
+                new FadeEffect(params("w", 0.5)),
+                new PulseEffect(params()),
+                new SwingEffect(params("w", 1.0)),
+                new ShakeEffect(params()),
+                new PendulumEffect(params("r", 2.0))));
+    }
+
+    @Test
+    @DisplayName("Per-glyph effects keep their place after the bulk run")
+    void testPerGlyphRest() {
+        Effect nudge = new Effect() {
+            @Override
+            public void apply(@NotNull EffectSettings settings) {
+                settings.x += settings.r;
+            }
+
+            @NotNull
+            @Override
+            public String getName() {
+                return "nudge";
+            }
+        };
+        List<Effect> effects = List.of(new RainbowEffect(params()), nudge, new WaveEffect(params()));
+        EffectChain chain = EffectChain.compile(effects);
+        assertTrue(chain.hasRest());
+        assertEquals(1, chain.bulkEffects().size());
+        assertMatchesPerGlyph(effects);
+    }
+
+    @Test
+    @DisplayName("Overwritten colors are dropped and offsets are grouped")
+    void testCompile() {
+        ColorEffect red = new ColorEffect(params("col", "FF0000"));
+        WaveEffect wave = new WaveEffect(params());
+        RainbowEffect rainbow = new RainbowEffect(params());
+        BounceEffect bounce = new BounceEffect(params());
+        EffectChain chain = EffectChain.compile(List.of(red, wave, rainbow, bounce));
+        assertEquals(List.of(wave, bounce, rainbow), chain.bulkEffects());
+
+        // A translucent color still scales alpha, so it stays.
+        ColorEffect translucent = new ColorEffect(params("col", "FF000080"));
+        chain = EffectChain.compile(List.of(translucent, rainbow));
+        assertEquals(List.of(translucent, rainbow), chain.bulkEffects());
+    }
+}
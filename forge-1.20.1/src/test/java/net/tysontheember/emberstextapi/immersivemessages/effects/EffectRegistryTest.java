@@ -0,0 +1,40 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EffectRegistryTest {
+
+    @BeforeAll
+    static void initRegistry() {
+        if (!EffectRegistry.isLocked()) {
+            EffectRegistry.initializeDefaultEffects();
+        }
+    }
+
+    @Test
+    @DisplayName("Identical tags share one effect until the parse cache is invalidated")
+    void testParseTagInterns() {
+        Effect first = EffectRegistry.parseTag("wave a=2");
+        assertSame(first, EffectRegistry.parseTag(" wave a=2 "));
+        assertNotSame(first, EffectRegistry.parseTag("wave a=3"));
+
+        MarkupParseCache.invalidate();
+        Effect second = EffectRegistry.parseTag("wave a=2");
+        assertNotSame(first, second);
+
+        EffectRegistry.clearInterned();
+        assertNotSame(second, EffectRegistry.parseTag("wave a=2"));
+    }
+
+    @Test
+    @DisplayName("Unknown tags still fail and aren't remembered")
+    void testUnknownTag() {
+        assertThrows(IllegalArgumentException.class, () -> EffectRegistry.parseTag("nope"));
+        assertThrows(IllegalArgumentException.class, () -> EffectRegistry.parseTag("nope"));
+    }
+}
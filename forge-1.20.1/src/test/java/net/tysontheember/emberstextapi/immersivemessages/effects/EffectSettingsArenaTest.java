@@ -0,0 +1,88 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EffectSettingsArenaTest {
+
+    @Test
+    void releasedSlotsAreReused() {
+        EffectSettingsArena arena = new EffectSettingsArena();
+        int mark = arena.mark();
+        EffectSettings first = arena.acquire(1f, 2f, 1f, 1f, 1f, 1f, 0, 'a', false);
+        arena.release(mark);
+        EffectSettings second = arena.acquire(3f, 4f, 0.5f, 0.5f, 0.5f, 1f, 1, 'b', true);
+        assertSame(first, second);
+        assertEquals(3f, second.x);
+        assertEquals('b', second.codepoint);
+        assertTrue(second.isShadow);
+        assertEquals(-1, second.typewriterIndex);
+    }
+
+    @Test
+    void copiesComeFromTheSameArena() {
+        EffectSettingsArena arena = new EffectSettingsArena();
+        EffectSettings main = arena.acquire(0f, 0f, 1f, 1f, 1f, 1f, 0, 'a', false);
+        EffectSettings sibling = main.copy();
+        main.addSibling(sibling);
+        assertEquals(2, arena.used());
+
+        arena.release(0);
+        EffectSettings reused = arena.acquire(0f, 0f, 1f, 1f, 1f, 1f, 0, 'a', false);
+        assertSame(main, reused);
+        assertFalse(reused.hasSiblings());
+    }
+
+    @Test
+    void unpooledSettingsStillAllocate() {
+        EffectSettings settings = new EffectSettings(0f, 0f, 1f, 1f, 1f, 1f, 0, 'a', false);
+        EffectSettings copy = settings.copy();
+        assertNotSame(settings, copy);
+        assertEquals(settings.codepoint, copy.codepoint);
+    }
+
+    @Test
+    void arenaCapacityGrows() {
+        EffectSettingsArena arena = new EffectSettingsArena();
+        int initial = arena.capacity();
+        for (int i = 0; i <= initial; i++) {
+            arena.acquire();
+        }
+        assertTrue(arena.capacity() > initial);
+        assertEquals(initial + 1, arena.highWater());
+    }
+
+    @Test
+    void steadyStateGlyphsDoNotAllocate() {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        EffectSettingsArena arena = new EffectSettingsArena();
+        long tid = Thread.currentThread().getId();
+
+        float sink = 0f;
+        long allocated = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            long before = mx.getThreadAllocatedBytes(tid);
+            for (int glyph = 0; glyph < 10_000; glyph++) {
+                int mark = arena.mark();
+                EffectSettings settings = arena.acquire(glyph, 0f, 1f, 1f, 1f, 1f, glyph, 'a', false);
+                for (int i = 0; i < 28; i++) {
+                    EffectSettings ring = settings.copy();
+                    ring.x += i;
+                    settings.addSibling(ring);
+                }
+                List<EffectSettings> siblings = settings.getSiblingsOrEmpty();
+                for (int i = 0; i < siblings.size(); i++) {
+                    sink += siblings.get(i).x;
+                }
+                arena.release(mark);
+            }
+            allocated = mx.getThreadAllocatedBytes(tid) - before;
+        }
+        assertTrue(sink != 0f);
+        assertTrue(allocated < 64 * 1024, "steady-state allocation was " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,76 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QualityGovernorTest {
+
+    private static final long BUDGET = 2_000_000L;
+
+    @AfterEach
+    void reset() {
+        QualityGovernor.reset();
+    }
+
+    private static void frames(int count, long nanos) {
+        for (int i = 0; i < count; i++) {
+            QualityGovernor.endFrame(nanos, BUDGET);
+        }
+    }
+
+    @Test
+    void stepsDownAfterConsecutiveFramesOverBudget() {
+        frames(QualityGovernor.FRAMES_TO_STEP_DOWN - 1, BUDGET * 2);
+        assertEquals(0, QualityGovernor.level());
+        frames(1, BUDGET * 2);
+        assertEquals(1, QualityGovernor.level());
+        assertEquals(2, QualityGovernor.maxNeonQuality());
+
+        frames(QualityGovernor.FRAMES_TO_STEP_DOWN * 10, BUDGET * 2);
+        assertEquals(QualityGovernor.MAX_LEVEL, QualityGovernor.level());
+        assertEquals(2, QualityGovernor.maxGlitchSlices());
+        assertTrue(QualityGovernor.skipSubPixelMotion());
+    }
+
+    @Test
+    void singleSlowFrameDoesNotStepDown() {
+        for (int i = 0; i < 10; i++) {
+            frames(QualityGovernor.FRAMES_TO_STEP_DOWN - 1, BUDGET * 2);
+            frames(1, BUDGET / 4);
+        }
+        assertEquals(0, QualityGovernor.level());
+    }
+
+    @Test
+    void stepsBackUpOnlyWithHeadroom() {
+        frames(QualityGovernor.FRAMES_TO_STEP_DOWN, BUDGET * 2);
+        assertEquals(1, QualityGovernor.level());
+
+        // Just under budget isn't enough headroom.
+        frames(QualityGovernor.FRAMES_TO_STEP_UP * 2, BUDGET * 3 / 4);
+        assertEquals(1, QualityGovernor.level());
+
+        frames(QualityGovernor.FRAMES_TO_STEP_UP, BUDGET / 4);
+        assertEquals(0, QualityGovernor.level());
+        assertEquals(Integer.MAX_VALUE, QualityGovernor.maxSiblings());
+    }
+
+    @Test
+    void zeroBudgetDisablesGovernor() {
+        frames(QualityGovernor.FRAMES_TO_STEP_DOWN, BUDGET * 2);
+        QualityGovernor.endFrame(BUDGET * 100, 0);
+        assertEquals(0, QualityGovernor.level());
+    }
+
+    @Test
+    void siblingsAreCappedWhileSteppedDown() {
+        frames(QualityGovernor.FRAMES_TO_STEP_DOWN * QualityGovernor.MAX_LEVEL, BUDGET * 2);
+        EffectSettings settings = new EffectSettings(0f, 0f, 1f, 1f, 1f, 1f, 0, 'a', false);
+        for (int i = 0; i < 10; i++) {
+            settings.addSibling(settings.copy());
+        }
+        assertEquals(QualityGovernor.maxSiblings(), settings.getSiblingsOrEmpty().size());
+    }
+}
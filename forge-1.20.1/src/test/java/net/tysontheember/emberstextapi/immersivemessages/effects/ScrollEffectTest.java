@@ -0,0 +1,57 @@
+package net.tysontheember.emberstextapi.immersivemessages.effects;
+
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
+import net.tysontheember.emberstextapi.immersivemessages.effects.animation.ObfKey;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.ScrollEffect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.visual.ScrollTracks;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrollEffectTest {
+
+    private static final float ADVANCE = 6f;
+
+    @BeforeAll
+    static void init() {
+        EffectRegistry.initializeDefaultEffects();
+    }
+
+    /** Draws one frame of a span of {@code chars} glyphs starting at x = 0, keyed the way StyledRuns keys it. */
+    private static void drawFrame(Effect effect, Object spanKey, int chars) {
+        for (int i = 0; i < chars; i++) {
+            EffectSettings settings = new EffectSettings(i * ADVANCE, 0f, 1f, 1f, 1f, 1f, i, 'a', false);
+            settings.charAdvance = ADVANCE;
+            settings.obfuscateStableKey = spanKey;
+            effect.apply(settings);
+        }
+    }
+
+    @Test
+    @DisplayName("Identical scroll spans of different widths keep separate tracks")
+    void testIdenticalSpansMeasureSeparately() {
+        String shortText = "<scroll>ab</scroll>";
+        String longText = "<scroll>abcdef</scroll>";
+        MarkupParseCache.Entry shortEntry = MarkupParseCache.get(shortText);
+        MarkupParseCache.Entry longEntry = MarkupParseCache.get(longText);
+        assertTrue(shortEntry.needsSpanKeys());
+        assertTrue(longEntry.needsSpanKeys());
+
+        Effect shortEffect = shortEntry.spans().get(0).getEffects().get(0);
+        Effect longEffect = longEntry.spans().get(0).getEffects().get(0);
+        assertSame(shortEffect, longEffect, "identical tags share one interned effect");
+
+        Object shortKey = new ObfKey(shortText.intern(), 0);
+        Object longKey = new ObfKey(longText.intern(), 0);
+        for (int frame = 0; frame < 3; frame++) {
+            drawFrame(shortEffect, shortKey, 2);
+            drawFrame(longEffect, longKey, 6);
+        }
+
+        ScrollTracks tracks = ScrollTracks.getInstance();
+        assertEquals(2 * ADVANCE, tracks.get((ScrollEffect) shortEffect, shortKey).measuredSpanWidth, 1e-5f);
+        assertEquals(6 * ADVANCE, tracks.get((ScrollEffect) longEffect, longKey).measuredSpanWidth, 1e-5f);
+    }
+}
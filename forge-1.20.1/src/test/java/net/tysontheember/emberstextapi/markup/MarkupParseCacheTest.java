@@ -0,0 +1,67 @@
+package net.tysontheember.emberstextapi.markup;
+
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarkupParseCacheTest {
+
+    @BeforeEach
+    void reset() {
+        MarkupParseCache.invalidate();
+        MarkupParseCache.resetStats();
+    }
+
+    @AfterEach
+    void resetResolver() {
+        MarkupParser.setLangResolver(null);
+    }
+
+    @Test
+    void repeatedLookupsHitTheCache() {
+        MarkupParseCache.Entry first = MarkupParseCache.get("<bold>hi</bold> there");
+        MarkupParseCache.Entry second = MarkupParseCache.get("<bold>hi</bold> there");
+        assertSame(first, second);
+        assertEquals(1, MarkupParseCache.misses());
+        assertEquals(1, MarkupParseCache.hits());
+    }
+
+    @Test
+    void flagsDescribeSpans() {
+        MarkupParseCache.Entry styled = MarkupParseCache.get("<bold>hi</bold>");
+        assertTrue(styled.hasStyling());
+        assertFalse(styled.hasColor());
+        assertFalse(styled.hasTypewriter());
+        assertFalse(styled.hasObfuscate());
+
+        MarkupParseCache.Entry coloured = MarkupParseCache.get("<color value=#FF0000>hi</color>");
+        assertTrue(coloured.hasColor());
+    }
+
+    @Test
+    void spansAreReadOnly() {
+        MarkupParseCache.Entry entry = MarkupParseCache.get("<bold>hi</bold>");
+        assertThrows(UnsupportedOperationException.class, () -> entry.spans().clear());
+    }
+
+    @Test
+    void langResolverChangeInvalidates() {
+        MarkupParser.setLangResolver((key, args) -> "Diamond");
+        MarkupParseCache.Entry before = MarkupParseCache.get("<lang:item.minecraft.diamond>");
+        assertEquals("Diamond", before.spans().get(0).getContent());
+
+        MarkupParser.setLangResolver((key, args) -> "Diamant");
+        MarkupParseCache.Entry after = MarkupParseCache.get("<lang:item.minecraft.diamond>");
+        assertNotSame(before, after);
+        assertEquals("Diamant", after.spans().get(0).getContent());
+    }
+}
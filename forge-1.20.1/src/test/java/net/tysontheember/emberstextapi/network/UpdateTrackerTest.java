@@ -0,0 +1,84 @@
+package net.tysontheember.emberstextapi.network;
+
+import net.tysontheember.emberstextapi.client.ClientMessageManager;
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.TextSpan;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import net.tysontheember.emberstextapi.serialization.MessageDelta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpdateTrackerTest {
+
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    @BeforeAll
+    static void init() {
+        EffectRegistry.initializeDefaultEffects();
+    }
+
+    @AfterEach
+    void reset() {
+        UpdateTracker.forget(PLAYER);
+        ClientMessageManager.closeAll();
+    }
+
+    private static ImmersiveMessage countdown(String seconds) {
+        return ImmersiveMessage.fromSpans(200f, List.of(new TextSpan("Starting in "), new TextSpan(seconds), new TextSpan(" seconds")));
+    }
+
+    @Test
+    @DisplayName("A patch after the client closed everything is answered with a full resync")
+    void testPatchAfterCloseAll() {
+        UUID id = UUID.randomUUID();
+        assertTrue(ClientMessageManager.update(id, MessageDelta.decode(UpdateTracker.encode(PLAYER, id.toString(), countdown("3")))));
+
+        // The client drops its messages while the server still holds the baseline.
+        ClientMessageManager.closeAll();
+        MessageDelta.Update patch = MessageDelta.decode(UpdateTracker.encode(PLAYER, id.toString(), countdown("2")));
+        assertFalse(patch.isFull());
+        assertFalse(ClientMessageManager.update(id, patch));
+        assertEquals(0, ClientMessageManager.getActiveMessageCount());
+
+        byte[] resync = UpdateTracker.resync(PLAYER, id.toString());
+        assertNotNull(resync);
+        MessageDelta.Update full = MessageDelta.decode(resync);
+        assertTrue(full.isFull());
+        assertEquals("Starting in 2 seconds", full.message().getFullText());
+        assertTrue(ClientMessageManager.update(id, full));
+        assertEquals(1, ClientMessageManager.getActiveMessageCount());
+
+        // Later updates patch the resent message again.
+        MessageDelta.Update next = MessageDelta.decode(UpdateTracker.encode(PLAYER, id.toString(), countdown("1")));
+        assertFalse(next.isFull());
+        assertTrue(ClientMessageManager.update(id, next));
+    }
+
+    @Test
+    @DisplayName("Forgetting a player, as stopping all queues does, sends the next update in full")
+    void testForgetSendsFull() {
+        String id = UUID.randomUUID().toString();
+        UpdateTracker.encode(PLAYER, id, countdown("3"));
+        UpdateTracker.forget(PLAYER);
+        assertTrue(MessageDelta.decode(UpdateTracker.encode(PLAYER, id, countdown("2"))).isFull());
+        assertNull(UpdateTracker.resync(UUID.randomUUID(), id));
+    }
+
+    @Test
+    @DisplayName("Baselines of messages that expired on their own are dropped")
+    void testExpiredBaselinesDropped() {
+        // Ten ticks is already inside the expiry margin, so the baseline counts as expired right away.
+        UpdateTracker.encode(PLAYER, "short", ImmersiveMessage.builder(10f, "Gone soon"));
+        UpdateTracker.encode(PLAYER, "long", countdown("3"));
+        assertEquals(1, UpdateTracker.baselineCount(PLAYER));
+        assertNull(UpdateTracker.resync(PLAYER, "short"));
+        assertNotNull(UpdateTracker.resync(PLAYER, "long"));
+    }
+}
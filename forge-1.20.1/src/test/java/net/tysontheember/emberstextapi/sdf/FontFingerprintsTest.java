@@ -0,0 +1,37 @@
+package net.tysontheember.emberstextapi.sdf;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FontFingerprintsTest {
+
+    private static ByteBuffer randomFont(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    @Test
+    void hashIsDeterministicAndIgnoresBufferPosition() {
+        ByteBuffer a = randomFont(100_003, 1);
+        ByteBuffer b = ByteBuffer.allocateDirect(100_010);
+        b.position(7);
+        b.put(a.duplicate());
+        b.position(7);
+
+        assertEquals(FontFingerprints.fingerprint(a), FontFingerprints.fingerprint(b));
+        assertEquals(7, b.position());
+    }
+
+    @Test
+    void hashDetectsSingleByteChange() {
+        ByteBuffer a = randomFont(300_000, 2);
+        long before = FontFingerprints.fingerprint(a);
+        a.put(150_001, (byte) (a.get(150_001) + 1));
+        assertNotEquals(before, FontFingerprints.fingerprint(a));
+    }
+}
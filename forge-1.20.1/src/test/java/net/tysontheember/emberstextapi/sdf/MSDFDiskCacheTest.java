@@ -0,0 +1,84 @@
+package net.tysontheember.emberstextapi.sdf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MSDFDiskCacheTest {
+
+    private static final PreBakedMSDFCache.CacheKey KEY =
+            new PreBakedMSDFCache.CacheKey(0x1234L, 48, 4, 4.0f, 16.0f, 1.0f, 8.0f, 3.0f, 0f, 0f, "");
+
+    private static PreBakedMSDF glyph(int seed) {
+        byte[] data = new byte[4 * 3 * 3];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (seed * 31 + i);
+        }
+        return new PreBakedMSDF(data, 4, 3, seed * 0.5f, -seed, 1.25f);
+    }
+
+    @Test
+    void roundTripsAppendedGlyphs(@TempDir Path dir) {
+        MSDFDiskCache writer = MSDFDiskCache.open(dir, KEY);
+        writer.loadInto(new HashMap<>());
+        writer.append(65, glyph(1));
+        writer.append(66, glyph(2));
+
+        Map<Integer, PreBakedMSDF> loaded = new HashMap<>();
+        assertEquals(2, MSDFDiskCache.open(dir, KEY).loadInto(loaded));
+        PreBakedMSDF a = loaded.get(65);
+        assertArrayEquals(glyph(1).msdfData(), a.msdfData());
+        assertEquals(4, a.texW());
+        assertEquals(3, a.texH());
+        assertEquals(0.5f, a.bearingX());
+        assertEquals(-1f, a.bearingY());
+        assertEquals(1.25f, a.oversample());
+    }
+
+    @Test
+    void stopsAtCorruptRecordAndOverwritesIt(@TempDir Path dir) throws IOException {
+        MSDFDiskCache writer = MSDFDiskCache.open(dir, KEY);
+        writer.loadInto(new HashMap<>());
+        writer.append(65, glyph(1));
+        writer.append(66, glyph(2));
+
+        Path file = writer.file();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 10] ^= 0x7F;
+        Files.write(file, bytes);
+
+        MSDFDiskCache reopened = MSDFDiskCache.open(dir, KEY);
+        Map<Integer, PreBakedMSDF> loaded = new HashMap<>();
+        assertEquals(1, reopened.loadInto(loaded));
+        assertTrue(loaded.containsKey(65));
+
+        reopened.append(67, glyph(3));
+        loaded.clear();
+        assertEquals(2, MSDFDiskCache.open(dir, KEY).loadInto(loaded));
+        assertTrue(loaded.containsKey(67));
+    }
+
+    @Test
+    void ignoresFileWrittenForAnotherKey(@TempDir Path dir) throws IOException {
+        MSDFDiskCache writer = MSDFDiskCache.open(dir, KEY);
+        writer.loadInto(new HashMap<>());
+        writer.append(65, glyph(1));
+
+        PreBakedMSDFCache.CacheKey other =
+                new PreBakedMSDFCache.CacheKey(0x1234L, 64, 4, 4.0f, 16.0f, 1.0f, 8.0f, 3.0f, 0f, 0f, "");
+        Path otherFile = MSDFDiskCache.open(dir, other).file();
+        Files.copy(writer.file(), otherFile);
+
+        assertEquals(0, MSDFDiskCache.open(dir, other).loadInto(new HashMap<>()));
+        Files.write(otherFile, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        assertEquals(0, MSDFDiskCache.open(dir, other).loadInto(new HashMap<>()));
+    }
+}
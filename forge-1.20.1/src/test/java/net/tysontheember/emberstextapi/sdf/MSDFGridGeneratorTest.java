@@ -0,0 +1,99 @@
+package net.tysontheember.emberstextapi.sdf;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MSDFGridGeneratorTest {
+
+    private static void assertMatchesReference(GlyphOutline outline, int w, int h, double pxRange) {
+        EdgeColoring.ColoredContour[] colored = EdgeColoring.colorEdges(outline, 3.0);
+        byte[] expected = MSDFGenerator.generateReference(outline, colored, w, h,
+                outline.minX(), outline.minY(), outline.maxX(), outline.maxY(), pxRange);
+        byte[] actual = MSDFGridGenerator.generate(outline, colored, w, h,
+                outline.minX(), outline.minY(), outline.maxX(), outline.maxY(), pxRange);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Square matches reference")
+    void testSquare() {
+        GlyphOutline.Builder b = new GlyphOutline.Builder();
+        b.moveTo(0, 0);
+        b.lineTo(100, 0);
+        b.lineTo(100, 100);
+        b.lineTo(0, 100);
+        b.lineTo(0, 0);
+        assertMatchesReference(b.build(), 40, 40, 4.0);
+    }
+
+    @Test
+    @DisplayName("Ring with hole matches reference under both fill rules")
+    void testHole() {
+        for (boolean evenOdd : new boolean[]{false, true}) {
+            GlyphOutline.Builder b = new GlyphOutline.Builder();
+            b.moveTo(0, 0);
+            b.lineTo(200, 0);
+            b.lineTo(200, 200);
+            b.lineTo(0, 200);
+            b.lineTo(0, 0);
+            b.moveTo(50, 50);
+            b.lineTo(50, 150);
+            b.lineTo(150, 150);
+            b.lineTo(150, 50);
+            b.lineTo(50, 50);
+            b.setEvenOddFill(evenOdd);
+            assertMatchesReference(b.build(), 48, 48, 4.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Curved contours match reference, including reversed fill")
+    void testCurves() {
+        for (boolean reverse : new boolean[]{false, true}) {
+            GlyphOutline.Builder b = new GlyphOutline.Builder();
+            b.moveTo(0, 50);
+            b.conicTo(0, 0, 50, 0);
+            b.conicTo(100, 0, 100, 50);
+            b.cubicTo(100, 90, 80, 100, 50, 100);
+            b.cubicTo(20, 100, 0, 90, 0, 50);
+            b.moveTo(30, 50);
+            b.cubicTo(30, 70, 70, 70, 70, 50);
+            b.conicTo(50, 20, 30, 50);
+            b.setReverseFill(reverse);
+            assertMatchesReference(b.build(), 37, 41, 4.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Random self-intersecting outlines match reference")
+    void testRandomOutlines() {
+        Random random = new Random(0x5DF);
+        for (int n = 0; n < 24; n++) {
+            GlyphOutline.Builder b = new GlyphOutline.Builder();
+            int contours = 1 + random.nextInt(3);
+            for (int c = 0; c < contours; c++) {
+                float sx = random.nextFloat() * 500, sy = random.nextFloat() * 500;
+                b.moveTo(sx, sy);
+                int segments = 3 + random.nextInt(8);
+                for (int s = 0; s < segments; s++) {
+                    float x = random.nextFloat() * 500, y = random.nextFloat() * 500;
+                    switch (random.nextInt(3)) {
+                        case 0 -> b.lineTo(x, y);
+                        case 1 -> b.conicTo(random.nextFloat() * 500, random.nextFloat() * 500, x, y);
+                        default -> b.cubicTo(random.nextFloat() * 500, random.nextFloat() * 500,
+                                random.nextFloat() * 500, random.nextFloat() * 500, x, y);
+                    }
+                }
+                b.lineTo(sx, sy);
+            }
+            b.setEvenOddFill(random.nextBoolean());
+            GlyphOutline outline = b.build();
+            if (outline.contours().isEmpty()) continue;
+            assertMatchesReference(outline, 20 + random.nextInt(30), 20 + random.nextInt(30), 4.0);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package net.tysontheember.emberstextapi.serialization;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParser;
+import net.tysontheember.emberstextapi.immersivemessages.api.TextSpan;
+import net.tysontheember.emberstextapi.immersivemessages.effects.Effect;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import net.tysontheember.emberstextapi.immersivemessages.effects.NoOpEffect;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCodecTest {
+
+    private static final String MARKUP = "<font id=minecraft:uniform><bold><color value=#FFD700>Gold</color></bold> "
+            + "<wave a=1.5>and</wave> <shake>more</shake></font>";
+
+    @BeforeAll
+    static void init() {
+        EffectRegistry.initializeDefaultEffects();
+    }
+
+    private static FriendlyByteBuf encode(List<TextSpan> spans) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        CompactCodec.Writer out = new CompactCodec.Writer(buf);
+        for (TextSpan span : spans) {
+            TextSpanCodec.encodeCompact(span, out);
+        }
+        return buf;
+    }
+
+    @Test
+    @DisplayName("Spans survive a compact round trip")
+    void testSpanRoundTrip() {
+        List<TextSpan> spans = MarkupParser.parse(MARKUP);
+        FriendlyByteBuf buf = encode(spans);
+
+        CompactCodec.Reader in = new CompactCodec.Reader(buf);
+        for (TextSpan expected : spans) {
+            TextSpan actual = TextSpanCodec.decodeCompact(in);
+            assertEquals(expected.getContent(), actual.getContent());
+            assertEquals(expected.getBold(), actual.getBold());
+            assertEquals(expected.getColor(), actual.getColor());
+            assertEquals(expected.getFont(), actual.getFont());
+            assertEquals(expected.getEffects().size(), actual.getEffects().size());
+            for (int i = 0; i < expected.getEffects().size(); i++) {
+                assertEquals(expected.getEffects().get(i).serialize(), actual.getEffects().get(i).serialize());
+            }
+        }
+        assertFalse(buf.isReadable());
+    }
+
+    @Test
+    @DisplayName("Repeated fonts and effects are written once per payload")
+    void testTablesShrinkRepeats() {
+        List<TextSpan> once = MarkupParser.parse(MARKUP);
+        List<TextSpan> twice = new ArrayList<>(once);
+        twice.addAll(MarkupParser.parse(MARKUP));
+
+        int first = encode(once).writerIndex();
+        int both = encode(twice).writerIndex();
+        assertTrue(both - first < first, "second copy should reuse the string table");
+    }
+
+    @Test
+    @DisplayName("Typed effect params come back exactly and stay shared")
+    void testEffectRoundTrip() {
+        List<TextSpan> spans = new ArrayList<>();
+        for (String content : List.of("a", "b")) {
+            TextSpan span = new TextSpan(content);
+            span.addEffect(EffectRegistry.parseTag("grad colors=#FF0000,00ff00,#11223380"));
+            span.addEffect(EffectRegistry.parseTag("wave a=1.5 f=2 w=0.1 -3"));
+            spans.add(span);
+        }
+        TextSpan muted = new TextSpan("c");
+        muted.addEffect(new NoOpEffect("wave"));
+        spans.add(muted);
+
+        CompactCodec.Reader in = new CompactCodec.Reader(encode(spans));
+        List<TextSpan> decoded = new ArrayList<>();
+        for (int i = 0; i < spans.size(); i++) {
+            decoded.add(TextSpanCodec.decodeCompact(in));
+        }
+
+        for (int i = 0; i < 2; i++) {
+            List<Effect> expected = spans.get(i).getEffects();
+            List<Effect> actual = decoded.get(i).getEffects();
+            assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.get(j).serialize(), actual.get(j).serialize());
+            }
+        }
+        assertSame(decoded.get(0).getEffects().get(0), decoded.get(1).getEffects().get(0));
+        assertInstanceOf(NoOpEffect.class, decoded.get(2).getEffects().get(0));
+    }
+
+    @Test
+    @DisplayName("Compact payloads are smaller than NBT and the legacy encoding")
+    void testSmallerThanOlderFormats() {
+        ImmersiveMessage message = ImmersiveMessage.fromMarkup(100f, "<color value=#FFD700><bold>Legendary Sword</bold></color> "
+                + "<grad colors=#FF0000,#FFAA00>+12 Attack Damage</grad> <neon>Soulbound</neon> "
+                + "<typewriter speed=2><wave a=1.5>The ancient gate</wave> awaits</typewriter> "
+                + "<shake>beyond</shake> <rainbow>the Keeper</rainbow>");
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeNbt(message.toNbt());
+        int nbt = buf.writerIndex();
+        buf.clear();
+        message.encode(buf);
+        int legacy = buf.writerIndex();
+        int compact = CompactCodec.encode(message).length;
+        assertTrue(compact < legacy, "compact " + compact + " vs legacy " + legacy);
+        assertTrue(compact < nbt, "compact " + compact + " vs nbt " + nbt);
+
+        List<ImmersiveMessage> queue = new ArrayList<>();
+        buf.clear();
+        for (int i = 0; i < 8; i++) {
+            ImmersiveMessage step = ImmersiveMessage.fromMarkup(60f, "<font id=minecraft:uniform><grad colors=#FF0000,#FFAA00>"
+                    + "<wave a=1.5>Line " + i + "</wave></grad> of the <shake>tale</shake></font>").background(true);
+            queue.add(step);
+            buf.writeNbt(step.toNbt());
+        }
+        int queueNbt = buf.writerIndex();
+        buf.clear();
+        for (ImmersiveMessage step : queue) {
+            step.encode(buf);
+        }
+        int queueLegacy = buf.writerIndex();
+        int queueCompact = CompactCodec.encodeAll(queue).length;
+        // Shared tables should keep a queue well under the per-message NBT total.
+        assertTrue(queueCompact * 2 < queueNbt, "queue compact " + queueCompact + " vs nbt " + queueNbt);
+        assertTrue(queueCompact < queueLegacy, "queue compact " + queueCompact + " vs legacy " + queueLegacy);
+    }
+
+    @Test
+    @DisplayName("Payloads from another format version are rejected")
+    void testRejectsUnknownVersion() {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeVarInt(CompactCodec.VERSION + 1);
+        buf.writeVarInt(0);
+        assertThrows(io.netty.handler.codec.DecoderException.class, () -> CompactCodec.read(buf));
+    }
+}
@@ -0,0 +1,101 @@
+package net.tysontheember.emberstextapi.serialization;
+
+import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.TextSpan;
+import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageDeltaTest {
+
+    @BeforeAll
+    static void init() {
+        EffectRegistry.initializeDefaultEffects();
+    }
+
+    private static ImmersiveMessage countdown(String seconds) {
+        TextSpan label = new TextSpan("Starting in ");
+        label.addEffect(EffectRegistry.parseTag("wave a=2"));
+        return ImmersiveMessage.fromSpans(200f, List.of(label, new TextSpan(seconds), new TextSpan(" seconds")));
+    }
+
+    @Test
+    @DisplayName("A changed number is sent as a content patch and applied in place")
+    void testContentPatch() {
+        ImmersiveMessage sent = countdown("10");
+        ImmersiveMessage live = MessageDelta.decode(MessageDelta.full(sent)).message();
+
+        ImmersiveMessage next = countdown("9");
+        byte[] delta = MessageDelta.diff(MessageDelta.snapshot(sent), MessageDelta.snapshot(next), next);
+        assertNotNull(delta);
+        assertTrue(delta.length < MessageDelta.full(next).length);
+
+        MessageDelta.Update update = MessageDelta.decode(delta);
+        assertFalse(update.isFull());
+        update.applyTo(live);
+        assertEquals("Starting in 9 seconds", live.getFullText());
+        assertEquals(1, live.getSpans().get(0).getEffects().size());
+    }
+
+    @Test
+    @DisplayName("Added spans and changed settings are patched too")
+    void testSpanAndSettingsPatch() {
+        ImmersiveMessage sent = countdown("3");
+        ImmersiveMessage live = MessageDelta.decode(MessageDelta.full(sent)).message();
+
+        ImmersiveMessage next = countdown("2").scale(2f);
+        next.addSpan(new TextSpan("!"));
+        MessageDelta.decode(MessageDelta.diff(MessageDelta.snapshot(sent), MessageDelta.snapshot(next), next)).applyTo(live);
+        assertEquals("Starting in 2 seconds!", live.getFullText());
+        assertEquals(4, live.getSpans().size());
+        assertEquals(2f, live.getTextScale());
+    }
+
+    @Test
+    @DisplayName("Edits next to a surrogate pair keep the pair whole")
+    void testSurrogatePairs() {
+        // U+1F49A and U+1F49B share their high surrogate; U+1F49A and U+1F89A share their low one.
+        String[][] edits = {
+                {"💚", "💛"},
+                {"💚", "🢚"},
+                {"1💚", "2💚"},
+                {"💚1", "💚2"},
+        };
+        for (String[] edit : edits) {
+            ImmersiveMessage sent = countdown(edit[0]);
+            ImmersiveMessage live = MessageDelta.decode(MessageDelta.full(sent)).message();
+            ImmersiveMessage next = countdown(edit[1]);
+            MessageDelta.decode(MessageDelta.diff(MessageDelta.snapshot(sent), MessageDelta.snapshot(next), next)).applyTo(live);
+            assertEquals(next.getFullText(), live.getFullText());
+        }
+    }
+
+    @Test
+    @DisplayName("Plain text messages with new text go out in full")
+    void testPlainTextFallsBack() {
+        ImmersiveMessage first = ImmersiveMessage.builder(100f, "one");
+        ImmersiveMessage second = ImmersiveMessage.builder(100f, "two");
+        assertNull(MessageDelta.diff(MessageDelta.snapshot(first), MessageDelta.snapshot(second), second));
+    }
+
+    @Test
+    @DisplayName("Plain text messages with only new settings are patched")
+    void testPlainTextSettingsPatch() {
+        ImmersiveMessage sent = ImmersiveMessage.builder(100f, "Boss incoming");
+        ImmersiveMessage live = MessageDelta.decode(MessageDelta.full(sent)).message();
+
+        ImmersiveMessage next = ImmersiveMessage.builder(100f, "Boss incoming").scale(2f);
+        byte[] delta = MessageDelta.diff(MessageDelta.snapshot(sent), MessageDelta.snapshot(next), next);
+        assertNotNull(delta);
+        MessageDelta.Update update = MessageDelta.decode(delta);
+        assertFalse(update.isFull());
+        update.applyTo(live);
+        assertEquals("Boss incoming", live.getFullText());
+        assertEquals(2f, live.getTextScale());
+    }
+}
@@ -4,15 +4,21 @@ import com.mojang.logging.LogUtils;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModList;
 import net.neoforged.fml.common.Mod;
+import net.neoforged.fml.event.config.ModConfigEvent;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.OnDatapackSyncEvent;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
 import net.neoforged.neoforge.network.registration.PayloadRegistrar;
 import net.tysontheember.emberstextapi.commands.MessageCommands;
+import net.tysontheember.emberstextapi.immersivemessages.api.MarkupParseCache;
 import net.tysontheember.emberstextapi.immersivemessages.effects.EffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.MessageEffectRegistry;
 import net.tysontheember.emberstextapi.immersivemessages.effects.message.attr.MessageAttributeRegistry;
+import net.tysontheember.emberstextapi.network.TemplateRegistry;
+import net.tysontheember.emberstextapi.network.UpdateTracker;
 import net.tysontheember.emberstextapi.network.neoforge.NeoForgeNetworkHandler;
 import net.tysontheember.emberstextapi.platform.ConfigHelper;
 import net.tysontheember.emberstextapi.platform.NetworkHelper;
@@ -32,8 +38,11 @@ public class EmbersTextAPI {
         modEventBus.addListener(this::commonSetup);
 
         modEventBus.addListener(this::registerPayloads);
+        modEventBus.addListener(this::onConfigReload);
 
         NeoForge.EVENT_BUS.addListener(this::onRegisterCommands);
+        NeoForge.EVENT_BUS.addListener(this::onPlayerLoggedOut);
+        NeoForge.EVENT_BUS.addListener(this::onDatapackSync);
 
         checkIncompatibleMods();
     }
@@ -45,6 +54,11 @@ public class EmbersTextAPI {
         }
     }
 
+    private void onConfigReload(ModConfigEvent.Reloading event) {
+        // Parsed markup and interned effects bake in whether each effect is disabled.
+        MarkupParseCache.invalidate();
+    }
+
     private void commonSetup(FMLCommonSetupEvent event) {
         event.enqueueWork(() -> {
             EffectRegistry.initializeDefaultEffects();
@@ -56,7 +70,7 @@ public class EmbersTextAPI {
 
     private void registerPayloads(RegisterPayloadHandlersEvent event) {
         PayloadRegistrar registrar = event.registrar(MODID)
-            .versioned("3")
+            .versioned(NeoForgeNetworkHandler.PROTOCOL_VERSION)
             .optional();
 
         registrar.playToClient(
@@ -107,6 +121,24 @@ public class EmbersTextAPI {
             NeoForgeNetworkHandler::handleStopQueue
         );
 
+        registrar.playToClient(
+            NeoForgeNetworkHandler.DefineTemplatePayload.TYPE,
+            NeoForgeNetworkHandler.DefineTemplatePayload.STREAM_CODEC,
+            NeoForgeNetworkHandler::handleDefineTemplate
+        );
+
+        registrar.playToClient(
+            NeoForgeNetworkHandler.OpenTemplatePayload.TYPE,
+            NeoForgeNetworkHandler.OpenTemplatePayload.STREAM_CODEC,
+            NeoForgeNetworkHandler::handleOpenTemplate
+        );
+
+        registrar.playToServer(
+            NeoForgeNetworkHandler.ResyncMessagePayload.TYPE,
+            NeoForgeNetworkHandler.ResyncMessagePayload.STREAM_CODEC,
+            NeoForgeNetworkHandler::handleResyncMessage
+        );
+
         LOGGER.info("Network payloads registered");
     }
 
@@ -114,6 +146,17 @@ public class EmbersTextAPI {
         MessageCommands.register(event.getDispatcher());
     }
 
+    private void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        TemplateRegistry.forget(event.getEntity().getUUID());
+        UpdateTracker.forget(event.getEntity().getUUID());
+    }
+
+    private void onDatapackSync(OnDatapackSyncEvent event) {
+        if (event.getPlayer() == null) {
+            TemplateRegistry.forgetAll();
+        }
+    }
+
     public static void sendMessage(net.minecraft.server.level.ServerPlayer player,
                                    net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage message) {
         NetworkHelper.getInstance().sendMessage(player, message);
@@ -31,6 +31,7 @@ public class ModConfig {
 
     public static final ModConfigSpec.BooleanValue REDUCE_MOTION;
     public static final ModConfigSpec.IntValue MAX_NEON_QUALITY;
+    public static final ModConfigSpec.DoubleValue EFFECT_FRAME_BUDGET_MS;
 
     public static final ModConfigSpec.IntValue TEXT_LAYOUT_CACHE_SIZE;
     public static final ModConfigSpec.BooleanValue SDF_ENABLED;
@@ -105,6 +106,10 @@ public class ModConfig {
             .comment("Caps neon/glow quality. 1=fast(6 samples), 2=balanced(12), 3=quality(20). Lower for better performance.")
             .defineInRange("maxNeonQuality", 3, 1, 3);
 
+        EFFECT_FRAME_BUDGET_MS = CLIENT_BUILDER
+            .comment("Milliseconds per frame text effects may use. When exceeded, neon, glitch and sibling effects step down in quality until there is headroom again. 0 = never step down.")
+            .defineInRange("effectFrameBudgetMs", 2.0, 0.0, 100.0);
+
         CLIENT_BUILDER.pop();
 
         CLIENT_BUILDER.comment("Limits").push("limits");
@@ -218,6 +223,14 @@ public class ModConfig {
         }
     }
 
+    public static double getEffectFrameBudgetMs() {
+        try {
+            return EFFECT_FRAME_BUDGET_MS.get();
+        } catch (Exception e) {
+            return 2.0;
+        }
+    }
+
     public static int getTextLayoutCacheSize() {
         try {
             return TEXT_LAYOUT_CACHE_SIZE.get();
@@ -92,6 +92,11 @@ public class NeoForgeConfigHelper implements ConfigHelper {
         return net.tysontheember.emberstextapi.config.ModConfig.getMaxNeonQuality();
     }
 
+    @Override
+    public double getEffectFrameBudgetMs() {
+        return net.tysontheember.emberstextapi.config.ModConfig.getEffectFrameBudgetMs();
+    }
+
     @Override
     public int getTextLayoutCacheSize() {
         return net.tysontheember.emberstextapi.config.ModConfig.getTextLayoutCacheSize();
@@ -161,9 +161,7 @@ public class MessageCommands {
             msg = ImmersiveMessage.builder(duration, text);
         }
 
-        for (ServerPlayer target : targets) {
-            EmbersTextAPI.sendMessage(target, msg);
-        }
+        NetworkHelper.getInstance().broadcastMessage(targets, msg);
         return Command.SINGLE_SUCCESS;
     }
 
@@ -210,9 +208,7 @@ public class MessageCommands {
                                 steps.add(stepMsgs);
                             }
 
-                            for (ServerPlayer target : targets) {
-                                NetworkHelper.getInstance().sendQueue(target, channel, steps);
-                            }
+                            NetworkHelper.getInstance().broadcastQueue(targets, channel, steps);
                             return Command.SINGLE_SUCCESS;
                         }))));
     }
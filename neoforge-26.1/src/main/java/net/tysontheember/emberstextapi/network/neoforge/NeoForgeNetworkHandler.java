@@ -1,6 +1,6 @@
 package net.tysontheember.emberstextapi.network.neoforge;
 
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.core.HolderLookup;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
@@ -9,13 +9,19 @@ import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.neoforge.network.PacketDistributor;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
 import net.tysontheember.emberstextapi.client.QueueStep;
-import net.tysontheember.emberstextapi.client.QueuedMessage;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
+import net.tysontheember.emberstextapi.immersivemessages.api.MessageTemplate;
+import net.tysontheember.emberstextapi.network.TemplateRegistry;
+import net.tysontheember.emberstextapi.network.UpdateTracker;
+import net.tysontheember.emberstextapi.serialization.CompactCodec;
+import net.tysontheember.emberstextapi.serialization.MessageDelta;
+import net.tysontheember.emberstextapi.serialization.SerializationUtil;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,7 +30,7 @@ public final class NeoForgeNetworkHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger("EmbersTextAPI/Network");
     private static final int MAX_QUEUE_STEPS = 1024;
     private static final int MAX_MESSAGES_PER_STEP = 256;
-    private static final String PROTOCOL_VERSION = "3";
+    public static final String PROTOCOL_VERSION = "7";
     public static final Identifier CHANNEL = Identifier.fromNamespaceAndPath("emberstextapi", "tooltip");
 
     public static void register() {
@@ -32,40 +38,52 @@ public final class NeoForgeNetworkHandler {
     }
 
     public static void sendMessage(ServerPlayer player, ImmersiveMessage message) {
-        PacketDistributor.sendToPlayer(player, new TooltipPayload(message.toNbt(player.registryAccess())));
+        PacketDistributor.sendToPlayer(player, new TooltipPayload(CompactCodec.encode(message, player.registryAccess())));
     }
 
     public static void sendOpenMessage(ServerPlayer player, ImmersiveMessage message) {
         UUID id = UUID.randomUUID();
-        PacketDistributor.sendToPlayer(player, new OpenMessagePayload(id, message.toNbt(player.registryAccess())));
+        PacketDistributor.sendToPlayer(player, new OpenMessagePayload(id, CompactCodec.encode(message, player.registryAccess())));
     }
 
     public static void sendUpdateMessage(ServerPlayer player, String messageId, ImmersiveMessage message) {
-        PacketDistributor.sendToPlayer(player, new UpdateMessagePayload(messageId, message.toNbt(player.registryAccess())));
+        PacketDistributor.sendToPlayer(player, new UpdateMessagePayload(messageId,
+                UpdateTracker.encode(player.getUUID(), messageId, message, player.registryAccess())));
+    }
+
+    /** Resends a message in full to a client that asked for it, if it is still open here. */
+    public static void resendMessage(ServerPlayer player, String messageId) {
+        byte[] data = UpdateTracker.resync(player.getUUID(), messageId, player.registryAccess());
+        if (data != null) {
+            PacketDistributor.sendToPlayer(player, new UpdateMessagePayload(messageId, data));
+        }
     }
 
     public static void sendCloseMessage(ServerPlayer player, String messageId) {
+        UpdateTracker.forget(player.getUUID(), messageId);
         PacketDistributor.sendToPlayer(player, new CloseMessagePayload(messageId));
     }
 
     public static void sendCloseAllMessages(ServerPlayer player) {
+        UpdateTracker.forget(player.getUUID());
         PacketDistributor.sendToPlayer(player, new CloseAllMessagesPayload());
     }
 
     public static void sendQueue(ServerPlayer player, String channel, List<List<ImmersiveMessage>> steps) {
+        PacketDistributor.sendToPlayer(player, queuePayload(channel, steps, player.registryAccess()));
+    }
+
+    private static OpenQueuePayload queuePayload(String channel, List<List<ImmersiveMessage>> steps,
+                                                 HolderLookup.Provider registries) {
         List<List<UUID>> ids = new ArrayList<>();
-        List<List<CompoundTag>> stepData = new ArrayList<>();
         for (List<ImmersiveMessage> stepMsgs : steps) {
             List<UUID> stepIds = new ArrayList<>();
-            List<CompoundTag> stepNbts = new ArrayList<>();
-            for (ImmersiveMessage msg : stepMsgs) {
+            for (int i = 0; i < stepMsgs.size(); i++) {
                 stepIds.add(UUID.randomUUID());
-                stepNbts.add(msg.toNbt(player.registryAccess()));
             }
             ids.add(stepIds);
-            stepData.add(stepNbts);
         }
-        PacketDistributor.sendToPlayer(player, new OpenQueuePayload(channel, ids, stepData));
+        return new OpenQueuePayload(channel, ids, CompactCodec.encodeQueue(steps, registries));
     }
 
     public static void sendClearQueue(ServerPlayer player, String channel) {
@@ -81,16 +99,74 @@ public final class NeoForgeNetworkHandler {
     }
 
     public static void sendStopAllQueues(ServerPlayer player) {
+        // Stopping every queue closes all of the client's messages, not just queued ones.
+        UpdateTracker.forget(player.getUUID());
         PacketDistributor.sendToPlayer(player, new StopQueuePayload(""));
     }
 
-    public record TooltipPayload(CompoundTag data) implements CustomPacketPayload {
+    public static void broadcastMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        if (!players.isEmpty()) {
+            broadcast(players, new TooltipPayload(CompactCodec.encode(message, registries(players))));
+        }
+    }
+
+    public static void broadcastOpenMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        if (!players.isEmpty()) {
+            broadcast(players, new OpenMessagePayload(UUID.randomUUID(), CompactCodec.encode(message, registries(players))));
+        }
+    }
+
+    public static void broadcastQueue(Collection<ServerPlayer> players, String channel, List<List<ImmersiveMessage>> steps) {
+        if (!players.isEmpty()) {
+            broadcast(players, queuePayload(channel, steps, registries(players)));
+        }
+    }
+
+    public static void sendTemplate(ServerPlayer player, MessageTemplate template, List<String> args) {
+        if (TemplateRegistry.markSent(player.getUUID(), template)) {
+            PacketDistributor.sendToPlayer(player, defineTemplatePayload(template, player.registryAccess()));
+        }
+        PacketDistributor.sendToPlayer(player, new OpenTemplatePayload(UUID.randomUUID(), template.id(), args));
+    }
+
+    public static void broadcastTemplate(Collection<ServerPlayer> players, MessageTemplate template, List<String> args) {
+        if (players.isEmpty()) {
+            return;
+        }
+        List<ServerPlayer> missing = new ArrayList<>();
+        for (ServerPlayer player : players) {
+            if (TemplateRegistry.markSent(player.getUUID(), template)) {
+                missing.add(player);
+            }
+        }
+        if (!missing.isEmpty()) {
+            broadcast(missing, defineTemplatePayload(template, registries(missing)));
+        }
+        broadcast(players, new OpenTemplatePayload(UUID.randomUUID(), template.id(), args));
+    }
+
+    private static DefineTemplatePayload defineTemplatePayload(MessageTemplate template, HolderLookup.Provider registries) {
+        return new DefineTemplatePayload(template.id(), CompactCodec.encode(template.prototype(), registries));
+    }
+
+    /** Every player on a server shares its registries, so any one of them serializes for all. */
+    private static HolderLookup.Provider registries(Collection<ServerPlayer> players) {
+        return players.iterator().next().registryAccess();
+    }
+
+    private static void broadcast(Collection<ServerPlayer> players, CustomPacketPayload payload) {
+        for (ServerPlayer player : players) {
+            PacketDistributor.sendToPlayer(player, payload);
+        }
+    }
+
+    public record TooltipPayload(byte[] data) implements CustomPacketPayload {
         public static final CustomPacketPayload.Type<TooltipPayload> TYPE =
             new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "tooltip"));
 
         public static final StreamCodec<FriendlyByteBuf, TooltipPayload> STREAM_CODEC = StreamCodec.of(
-            (buf, payload) -> buf.writeNbt(payload.data),
-            buf -> new TooltipPayload(buf.readNbt())
+            (buf, payload) -> buf.writeByteArray(payload.data),
+            buf -> new TooltipPayload(buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE))
         );
 
         @Override
@@ -99,16 +175,16 @@ public final class NeoForgeNetworkHandler {
         }
     }
 
-    public record OpenMessagePayload(UUID id, CompoundTag data) implements CustomPacketPayload {
+    public record OpenMessagePayload(UUID id, byte[] data) implements CustomPacketPayload {
         public static final CustomPacketPayload.Type<OpenMessagePayload> TYPE =
             new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "open_message"));
 
         public static final StreamCodec<FriendlyByteBuf, OpenMessagePayload> STREAM_CODEC = StreamCodec.of(
             (buf, payload) -> {
                 buf.writeUUID(payload.id);
-                buf.writeNbt(payload.data);
+                buf.writeByteArray(payload.data);
             },
-            buf -> new OpenMessagePayload(buf.readUUID(), buf.readNbt())
+            buf -> new OpenMessagePayload(buf.readUUID(), buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE))
         );
 
         @Override
@@ -117,16 +193,32 @@ public final class NeoForgeNetworkHandler {
         }
     }
 
-    public record UpdateMessagePayload(String messageId, CompoundTag data) implements CustomPacketPayload {
+    public record UpdateMessagePayload(String messageId, byte[] data) implements CustomPacketPayload {
         public static final CustomPacketPayload.Type<UpdateMessagePayload> TYPE =
             new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "update_message"));
 
         public static final StreamCodec<FriendlyByteBuf, UpdateMessagePayload> STREAM_CODEC = StreamCodec.of(
             (buf, payload) -> {
                 buf.writeUtf(payload.messageId);
-                buf.writeNbt(payload.data);
+                buf.writeByteArray(payload.data);
             },
-            buf -> new UpdateMessagePayload(buf.readUtf(), buf.readNbt())
+            buf -> new UpdateMessagePayload(buf.readUtf(), buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE))
+        );
+
+        @Override
+        public @NotNull Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+
+    /** Sent by a client that got a patch for a message it no longer shows, asking for the message in full. */
+    public record ResyncMessagePayload(String messageId) implements CustomPacketPayload {
+        public static final CustomPacketPayload.Type<ResyncMessagePayload> TYPE =
+            new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "resync_message"));
+
+        public static final StreamCodec<FriendlyByteBuf, ResyncMessagePayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> buf.writeUtf(payload.messageId),
+            buf -> new ResyncMessagePayload(buf.readUtf())
         );
 
         @Override
@@ -165,7 +257,7 @@ public final class NeoForgeNetworkHandler {
         }
     }
 
-    public record OpenQueuePayload(String channel, List<List<UUID>> ids, List<List<CompoundTag>> stepData)
+    public record OpenQueuePayload(String channel, List<List<UUID>> ids, byte[] data)
             implements CustomPacketPayload {
 
         public static final CustomPacketPayload.Type<OpenQueuePayload> TYPE =
@@ -175,15 +267,13 @@ public final class NeoForgeNetworkHandler {
             (buf, payload) -> {
                 buf.writeUtf(payload.channel);
                 buf.writeVarInt(payload.ids.size());
-                for (int s = 0; s < payload.ids.size(); s++) {
-                    List<UUID> stepIds = payload.ids.get(s);
-                    List<CompoundTag> stepNbts = payload.stepData.get(s);
+                for (List<UUID> stepIds : payload.ids) {
                     buf.writeVarInt(stepIds.size());
-                    for (int m = 0; m < stepIds.size(); m++) {
-                        buf.writeUUID(stepIds.get(m));
-                        buf.writeNbt(stepNbts.get(m));
+                    for (UUID id : stepIds) {
+                        buf.writeUUID(id);
                     }
                 }
+                buf.writeByteArray(payload.data);
             },
             buf -> {
                 String channel = buf.readUtf();
@@ -192,22 +282,18 @@ public final class NeoForgeNetworkHandler {
                     throw new io.netty.handler.codec.DecoderException("Invalid queue step count: " + stepCount);
                 }
                 List<List<UUID>> ids = new ArrayList<>(stepCount);
-                List<List<CompoundTag>> stepData = new ArrayList<>(stepCount);
                 for (int s = 0; s < stepCount; s++) {
                     int msgCount = buf.readVarInt();
                     if (msgCount < 0 || msgCount > MAX_MESSAGES_PER_STEP) {
                         throw new io.netty.handler.codec.DecoderException("Invalid queue message count: " + msgCount);
                     }
                     List<UUID> stepIds = new ArrayList<>(msgCount);
-                    List<CompoundTag> stepNbts = new ArrayList<>(msgCount);
                     for (int m = 0; m < msgCount; m++) {
                         stepIds.add(buf.readUUID());
-                        stepNbts.add(buf.readNbt());
                     }
                     ids.add(stepIds);
-                    stepData.add(stepNbts);
                 }
-                return new OpenQueuePayload(channel, ids, stepData);
+                return new OpenQueuePayload(channel, ids, buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE));
             }
         );
 
@@ -247,13 +333,51 @@ public final class NeoForgeNetworkHandler {
         }
     }
 
+    public record DefineTemplatePayload(String templateId, byte[] data) implements CustomPacketPayload {
+        public static final CustomPacketPayload.Type<DefineTemplatePayload> TYPE =
+            new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "define_template"));
+
+        public static final StreamCodec<FriendlyByteBuf, DefineTemplatePayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> {
+                buf.writeUtf(payload.templateId);
+                buf.writeByteArray(payload.data);
+            },
+            buf -> new DefineTemplatePayload(buf.readUtf(), buf.readByteArray(CompactCodec.MAX_PAYLOAD_SIZE))
+        );
+
+        @Override
+        public @NotNull Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+
+    public record OpenTemplatePayload(UUID id, String templateId, List<String> args) implements CustomPacketPayload {
+        public static final CustomPacketPayload.Type<OpenTemplatePayload> TYPE =
+            new CustomPacketPayload.Type<>(Identifier.fromNamespaceAndPath("emberstextapi", "open_template"));
+
+        public static final StreamCodec<FriendlyByteBuf, OpenTemplatePayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> {
+                buf.writeUUID(payload.id);
+                buf.writeUtf(payload.templateId);
+                SerializationUtil.writeStringList(buf, payload.args);
+            },
+            buf -> new OpenTemplatePayload(buf.readUUID(), buf.readUtf(),
+                SerializationUtil.readStringList(buf, MessageTemplate.MAX_ARGS))
+        );
+
+        @Override
+        public @NotNull Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+
     public static void handleTooltip(TooltipPayload payload, IPayloadContext context) {
         if (payload.data == null) {
             return;
         }
         context.enqueueWork(() -> {
             net.minecraft.core.HolderLookup.Provider provider = context.player().registryAccess();
-            ImmersiveMessage message = ImmersiveMessage.fromNbt(payload.data, provider);
+            ImmersiveMessage message = CompactCodec.decode(payload.data, provider);
             net.tysontheember.emberstextapi.client.ClientMessageManager.open(UUID.randomUUID(), message);
         });
     }
@@ -264,7 +388,7 @@ public final class NeoForgeNetworkHandler {
         }
         context.enqueueWork(() -> {
             net.minecraft.core.HolderLookup.Provider provider = context.player().registryAccess();
-            ImmersiveMessage message = ImmersiveMessage.fromNbt(payload.data, provider);
+            ImmersiveMessage message = CompactCodec.decode(payload.data, provider);
             net.tysontheember.emberstextapi.client.ClientMessageManager.open(payload.id, message);
         });
     }
@@ -282,8 +406,18 @@ public final class NeoForgeNetworkHandler {
         }
         context.enqueueWork(() -> {
             net.minecraft.core.HolderLookup.Provider provider = context.player().registryAccess();
-            ImmersiveMessage message = ImmersiveMessage.fromNbt(payload.data, provider);
-            net.tysontheember.emberstextapi.client.ClientMessageManager.update(id, message);
+            MessageDelta.Update update = MessageDelta.decode(payload.data, provider);
+            if (!net.tysontheember.emberstextapi.client.ClientMessageManager.update(id, update)) {
+                context.reply(new ResyncMessagePayload(payload.messageId));
+            }
+        });
+    }
+
+    public static void handleResyncMessage(ResyncMessagePayload payload, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() instanceof ServerPlayer player) {
+                resendMessage(player, payload.messageId);
+            }
         });
     }
 
@@ -308,17 +442,7 @@ public final class NeoForgeNetworkHandler {
     public static void handleOpenQueue(OpenQueuePayload payload, IPayloadContext context) {
         context.enqueueWork(() -> {
             net.minecraft.core.HolderLookup.Provider provider = context.player().registryAccess();
-            List<QueueStep> steps = new ArrayList<>();
-            for (int s = 0; s < payload.ids().size(); s++) {
-                List<UUID> stepIds = payload.ids().get(s);
-                List<CompoundTag> stepNbts = payload.stepData().get(s);
-                List<QueuedMessage> messages = new ArrayList<>();
-                for (int m = 0; m < stepIds.size(); m++) {
-                    ImmersiveMessage msg = ImmersiveMessage.fromNbt(stepNbts.get(m), provider);
-                    messages.add(new QueuedMessage(stepIds.get(m), msg));
-                }
-                steps.add(new QueueStep(messages));
-            }
+            List<QueueStep> steps = CompactCodec.decodeQueue(payload.ids(), payload.data(), provider);
             net.tysontheember.emberstextapi.client.ClientMessageManager.enqueueSteps(payload.channel(), steps);
         });
     }
@@ -342,4 +466,20 @@ public final class NeoForgeNetworkHandler {
             }
         });
     }
+
+    public static void handleDefineTemplate(DefineTemplatePayload payload, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            net.minecraft.core.HolderLookup.Provider provider = context.player().registryAccess();
+            net.tysontheember.emberstextapi.client.ClientTemplateCache.define(payload.templateId(), payload.data(), provider);
+        });
+    }
+
+    public static void handleOpenTemplate(OpenTemplatePayload payload, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            ImmersiveMessage message = net.tysontheember.emberstextapi.client.ClientTemplateCache.fill(payload.templateId(), payload.args());
+            if (message != null) {
+                net.tysontheember.emberstextapi.client.ClientMessageManager.open(payload.id(), message);
+            }
+        });
+    }
 }
@@ -3,8 +3,10 @@ package net.tysontheember.emberstextapi.network.neoforge;
 import net.minecraft.server.level.ServerPlayer;
 import net.tysontheember.emberstextapi.immersivemessages.api.ImmersiveMessage;
 import net.tysontheember.emberstextapi.network.ServerMessageLimiter;
+import net.tysontheember.emberstextapi.network.TemplateRegistry;
 import net.tysontheember.emberstextapi.platform.NetworkHelper;
 
+import java.util.Collection;
 import java.util.List;
 
 public class NeoForgeNetworkHelper implements NetworkHelper {
@@ -66,4 +68,32 @@ public class NeoForgeNetworkHelper implements NetworkHelper {
     public void sendStopAllQueues(ServerPlayer player) {
         NeoForgeNetworkHandler.sendStopAllQueues(player);
     }
+
+    @Override
+    public void broadcastMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        ServerMessageLimiter.sanitize(message);
+        NeoForgeNetworkHandler.broadcastMessage(players, message);
+    }
+
+    @Override
+    public void broadcastOpenMessage(Collection<ServerPlayer> players, ImmersiveMessage message) {
+        ServerMessageLimiter.sanitize(message);
+        NeoForgeNetworkHandler.broadcastOpenMessage(players, message);
+    }
+
+    @Override
+    public void broadcastQueue(Collection<ServerPlayer> players, String channel, List<List<ImmersiveMessage>> steps) {
+        steps = ServerMessageLimiter.sanitizeQueue(steps);
+        NeoForgeNetworkHandler.broadcastQueue(players, channel, steps);
+    }
+
+    @Override
+    public void sendTemplate(ServerPlayer player, String templateId, List<String> args) {
+        NeoForgeNetworkHandler.sendTemplate(player, TemplateRegistry.get(templateId), TemplateRegistry.checkArgs(args));
+    }
+
+    @Override
+    public void broadcastTemplate(Collection<ServerPlayer> players, String templateId, List<String> args) {
+        NeoForgeNetworkHandler.broadcastTemplate(players, TemplateRegistry.get(templateId), TemplateRegistry.checkArgs(args));
+    }
 }